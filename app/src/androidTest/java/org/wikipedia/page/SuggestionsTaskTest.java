@@ -3,7 +3,6 @@ package org.wikipedia.page;
 
 import org.junit.Test;
 import org.wikipedia.Constants;
-import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.search.SearchResult;
 import org.wikipedia.search.SearchResults;
@@ -24,14 +23,12 @@ import static org.wikipedia.test.TestUtil.runOnMainSync;
 public class SuggestionsTaskTest {
     private static final WikiSite WIKI = WikiSite.forLanguageCode("en"); // suggestions don't seem to work on testwiki
 
-    private WikipediaApp app = WikipediaApp.getInstance();
-
     @Test public void testTask() {
         final TestLatch latch = new TestLatch();
         runOnMainSync(new Runnable() {
             @Override
             public void run() {
-                new SuggestionsTask(app.getAPIForSite(WIKI), WIKI, "test", false) {
+                new SuggestionsTask(WIKI, "test", false) {
                     @Override
                     public void onFinish(SearchResults results) {
                         assertThat(results, notNullValue());
@@ -2,7 +2,6 @@ package org.wikipedia.search;
 
 
 import org.junit.Test;
-import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.testlib.TestLatch;
 
@@ -25,8 +24,7 @@ public class FullSearchArticlesTaskTest {
         runOnMainSync(new Runnable() {
             @Override
             public void run() {
-                WikipediaApp app = WikipediaApp.getInstance();
-                new FullSearchArticlesTask(app.getAPIForSite(WIKI), WIKI, "test", BATCH_SIZE, null, false) {
+                new FullSearchArticlesTask(WIKI, "test", BATCH_SIZE, null, false) {
                     @Override
                     public void onFinish(SearchResults results) {
                         assertThat(results, notNullValue());
@@ -56,7 +54,7 @@ public class FullSearchArticlesTaskTest {
 //            @Override
 //            public void run() {
 //                WikipediaApp app = WikipediaApp.getInstance();
-//                new FullSearchArticlesTask(app.getAPIForSite(WIKI), WIKI, "teest", BATCH_SIZE, null) { // small typo should produce a suggestion
+//                new FullSearchArticlesTask(WIKI, "teest", BATCH_SIZE, null) { // small typo should produce a suggestion
 //                    @Override
 //                    public void onFinish(SearchResults results) {
 //                        assertNotNull(results);
@@ -74,8 +72,7 @@ public class FullSearchArticlesTaskTest {
         runOnMainSync(new Runnable() {
             @Override
             public void run() {
-                WikipediaApp app = WikipediaApp.getInstance();
-                new FullSearchArticlesTask(app.getAPIForSite(WIKI), WIKI, "jkfsdfpefdsfwoirpoik", BATCH_SIZE, null, false) { // total gibberish, should not exist on enwiki
+                new FullSearchArticlesTask(WIKI, "jkfsdfpefdsfwoirpoik", BATCH_SIZE, null, false) { // total gibberish, should not exist on enwiki
                     @Override
                     public void onFinish(SearchResults results) {
                         assertThat(results, notNullValue());
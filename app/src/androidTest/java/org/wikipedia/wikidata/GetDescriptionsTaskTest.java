@@ -2,7 +2,6 @@ package org.wikipedia.wikidata;
 
 
 import org.junit.Test;
-import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.page.PageTitle;
 import org.wikipedia.testlib.TestLatch;
@@ -43,8 +42,7 @@ public class GetDescriptionsTaskTest {
         runOnMainSync(new Runnable() {
             @Override
             public void run() {
-                WikipediaApp app = WikipediaApp.getInstance();
-                new GetDescriptionsTask(app.getAPIForSite(WIKI), WIKI, idList) {
+                new GetDescriptionsTask(WIKI, idList) {
                     @Override
                     public void onFinish(Map<PageTitle, Void> descriptionsMap) {
                         assertThat(descriptionsMap, notNullValue());
@@ -4,15 +4,20 @@ function Bridge() {
 
 var eventHandlers = {};
 
-// This is called directly from Java
-window.handleMessage = function( type, msgPointer ) {
-    var that = this;
-    var payload = JSON.parse( marshaller.getPayload( msgPointer ) );
+function dispatch( that, type, payload ) {
     if ( eventHandlers.hasOwnProperty( type ) ) {
         eventHandlers[type].forEach( function( callback ) {
             callback.call( that, payload );
         } );
     }
+}
+
+// This is called directly from Java with every message queued in the same frame, in order
+window.handleMessages = function( msgPointer ) {
+    var that = this;
+    JSON.parse( marshaller.getPayload( msgPointer ) ).forEach( function( message ) {
+        dispatch( that, message.type, message.payload );
+    } );
 };
 
 Bridge.prototype.registerListener = function( messageType, callback ) {
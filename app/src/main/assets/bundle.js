@@ -89,6 +89,37 @@ document.onclick = function() {
     }
 };
 
+// The most links reported at once for prefetching their previews.
+var MAX_VISIBLE_LINKS = 20;
+
+/**
+ * Reports the article links that are on screen, each title once and in document order, so that
+ * their previews can be prefetched.
+ */
+bridge.registerListener( "requestVisibleLinks", function() {
+    var links = [];
+    var titles = [];
+    var anchors = document.querySelectorAll( 'a[href^="/wiki/"]' );
+    for ( var i = 0; i < anchors.length && links.length < MAX_VISIBLE_LINKS; i++ ) {
+        var anchor = anchors[i];
+        if ( anchor.hasAttribute( "data-action" ) || anchor.classList.contains( 'image' ) ||
+                anchor.classList.contains( 'app_media' ) ) {
+            continue;
+        }
+        var rect = anchor.getBoundingClientRect();
+        if ( rect.width === 0 || rect.bottom < 0 || rect.top > window.innerHeight ) {
+            continue;
+        }
+        var href = anchor.getAttribute( "href" );
+        var title = getTitle( anchor, href );
+        if ( titles.indexOf( title ) === -1 ) {
+            titles.push( title );
+            links.push( { "href": href, "title": title } );
+        }
+    }
+    bridge.sendMessage( 'visibleLinks', { "links": links } );
+});
+
 module.exports = new ActionsHandler();
 
 },{"./bridge":2,"./utilities":25}],2:[function(require,module,exports){
@@ -97,15 +128,20 @@ function Bridge() {
 
 var eventHandlers = {};
 
-// This is called directly from Java
-window.handleMessage = function( type, msgPointer ) {
-    var that = this;
-    var payload = JSON.parse( marshaller.getPayload( msgPointer ) );
+function dispatch( that, type, payload ) {
     if ( eventHandlers.hasOwnProperty( type ) ) {
         eventHandlers[type].forEach( function( callback ) {
             callback.call( that, payload );
         } );
     }
+}
+
+// This is called directly from Java with every message queued in the same frame, in order
+window.handleMessages = function( msgPointer ) {
+    var that = this;
+    JSON.parse( marshaller.getPayload( msgPointer ) ).forEach( function( message ) {
+        dispatch( that, message.type, message.payload );
+    } );
 };
 
 Bridge.prototype.registerListener = function( messageType, callback ) {
@@ -577,33 +613,37 @@ function elementsForSection( section ) {
 
 var scrolledOnLoad = false;
 
-bridge.registerListener( "displaySection", function ( payload ) {
-    if ( payload.noMore ) {
-        // if we still haven't scrolled to our target offset (if we have one),
-        // then do it now.
-        if (payload.scrollY > 0 && !scrolledOnLoad) {
+function displaySection( section, payload ) {
+    var contentWrapper = document.getElementById( "content" );
+    elementsForSection(section).forEach(function (element) {
+        contentWrapper.appendChild(element);
+        // do we have a y-offset to scroll to?
+        if (payload.scrollY > 0 && payload.scrollY < element.offsetTop && !scrolledOnLoad) {
             window.scrollTo( 0, payload.scrollY );
             scrolledOnLoad = true;
         }
-        document.getElementById( "loading_sections").className = "";
-        bridge.sendMessage( "pageLoadComplete", {
-          "sequence": payload.sequence });
-    } else {
-        var contentWrapper = document.getElementById( "content" );
-        elementsForSection(payload.section).forEach(function (element) {
-            contentWrapper.appendChild(element);
-            // do we have a y-offset to scroll to?
-            if (payload.scrollY > 0 && payload.scrollY < element.offsetTop && !scrolledOnLoad) {
-                window.scrollTo( 0, payload.scrollY );
-                scrolledOnLoad = true;
-            }
-        });
-        // do we have a section to scroll to?
-        if ( typeof payload.fragment === "string" && payload.fragment.length > 0 && payload.section.anchor === payload.fragment) {
-            scrollToSection( payload.fragment );
-        }
-        bridge.sendMessage( "requestSection", { "sequence": payload.sequence, "index": payload.section.id + 1 });
+    });
+    // do we have a section to scroll to?
+    if ( typeof payload.fragment === "string" && payload.fragment.length > 0 && section.anchor === payload.fragment) {
+        scrollToSection( payload.fragment );
     }
+}
+
+// All remaining sections are delivered in a single message rather than requested one at a time.
+bridge.registerListener( "displaySections", function ( payload ) {
+    payload.sections.forEach( function ( section ) {
+        displaySection( section, payload );
+    } );
+
+    // if we still haven't scrolled to our target offset (if we have one),
+    // then do it now.
+    if (payload.scrollY > 0 && !scrolledOnLoad) {
+        window.scrollTo( 0, payload.scrollY );
+        scrolledOnLoad = true;
+    }
+    document.getElementById( "loading_sections").className = "";
+    bridge.sendMessage( "pageLoadComplete", {
+      "sequence": payload.sequence });
 });
 
 bridge.registerListener( "scrollToSection", function ( payload ) {
@@ -89,6 +89,37 @@ document.onclick = function() {
     }
 };
 
+// The most links reported at once for prefetching their previews.
+var MAX_VISIBLE_LINKS = 20;
+
+/**
+ * Reports the article links that are on screen, each title once and in document order, so that
+ * their previews can be prefetched.
+ */
+bridge.registerListener( "requestVisibleLinks", function() {
+    var links = [];
+    var titles = [];
+    var anchors = document.querySelectorAll( 'a[href^="/wiki/"]' );
+    for ( var i = 0; i < anchors.length && links.length < MAX_VISIBLE_LINKS; i++ ) {
+        var anchor = anchors[i];
+        if ( anchor.hasAttribute( "data-action" ) || anchor.classList.contains( 'image' ) ||
+                anchor.classList.contains( 'app_media' ) ) {
+            continue;
+        }
+        var rect = anchor.getBoundingClientRect();
+        if ( rect.width === 0 || rect.bottom < 0 || rect.top > window.innerHeight ) {
+            continue;
+        }
+        var href = anchor.getAttribute( "href" );
+        var title = getTitle( anchor, href );
+        if ( titles.indexOf( title ) === -1 ) {
+            titles.push( title );
+            links.push( { "href": href, "title": title } );
+        }
+    }
+    bridge.sendMessage( 'visibleLinks', { "links": links } );
+});
+
 module.exports = new ActionsHandler();
 
 },{"./bridge":2,"./utilities":8}],2:[function(require,module,exports){
@@ -97,15 +128,20 @@ function Bridge() {
 
 var eventHandlers = {};
 
-// This is called directly from Java
-window.handleMessage = function( type, msgPointer ) {
-    var that = this;
-    var payload = JSON.parse( marshaller.getPayload( msgPointer ) );
+function dispatch( that, type, payload ) {
     if ( eventHandlers.hasOwnProperty( type ) ) {
         eventHandlers[type].forEach( function( callback ) {
             callback.call( that, payload );
         } );
     }
+}
+
+// This is called directly from Java with every message queued in the same frame, in order
+window.handleMessages = function( msgPointer ) {
+    var that = this;
+    JSON.parse( marshaller.getPayload( msgPointer ) ).forEach( function( message ) {
+        dispatch( that, message.type, message.payload );
+    } );
 };
 
 Bridge.prototype.registerListener = function( messageType, callback ) {
@@ -76,8 +76,9 @@ public final class CacheDelegateInterceptor implements Interceptor {
     }
 
     // Change: the true cache further down the chain must be used directly to retrieve non-network
-    // responses
-    if (networkRequest == null && cacheResponse == null) {
+    // responses, unless the request is only for a saved response
+    if (networkRequest == null && cacheResponse == null
+        && !CacheDelegateStrategy.isSavedOnly(chain.request())) {
       cacheResponse = secondaryCache.get(chain.request());
     }
 
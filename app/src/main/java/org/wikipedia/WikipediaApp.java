@@ -17,7 +17,7 @@ import com.squareup.leakcanary.LeakCanary;
 import com.squareup.leakcanary.RefWatcher;
 import com.squareup.otto.Bus;
 
-import org.mediawiki.api.json.Api;
+import org.wikipedia.analytics.EventLoggingUploader;
 import org.wikipedia.analytics.FunnelManager;
 import org.wikipedia.analytics.SessionFunnel;
 import org.wikipedia.auth.AccountUtil;
@@ -25,6 +25,7 @@ import org.wikipedia.crash.CrashReporter;
 import org.wikipedia.crash.hockeyapp.HockeyAppCrashReporter;
 import org.wikipedia.database.Database;
 import org.wikipedia.database.DatabaseClient;
+import org.wikipedia.database.SearchIndexRow;
 import org.wikipedia.dataclient.SharedPreferenceCookieManager;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
@@ -47,8 +48,10 @@ import org.wikipedia.readinglist.database.ReadingListRow;
 import org.wikipedia.readinglist.page.ReadingListPageObserver;
 import org.wikipedia.readinglist.page.ReadingListPageRow;
 import org.wikipedia.readinglist.page.database.ReadingListPageHttpRow;
+import org.wikipedia.readinglist.page.database.ReadingListPageMemberRow;
 import org.wikipedia.readinglist.page.database.disk.ReadingListPageDiskRow;
 import org.wikipedia.savedpages.SavedPage;
+import org.wikipedia.savedpages.SavedPageImage;
 import org.wikipedia.search.RecentSearch;
 import org.wikipedia.settings.Prefs;
 import org.wikipedia.settings.RemoteConfig;
@@ -84,7 +87,6 @@ public class WikipediaApp extends Application {
 
     private final RemoteConfig remoteConfig = new RemoteConfig();
     private final Map<Class<?>, DatabaseClient<?>> databaseClients = Collections.synchronizedMap(new HashMap<Class<?>, DatabaseClient<?>>());
-    private final Map<String, Api> apis = new HashMap<>();
     private AppLanguageState appLanguageState;
     private FunnelManager funnelManager;
     private SessionFunnel sessionFunnel;
@@ -158,8 +160,6 @@ public class WikipediaApp extends Application {
 
         enableWebViewDebugging();
 
-        Api.setConnectionFactory(new OkHttpConnectionFactory());
-
         ImagePipelineConfig config = ImagePipelineConfig.newBuilder(this)
                 .setNetworkFetcher(new CacheableOkHttpNetworkFetcher(OkHttpConnectionFactory.getClient()))
                 .build();
@@ -170,6 +170,7 @@ public class WikipediaApp extends Application {
 
         UserOptionContentResolver.registerAppSyncObserver(this);
         readingListPageObserver.register(this);
+        EventLoggingUploader.instance().register(this);
 
         listenForNotifications();
     }
@@ -212,23 +213,6 @@ public class WikipediaApp extends Application {
                 appLanguageState.getSystemLanguageCode());
     }
 
-    public Api getAPIForSite(WikiSite wiki) {
-        String host = wiki.host();
-        String acceptLanguage = getAcceptLanguage(wiki);
-        Map<String, String> customHeaders = buildCustomHeadersMap(acceptLanguage);
-        Api api;
-
-        String cachedApiKey = host + "-" + acceptLanguage;
-        if (apis.containsKey(cachedApiKey)) {
-            api = apis.get(cachedApiKey);
-        } else {
-            api = new Api(host, wiki.port(), wiki.secureScheme(),
-                    wiki.path("api.php"), customHeaders);
-            apis.put(cachedApiKey, api);
-        }
-        return api;
-    }
-
     /**
      * Default wiki for the app
      * You should use PageTitle.getWikiSite() to get the article wiki
@@ -242,15 +226,6 @@ public class WikipediaApp extends Application {
         return wiki;
     }
 
-    /**
-     * Convenience method to get an API object for the app wiki.
-     *
-     * @return An API object that is equivalent to calling getAPIForSite(WikiSite)
-     */
-    public Api getSiteApi() {
-        return getAPIForSite(getWikiSite());
-    }
-
     @Nullable
     public String getAppLanguageCode() {
         return appLanguageState.getAppLanguageCode();
@@ -340,6 +315,8 @@ public class WikipediaApp extends Application {
                 client = new DatabaseClient<>(this, RecentSearch.DATABASE_TABLE);
             } else if (cls.equals(SavedPage.class)) {
                 client = new DatabaseClient<>(this, SavedPage.DATABASE_TABLE);
+            } else if (cls.equals(SavedPageImage.class)) {
+                client = new DatabaseClient<>(this, SavedPageImage.DATABASE_TABLE);
             } else if (cls.equals(EditSummary.class)) {
                 client = new DatabaseClient<>(this, EditSummary.DATABASE_TABLE);
             } else if (cls.equals(UserOption.class)) {
@@ -352,8 +329,12 @@ public class WikipediaApp extends Application {
                 client = new DatabaseClient<>(this, ReadingListPageRow.HTTP_DATABASE_TABLE);
             } else if (cls.equals(ReadingListPageDiskRow.class)) {
                 client = new DatabaseClient<>(this, ReadingListPageRow.DISK_DATABASE_TABLE);
+            } else if (cls.equals(ReadingListPageMemberRow.class)) {
+                client = new DatabaseClient<>(this, ReadingListPageRow.MEMBER_DATABASE_TABLE);
             } else if (cls.equals(ReadingListRow.class)) {
                 client = new DatabaseClient<>(this, ReadingListRow.DATABASE_TABLE);
+            } else if (cls.equals(SearchIndexRow.class)) {
+                client = new DatabaseClient<>(this, SearchIndexRow.DATABASE_TABLE);
             } else {
                 throw new RuntimeException("No persister found for class " + cls.getCanonicalName());
             }
@@ -517,25 +498,6 @@ public class WikipediaApp extends Application {
         notificationReceiver.startPollTask(this);
     }
 
-    // For java-mwapi API requests.
-    // If adding a new header here (before this method is removed), make sure to duplicate it
-    // in the Retrofit header list (OkHttpConnectionFactory#CommonHeaderInterceptor).
-    @Deprecated
-    private Map<String, String> buildCustomHeadersMap(String acceptLanguage) {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("User-Agent", getUserAgent());
-
-        if (isEventLoggingEnabled()) {
-            headers.put("X-WMF-UUID", getAppInstallID());
-        } else {
-            // Send do-not-track header if the user has opted out of event logging
-            headers.put("DNT", "1");
-        }
-
-        headers.put("Accept-Language", acceptLanguage);
-        return headers;
-    }
-
     private void initAppLang() {
         appLanguageState = new AppLanguageState(this);
         boolean langNotSet = getAppLanguageCode() == null;
@@ -4,16 +4,10 @@ import android.net.Uri;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.wikipedia.concurrency.SaneAsyncTask;
 import org.wikipedia.crash.RemoteLogException;
-import org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory;
 import org.wikipedia.util.ReleaseUtil;
 import org.wikipedia.util.log.L;
 
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
-
 /**
  * Base class for all various types of events that are logged to EventLogging.
  *
@@ -22,7 +16,6 @@ import okhttp3.Response;
  * Updating schemas / revisions is also easier this way.
  */
 public class EventLoggingEvent {
-    private static final RequestBody EMPTY_REQ = RequestBody.create(null, new byte[0]);
     private static final String EVENTLOG_URL_PROD = "https://meta.wikimedia.org/beacon/event";
     private static final String EVENTLOG_URL_DEV = "https://deployment.wikimedia.beta.wmflabs.org/beacon/event";
     private static final String EVENTLOG_URL = ReleaseUtil.isPreBetaRelease()
@@ -57,43 +50,18 @@ public class EventLoggingEvent {
     /**
      * Log the current event.
      *
-     * Returns immediately after queueing the network request in the background.
+     * Returns immediately after queueing the event for upload in the background.
      */
     public void log() {
-        new LogEventTask(data).execute();
-    }
-
-    private class LogEventTask extends SaneAsyncTask<Integer> {
-        private final JSONObject data;
-
-        LogEventTask(JSONObject data) {
-            this.data = data;
-        }
-
-        @Override
-        public Integer performTask() throws Throwable {
-            String dataURL = Uri.parse(EVENTLOG_URL)
-                    .buildUpon().query(data.toString())
-                    .build().toString();
+        String dataURL = Uri.parse(EVENTLOG_URL)
+                .buildUpon().query(data.toString())
+                .build().toString();
 
-            if (dataURL.length() > MAX_URL_LEN) {
-                L.logRemoteErrorIfProd(new RemoteLogException("EventLogging max length exceeded")
-                        .put("length", String.valueOf(dataURL.length())));
-            }
-
-            Request request = new Request.Builder().url(dataURL).post(EMPTY_REQ).build();
-            Response response = OkHttpConnectionFactory.getClient().newCall(request).execute();
-            try {
-                return response.code();
-            } finally {
-                response.close();
-            }
+        if (dataURL.length() > MAX_URL_LEN) {
+            L.logRemoteErrorIfProd(new RemoteLogException("EventLogging max length exceeded")
+                    .put("length", String.valueOf(dataURL.length())));
         }
 
-        @Override
-        public void onCatch(Throwable caught) {
-            // Do nothing bad. EL data is ok to lose.
-            L.d("Lost EL data: " + data.toString());
-        }
+        EventLoggingUploader.instance().add(dataURL);
     }
 }
@@ -0,0 +1,379 @@
+package org.wikipedia.analytics;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.format.DateUtils;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory;
+import org.wikipedia.util.DeviceUtil;
+import org.wikipedia.util.FileUtil;
+import org.wikipedia.util.log.L;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.internal.Util;
+
+/**
+ * A persistent queue of EventLogging beacons uploaded in batches. Events are appended to a file as
+ * they are logged and survive being offline and restarts. The queue is flushed once it holds
+ * enough events, once its oldest event is old enough, or when another app's or our own traffic has
+ * already woken the radio. Each flush sends every queued event over the same connection.
+ *
+ * A failed flush is retried with exponential backoff. While offline, a flush is instead retried
+ * at the minimum interval without backing off. Beyond a fixed count, the oldest events are dropped;
+ * events the server rejects and events cleared when the user opts out are dropped too.
+ */
+public final class EventLoggingUploader {
+    @VisibleForTesting static final int MAX_EVENTS = 500;
+    @VisibleForTesting static final int FLUSH_EVENTS = 20;
+    @VisibleForTesting static final long FLUSH_AGE_MILLIS = DateUtils.MINUTE_IN_MILLIS * 15;
+    @VisibleForTesting static final long MIN_RETRY_MILLIS = DateUtils.MINUTE_IN_MILLIS;
+    @VisibleForTesting static final long MAX_RETRY_MILLIS = DateUtils.HOUR_IN_MILLIS * 6;
+    private static final String FILENAME = "eventlogging_queue.txt";
+    private static final RequestBody EMPTY_REQ = RequestBody.create(null, new byte[0]);
+
+    private static final EventLoggingUploader INSTANCE = new EventLoggingUploader(
+            new File(WikipediaApp.getInstance().getFilesDir(), FILENAME),
+            Executors.newSingleThreadExecutor(), OkHttpConnectionFactory.getClient());
+
+    @NonNull private final File file;
+    @NonNull private final Executor executor;
+    @NonNull private final OkHttpClient client;
+    @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+    @NonNull private final Runnable flushRunnable = new Runnable() {
+        @Override public void run() {
+            executor.execute(new Runnable() {
+                @Override public void run() {
+                    flush(System.currentTimeMillis(), false);
+                }
+            });
+        }
+    };
+
+    // Oldest first. Guarded by the uploader, which isn't held while events are sent.
+    @NonNull private final Deque<Event> events = new ArrayDeque<>();
+    private boolean loaded;
+    private boolean flushing;
+    private int failures;
+    private long retryMillis;
+
+    private int sentCount;
+    private int droppedCount;
+    private int flushCount;
+
+    public static EventLoggingUploader instance() {
+        return INSTANCE;
+    }
+
+    @VisibleForTesting EventLoggingUploader(@NonNull File file, @NonNull Executor executor,
+                                            @NonNull OkHttpClient client) {
+        this.file = file;
+        this.executor = executor;
+        this.client = client;
+    }
+
+    /** Queues a beacon. May be called from any thread. */
+    public void add(@NonNull final String url) {
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                add(url, System.currentTimeMillis());
+            }
+        });
+    }
+
+    /** Resumes the queue of an earlier session and flushes it whenever the default network
+     * becomes active for other traffic. */
+    public void register(@NonNull Context context) {
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                flushIfDue(System.currentTimeMillis());
+            }
+        });
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            registerNetworkActiveListener(context);
+        }
+    }
+
+    /** @return The number of events uploaded. */
+    public synchronized int getSentCount() {
+        return sentCount;
+    }
+
+    /** @return The number of events discarded because the queue was full, the server rejected them
+     *          or the user opted out. */
+    public synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /** @return The number of times uploading was attempted. */
+    public synchronized int getFlushCount() {
+        return flushCount;
+    }
+
+    @VisibleForTesting synchronized int size() {
+        load();
+        return events.size();
+    }
+
+    @VisibleForTesting void add(@NonNull String url, long now) {
+        synchronized (this) {
+            load();
+            Event event = new Event(now, url);
+            events.add(event);
+            if (events.size() > MAX_EVENTS) {
+                events.removeFirst();
+                droppedCount++;
+                write();
+            } else {
+                append(event);
+            }
+        }
+
+        flushIfDue(now);
+    }
+
+    /** Flushes the queue if it is full enough or old enough, or schedules a flush for when the
+     * oldest event will be old enough. */
+    @VisibleForTesting void flushIfDue(long now) {
+        synchronized (this) {
+            load();
+            if (events.isEmpty() || retryMillis > now) {
+                // Nothing to flush, or a retry is already scheduled.
+                return;
+            }
+            long age = now - events.getFirst().timestamp;
+            if (events.size() < FLUSH_EVENTS && age < FLUSH_AGE_MILLIS) {
+                handler.removeCallbacks(flushRunnable);
+                handler.postDelayed(flushRunnable, FLUSH_AGE_MILLIS - age);
+                return;
+            }
+        }
+
+        flush(now, false);
+    }
+
+    /**
+     * Sends the events queued when the flush starts. Events added meanwhile wait for the next flush.
+     *
+     * @param opportunistic True if the radio is already awake, in which case a flush is made even
+     *                      if the queue is small and young.
+     */
+    @VisibleForTesting void flush(long now, boolean opportunistic) {
+        List<Event> batch;
+        synchronized (this) {
+            load();
+            if (flushing || events.isEmpty() || (retryMillis > now && !opportunistic)) {
+                return;
+            }
+            if (!WikipediaApp.getInstance().isEventLoggingEnabled()) {
+                // The user opted out since the events were logged.
+                droppedCount += events.size();
+                events.clear();
+                write();
+                return;
+            }
+            if (!DeviceUtil.isOnline(WikipediaApp.getInstance())) {
+                // Not a failure of the server, so don't back off.
+                schedule(now, MIN_RETRY_MILLIS);
+                return;
+            }
+            flushing = true;
+            flushCount++;
+            batch = new ArrayList<>(events);
+        }
+
+        List<Event> done = new ArrayList<>();
+        int sent = 0;
+        int rejected = 0;
+        boolean failed = false;
+        for (Event event : batch) {
+            try {
+                int code = send(event.url);
+                if (code >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                    failed = true;
+                    break;
+                }
+                if (code >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                    L.w("Dropped rejected EL event: " + code);
+                    rejected++;
+                } else {
+                    sent++;
+                }
+                done.add(event);
+            } catch (IOException e) {
+                L.w("Failed to send EL events", e);
+                failed = true;
+                break;
+            }
+        }
+
+        synchronized (this) {
+            flushing = false;
+            sentCount += sent;
+            droppedCount += rejected;
+            // The queue may have dropped sent events or the user opted out meanwhile.
+            if (events.removeAll(done)) {
+                write();
+            }
+
+            if (failed) {
+                retry(now);
+            } else {
+                failures = 0;
+                retryMillis = 0;
+                handler.removeCallbacks(flushRunnable);
+            }
+        }
+    }
+
+    @VisibleForTesting synchronized long getRetryMillis() {
+        return retryMillis;
+    }
+
+    private void retry(long now) {
+        failures++;
+        schedule(now, Math.min(MAX_RETRY_MILLIS, MIN_RETRY_MILLIS << Math.min(failures - 1, Integer.SIZE)));
+    }
+
+    private void schedule(long now, long delay) {
+        retryMillis = now + delay;
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, delay);
+    }
+
+    private int send(@NonNull String url) throws IOException {
+        Request request = new Request.Builder().url(url).post(EMPTY_REQ).build();
+        Response response = client.newCall(request).execute();
+        try {
+            return response.code();
+        } finally {
+            response.close();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void registerNetworkActiveListener(@NonNull Context context) {
+        ConnectivityManager manager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        manager.addDefaultNetworkActiveListener(new ConnectivityManager.OnNetworkActiveListener() {
+            @Override public void onNetworkActive() {
+                executor.execute(new Runnable() {
+                    @Override public void run() {
+                        flush(System.currentTimeMillis(), true);
+                    }
+                });
+            }
+        });
+    }
+
+    // Each line is a timestamp and a beacon URL, which never contains spaces.
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+
+        String text;
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            text = FileUtil.readFile(in);
+        } catch (IOException e) {
+            L.w("Failed to load EL events", e);
+            return;
+        } finally {
+            Util.closeQuietly(in);
+        }
+
+        Deque<Event> current = new ArrayDeque<>(events);
+        events.clear();
+        for (String line : text.split("\n")) {
+            Event event = Event.parse(line);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        events.addAll(current);
+        while (events.size() > MAX_EVENTS) {
+            events.removeFirst();
+            droppedCount++;
+        }
+    }
+
+    private void append(@NonNull Event event) {
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file, true);
+            out.write((event + "\n").getBytes("UTF-8"));
+        } catch (IOException e) {
+            L.w("Failed to save EL event", e);
+        } finally {
+            Util.closeQuietly(out);
+        }
+    }
+
+    private void write() {
+        StringBuilder text = new StringBuilder();
+        for (Event event : events) {
+            text.append(event).append('\n');
+        }
+
+        try {
+            FileUtil.writeAtomically(file, text.toString());
+        } catch (IOException e) {
+            L.w("Failed to save EL events", e);
+        }
+    }
+
+    private static final class Event {
+        private final long timestamp;
+        @NonNull private final String url;
+
+        @Nullable static Event parse(@NonNull String line) {
+            int separator = line.indexOf(' ');
+            if (separator < 0) {
+                return null;
+            }
+            try {
+                return new Event(Long.parseLong(line.substring(0, separator)), line.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        Event(long timestamp, @NonNull String url) {
+            this.timestamp = timestamp;
+            this.url = url;
+        }
+
+        @Override public String toString() {
+            return timestamp + " " + url;
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package org.wikipedia.analytics;
 
+import android.support.annotation.NonNull;
+
 import org.wikipedia.history.HistoryEntry;
 import org.wikipedia.util.MathUtil;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class SessionData {
     private final MathUtil.Averaged<Long> leadLatency = new MathUtil.Averaged<>();
     private final MathUtil.Averaged<Long> restLatency = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Long> firstSectionLatency = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Long> savedFirstSectionLatency = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Long> lastSectionLatency = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Integer> bridgeMessages = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Integer> bridgeFrames = new MathUtil.Averaged<>();
+    private final MathUtil.Averaged<Long> bridgePayloadBytes = new MathUtil.Averaged<>();
+    // Keyed by the simple class name of the feed client.
+    private final Map<String, MathUtil.Averaged<Long>> feedClientLatency = new HashMap<>();
+    private final Map<Integer, MathUtil.Averaged<Long>> feedAgeLatency = new HashMap<>();
     private long startTime;
     private long lastTouchTime;
     private int pagesFromSearch;
@@ -86,6 +100,70 @@ public class SessionData {
         this.restLatency.addSample(restLatency);
     }
 
+    public long getFirstSectionLatency() {
+        return (long) firstSectionLatency.getAverage();
+    }
+
+    public long getSavedFirstSectionLatency() {
+        return (long) savedFirstSectionLatency.getAverage();
+    }
+
+    public void addFirstSectionLatency(boolean saved, long firstSectionLatency) {
+        (saved ? savedFirstSectionLatency : this.firstSectionLatency).addSample(firstSectionLatency);
+    }
+
+    public long getLastSectionLatency() {
+        return (long) lastSectionLatency.getAverage();
+    }
+
+    public void addLastSectionLatency(long lastSectionLatency) {
+        this.lastSectionLatency.addSample(lastSectionLatency);
+    }
+
+    public int getBridgeMessages() {
+        return (int) bridgeMessages.getAverage();
+    }
+
+    public int getBridgeFrames() {
+        return (int) bridgeFrames.getAverage();
+    }
+
+    public long getBridgePayloadBytes() {
+        return (long) bridgePayloadBytes.getAverage();
+    }
+
+    public void addBridgeTraffic(int messages, int frames, long payloadBytes) {
+        bridgeMessages.addSample(messages);
+        bridgeFrames.addSample(frames);
+        bridgePayloadBytes.addSample(payloadBytes);
+    }
+
+    public long getFeedClientLatency(@NonNull String client) {
+        return average(feedClientLatency.get(client));
+    }
+
+    public void addFeedClientLatency(@NonNull String client, long latency) {
+        MathUtil.Averaged<Long> averaged = feedClientLatency.get(client);
+        if (averaged == null) {
+            averaged = new MathUtil.Averaged<>();
+            feedClientLatency.put(client, averaged);
+        }
+        averaged.addSample(latency);
+    }
+
+    public long getFeedAgeLatency(int age) {
+        return average(feedAgeLatency.get(age));
+    }
+
+    public void addFeedAgeLatency(int age, long latency) {
+        MathUtil.Averaged<Long> averaged = feedAgeLatency.get(age);
+        if (averaged == null) {
+            averaged = new MathUtil.Averaged<>();
+            feedAgeLatency.put(age, averaged);
+        }
+        averaged.addSample(latency);
+    }
+
     public int getPagesFromSearch() {
         return pagesFromSearch;
     }
@@ -134,6 +212,10 @@ public class SessionData {
         this.pagesFromBack++;
     }
 
+    private static long average(MathUtil.Averaged<Long> averaged) {
+        return averaged == null ? 0 : (long) averaged.getAverage();
+    }
+
     public int getTotalPages() {
         return pagesFromSearch + pagesFromRandom + pagesFromLangLink + pagesFromInternal
                 + pagesFromExternal + pagesFromHistory + pagesFromSaved + pagesFromReadingList
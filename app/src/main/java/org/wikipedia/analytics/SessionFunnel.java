@@ -24,6 +24,7 @@ public class SessionFunnel extends Funnel {
     private SessionData sessionData;
     private long leadSectionStartTime;
     private long restSectionsStartTime;
+    private long pageLoadStartTime;
 
     public SessionFunnel(WikipediaApp app) {
         super(app, SCHEMA_NAME, REVISION, ReleaseUtil.isProdRelease() ? Funnel.SAMPLE_LOG_100 : Funnel.SAMPLE_LOG_ALL);
@@ -89,6 +90,37 @@ public class SessionFunnel extends Funnel {
         sessionData.addRestLatency(System.currentTimeMillis() - restSectionsStartTime);
     }
 
+    public void pageLoadStart() {
+        pageLoadStartTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Records the time from the start of a page load to the display of its lead section, separately
+     * for pages displayed from the save cache.
+     */
+    public void pageLoadFirstSection(boolean saved) {
+        sessionData.addFirstSectionLatency(saved, System.currentTimeMillis() - pageLoadStartTime);
+    }
+
+    /**
+     * Records the time from the start of a page load to its last section, and the messages, frames
+     * and UTF-8 payload bytes the load sent over the JavaScript bridge.
+     */
+    public void pageLoadEnd(int bridgeMessages, int bridgeFrames, long bridgePayloadBytes) {
+        sessionData.addLastSectionLatency(System.currentTimeMillis() - pageLoadStartTime);
+        sessionData.addBridgeTraffic(bridgeMessages, bridgeFrames, bridgePayloadBytes);
+    }
+
+    /** Records the time a feed client took to respond, whether it succeeded or not. */
+    public void feedClientLatency(@NonNull String client, long millis) {
+        sessionData.addFeedClientLatency(client, millis);
+    }
+
+    /** Records the time from requesting the cards of a feed age to the response of its last client. */
+    public void feedAgeLatency(int age, long millis) {
+        sessionData.addFeedAgeLatency(age, millis);
+    }
+
     private boolean hasTimedOut() {
         return System.currentTimeMillis() - sessionData.getLastTouchTime()
                 > Prefs.getSessionTimeout() * DateUtils.MINUTE_IN_MILLIS;
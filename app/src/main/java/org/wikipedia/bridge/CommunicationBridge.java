@@ -5,6 +5,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.support.annotation.NonNull;
+import android.util.JsonWriter;
 import android.util.Log;
 import android.webkit.ConsoleMessage;
 import android.webkit.JavascriptInterface;
@@ -14,7 +15,10 @@ import android.webkit.WebView;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.wikipedia.util.StringUtil;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,12 +37,34 @@ public class CommunicationBridge {
     private final BridgeMarshaller marshaller;
 
     private boolean isDOMReady = false;
-    private final List<String> pendingJSMessages = new ArrayList<>();
+
+    // Messages sent in the same UI tick are coalesced and delivered to the WebView in a single
+    // frame. Messages sent before the DOM is ready are held until it is. Messages are written
+    // straight into the frame so that large payloads are copied once more at most, when the frame
+    // is handed to the marshaller.
+    @NonNull private StringWriter frame = new StringWriter();
+    private int pendingMessageCount;
+    @NonNull private final Handler frameHandler = new Handler(Looper.getMainLooper());
+    @NonNull private final Runnable flushRunnable = new Runnable() {
+        @Override public void run() {
+            flush();
+        }
+    };
+    private boolean isFlushScheduled;
+
+    private int messageCount;
+    private int frameCount;
+    private long payloadBytes;
 
     public interface JSEventListener {
         void onMessage(String messageType, JSONObject messagePayload);
     }
 
+    /** Writes the payload of a message directly into the frame delivered to the WebView. */
+    public interface PayloadWriter {
+        void write(@NonNull JsonWriter writer) throws IOException;
+    }
+
     @SuppressLint({"AddJavascriptInterface", "SetJavaScriptEnabled"})
     public CommunicationBridge(final WebView webView, final String baseURL) {
         this.webView = webView;
@@ -56,15 +82,17 @@ public class CommunicationBridge {
             @Override
             public void onMessage(String messageType, JSONObject messagePayload) {
                 isDOMReady = true;
-                for (String jsString : pendingJSMessages) {
-                    CommunicationBridge.this.webView.loadUrl(jsString);
-                }
+                flush();
             }
         });
     }
 
     public void cleanup() {
         eventListeners.clear();
+        frameHandler.removeCallbacks(flushRunnable);
+        frame = new StringWriter();
+        pendingMessageCount = 0;
+        isFlushScheduled = false;
         if (incomingMessageHandler != null) {
             incomingMessageHandler.removeCallbacksAndMessages(null);
             incomingMessageHandler = null;
@@ -82,14 +110,79 @@ public class CommunicationBridge {
     }
 
     public void sendMessage(String messageName, JSONObject messageData) {
-        String messagePointer =  marshaller.putPayload(messageData.toString());
+        int payloadStart = beginMessage(messageName);
+        frame.append(messageData.toString());
+        endMessage(payloadStart);
+    }
 
-        String jsString = "javascript:handleMessage( \"" + messageName + "\", \"" + messagePointer + "\" );";
-        if (!isDOMReady) {
-            pendingJSMessages.add(jsString);
-        } else {
-            webView.loadUrl(jsString);
+    /**
+     * Sends a message whose payload is streamed into the frame rather than built as a
+     * {@link JSONObject} and stringified. Prefer this for payloads holding page content.
+     */
+    public void sendMessage(@NonNull String messageName, @NonNull PayloadWriter payload) {
+        int messageStart = frame.getBuffer().length();
+        int payloadStart = beginMessage(messageName);
+        try {
+            JsonWriter writer = new JsonWriter(frame);
+            payload.write(writer);
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            // Drop the partially written message so the rest of the frame remains valid.
+            frame.getBuffer().setLength(messageStart);
+            throw new RuntimeException(e);
+        }
+        endMessage(payloadStart);
+    }
+
+    /** @return The number of messages sent to the WebView. */
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    /** @return The number of frames, each holding one or more messages, delivered to the WebView. */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /** @return The total size of the message payloads sent to the WebView in UTF-8 bytes. */
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    // Writes the envelope of a message up to its payload and returns the position of the payload.
+    private int beginMessage(@NonNull String messageName) {
+        frame.append(pendingMessageCount == 0 ? '[' : ',')
+                .append("{\"type\":").append(JSONObject.quote(messageName)).append(",\"payload\":");
+        return frame.getBuffer().length();
+    }
+
+    private void endMessage(int payloadStart) {
+        StringBuffer buffer = frame.getBuffer();
+        payloadBytes += StringUtil.utf8Length(buffer, payloadStart, buffer.length());
+        frame.append('}');
+        messageCount++;
+        pendingMessageCount++;
+        if (isDOMReady && !isFlushScheduled) {
+            isFlushScheduled = true;
+            frameHandler.post(flushRunnable);
+        }
+    }
+
+    private void flush() {
+        isFlushScheduled = false;
+        if (pendingMessageCount == 0) {
+            return;
         }
+
+        frame.append(']');
+        String batch = frame.toString();
+        // Replace rather than clear the buffer so the capacity of a large frame isn't retained.
+        frame = new StringWriter();
+        pendingMessageCount = 0;
+
+        String messagePointer = marshaller.putPayload(batch);
+        frameCount++;
+        webView.loadUrl("javascript:handleMessages( \"" + messagePointer + "\" );");
     }
 
     private static final int MESSAGE_HANDLE_MESSAGE_FROM_JS = 1;
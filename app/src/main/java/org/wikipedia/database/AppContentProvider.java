@@ -1,8 +1,11 @@
 package org.wikipedia.database;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentValues;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
@@ -14,11 +17,18 @@ import org.wikipedia.WikipediaApp;
 import org.wikipedia.database.contract.AppContentProviderContract;
 import org.wikipedia.util.log.L;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class AppContentProvider extends ContentProvider {
     private static final boolean LOG = false;
 
+    // The URIs changed by the batch in progress on the current thread, if any. Notifications are
+    // deferred until the batch is committed and each URI is notified only once.
+    @NonNull private final ThreadLocal<Set<Uri>> batchUris = new ThreadLocal<>();
+
     @Override public boolean onCreate() {
         @SuppressWarnings("UnnecessaryLocalVariable") final boolean loaded = true;
         return loaded;
@@ -36,16 +46,17 @@ public class AppContentProvider extends ContentProvider {
         SQLiteDatabase db = readableDatabase();
         final String groupBy = null;
         final String having = null;
+        String limit = uri.getQueryParameter(AppContentProviderContract.LIMIT);
 
         if (LOG) {
             L.d("selectionArgs=" + Arrays.toString(selectionArgs));
             String sql = builder.buildQuery(projection, "(" + selection + ")", groupBy, having,
-                    sortOrder, null);
+                    sortOrder, limit);
             L.d("sql=" + sql);
         }
 
         Cursor cursor = builder.query(db, projection == null ? endpoint.projection() : projection,
-                selection, selectionArgs, groupBy, having, sortOrder);
+                selection, selectionArgs, groupBy, having, sortOrder, limit);
 
         if (cursor != null) {
             if (LOG) {
@@ -69,12 +80,36 @@ public class AppContentProvider extends ContentProvider {
         db.replaceOrThrow(endpoint.tables(), nullColumnHack, values);
 
         notifyChange(uri);
+        return notifyItemChange(endpoint, values);
+    }
 
-        Uri itemUri = endpoint.itemUri(values);
-        if (itemUri != null) {
-            notifyChange(itemUri);
+    @Override public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
+        SQLiteDatabase db = writableDatabase();
+        beginBatch(db);
+        try {
+            for (ContentValues value : values) {
+                insert(uri, value);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            endBatch(db);
+        }
+        return values.length;
+    }
+
+    /** Applies all operations in a single transaction. Change notifications are coalesced. */
+    @NonNull @Override
+    public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+        SQLiteDatabase db = writableDatabase();
+        beginBatch(db);
+        try {
+            ContentProviderResult[] results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+            return results;
+        } finally {
+            endBatch(db);
         }
-        return itemUri;
     }
 
     @Override public int delete(@NonNull Uri uri, @Nullable String selection,
@@ -93,18 +128,78 @@ public class AppContentProvider extends ContentProvider {
         AppContentProviderEndpoint endpoint = AppContentProviderEndpoint.of(uri);
 
         SQLiteDatabase db = writableDatabase();
-        int rows = db.update(endpoint.tables(), values, selection, selectionArgs);
+        int rows;
+        boolean inserted = false;
+        if (uri.getBooleanQueryParameter(AppContentProviderContract.UPSERT, false)) {
+            // The update and the fallback insert are performed atomically.
+            db.beginTransaction();
+            try {
+                rows = db.update(endpoint.tables(), values, selection, selectionArgs);
+                if (rows == 0) {
+                    final String nullColumnHack = null;
+                    db.replaceOrThrow(endpoint.tables(), nullColumnHack, values);
+                    rows = 1;
+                    inserted = true;
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } else {
+            rows = db.update(endpoint.tables(), values, selection, selectionArgs);
+        }
 
         notifyChange(uri);
+        if (inserted && values != null) {
+            notifyItemChange(endpoint, values);
+        }
         return rows;
     }
 
+    private void beginBatch(@NonNull SQLiteDatabase db) {
+        db.beginTransaction();
+        if (batchUris.get() == null) {
+            batchUris.set(new LinkedHashSet<Uri>());
+        }
+    }
+
+    private void endBatch(@NonNull SQLiteDatabase db) {
+        db.endTransaction();
+        if (db.inTransaction()) {
+            // Nested batch. The outermost batch notifies.
+            return;
+        }
+
+        Set<Uri> uris = batchUris.get();
+        batchUris.remove();
+        for (Uri uri : uris) {
+            notifyChange(uri);
+        }
+    }
+
+    // Within a batch only the table URI is notified, once, rather than the URI of every row.
+    @Nullable private Uri notifyItemChange(@NonNull AppContentProviderEndpoint endpoint,
+                                           @NonNull ContentValues values) {
+        Uri itemUri = endpoint.itemUri(values);
+        if (itemUri != null && batchUris.get() == null) {
+            notifyChange(itemUri);
+        }
+        return itemUri;
+    }
+
     private void notifyChange(@NonNull Uri uri) {
         boolean notify = uri.getBooleanQueryParameter(AppContentProviderContract.NOTIFY, true);
         if (getContentResolver() == null || !notify) {
             return;
         }
-        getContentResolver().notifyChange(uri, null);
+
+        Uri notifyUri = uri.buildUpon().clearQuery().build();
+        Set<Uri> uris = batchUris.get();
+        if (uris != null) {
+            uris.add(notifyUri);
+            return;
+        }
+        getContentResolver().notifyChange(notifyUri, null);
     }
 
     @Nullable private ContentResolver getContentResolver() {
@@ -13,7 +13,9 @@ import org.wikipedia.database.contract.PageImageHistoryContract;
 import org.wikipedia.database.contract.ReadingListContract;
 import org.wikipedia.database.contract.ReadingListPageContract;
 import org.wikipedia.database.contract.SavedPageContract;
+import org.wikipedia.database.contract.SavedPageImageContract;
 import org.wikipedia.database.contract.SearchHistoryContract;
+import org.wikipedia.database.contract.SearchIndexContract;
 import org.wikipedia.database.contract.UserOptionContract;
 import org.wikipedia.model.EnumCode;
 import org.wikipedia.model.EnumCodeMap;
@@ -34,6 +36,8 @@ public enum AppContentProviderEndpoint implements EnumCode {
             SavedPageContract.Page.PROJECTION),
     SAVED_PAGE_WITH_IMAGE(201, SavedPageContract.PageWithImage.PATH,
             SavedPageContract.PageWithImage.TABLES, SavedPageContract.PageWithImage.PROJECTION),
+    SAVED_PAGE_IMAGE(202, SavedPageImageContract.Image.PATH, SavedPageImageContract.Image.TABLES,
+            SavedPageImageContract.Image.PROJECTION),
 
     USER_OPTION(300, UserOptionContract.AUTHORITY, UserOptionContract.Option.PATH,
             UserOptionContract.Option.TABLES, UserOptionContract.Option.PROJECTION),
@@ -64,7 +68,12 @@ public enum AppContentProviderEndpoint implements EnumCode {
             ReadingListContract.ListWithPagesAndDisk.PROJECTION),
     READING_LIST_LEARNED(408, ReadingListContract.LearningLists.PATH,
             ReadingListContract.LearningLists.TABLES,
-            ReadingListContract.LearningLists.PROJECTION);
+            ReadingListContract.LearningLists.PROJECTION),
+    READING_LIST_PAGE_MEMBER(409, ReadingListPageContract.Member.PATH,
+            ReadingListPageContract.Member.TABLES, ReadingListPageContract.Member.PROJECTION),
+
+    SEARCH_INDEX_DOC(500, SearchIndexContract.Doc.PATH, SearchIndexContract.Doc.TABLES,
+            SearchIndexContract.Doc.PROJECTION);
 
     private static final EnumCodeMap<AppContentProviderEndpoint> CODE_TO_ENUM = new EnumCodeMap<>(AppContentProviderEndpoint.class);
     private static final UriMatcher URI_TO_CODE = newUriToCode();
@@ -22,6 +22,11 @@ public abstract class BaseDao<T> {
         client.persist(row);
     }
 
+    /** Upserts all rows in a single transaction. */
+    protected synchronized void upsert(@NonNull Collection<T> rows) {
+        client.persist(rows);
+    }
+
     @Nullable protected T queryPrimaryKey(@NonNull T row) {
         String[] selectionArgs = client().getPrimaryKeySelectionArgs(row);
         String selection = client().getPrimaryKeySelection(row, selectionArgs);
@@ -54,6 +59,15 @@ public abstract class BaseDao<T> {
         client.delete(row, selectionArgs);
     }
 
+    /** Deletes all rows in a single transaction. */
+    protected synchronized void delete(@NonNull Collection<T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String[] selectionArgs = client.getPrimaryKeySelectionArgs(rows.iterator().next());
+        client.delete(rows, selectionArgs);
+    }
+
     protected DatabaseClient<T> client() {
         return client;
     }
@@ -11,13 +11,14 @@ import org.wikipedia.pageimages.PageImage;
 import org.wikipedia.readinglist.database.ReadingListRow;
 import org.wikipedia.readinglist.page.ReadingListPageRow;
 import org.wikipedia.savedpages.SavedPage;
+import org.wikipedia.savedpages.SavedPageImage;
 import org.wikipedia.search.RecentSearch;
 import org.wikipedia.useroption.database.UserOptionRow;
 import org.wikipedia.util.log.L;
 
 public class Database extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "wikipedia.db";
-    private static final int DATABASE_VERSION = 16;
+    private static final int DATABASE_VERSION = 21;
 
     private final DatabaseTable<?>[] databaseTables = {
             HistoryEntry.DATABASE_TABLE,
@@ -34,8 +35,15 @@ public class Database extends SQLiteOpenHelper {
             ReadingListPageRow.DISK_DATABASE_TABLE,
             ReadingListPageRow.HTTP_DATABASE_TABLE,
             ReadingListPageRow.DATABASE_TABLE,
+            // ReadingListPageMemberTable is populated from ReadingListPageTable when upgrading.
+            ReadingListPageRow.MEMBER_DATABASE_TABLE,
 
-            ReadingListRow.DATABASE_TABLE
+            ReadingListRow.DATABASE_TABLE,
+
+            SavedPageImage.DATABASE_TABLE,
+
+            // SearchIndexDatabaseTable indexes the history and reading list tables when upgrading.
+            SearchIndexRow.DATABASE_TABLE
     };
 
     public Database(Context context) {
@@ -1,14 +1,21 @@
 package org.wikipedia.database;
 
 import android.content.ContentProviderClient;
+import android.content.ContentProviderOperation;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.net.Uri;
 import android.os.RemoteException;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import org.wikipedia.database.contract.AppContentProviderContract;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
 public class DatabaseClient<T> {
     @NonNull private final ContentProviderClient client;
     @NonNull private final DatabaseTable<T> databaseTable;
@@ -32,6 +39,25 @@ public class DatabaseClient<T> {
         }
     }
 
+    /** Inserts all objects in a single transaction with one change notification. */
+    public void persist(@NonNull Collection<T> objs) {
+        if (objs.isEmpty()) {
+            return;
+        }
+
+        ContentValues[] values = new ContentValues[objs.size()];
+        int i = 0;
+        for (T obj : objs) {
+            values[i++] = toContentValues(obj);
+        }
+
+        try {
+            client.bulkInsert(uri(), values);
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public Cursor select(@Nullable String selection, @Nullable String[] selectionArgs,
                          @Nullable String sortOrder) {
         return select(uri(), selection, selectionArgs, sortOrder);
@@ -39,8 +65,24 @@ public class DatabaseClient<T> {
 
     public Cursor select(@NonNull Uri uri, @Nullable String selection,
                          @Nullable String[] selectionArgs, @Nullable String sortOrder) {
+        return select(uri, null, selection, selectionArgs, sortOrder);
+    }
+
+    /** @param projection The columns to select, or null for those of the endpoint. */
+    public Cursor select(@NonNull Uri uri, @Nullable String[] projection, @Nullable String selection,
+                         @Nullable String[] selectionArgs, @Nullable String sortOrder) {
         try {
-            return client.query(uri, null, selection, selectionArgs, sortOrder);
+            return client.query(uri, projection, selection, selectionArgs, sortOrder);
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /** @return The number of rows updated. */
+    public int update(@NonNull ContentValues values, @Nullable String selection,
+                      @Nullable String[] selectionArgs) {
+        try {
+            return client.update(uri(), values, selection, selectionArgs);
         } catch (RemoteException e) {
             throw new RuntimeException(e);
         }
@@ -58,6 +100,16 @@ public class DatabaseClient<T> {
         }
     }
 
+    /** Deletes the rows matching the selection bound to each set of arguments in a single
+     * transaction with one change notification. */
+    public void deleteWhere(@NonNull String selection, @NonNull Collection<String[]> selectionArgs) {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>(selectionArgs.size());
+        for (String[] args : selectionArgs) {
+            operations.add(ContentProviderOperation.newDelete(uri()).withSelection(selection, args).build());
+        }
+        applyBatch(operations);
+    }
+
     public void delete(@NonNull T obj, @NonNull String[] selectionArgs) {
         try {
             client.delete(
@@ -70,24 +122,45 @@ public class DatabaseClient<T> {
         }
     }
 
+    /** Deletes all objects in a single transaction with one change notification. */
+    public void delete(@NonNull Collection<T> objs, @NonNull String[] selectionArgs) {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>(objs.size());
+        for (T obj : objs) {
+            operations.add(ContentProviderOperation.newDelete(uri())
+                    .withSelection(getPrimaryKeySelection(obj, selectionArgs), getPrimaryKeySelectionArgs(obj))
+                    .build());
+        }
+        applyBatch(operations);
+    }
+
     // TODO: migrate old tables to use unique constraints and just call insertWithOnConflict.
+    // The update and any insert are performed by AppContentProvider in a single transaction.
     public void upsert(@NonNull T obj, @NonNull String[] selectionArgs) {
         try {
-            int rowsUpdated = client.update(
-                    uri(),
+            client.update(
+                    upsertUri(),
                     toContentValues(obj),
                     getPrimaryKeySelection(obj, selectionArgs),
                     getPrimaryKeySelectionArgs(obj)
             );
-            if (rowsUpdated == 0) {
-                // TODO: synchronize with other writes. There are two operations performed.
-                persist(obj);
-            }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /** Applies operations on any table of the provider in a single transaction. */
+    public void applyBatch(@NonNull ArrayList<ContentProviderOperation> operations) {
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        try {
+            client.applyBatch(operations);
+        } catch (RemoteException | OperationApplicationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public T fromCursor(Cursor cursor) {
         return databaseTable.fromCursor(cursor);
     }
@@ -107,4 +180,10 @@ public class DatabaseClient<T> {
     protected Uri uri() {
         return databaseTable.getBaseContentURI();
     }
+
+    private Uri upsertUri() {
+        return uri().buildUpon()
+                .appendQueryParameter(AppContentProviderContract.UPSERT, String.valueOf(true))
+                .build();
+    }
 }
@@ -0,0 +1,136 @@
+package org.wikipedia.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.SearchIndexContract;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/** Full-text search of the local database. Indexing is done by the database itself except for the
+ * text of saved pages, which is put here when a page is saved and removed when it is unsaved. */
+public final class SearchIndexDao extends BaseDao<SearchIndexRow> {
+    // BM25 parameters, and the weight of a hit in the title, description and body columns.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double[] COLUMN_WEIGHTS = {4, 2, 1};
+
+    private static final SearchIndexDao INSTANCE = new SearchIndexDao();
+
+    public static SearchIndexDao instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return The documents of all sources matching the query, best match first by a BM25 score
+     *         weighted by column. Documents that score the same are in {@link
+     *         SearchIndexContract.Doc#ORDER_RANK} order.
+     */
+    @NonNull public List<SearchIndexRow> search(@NonNull String query) {
+        String[] selectionArgs = new String[] {SearchIndexContract.matchExpression(query)};
+        List<Ranked> ranked = new ArrayList<>();
+        Cursor cursor = client().select(SearchIndexContract.Doc.URI,
+                SearchIndexContract.Doc.RANK_PROJECTION, Sql.MATCH, selectionArgs,
+                SearchIndexContract.Doc.ORDER_RANK);
+        try {
+            int matchinfo = cursor.getColumnIndexOrThrow(SearchIndexContract.Doc.MATCHINFO);
+            while (cursor.moveToNext()) {
+                ranked.add(new Ranked(client().fromCursor(cursor), score(cursor.getBlob(matchinfo))));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        // Stable, so ties keep the order of the query.
+        Collections.sort(ranked, new Comparator<Ranked>() {
+            @Override public int compare(Ranked lhs, Ranked rhs) {
+                return Double.compare(rhs.score, lhs.score);
+            }
+        });
+        List<SearchIndexRow> rows = new ArrayList<>(ranked.size());
+        for (Ranked doc : ranked) {
+            rows.add(doc.row);
+        }
+        return rows;
+    }
+
+    /** @param body The plain text of the saved page, or null to remove it from the index. */
+    public synchronized void putPageBody(@NonNull String pageKey, @Nullable String body) {
+        ContentValues values = new ContentValues();
+        values.put(SearchIndexContract.Col.BODY.getName(), body);
+        client().update(values, Sql.PAGE_DOC, new String[] {pageKey});
+    }
+
+    /**
+     * @param matchinfo The {@link SearchIndexContract.Doc#RANK_PROJECTION} statistics of a document,
+     *                  as native byte order 32-bit integers.
+     * @return The sum over the phrases of the query and the columns of the document of the BM25
+     *         score of the phrase in the column times the weight of the column.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    @VisibleForTesting static double score(@NonNull byte[] matchinfo) {
+        IntBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        int documents = info.get(2);
+        int averageLengths = 3;
+        int lengths = averageLengths + columns;
+        int hits = lengths + columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int x = hits + 3 * (phrase * columns + column);
+                int hitCount = info.get(x);
+                if (hitCount == 0) {
+                    continue;
+                }
+                int documentsWithHits = info.get(x + 2);
+                double idf = Math.log(1 + (documents - documentsWithHits + 0.5) / (documentsWithHits + 0.5));
+                double lengthRatio = info.get(lengths + column) / Math.max(1.0, info.get(averageLengths + column));
+                double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1;
+                score += weight * idf * hitCount * (K1 + 1) / (hitCount + K1 * (1 - B + B * lengthRatio));
+            }
+        }
+        return score;
+    }
+
+    private SearchIndexDao() {
+        super(WikipediaApp.getInstance().getDatabaseClient(SearchIndexRow.class));
+    }
+
+    private static final class Ranked {
+        @NonNull private final SearchIndexRow row;
+        private final double score;
+
+        Ranked(@NonNull SearchIndexRow row, double score) {
+            this.row = row;
+            this.score = score;
+        }
+    }
+
+    private static class Sql {
+        private static final String MATCH = ":tbl match ?"
+                .replaceAll(":tbl", SearchIndexContract.TABLE);
+
+        private static final String PAGE_DOC = (":docidCol = (select :pageTbl.idCol * :sources + :source "
+                + "from :pageTbl where :pageTbl.keyCol = ?)")
+                .replaceAll(":docidCol", SearchIndexContract.Col.DOCID.getName())
+                .replaceAll(":pageTbl.idCol", ReadingListPageContract.PageCol.ID.qualifiedName())
+                .replaceAll(":pageTbl.keyCol", ReadingListPageContract.PageCol.KEY.qualifiedName())
+                .replaceAll(":pageTbl", ReadingListPageContract.TABLE_PAGE)
+                .replaceAll(":sources", String.valueOf(SearchIndexContract.SOURCES))
+                .replaceAll(":source", String.valueOf(SearchIndexContract.SOURCE_READING_LIST_PAGE));
+    }
+}
@@ -0,0 +1,206 @@
+package org.wikipedia.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wikipedia.database.column.Column;
+import org.wikipedia.database.contract.PageHistoryContract;
+import org.wikipedia.database.contract.ReadingListContract;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.SearchIndexContract;
+import org.wikipedia.database.contract.SearchIndexContract.Col;
+import org.wikipedia.util.log.L;
+
+/**
+ * An FTS4 table kept current with history, reading lists, and reading list pages by triggers.
+ * Saved page text is written to the body column of reading list page documents by the app.
+ *
+ * The content provider implements inserts as replacements, which give a row a new ID without
+ * firing delete triggers. Before a reading list or page is inserted, the document of any row it
+ * replaces is removed. The body of a replaced page is carried over to the new document by way of a
+ * scratch document.
+ */
+public class SearchIndexDatabaseTable extends DatabaseTable<SearchIndexRow> {
+    private static final int DB_VER_INTRODUCED = 20;
+    private static final int SCRATCH_DOCID = -1;
+
+    private static final Source HISTORY = new Source(PageHistoryContract.TABLE,
+            PageHistoryContract.Col.ID.getName(), null, PageHistoryContract.Col.TITLE.getName(),
+            null, SearchIndexContract.SOURCE_HISTORY);
+    private static final Source READING_LIST_PAGE = new Source(ReadingListPageContract.TABLE_PAGE,
+            ReadingListPageContract.PageCol.ID.getName(),
+            ReadingListPageContract.PageCol.KEY.getName(),
+            ReadingListPageContract.PageCol.TITLE.getName(),
+            ReadingListPageContract.PageCol.DESCRIPTION.getName(),
+            SearchIndexContract.SOURCE_READING_LIST_PAGE);
+    private static final Source READING_LIST = new Source(ReadingListContract.TABLE,
+            ReadingListContract.Col.ID.getName(), ReadingListContract.Col.KEY.getName(),
+            ReadingListContract.Col.TITLE.getName(), ReadingListContract.Col.DESCRIPTION.getName(),
+            SearchIndexContract.SOURCE_READING_LIST);
+
+    public SearchIndexDatabaseTable() {
+        super(SearchIndexContract.TABLE, SearchIndexContract.Doc.URI);
+    }
+
+    @Override public SearchIndexRow fromCursor(@NonNull Cursor cursor) {
+        return new SearchIndexRow(Col.DOCID.val(cursor), Col.TITLE.val(cursor),
+                Col.DESCRIPTION.val(cursor));
+    }
+
+    @NonNull @Override public Column<?>[] getColumnsAdded(int version) {
+        switch (version) {
+            case DB_VER_INTRODUCED:
+                return new Column<?>[] {Col.TITLE, Col.DESCRIPTION, Col.BODY};
+            default:
+                return super.getColumnsAdded(version);
+        }
+    }
+
+    // FTS tables are virtual and are neither created nor altered like other tables.
+    @Override public void upgradeSchema(@NonNull SQLiteDatabase db, int fromVersion, int toVersion) {
+        if (fromVersion < DB_VER_INTRODUCED && toVersion >= DB_VER_INTRODUCED) {
+            createTable(db);
+            createTriggers(db);
+            if (fromVersion > 0) {
+                index(db);
+            }
+        }
+    }
+
+    @Override protected ContentValues toContentValues(@NonNull SearchIndexRow row) {
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(Col.DOCID.getName(), row.docId());
+        contentValues.put(Col.TITLE.getName(), row.title());
+        contentValues.put(Col.DESCRIPTION.getName(), row.description());
+        return contentValues;
+    }
+
+    @Override protected String getPrimaryKeySelection(@NonNull SearchIndexRow row,
+                                                      @NonNull String[] selectionArgs) {
+        return super.getPrimaryKeySelection(row, new String[] {Col.DOCID.getName()});
+    }
+
+    @Override protected String[] getUnfilteredPrimaryKeySelectionArgs(@NonNull SearchIndexRow row) {
+        return new String[] {String.valueOf(row.docId())};
+    }
+
+    @Override protected int getDBVersionIntroducedAt() {
+        return DB_VER_INTRODUCED;
+    }
+
+    private void createTable(@NonNull SQLiteDatabase db) {
+        L.i("Creating table=" + getTableName());
+        db.execSQL("CREATE VIRTUAL TABLE :tbl USING fts4(:titleCol, :descriptionCol, :bodyCol)"
+                .replaceAll(":tbl", getTableName())
+                .replaceAll(":titleCol", Col.TITLE.getName())
+                .replaceAll(":descriptionCol", Col.DESCRIPTION.getName())
+                .replaceAll(":bodyCol", Col.BODY.getName()));
+    }
+
+    private void createTriggers(@NonNull SQLiteDatabase db) {
+        // History rows are never replaced.
+        createTriggers(db, HISTORY);
+
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_replace BEFORE INSERT ON :srcTbl BEGIN "
+                + "INSERT INTO :tbl (:docidCol, :bodyCol) SELECT :scratch, :bodyCol FROM :tbl "
+                + "WHERE :docidCol = (SELECT :docid FROM :srcTbl WHERE :srcKeyCol = new.:srcKeyCol); "
+                + "DELETE FROM :tbl "
+                + "WHERE :docidCol = (SELECT :docid FROM :srcTbl WHERE :srcKeyCol = new.:srcKeyCol); "
+                + "END", READING_LIST_PAGE));
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_insert AFTER INSERT ON :srcTbl BEGIN "
+                + "INSERT INTO :tbl (:docidCol, :titleCol, :descriptionCol, :bodyCol) "
+                + "VALUES (:newDocid, :newTitle, :newDescription, "
+                + "(SELECT :bodyCol FROM :tbl WHERE :docidCol = :scratch)); "
+                + "DELETE FROM :tbl WHERE :docidCol = :scratch; "
+                + "END", READING_LIST_PAGE));
+        createUpdateAndDeleteTriggers(db, READING_LIST_PAGE);
+
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_replace BEFORE INSERT ON :srcTbl BEGIN "
+                + "DELETE FROM :tbl "
+                + "WHERE :docidCol = (SELECT :docid FROM :srcTbl WHERE :srcKeyCol = new.:srcKeyCol); "
+                + "END", READING_LIST));
+        createTriggers(db, READING_LIST);
+    }
+
+    private void createTriggers(@NonNull SQLiteDatabase db, @NonNull Source src) {
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_insert AFTER INSERT ON :srcTbl BEGIN "
+                + "INSERT INTO :tbl (:docidCol, :titleCol, :descriptionCol) "
+                + "VALUES (:newDocid, :newTitle, :newDescription); "
+                + "END", src));
+        createUpdateAndDeleteTriggers(db, src);
+    }
+
+    private void createUpdateAndDeleteTriggers(@NonNull SQLiteDatabase db, @NonNull Source src) {
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_update AFTER UPDATE OF :srcCols ON :srcTbl BEGIN "
+                + "UPDATE :tbl SET :titleCol = :newTitle, :descriptionCol = :newDescription "
+                + "WHERE :docidCol = :newDocid; "
+                + "END", src)
+                .replaceAll(":srcCols", src.descriptionCol == null
+                        ? src.titleCol : src.titleCol + ", " + src.descriptionCol));
+        db.execSQL(sql("CREATE TRIGGER :tbl_:srcTbl_delete AFTER DELETE ON :srcTbl BEGIN "
+                + "DELETE FROM :tbl WHERE :docidCol = :oldDocid; "
+                + "END", src));
+    }
+
+    private void index(@NonNull SQLiteDatabase db) {
+        for (Source src : new Source[] {HISTORY, READING_LIST_PAGE, READING_LIST}) {
+            L.i("Indexing table=" + src.tbl);
+            db.execSQL(sql("INSERT INTO :tbl (:docidCol, :titleCol, :descriptionCol) "
+                    + "SELECT :docid, :srcTitle, :srcDescription FROM :srcTbl", src));
+        }
+    }
+
+    @NonNull private String sql(@NonNull String template, @NonNull Source src) {
+        return template
+                .replaceAll(":newDocid", src.docid("new."))
+                .replaceAll(":oldDocid", src.docid("old."))
+                .replaceAll(":docidCol", Col.DOCID.getName())
+                .replaceAll(":docid", src.docid(""))
+                .replaceAll(":newTitle", src.title("new."))
+                .replaceAll(":newDescription", src.description("new."))
+                .replaceAll(":srcTitle", src.title(""))
+                .replaceAll(":srcDescription", src.description(""))
+                .replaceAll(":srcKeyCol", String.valueOf(src.keyCol))
+                .replaceAll(":titleCol", Col.TITLE.getName())
+                .replaceAll(":descriptionCol", Col.DESCRIPTION.getName())
+                .replaceAll(":bodyCol", Col.BODY.getName())
+                .replaceAll(":scratch", String.valueOf(SCRATCH_DOCID))
+                .replaceAll(":srcTbl", src.tbl)
+                .replaceAll(":tbl", getTableName());
+    }
+
+    /** An indexed table. */
+    private static final class Source {
+        @NonNull private final String tbl;
+        @NonNull private final String idCol;
+        @Nullable private final String keyCol;
+        @NonNull private final String titleCol;
+        @Nullable private final String descriptionCol;
+        private final int source;
+
+        Source(@NonNull String tbl, @NonNull String idCol, @Nullable String keyCol,
+               @NonNull String titleCol, @Nullable String descriptionCol, int source) {
+            this.tbl = tbl;
+            this.idCol = idCol;
+            this.keyCol = keyCol;
+            this.titleCol = titleCol;
+            this.descriptionCol = descriptionCol;
+            this.source = source;
+        }
+
+        @NonNull String docid(@NonNull String row) {
+            return "(" + row + idCol + " * " + SearchIndexContract.SOURCES + " + " + source + ")";
+        }
+
+        @NonNull String title(@NonNull String row) {
+            return row + titleCol;
+        }
+
+        @NonNull String description(@NonNull String row) {
+            return descriptionCol == null ? "null" : row + descriptionCol;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.wikipedia.database;
+
+import android.support.annotation.Nullable;
+
+import org.wikipedia.model.BaseModel;
+
+/** A document of the search index. The text of saved pages is indexed but not stored here. */
+public class SearchIndexRow extends BaseModel {
+    public static final SearchIndexDatabaseTable DATABASE_TABLE = new SearchIndexDatabaseTable();
+
+    private final long docId;
+    @Nullable private final String title;
+    @Nullable private final String description;
+
+    public SearchIndexRow(long docId, @Nullable String title, @Nullable String description) {
+        this.docId = docId;
+        this.title = title;
+        this.description = description;
+    }
+
+    public long docId() {
+        return docId;
+    }
+
+    @Nullable public String title() {
+        return title;
+    }
+
+    @Nullable public String description() {
+        return description;
+    }
+}
@@ -6,6 +6,7 @@ import org.wikipedia.database.BaseDao;
 import org.wikipedia.database.DatabaseClient;
 import org.wikipedia.model.EnumCode;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 public abstract class AsyncDao<Status extends EnumCode, Dat, Row extends AsyncRow<Status, Dat>>
@@ -14,10 +15,12 @@ public abstract class AsyncDao<Status extends EnumCode, Dat, Row extends AsyncRo
         super(client);
     }
 
-    public void startTransaction(@NonNull Collection<Row> rows) {
+    /** Starts a transaction for every row. The rows are written in a single transaction. */
+    public synchronized void startTransaction(@NonNull Collection<Row> rows) {
         for (Row row : rows) {
-            startTransaction(row);
+            row.startTransaction();
         }
+        upsert(rows);
     }
 
     public void completeTransaction(@NonNull Row row) {
@@ -34,10 +37,16 @@ public abstract class AsyncDao<Status extends EnumCode, Dat, Row extends AsyncRo
         return false;
     }
 
-    public void failTransaction(@NonNull Collection<Row> rows) {
+    /** Fails the transaction of every completable row. The rows are written in a single transaction. */
+    public synchronized void failTransaction(@NonNull Collection<Row> rows) {
+        Collection<Row> failed = new ArrayList<>();
         for (Row row : rows) {
-            failTransaction(row);
+            if (completableTransaction(row)) {
+                row.failTransaction();
+                failed.add(row);
+            }
         }
+        upsert(failed);
     }
 
     protected void resetTransaction(@NonNull Row row, @NonNull Status status) {
@@ -13,4 +13,6 @@ public interface AppContentProviderContract {
             .authority(AUTHORITY)
             .build();
     String NOTIFY = "notify";
+    String UPSERT = "upsert";
+    String LIMIT = "limit";
 }
@@ -33,6 +33,8 @@ public final class PageHistoryContract {
         Uri URI = Uri.withAppendedPath(AppContentProviderContract.AUTHORITY_BASE, PATH);
         String[] PROJECTION = null;
         String ORDER_MRU = TIMESTAMP.qualifiedName() + " desc";
+        // ORDER_MRU with ties broken by ID, so that the order is total and can be paged by keyset.
+        String ORDER_MRU_ID = ORDER_MRU + ", " + ID.qualifiedName() + " desc";
     }
 
     public interface PageWithImage extends Page {
@@ -16,7 +16,6 @@ import java.util.Set;
 
 import static org.wikipedia.database.contract.ReadingListContract.ListWithPagesAndDisk.PAGE_DISK_KEY;
 import static org.wikipedia.database.contract.ReadingListContract.ListWithPagesAndDisk.PAGE_KEY;
-import static org.wikipedia.database.contract.ReadingListContract.ListWithPagesAndDisk.PAGE_LIST_KEYS;
 
 @SuppressWarnings("checkstyle:interfaceistype")
 public interface ReadingListContract {
@@ -69,12 +68,15 @@ public interface ReadingListContract {
         public static final StrColumn PAGE_DISK_FILENAME = ReadingListPageContract.DiskCol.FILENAME;
 
         public static final String TABLES = (
-                  ":tbl left join :pageTbl on (',' || :pageTbl.listKeysCol || ',') like ('%,' || :tbl.keyCol || ',%') "
+                  ":tbl left join :memberTbl on :memberTbl.listKeyCol = :tbl.keyCol "
+                + "left join :pageTbl on :pageTbl.keyCol = :memberTbl.pageKeyCol "
                 + "left join :diskTbl on :diskTbl.keyCol = :pageTbl.keyCol")
                 .replaceAll(":tbl.keyCol", KEY.qualifiedName())
-                .replaceAll(":pageTbl.listKeysCol", PAGE_LIST_KEYS.qualifiedName())
+                .replaceAll(":memberTbl.listKeyCol", ReadingListPageContract.MemberCol.LIST_KEY.qualifiedName())
+                .replaceAll(":memberTbl.pageKeyCol", ReadingListPageContract.MemberCol.PAGE_KEY.qualifiedName())
                 .replaceAll(":diskTbl.keyCol", PAGE_DISK_KEY.qualifiedName())
                 .replaceAll(":pageTbl.keyCol", PAGE_KEY.qualifiedName())
+                .replaceAll(":memberTbl", ReadingListPageContract.TABLE_MEMBER)
                 .replaceAll(":tbl", TABLE)
                 .replaceAll(":pageTbl", ReadingListPageContract.TABLE_PAGE)
                 .replaceAll(":diskTbl", ReadingListPageContract.TABLE_DISK);
@@ -98,13 +100,16 @@ public interface ReadingListContract {
         public static final Uri URI = Uri.withAppendedPath(AppContentProviderContract.AUTHORITY_BASE, PATH);
 
         public static final String TABLES = (
-                ":tbl inner join :pageTbl on ((',' || :pageTbl.listKeysCol || ',') like ('%,' || :tbl.keyCol || ',%')) and (:tbl.isLearnedCol = 1) "
+                ":tbl inner join :memberTbl on (:memberTbl.listKeyCol = :tbl.keyCol) and (:tbl.isLearnedCol = 1) "
+                        + "inner join :pageTbl on :pageTbl.keyCol = :memberTbl.pageKeyCol "
                         + "inner join :diskTbl on :diskTbl.keyCol = :pageTbl.keyCol")
                 .replaceAll(":tbl.keyCol", KEY.qualifiedName())
                 .replaceAll(":tbl.isLearnedCol", IS_LEARNED.qualifiedName())
-                .replaceAll(":pageTbl.listKeysCol", PAGE_LIST_KEYS.qualifiedName())
+                .replaceAll(":memberTbl.listKeyCol", ReadingListPageContract.MemberCol.LIST_KEY.qualifiedName())
+                .replaceAll(":memberTbl.pageKeyCol", ReadingListPageContract.MemberCol.PAGE_KEY.qualifiedName())
                 .replaceAll(":diskTbl.keyCol", PAGE_DISK_KEY.qualifiedName())
                 .replaceAll(":pageTbl.keyCol", PAGE_KEY.qualifiedName())
+                .replaceAll(":memberTbl", ReadingListPageContract.TABLE_MEMBER)
                 .replaceAll(":tbl", TABLE)
                 .replaceAll(":pageTbl", ReadingListPageContract.TABLE_PAGE)
                 .replaceAll(":diskTbl", ReadingListPageContract.TABLE_DISK);
@@ -26,6 +26,7 @@ public final class ReadingListPageContract {
     public static final String TABLE_PAGE = "readinglistpage";
     public static final String TABLE_HTTP = "readinglistpagehttp";
     public static final String TABLE_DISK = "readinglistpagedisk";
+    public static final String TABLE_MEMBER = "readinglistpagemember";
     private static final String PATH = "readinglist";
 
     public interface PageCol {
@@ -88,16 +89,29 @@ public final class ReadingListPageContract {
         public static final LongColumn TIMESTAMP = DISK_COLS.timestamp();
         public static final LongColumn TRANSACTION_ID = DISK_COLS.transactionId();
         public static final StrColumn FILENAME = new StrColumn(TABLE_DISK, "filename", "text");
+        public static final IntColumn FAILURES = DISK_COLS.failures();
+        public static final LongColumn FAILURE_TIMESTAMP = DISK_COLS.failureTimestamp();
 
         public static final String[] SELECTION = DISK_COLS.selection();
         public static final String[] CONTENT;
         static {
-            CONTENT = new String[DISK_COLS.content().length + 1];
+            String[] extra = DbUtil.qualifiedNames(FILENAME, FAILURES, FAILURE_TIMESTAMP);
+            CONTENT = new String[DISK_COLS.content().length + extra.length];
             System.arraycopy(DISK_COLS.content(), 0, CONTENT, 0, DISK_COLS.content().length);
-            CONTENT[DISK_COLS.content().length] = FILENAME.qualifiedName();
+            System.arraycopy(extra, 0, CONTENT, DISK_COLS.content().length, extra.length);
         }
     }
 
+    /** The reading lists each page belongs to. A denormalized and indexed copy of
+     * {@link PageCol#LIST_KEYS}. */
+    public interface MemberCol {
+        IdColumn ID = new IdColumn(TABLE_MEMBER);
+        StrColumn PAGE_KEY = new StrColumn(TABLE_MEMBER, "pageKey", "text not null");
+        StrColumn LIST_KEY = new StrColumn(TABLE_MEMBER, "listKey", "text not null");
+
+        String[] SELECTION = DbUtil.qualifiedNames(PAGE_KEY, LIST_KEY);
+    }
+
     public interface Page extends PageCol {
         String TABLES = TABLE_PAGE;
         String PATH = ReadingListPageContract.PATH + "/page";
@@ -140,6 +154,13 @@ public final class ReadingListPageContract {
         private Disk() { }
     }
 
+    public interface Member extends MemberCol {
+        String TABLES = TABLE_MEMBER;
+        String PATH = Page.PATH + "/member";
+        Uri URI = Uri.withAppendedPath(AppContentProviderContract.AUTHORITY_BASE, PATH);
+        String[] PROJECTION = null;
+    }
+
     public static final class HttpWithPage implements Page {
         public static final String TABLES = ":httpTbl left join :tbl on (:tbl.keyCol = :httpTbl.keyCol)"
                 .replaceAll(":tbl.keyCol", KEY.qualifiedName())
@@ -0,0 +1,34 @@
+package org.wikipedia.database.contract;
+
+import android.net.Uri;
+
+import org.wikipedia.database.DbUtil;
+import org.wikipedia.database.column.IdColumn;
+import org.wikipedia.database.column.StrColumn;
+
+@SuppressWarnings("checkstyle:interfaceistype")
+public final class SavedPageImageContract {
+    public static final String TABLE = "savedpageimage";
+    private static final String PATH = "saved";
+
+    public interface Col {
+        IdColumn ID = new IdColumn(TABLE);
+
+        /** The key of the reading list page referencing the image. */
+        StrColumn PAGE_KEY = new StrColumn(TABLE, "pageKey", "text not null");
+
+        /** The absolute URL of the image in the save cache. */
+        StrColumn URL = new StrColumn(TABLE, "url", "text not null");
+
+        String[] SELECTION = DbUtil.qualifiedNames(PAGE_KEY, URL);
+    }
+
+    public interface Image extends Col {
+        String TABLES = TABLE;
+        String PATH = SavedPageImageContract.PATH + "/image";
+        Uri URI = Uri.withAppendedPath(AppContentProviderContract.AUTHORITY_BASE, PATH);
+        String[] PROJECTION = null;
+    }
+
+    private SavedPageImageContract() { }
+}
@@ -0,0 +1,97 @@
+package org.wikipedia.database.contract;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wikipedia.database.DbUtil;
+import org.wikipedia.database.column.LongColumn;
+import org.wikipedia.database.column.StrColumn;
+
+/** A full-text index of history, reading lists, reading list pages, and saved page text. Each
+ * indexed row is a document whose docid is the row ID times {@link #SOURCES} plus its source.
+ *
+ * The index matches query words as word prefixes. It replaced title searches with
+ * UPPER(title) LIKE '%q%', which matched any substring: "bama" no longer finds "Barack Obama",
+ * but "oba" does, and so do descriptions and saved page text. */
+@SuppressWarnings("checkstyle:interfaceistype")
+public final class SearchIndexContract {
+    public static final String TABLE = "searchindex";
+    private static final String PATH = "searchindex";
+
+    public static final int SOURCES = 3;
+    public static final int SOURCE_HISTORY = 0;
+    public static final int SOURCE_READING_LIST_PAGE = 1;
+    public static final int SOURCE_READING_LIST = 2;
+
+    public interface Col {
+        LongColumn DOCID = new LongColumn(TABLE, "docid", "integer primary key");
+        StrColumn TITLE = new StrColumn(TABLE, "title", "text");
+        StrColumn DESCRIPTION = new StrColumn(TABLE, "description", "text");
+        StrColumn BODY = new StrColumn(TABLE, "body", "text");
+    }
+
+    public interface Doc extends Col {
+        String TABLES = TABLE;
+        String PATH = SearchIndexContract.PATH + "/doc";
+        Uri URI = Uri.withAppendedPath(AppContentProviderContract.AUTHORITY_BASE, PATH);
+        String[] PROJECTION = DbUtil.qualifiedNames(DOCID, TITLE, DESCRIPTION);
+
+        // Only valid for match queries. The statistics SearchIndexDao ranks documents by: the
+        // phrase and column counts, the document count, the average and document token count of
+        // each column, and the hits of each phrase in each column.
+        String MATCHINFO = "matchinfo";
+        String[] RANK_PROJECTION = {DOCID.qualifiedName(), TITLE.qualifiedName(),
+                DESCRIPTION.qualifiedName(), "matchinfo(:tbl, 'pcnalx') as :matchinfo"
+                .replaceAll(":tbl", TABLE)
+                .replaceAll(":matchinfo", MATCHINFO)};
+
+        // Only valid for match queries. Documents matched in an earlier column rank first (title
+        // before description before body), then documents with more matches.
+        String ORDER_RANK = ("substr(offsets(:tbl), 1, 1) asc, "
+                + "length(offsets(:tbl)) - length(replace(offsets(:tbl), ' ', '')) desc")
+                .replaceAll(":tbl", TABLE);
+    }
+
+    /**
+     * @param idCol The qualified ID column of the table indexed as source.
+     * @return A selection of the rows of source whose documents match the expression bound to the
+     *         single argument. Use {@link #matchExpression} to build the argument.
+     */
+    @NonNull public static String selection(@NonNull String idCol, int source) {
+        return (":idCol in (select :docidCol / :sources from :tbl where :tbl match ? "
+                + "and :docidCol % :sources = :source)")
+                .replaceAll(":idCol", idCol)
+                .replaceAll(":docidCol", Col.DOCID.getName())
+                .replaceAll(":sources", String.valueOf(SOURCES))
+                .replaceAll(":source", String.valueOf(source))
+                .replaceAll(":tbl", TABLE);
+    }
+
+    /**
+     * @return A match expression for documents containing every word in the query as a prefix of
+     *         one of their words, or the empty expression, which matches nothing, if the query has
+     *         no words. Matching is case insensitive for ASCII characters only.
+     */
+    @NonNull public static String matchExpression(@Nullable String query) {
+        StringBuilder builder = new StringBuilder();
+        int start = -1;
+        int length = query == null ? 0 : query.length();
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(query.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                // Quoted so that words like "OR" and "NEAR" are never read as operators.
+                builder.append('"').append(query, start, i).append("*\"");
+                start = -1;
+            }
+        }
+        return builder.toString();
+    }
+
+    private SearchIndexContract() { }
+}
@@ -5,6 +5,10 @@ import android.support.annotation.NonNull;
 import org.wikipedia.database.DatabaseClient;
 import org.wikipedia.database.async.AsyncDao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
 public class HttpRowDao<Dat, Row extends HttpRow<Dat>> extends AsyncDao<HttpStatus, Dat, Row> {
     /**
      * @param client Database client singleton. No writes should be performed to the table outside
@@ -16,21 +20,32 @@ public class HttpRowDao<Dat, Row extends HttpRow<Dat>> extends AsyncDao<HttpStat
 
     // TODO: most clients just have a Dat. Should the input be that instead?
     public synchronized void markUpserted(@NonNull Row row) {
-        Row query = queryPrimaryKey(row);
-        switch (query == null ? HttpStatus.DELETED : query.status()) {
-            case SYNCHRONIZED:
-            case OUTDATED:
-            case MODIFIED:
-                resetTransaction(row, HttpStatus.MODIFIED);
-                break;
-            case DELETED:
-                resetTransaction(row, HttpStatus.ADDED);
-                break;
-            case ADDED:
-                break;
-            default:
-                throw new RuntimeException("status=" + row.status());
+        markUpserted(Collections.singletonList(row));
+    }
+
+    /** Marks all rows upserted. Changed rows are written in a single transaction. */
+    public synchronized void markUpserted(@NonNull Collection<Row> rows) {
+        Collection<Row> reset = new ArrayList<>();
+        for (Row row : rows) {
+            Row query = queryPrimaryKey(row);
+            switch (query == null ? HttpStatus.DELETED : query.status()) {
+                case SYNCHRONIZED:
+                case OUTDATED:
+                case MODIFIED:
+                    row.resetTransaction(HttpStatus.MODIFIED);
+                    reset.add(row);
+                    break;
+                case DELETED:
+                    row.resetTransaction(HttpStatus.ADDED);
+                    reset.add(row);
+                    break;
+                case ADDED:
+                    break;
+                default:
+                    throw new RuntimeException("status=" + row.status());
+            }
         }
+        upsert(reset);
     }
 
     public synchronized void markOutdated(@NonNull Row row) {
@@ -50,19 +65,29 @@ public class HttpRowDao<Dat, Row extends HttpRow<Dat>> extends AsyncDao<HttpStat
     }
 
     public synchronized void markDeleted(@NonNull Row row) {
-        Row query = queryPrimaryKey(row);
-        switch (query == null ? HttpStatus.DELETED : query.status()) {
-            case SYNCHRONIZED:
-            case OUTDATED:
-            case MODIFIED:
-            case ADDED:
-                resetTransaction(row, HttpStatus.DELETED);
-                break;
-            case DELETED:
-                break;
-            default:
-                throw new RuntimeException("status=" + row.status());
+        markDeleted(Collections.singletonList(row));
+    }
+
+    /** Marks all rows deleted. Changed rows are written in a single transaction. */
+    public synchronized void markDeleted(@NonNull Collection<Row> rows) {
+        Collection<Row> reset = new ArrayList<>();
+        for (Row row : rows) {
+            Row query = queryPrimaryKey(row);
+            switch (query == null ? HttpStatus.DELETED : query.status()) {
+                case SYNCHRONIZED:
+                case OUTDATED:
+                case MODIFIED:
+                case ADDED:
+                    row.resetTransaction(HttpStatus.DELETED);
+                    reset.add(row);
+                    break;
+                case DELETED:
+                    break;
+                default:
+                    throw new RuntimeException("status=" + row.status());
+            }
         }
+        upsert(reset);
     }
 
     @Override
@@ -5,17 +5,30 @@ import android.support.annotation.VisibleForTesting;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Map;
+
 public class MwQueryResponse<T> extends MwResponse {
 
     @SuppressWarnings("unused") @SerializedName("batchcomplete")
     private boolean batchComplete;
 
+    @SuppressWarnings("unused") @SerializedName("continue") @Nullable
+    private Map<String, String> continuation;
+
     @Nullable private T query;
 
     public boolean batchComplete() {
         return batchComplete;
     }
 
+    /**
+     * @return The parameters to add to the request to continue the query, or null if the query is
+     *         complete.
+     */
+    @Nullable public Map<String, String> continuation() {
+        return continuation;
+    }
+
     @Nullable public T query() {
         return query;
     }
@@ -3,29 +3,22 @@ package org.wikipedia.dataclient.okhttp;
 import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
 
-import com.github.kevinsawicki.http.HttpRequest;
-
 import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.SharedPreferenceCookieManager;
 import org.wikipedia.settings.Prefs;
 import org.wikipedia.settings.RbSwitch;
 
 import java.io.File;
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.Proxy;
-import java.net.URL;
 
 import okhttp3.Cache;
 import okhttp3.CacheDelegate;
 import okhttp3.CookieJar;
 import okhttp3.JavaNetCookieJar;
 import okhttp3.OkHttpClient;
-import okhttp3.OkUrlFactory;
 import okhttp3.internal.cache.CacheDelegateInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor;
 
-public class OkHttpConnectionFactory implements HttpRequest.ConnectionFactory {
+public class OkHttpConnectionFactory {
     private static final String CACHE_DIR_NAME = "okhttp-cache";
     private static final long NET_CACHE_SIZE = 64 * 1024 * 1024;
     @VisibleForTesting @NonNull public static final Cache NET_CACHE = new Cache(new File(WikipediaApp.getInstance().getCacheDir(),
@@ -35,20 +28,18 @@ public class OkHttpConnectionFactory implements HttpRequest.ConnectionFactory {
             CACHE_DIR_NAME), SAVED_PAGE_CACHE_SIZE);
 
     @NonNull private static final OkHttpClient CLIENT = createClient();
+    @NonNull private static final OkHttpClient UNCACHED_CLIENT = createUncachedClient();
 
     @NonNull public static OkHttpClient getClient() {
         return CLIENT;
     }
 
-    @Override
-    public HttpURLConnection create(URL url) throws IOException {
-        return new OkUrlFactory(getClient()).open(url); // TODO: update to newer API
-    }
-
-    @Override
-    public HttpURLConnection create(URL url, Proxy proxy) throws IOException {
-        throw new UnsupportedOperationException(
-                "Per-connection proxy is not supported. Use OkHttpClient's setProxy instead.");
+    /**
+     * @return A client without the caches or cache interceptors, for conditional requests whose
+     *         304 responses should reach the caller.
+     */
+    @NonNull public static OkHttpClient getUncachedClient() {
+        return UNCACHED_CLIENT;
     }
 
     @NonNull
@@ -71,4 +62,14 @@ public class OkHttpConnectionFactory implements HttpRequest.ConnectionFactory {
                 .addInterceptor(new WikipediaZeroResponseInterceptor(WikipediaApp.getInstance().getWikipediaZeroHandler()))
                 .build();
     }
+
+    @NonNull
+    private static OkHttpClient createUncachedClient() {
+        OkHttpClient.Builder builder = CLIENT.newBuilder().cache(null);
+        builder.interceptors().clear();
+        return builder
+                .addInterceptor(new HttpLoggingInterceptor().setLevel(Prefs.getRetrofitLogLevel()))
+                .addInterceptor(new CommonHeaderRequestInterceptor())
+                .build();
+    }
 }
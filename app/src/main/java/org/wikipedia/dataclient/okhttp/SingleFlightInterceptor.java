@@ -0,0 +1,146 @@
+package org.wikipedia.dataclient.okhttp;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Coalesces identical GET requests that are in flight at the same time. The first request for a
+ * URL and set of headers goes on down the chain; requests that arrive while it is outstanding wait
+ * for its response and are each given a copy of the body. Requests must be identical, headers
+ * included, so that responses which vary on a header are never shared.
+ *
+ * The response body is only buffered when another request is waiting on it; otherwise it is passed
+ * through untouched. If the shared request fails, the waiting requests are made independently, so
+ * that one caller's cancellation or timeout does not fail the others.
+ */
+public class SingleFlightInterceptor implements Interceptor {
+    @NonNull public static final SingleFlightInterceptor INSTANCE = new SingleFlightInterceptor();
+
+    @NonNull private final Map<String, Flight> flights = new HashMap<>();
+    private int requestCount;
+    private int coalescedCount;
+
+    @VisibleForTesting SingleFlightInterceptor() { }
+
+    @Override public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        String key = key(request);
+        Flight flight;
+        boolean leader;
+        synchronized (this) {
+            requestCount++;
+            flight = flights.get(key);
+            leader = flight == null;
+            if (leader) {
+                flight = new Flight();
+                flights.put(key, flight);
+            } else {
+                flight.waiters++;
+                coalescedCount++;
+            }
+        }
+
+        return leader ? lead(chain, key, flight) : follow(chain, flight);
+    }
+
+    /** @return The number of GET requests seen. */
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    /** @return The number of GET requests that waited on an identical request instead of being made. */
+    public synchronized int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    @NonNull private Response lead(@NonNull Chain chain, @NonNull String key,
+                                   @NonNull Flight flight) throws IOException {
+        Response rsp;
+        try {
+            rsp = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            land(key);
+            flight.fail();
+            throw e;
+        }
+
+        // No request can join the flight once it has landed, so the waiter count is final.
+        if (land(key) == 0) {
+            return rsp;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = rsp.body().bytes();
+        } catch (IOException | RuntimeException e) {
+            flight.fail();
+            throw e;
+        }
+        flight.complete(rsp, bytes);
+        return copy(rsp, chain.request(), bytes);
+    }
+
+    @NonNull private Response follow(@NonNull Chain chain, @NonNull Flight flight) throws IOException {
+        try {
+            flight.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+
+        if (flight.response == null || flight.bytes == null) {
+            return chain.proceed(chain.request());
+        }
+        return copy(flight.response, chain.request(), flight.bytes);
+    }
+
+    private synchronized int land(@NonNull String key) {
+        return flights.remove(key).waiters;
+    }
+
+    @NonNull private static Response copy(@NonNull Response rsp, @NonNull Request request,
+                                          @NonNull byte[] bytes) {
+        return rsp.newBuilder()
+                .request(request)
+                .body(ResponseBody.create(rsp.body().contentType(), bytes))
+                .build();
+    }
+
+    @NonNull private static String key(@NonNull Request request) {
+        return request.url() + "\n" + request.headers();
+    }
+
+    private static class Flight {
+        @NonNull private final CountDownLatch latch = new CountDownLatch(1);
+        private int waiters;
+        // Published to the waiters by the latch.
+        @Nullable private Response response;
+        @Nullable private byte[] bytes;
+
+        void complete(@NonNull Response rsp, @NonNull byte[] body) {
+            response = rsp;
+            bytes = body;
+            latch.countDown();
+        }
+
+        void fail() {
+            latch.countDown();
+        }
+    }
+}
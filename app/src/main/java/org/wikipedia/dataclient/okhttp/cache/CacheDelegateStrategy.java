@@ -9,5 +9,10 @@ public final class CacheDelegateStrategy {
         return SaveHeader.isSaveEnabled(request.header(SaveHeader.FIELD));
     }
 
+    /** @return True if the request may only be served from the save cache. */
+    public static boolean isSavedOnly(@NonNull Request request) {
+        return request.cacheControl().onlyIfCached() && isCacheable(request);
+    }
+
     private CacheDelegateStrategy() { }
 }
@@ -0,0 +1,594 @@
+package org.wikipedia.dataclient.page;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.LruCache;
+import android.text.format.DateUtils;
+
+import com.google.gson.JsonParseException;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.dataclient.ServiceError;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.dataclient.restbase.RbDefinition;
+import org.wikipedia.dataclient.restbase.page.RbPageClient;
+import org.wikipedia.json.GsonMarshaller;
+import org.wikipedia.json.GsonUnmarshaller;
+import org.wikipedia.page.Namespace;
+import org.wikipedia.page.PageTitle;
+import org.wikipedia.util.FileUtil;
+import org.wikipedia.util.StringUtil;
+import org.wikipedia.util.log.L;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import okhttp3.internal.Util;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Page summaries for link previews and Wiktionary definitions, by wiki and title. Recently used
+ * entries are kept in memory, bounded by the length of their JSON, and each entry is also written
+ * to a file of its own so that it outlives the memory cache and the process. The files are trimmed
+ * to a count, oldest first, every TRIM_INTERVAL writes and expire with the memory entries.
+ *
+ * Summaries may be prefetched, e.g., for the links on screen. Prefetching and writing share the
+ * file thread with reads for the user but queue behind each other, so that a read waits for at
+ * most one of them. A request for an entry that is already being fetched waits for that fetch.
+ *
+ * The file of a prefetched entry keeps a suffix until the entry is first read so that the bytes of
+ * prefetched entries that expire or are evicted unread can be counted as wasted.
+ */
+public final class PageSummaryCache {
+    public interface Callback<T> {
+        /** Called on the main thread. */
+        void success(@NonNull T result);
+
+        /**
+         * Called on the main thread.
+         * @param caught The cause of the failure, or null if the service returned an error.
+         */
+        void failure(@Nullable Throwable caught);
+    }
+
+    @VisibleForTesting static final int MAX_FILES = 500;
+    @VisibleForTesting static final long TTL_MILLIS = DateUtils.DAY_IN_MILLIS;
+    private static final int TRIM_INTERVAL = 20;
+    private static final int MAX_MEMORY_CHARS = 1024 * 1024;
+    private static final int MAX_PREFETCH = 20;
+    private static final String PREFETCHED_SUFFIX = ".prefetched";
+    private static final String DIRNAME = "page_summaries";
+    private static final String SUMMARY = "summary";
+    private static final String DEFINITION = "definition";
+
+    private static final PageSummaryCache INSTANCE = new PageSummaryCache(
+            new File(WikipediaApp.getInstance().getCacheDir(), DIRNAME),
+            Executors.newSingleThreadExecutor());
+
+    // Files are only accessed on the executor, or directly by tests.
+    @NonNull private final File dir;
+    @NonNull private final Executor executor;
+    @NonNull private final Executor background;
+    @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+    @NonNull private final LruCache<String, Entry> memory = new LruCache<String, Entry>(MAX_MEMORY_CHARS) {
+        @Override protected int sizeOf(String key, Entry entry) {
+            return entry.json.length();
+        }
+    };
+
+    // Keys of the prefetches being looked up on disk. Only accessed on the main thread.
+    @NonNull private final Set<String> prefetching = new HashSet<>();
+
+    // Callbacks waiting for each fetch in flight, which all have the type of the key's kind. Only
+    // accessed on the main thread.
+    @NonNull private final Map<String, List<Callback<?>>> fetching = new HashMap<>();
+
+    // Only accessed on the executor.
+    private int writeCount;
+
+    private int memoryHitCount;
+    private int diskHitCount;
+    private int missCount;
+    private int prefetchCount;
+    private int prefetchUsedCount;
+    private long prefetchWastedBytes;
+
+    public static PageSummaryCache instance() {
+        return INSTANCE;
+    }
+
+    @VisibleForTesting PageSummaryCache(@NonNull File dir, @NonNull Executor executor) {
+        this.dir = dir;
+        this.executor = executor;
+        background = new SerialExecutor(executor);
+    }
+
+    /** Gets the summary of a page, from memory immediately if it's there. */
+    public void summary(@NonNull PageTitle title, @NonNull Callback<PageSummary> cb) {
+        get(key(SUMMARY, title.getWikiSite(), title.getPrefixedText()), Summary.class,
+                summaryFetcher(title), cb);
+    }
+
+    /** Gets the Wiktionary definition of a term, from memory immediately if it's there. */
+    public void definition(@NonNull WikiSite wiki, @NonNull String term,
+                           @NonNull Callback<RbDefinition> cb) {
+        get(key(DEFINITION, wiki, term), RbDefinition.class, definitionFetcher(wiki, term), cb);
+    }
+
+    /**
+     * Fetches the summaries of the first MAX_PREFETCH pages in the background, except those already
+     * cached or being fetched.
+     */
+    public void prefetchSummaries(@NonNull List<PageTitle> titles) {
+        for (final PageTitle title : titles.subList(0, Math.min(MAX_PREFETCH, titles.size()))) {
+            final String key = key(SUMMARY, title.getWikiSite(), title.getPrefixedText());
+            if (prefetching.contains(key) || fetching.containsKey(key) || memory.get(key) != null) {
+                continue;
+            }
+            prefetching.add(key);
+            background.execute(new Runnable() {
+                @Override public void run() {
+                    final boolean cached = isOnDisk(key, System.currentTimeMillis());
+                    handler.post(new Runnable() {
+                        @Override public void run() {
+                            prefetching.remove(key);
+                            if (!cached) {
+                                fetch(key, summaryFetcher(title), null);
+                            }
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    /** @return The number of entries found in memory or on disk. */
+    public synchronized int getHitCount() {
+        return memoryHitCount + diskHitCount;
+    }
+
+    /** @return The number of entries found in memory. */
+    public synchronized int getMemoryHitCount() {
+        return memoryHitCount;
+    }
+
+    /** @return The number of entries that had to be fetched. */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /** @return The fraction of entries found in memory or on disk, or 0 if none were requested. */
+    public synchronized float getHitRate() {
+        int requestCount = memoryHitCount + diskHitCount + missCount;
+        return requestCount == 0 ? 0 : (float) (memoryHitCount + diskHitCount) / requestCount;
+    }
+
+    /** @return The number of entries prefetched. */
+    public synchronized int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /** @return The number of prefetched entries that were read. */
+    public synchronized int getPrefetchUsedCount() {
+        return prefetchUsedCount;
+    }
+
+    /** @return The bytes of prefetched entries that expired or were evicted before being read. */
+    public synchronized long getPrefetchWastedBytes() {
+        return prefetchWastedBytes;
+    }
+
+    /** @return The unexpired JSON cached in memory for the key, or null if none. Counts only hits. */
+    @VisibleForTesting @Nullable String getFromMemory(@NonNull final String key, long now) {
+        Entry entry = memory.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.timestamp >= TTL_MILLIS) {
+            memory.remove(key);
+            return null;
+        }
+
+        boolean firstRead;
+        synchronized (this) {
+            memoryHitCount++;
+            firstRead = entry.prefetched;
+            entry.prefetched = false;
+            if (firstRead) {
+                prefetchUsedCount++;
+            }
+        }
+        if (firstRead) {
+            background.execute(new Runnable() {
+                @Override public void run() {
+                    markRead(key);
+                }
+            });
+        }
+        return entry.json;
+    }
+
+    /** @return The unexpired JSON cached on disk for the key, or null if none. Counts hits and misses. */
+    @VisibleForTesting @Nullable String getFromDisk(@NonNull String key, long now) {
+        File file = file(key, false);
+        boolean prefetched = !file.exists();
+        if (prefetched) {
+            file = file(key, true);
+        }
+        String json = isFresh(file, now) ? read(file) : null;
+        if (json == null) {
+            if (file.exists()) {
+                delete(file);
+            }
+            synchronized (this) {
+                missCount++;
+            }
+            return null;
+        }
+
+        memory.put(key, new Entry(json, file.lastModified(), false));
+        if (prefetched) {
+            markRead(key);
+        }
+        synchronized (this) {
+            diskHitCount++;
+            if (prefetched) {
+                prefetchUsedCount++;
+            }
+        }
+        return json;
+    }
+
+    /** Caches the JSON in memory immediately and on disk in the background. */
+    @VisibleForTesting void put(@NonNull final String key, @NonNull final String json,
+                                final boolean prefetched, final long now) {
+        memory.put(key, new Entry(json, now, prefetched));
+        background.execute(new Runnable() {
+            @Override public void run() {
+                write(key, json, prefetched, now);
+            }
+        });
+    }
+
+    @NonNull @VisibleForTesting static String key(@NonNull String kind, @NonNull WikiSite wiki,
+                                                  @NonNull String title) {
+        return kind + ":" + wiki.authority() + ":" + title;
+    }
+
+    @VisibleForTesting <T> void get(@NonNull final String key, @NonNull final Class<? extends T> type,
+                                    @NonNull final Fetcher<T> fetcher, @NonNull final Callback<T> cb) {
+        T cached = unmarshal(type, getFromMemory(key, System.currentTimeMillis()));
+        if (cached != null) {
+            cb.success(cached);
+            return;
+        }
+        List<Callback<?>> waiting = fetching.get(key);
+        if (waiting != null) {
+            synchronized (this) {
+                missCount++;
+            }
+            waiting.add(cb);
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                final T stored = unmarshal(type, getFromDisk(key, System.currentTimeMillis()));
+                handler.post(new Runnable() {
+                    @Override public void run() {
+                        if (stored != null) {
+                            cb.success(stored);
+                        } else {
+                            fetch(key, fetcher, cb);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Fetches the entry unless a fetch of it is already in flight, which the callback then waits for.
+     * @param cb The callback, or null to prefetch the entry.
+     */
+    private <T> void fetch(@NonNull final String key, @NonNull Fetcher<T> fetcher,
+                           @Nullable Callback<T> cb) {
+        final boolean prefetch = cb == null;
+        List<Callback<?>> waiting = fetching.get(key);
+        boolean inFlight = waiting != null;
+        if (!inFlight) {
+            waiting = new ArrayList<>();
+            fetching.put(key, waiting);
+        }
+        if (cb != null) {
+            waiting.add(cb);
+        }
+        if (inFlight) {
+            return;
+        }
+
+        fetcher.fetch(new Callback<T>() {
+            @SuppressWarnings("unchecked") @Override public void success(@NonNull T result) {
+                List<Callback<?>> waiters = fetching.remove(key);
+                // A prefetch that a request waited for was read as soon as it arrived.
+                boolean unread = prefetch && waiters.isEmpty();
+                if (prefetch) {
+                    synchronized (PageSummaryCache.this) {
+                        prefetchCount++;
+                        if (!unread) {
+                            prefetchUsedCount++;
+                        }
+                    }
+                }
+                put(key, GsonMarshaller.marshal(result), unread, System.currentTimeMillis());
+                for (Callback<?> waiter : waiters) {
+                    ((Callback<T>) waiter).success(result);
+                }
+            }
+
+            @Override public void failure(@Nullable Throwable caught) {
+                for (Callback<?> waiter : fetching.remove(key)) {
+                    waiter.failure(caught);
+                }
+            }
+        });
+    }
+
+    @NonNull private static Fetcher<PageSummary> summaryFetcher(@NonNull final PageTitle title) {
+        return new Fetcher<PageSummary>() {
+            @Override public void fetch(@NonNull final Callback<PageSummary> cb) {
+                PageClientFactory.create(title.getWikiSite(), title.namespace())
+                        .summary(title.getPrefixedText())
+                        .enqueue(new retrofit2.Callback<PageSummary>() {
+                            @Override public void onResponse(Call<PageSummary> call, Response<PageSummary> rsp) {
+                                PageSummary summary = rsp.body();
+                                if (summary != null && !summary.hasError()) {
+                                    cb.success(new Summary(summary));
+                                } else {
+                                    logError(summary == null ? null : summary.getError(),
+                                            "Page summary network request failed");
+                                    cb.failure(null);
+                                }
+                            }
+
+                            @Override public void onFailure(Call<PageSummary> call, Throwable caught) {
+                                cb.failure(caught);
+                            }
+                        });
+            }
+        };
+    }
+
+    @NonNull private static Fetcher<RbDefinition> definitionFetcher(@NonNull final WikiSite wiki,
+                                                                    @NonNull final String term) {
+        return new Fetcher<RbDefinition>() {
+            @Override public void fetch(@NonNull final Callback<RbDefinition> cb) {
+                PageClient client = PageClientFactory.create(wiki, Namespace.MAIN);
+                if (!(client instanceof RbPageClient)) {
+                    cb.failure(new IllegalStateException("Wiktionary definitions require mobile content service loading"));
+                    return;
+                }
+                ((RbPageClient) client).define(term, new RbPageClient.DefinitionCallback() {
+                    @Override public void success(@NonNull RbDefinition definition) {
+                        cb.success(definition);
+                    }
+
+                    @Override public void failure(@NonNull Throwable throwable) {
+                        cb.failure(throwable);
+                    }
+                });
+            }
+        };
+    }
+
+    @Nullable private static <T> T unmarshal(@NonNull Class<? extends T> type, @Nullable String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return GsonUnmarshaller.unmarshal(type, json);
+        } catch (JsonParseException e) {
+            L.w("Failed to read cached page summary", e);
+            return null;
+        }
+    }
+
+    private static void logError(@Nullable ServiceError error, @NonNull String message) {
+        if (error != null) {
+            message += ": " + error.toString();
+        }
+        L.e(message);
+    }
+
+    @NonNull private File file(@NonNull String key, boolean prefetched) {
+        return new File(dir, StringUtil.md5string(key) + (prefetched ? PREFETCHED_SUFFIX : ""));
+    }
+
+    private boolean isOnDisk(@NonNull String key, long now) {
+        return isFresh(file(key, false), now) || isFresh(file(key, true), now);
+    }
+
+    private static boolean isFresh(@NonNull File file, long now) {
+        return file.exists() && now - file.lastModified() < TTL_MILLIS;
+    }
+
+    @Nullable private static String read(@NonNull File file) {
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            return FileUtil.readFile(in);
+        } catch (IOException e) {
+            L.w("Failed to read cached page summary", e);
+            return null;
+        } finally {
+            Util.closeQuietly(in);
+        }
+    }
+
+    // The modification time of each file is the time its entry was fetched, which renaming keeps.
+    private void write(@NonNull String key, @NonNull String json, boolean prefetched, long now) {
+        File file = file(key, prefetched);
+        File other = file(key, !prefetched);
+        if (other.exists()) {
+            delete(other);
+        }
+        if (!dir.exists() && !dir.mkdirs()) {
+            L.w("Failed to create page summary cache directory");
+            return;
+        }
+
+        try {
+            FileUtil.writeAtomically(file, json, now);
+        } catch (IOException e) {
+            L.w("Failed to save page summary", e);
+            return;
+        }
+
+        // Trim on the first write of the process too, so that the files stay bounded when each
+        // process writes few of them.
+        if (writeCount++ % TRIM_INTERVAL == 0) {
+            trim();
+        }
+    }
+
+    private void markRead(@NonNull String key) {
+        File prefetched = file(key, true);
+        if (prefetched.exists() && !prefetched.renameTo(file(key, false))) {
+            L.w("Failed to mark prefetched page summary read");
+        }
+    }
+
+    private void trim() {
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= MAX_FILES) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override public int compare(File lhs, File rhs) {
+                long lhsModified = lhs.lastModified();
+                long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+        for (int i = 0; i < files.length - MAX_FILES; i++) {
+            delete(files[i]);
+        }
+    }
+
+    private void delete(@NonNull File file) {
+        long length = file.length();
+        if (!file.delete()) {
+            L.w("Failed to delete cached page summary");
+        } else if (file.getName().endsWith(PREFETCHED_SUFFIX)) {
+            synchronized (this) {
+                prefetchWastedBytes += length;
+            }
+        }
+    }
+
+    @VisibleForTesting interface Fetcher<T> {
+        void fetch(@NonNull Callback<T> cb);
+    }
+
+    // Runs tasks on an executor one at a time, so that tasks given to the executor directly wait for
+    // at most one of them.
+    private static final class SerialExecutor implements Executor {
+        @NonNull private final Executor executor;
+        @NonNull private final Deque<Runnable> tasks = new ArrayDeque<>();
+        @Nullable private Runnable active;
+
+        SerialExecutor(@NonNull Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override public synchronized void execute(@NonNull final Runnable task) {
+            tasks.offer(new Runnable() {
+                @Override public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) {
+                executor.execute(active);
+            }
+        }
+    }
+
+    private static final class Entry {
+        @NonNull private final String json;
+        private final long timestamp;
+        // True until a prefetched entry is first read. Guarded by the cache.
+        private boolean prefetched;
+
+        Entry(@NonNull String json, long timestamp, boolean prefetched) {
+            this.json = json;
+            this.timestamp = timestamp;
+            this.prefetched = prefetched;
+        }
+    }
+
+    /** The fields of a summary that previews use, in a form that can be cached. */
+    @VisibleForTesting static final class Summary implements PageSummary {
+        @Nullable private String title;
+        @Nullable private String extract;
+        @Nullable private String thumbnailUrl;
+
+        Summary(@NonNull PageSummary summary) {
+            this(summary.getTitle(), summary.getExtract(), summary.getThumbnailUrl());
+        }
+
+        @VisibleForTesting Summary(@Nullable String title, @Nullable String extract,
+                                   @Nullable String thumbnailUrl) {
+            this.title = title;
+            this.extract = extract;
+            this.thumbnailUrl = thumbnailUrl;
+        }
+
+        @Override public boolean hasError() {
+            return false;
+        }
+
+        @Nullable @Override public ServiceError getError() {
+            return null;
+        }
+
+        @Nullable @Override public String getTitle() {
+            return title;
+        }
+
+        @Nullable @Override public String getExtract() {
+            return extract;
+        }
+
+        @Nullable @Override public String getThumbnailUrl() {
+            return thumbnailUrl;
+        }
+    }
+}
@@ -23,8 +23,12 @@ public abstract class CachedService<T> {
     }
 
     protected void update() {
-        retrofit = create();
-        service = retrofit.create(clazz);
+        Retrofit current = create();
+        // Pooled Retrofit instances are shared, so the service may not need to be recreated.
+        if (current != retrofit || service == null) {
+            retrofit = current;
+            service = retrofit.create(clazz);
+        }
     }
 
     protected boolean outdated() {
@@ -10,6 +10,6 @@ public class MwCachedService<T> extends WikiCachedService<T> {
     }
 
     @NonNull @Override protected Retrofit create() {
-        return RetrofitFactory.newInstance(wiki());
+        return RetrofitFactory.instance(wiki());
     }
 }
@@ -16,6 +16,6 @@ public class RbCachedService<T> extends WikiCachedService<T> {
     @NonNull @Override protected Retrofit create() {
         String endpoint = String.format(Locale.ROOT, Prefs.getRestbaseUriFormat(), wiki().scheme(),
                 wiki().authority());
-        return RetrofitFactory.newInstance(endpoint, wiki());
+        return RetrofitFactory.instance(endpoint, wiki());
     }
 }
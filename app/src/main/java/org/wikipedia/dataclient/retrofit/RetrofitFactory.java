@@ -1,10 +1,13 @@
 package org.wikipedia.dataclient.retrofit;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.util.LruCache;
 
 import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory;
+import org.wikipedia.dataclient.okhttp.SingleFlightInterceptor;
 import org.wikipedia.json.GsonUtil;
 
 import java.io.IOException;
@@ -16,19 +19,62 @@ import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public final class RetrofitFactory {
-    public static Retrofit newInstance(@NonNull WikiSite wiki) {
-        return newInstance(wiki.url() + "/", wiki);
+    // Enough for the app language, a few other languages the user reads in, and the RESTBase,
+    // Wikidata and Meta endpoints of each.
+    private static final int POOL_SIZE = 16;
+
+    @NonNull private static final GsonConverterFactory GSON_CONVERTER_FACTORY
+            = GsonConverterFactory.create(GsonUtil.getDefaultGson());
+
+    /**
+     * Recently used Retrofit instances, keyed by endpoint and Accept-Language. A Retrofit instance
+     * caches the parsed service methods and converters of the services created from it, so reusing
+     * one saves the reflection and client setup when switching back to a wiki.
+     */
+    @NonNull private static final LruCache<String, Retrofit> POOL = new LruCache<>(POOL_SIZE);
+
+    /** @return A shared Retrofit instance for the MediaWiki API of the wiki. */
+    @NonNull public static Retrofit instance(@NonNull WikiSite wiki) {
+        return instance(wiki.url() + "/", wiki);
+    }
+
+    /** @return A shared Retrofit instance for the endpoint, sending the Accept-Language of the wiki. */
+    @NonNull public static Retrofit instance(@NonNull String endpoint, @NonNull WikiSite wiki) {
+        String key = endpoint + "\n" + WikipediaApp.getInstance().getAcceptLanguage(wiki);
+        Retrofit retrofit = POOL.get(key);
+        if (retrofit == null) {
+            // A concurrent miss for the same key may build a second instance; the last one put wins
+            // and both behave identically.
+            retrofit = newInstance(endpoint, wiki);
+            POOL.put(key, retrofit);
+        }
+        return retrofit;
     }
 
-    public static Retrofit newInstance(@NonNull String endpoint, @NonNull WikiSite wiki) {
+    @NonNull private static Retrofit newInstance(@NonNull String endpoint, @NonNull WikiSite wiki) {
         return new Retrofit.Builder()
                 .client(OkHttpConnectionFactory.getClient().newBuilder()
-                        .addInterceptor(new LanguageVariantHeaderInterceptor(wiki)).build())
+                        .addInterceptor(new LanguageVariantHeaderInterceptor(wiki))
+                        // after all request headers are set, so that only identical requests are coalesced
+                        .addInterceptor(SingleFlightInterceptor.INSTANCE)
+                        .build())
                 .baseUrl(endpoint)
-                .addConverterFactory(GsonConverterFactory.create(GsonUtil.getDefaultGson()))
+                .addConverterFactory(GSON_CONVERTER_FACTORY)
                 .build();
     }
 
+    public static int poolHitCount() {
+        return POOL.hitCount();
+    }
+
+    public static int poolMissCount() {
+        return POOL.missCount();
+    }
+
+    @VisibleForTesting static void clearPool() {
+        POOL.evictAll();
+    }
+
     private RetrofitFactory() { }
 
     private static class LanguageVariantHeaderInterceptor implements Interceptor {
@@ -3,6 +3,7 @@ package org.wikipedia.edit.richtext;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.text.Editable;
@@ -16,7 +17,6 @@ import org.wikipedia.util.log.L;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 public class SyntaxHighlighter {
     @VisibleForTesting
@@ -27,11 +27,20 @@ public class SyntaxHighlighter {
     private Context context;
     private EditText textBox;
     private List<SyntaxRule> syntaxRules;
+    private SyntaxLexer lexer;
 
     private Handler handler;
 
     @Nullable private OnSyntaxHighlightListener syntaxHighlightListener;
 
+    // The result of the last pass applied to the text, and the region of the text edited since.
+    @Nullable private Editable highlightedText;
+    @Nullable private SyntaxLexer.Lexed lexed;
+    private int damageStart = Integer.MAX_VALUE;
+    private int damageEnd = -1;
+    private int damageDelta;
+    private int editVersion;
+
     private Runnable syntaxHighlightCallback = new Runnable() {
         private SyntaxHighlightTask currentTask;
 
@@ -40,7 +49,13 @@ public class SyntaxHighlighter {
                 if (currentTask != null) {
                     currentTask.cancel();
                 }
-                currentTask = new SyntaxHighlightTask(textBox.getText());
+                if (textBox.getText() != highlightedText) {
+                    // the text was replaced rather than edited, and has none of our spans.
+                    highlightedText = textBox.getText();
+                    lexed = null;
+                }
+                currentTask = new SyntaxHighlightTask(textBox.getText().toString(), lexed,
+                        damageStart, damageEnd, damageDelta, editVersion);
                 currentTask.execute();
             }
         }
@@ -102,6 +117,7 @@ public class SyntaxHighlighter {
         }));
         */
 
+        lexer = new SyntaxLexer(context, syntaxRules);
         handler = new Handler(Looper.getMainLooper());
 
         // add a text-change listener that will trigger syntax highlighting
@@ -111,7 +127,12 @@ public class SyntaxHighlighter {
             public void beforeTextChanged(CharSequence charSequence, int i, int i2, int i3) {
             }
             @Override
-            public void onTextChanged(CharSequence charSequence, int i, int i2, int i3) {
+            public void onTextChanged(CharSequence charSequence, int start, int before, int count) {
+                // extend the edited region to include this edit, in the coordinates of the new text.
+                damageEnd = damageEnd >= start + before ? damageEnd + count - before : start + count;
+                damageStart = Math.min(damageStart, start);
+                damageDelta += count - before;
+                editVersion++;
             }
             @Override
             public void afterTextChanged(final Editable editable) {
@@ -133,131 +154,72 @@ public class SyntaxHighlighter {
         }
     }
 
-    private class SyntaxHighlightTask extends SaneAsyncTask<List<SpanExtents>> {
-        SyntaxHighlightTask(Editable text) {
+    private class SyntaxHighlightTask extends SaneAsyncTask<SyntaxLexer.Lexed>
+            implements SyntaxLexer.Cancellable {
+        @NonNull private final String text;
+        @Nullable private final SyntaxLexer.Lexed prev;
+        private final int damageStart;
+        private final int damageEnd;
+        private final int damageDelta;
+        private final int editVersion;
+
+        SyntaxHighlightTask(@NonNull String text, @Nullable SyntaxLexer.Lexed prev, int damageStart,
+                            int damageEnd, int damageDelta, int editVersion) {
             this.text = text;
+            this.prev = prev;
+            this.damageStart = damageStart;
+            this.damageEnd = damageEnd;
+            this.damageDelta = damageDelta;
+            this.editVersion = editVersion;
         }
 
-        private Editable text;
-
         @Override
-        public List<SpanExtents> performTask() throws Throwable {
-            Stack<SpanExtents> spanStack = new Stack<>();
-            List<SpanExtents> spansToSet = new ArrayList<>();
-
+        public SyntaxLexer.Lexed performTask() throws Throwable {
             /*
             The (naïve) algorithm:
             Iterate through the text string, and maintain a stack of matched syntax rules.
             When the "start" and "end" symbol of a rule are matched in sequence, create a new
             Span to be added to the EditText at the corresponding location.
+            Only the region affected by edits since the previous pass is iterated again.
              */
-
-            for (int i = 0; i < text.length();) {
-                SpanExtents newSpanInfo;
-                boolean incrementDone = false;
-
-                for (SyntaxRule syntaxItem : syntaxRules) {
-
-                    if (i + syntaxItem.getStartSymbol().length() > text.length()) {
-                        continue;
-                    }
-
-                    if (syntaxItem.isStartEndSame()) {
-                        boolean pass = true;
-                        for (int j = 0; j < syntaxItem.getStartSymbol().length(); j++) {
-                            if (text.charAt(i + j) != syntaxItem.getStartSymbol().charAt(j)) {
-                                pass = false;
-                                break;
-                            }
-                        }
-                        if (pass) {
-                            if (spanStack.size() > 0 && spanStack.peek().getSyntaxRule().equals(syntaxItem)) {
-                                newSpanInfo = spanStack.pop();
-                                newSpanInfo.setEnd(i + syntaxItem.getStartSymbol().length());
-                                spansToSet.add(newSpanInfo);
-                            } else {
-                                SpanExtents sp = syntaxItem.getSpanStyle().createSpan(context, i, syntaxItem);
-                                spanStack.push(sp);
-                            }
-                            i += syntaxItem.getStartSymbol().length();
-                            incrementDone = true;
-                        }
-
-                    } else {
-
-                        boolean pass = true;
-                        for (int j = 0; j < syntaxItem.getStartSymbol().length(); j++) {
-                            if (text.charAt(i + j) != syntaxItem.getStartSymbol().charAt(j)) {
-                                pass = false;
-                                break;
-                            }
-                        }
-                        if (pass) {
-                            SpanExtents sp = syntaxItem.getSpanStyle().createSpan(context, i, syntaxItem);
-                            spanStack.push(sp);
-                            i += syntaxItem.getStartSymbol().length();
-                            incrementDone = true;
-                        }
-                        //skip the check of end symbol when start symbol is found at end of the text
-                        if (i + syntaxItem.getStartSymbol().length() > text.length()) {
-                            continue;
-                        }
-
-                        pass = true;
-                        for (int j = 0; j < syntaxItem.getEndSymbol().length(); j++) {
-                            if (text.charAt(i + j) != syntaxItem.getEndSymbol().charAt(j)) {
-                                pass = false;
-                                break;
-                            }
-                        }
-                        if (pass) {
-                            if (spanStack.size() > 0 && spanStack.peek().getSyntaxRule().equals(syntaxItem)) {
-                                newSpanInfo = spanStack.pop();
-                                newSpanInfo.setEnd(i + syntaxItem.getEndSymbol().length());
-                                spansToSet.add(newSpanInfo);
-                            }
-                            i += syntaxItem.getEndSymbol().length();
-                            incrementDone = true;
-                        }
-
-                    }
-                }
-
-                if (!incrementDone) {
-                    i++;
-                }
-
-                if (isCancelled()) {
-                    break;
-                }
-            }
-
-            return spansToSet;
+            return prev == null
+                    ? lexer.lex(text, this)
+                    : lexer.relex(text, prev, damageStart, damageEnd, damageDelta, this);
         }
 
         @Override
-        public void onFinish(List<SpanExtents> result) {
-            if (context == null) {
+        public void onFinish(SyntaxLexer.Lexed result) {
+            // the text was edited while highlighting: the result is for stale text. The next pass
+            // is already queued.
+            if (context == null || result == null || editVersion != SyntaxHighlighter.this.editVersion) {
                 return;
             }
+            result.commit();
+            lexed = result;
+            SyntaxHighlighter.this.damageStart = Integer.MAX_VALUE;
+            SyntaxHighlighter.this.damageEnd = -1;
+            SyntaxHighlighter.this.damageDelta = 0;
+
             if (syntaxHighlightListener != null) {
-                syntaxHighlightListener.syntaxHighlightResults(result);
+                syntaxHighlightListener.syntaxHighlightResults(result.spans());
             }
 
-            // TODO: probably possible to make this more efficient...
-            // Right now, on longer articles, this is quite heavy on the UI thread.
-            // remove any of our custom spans from the previous cycle...
+            // remove the spans that no longer apply and add the new ones. Spans of the unchanged
+            // text are left in place.
             long time = System.currentTimeMillis();
-            Object[] prevSpans = textBox.getText().getSpans(0, text.length(), SpanExtents.class);
-            for (Object sp : prevSpans) {
-                textBox.getText().removeSpan(sp);
+            Editable editable = textBox.getText();
+            for (SpanExtents spanEx : result.removed()) {
+                editable.removeSpan(spanEx);
+            }
+            for (SpanExtents spanEx : result.moved()) {
+                editable.setSpan(spanEx, spanEx.getStart(), spanEx.getEnd(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
             }
-            // and add our new spans
-            for (SpanExtents spanEx : result) {
-                textBox.getText().setSpan(spanEx, spanEx.getStart(), spanEx.getEnd(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
+            for (SpanExtents spanEx : result.added()) {
+                editable.setSpan(spanEx, spanEx.getStart(), spanEx.getEnd(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
             }
             time = System.currentTimeMillis() - time;
-            L.v("That took " + time + "ms");
+            L.v("Removed " + result.removed().size() + " and added " + result.added().size()
+                    + " spans in " + time + "ms");
         }
     }
 }
@@ -0,0 +1,390 @@
+package org.wikipedia.edit.richtext;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the spans of text delimited by syntax rules. A lexed text keeps the spans found and
+ * periodic checkpoints of the lexer state so that, after an edit, only the damaged region needs to
+ * be lexed again. Lexing resumes from the last checkpoint before the damage and stops as soon as
+ * the lexer state after the damage matches that of the previous pass.
+ */
+class SyntaxLexer {
+    interface Cancellable {
+        boolean isCancelled();
+    }
+
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    @NonNull private final Context context;
+    @NonNull private final List<SyntaxRule> rules;
+    @NonNull private final SyntaxRuleMatcher matcher;
+    private final int maxSymbolLength;
+
+    SyntaxLexer(@NonNull Context context, @NonNull List<SyntaxRule> rules) {
+        this.context = context;
+        this.rules = rules;
+        matcher = new SyntaxRuleMatcher(rules);
+
+        int max = 0;
+        for (SyntaxRule rule : rules) {
+            max = Math.max(max, Math.max(rule.getStartSymbol().length(), rule.getEndSymbol().length()));
+        }
+        maxSymbolLength = max;
+    }
+
+    @Nullable Lexed lex(@NonNull CharSequence text, @NonNull Cancellable cancellable) {
+        return relex(text, null, 0, text.length(), text.length(), cancellable);
+    }
+
+    /**
+     * @param prev The result of lexing the text before it was edited, or null to lex everything.
+     * @param damageStart The start of the edited region in the new text.
+     * @param damageEnd The end of the edited region in the new text.
+     * @param delta The change in length of the text.
+     * @return The result, or null if cancelled.
+     */
+    @Nullable Lexed relex(@NonNull CharSequence text, @Nullable Lexed prev, int damageStart,
+                          int damageEnd, int delta, @NonNull Cancellable cancellable) {
+        Damage damage = new Damage(damageStart, damageEnd, delta);
+
+        // Resume from the last checkpoint far enough before the damage that no delimiter read
+        // from it could overlap the edit.
+        Checkpoint restart = Checkpoint.START;
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        List<SpanExtents> spans = new ArrayList<>();
+        List<SpanExtents> removed = new ArrayList<>();
+        if (prev != null) {
+            for (Checkpoint checkpoint : prev.checkpoints) {
+                if (checkpoint.pos > damageStart - maxSymbolLength) {
+                    break;
+                }
+                restart = checkpoint;
+                checkpoints.add(checkpoint);
+            }
+        }
+
+        // Spans closed before the restart are unaffected.
+        int prevIndex = 0;
+        if (prev != null) {
+            for (; prevIndex < prev.spans.size() && prev.spans.get(prevIndex).getEnd() <= restart.pos; prevIndex++) {
+                spans.add(prev.spans.get(prevIndex));
+            }
+        }
+
+        List<SpanExtents> stack = restart.restore(context);
+        List<SpanExtents> lexed = new ArrayList<>();
+        int nextCheckpoint = restart.pos + CHECKPOINT_INTERVAL;
+        Checkpoint resync = null;
+        int i = restart.pos;
+        while (i < text.length()) {
+            if (i >= nextCheckpoint) {
+                checkpoints.add(new Checkpoint(i, stack));
+                nextCheckpoint = i + CHECKPOINT_INTERVAL;
+            }
+
+            if (prev != null && i >= damageEnd) {
+                resync = prev.find(i - delta);
+                if (resync != null && resync.matches(stack, damage)) {
+                    break;
+                }
+                resync = null;
+            }
+
+            i = step(text, i, stack, lexed);
+
+            if (cancellable.isCancelled()) {
+                return null;
+            }
+        }
+
+        // Spans closed in the lexed region replace those closed there in the previous pass.
+        // Spans that did not change are kept to minimize the changes applied to the text.
+        int prevEnd = resync == null ? Integer.MAX_VALUE : resync.pos;
+        Map<String, SpanExtents> prevLexed = new HashMap<>();
+        if (prev != null) {
+            for (; prevIndex < prev.spans.size() && prev.spans.get(prevIndex).getEnd() <= prevEnd; prevIndex++) {
+                SpanExtents span = prev.spans.get(prevIndex);
+                if (damage.mappable(span.getStart()) && damage.mappable(span.getEnd())) {
+                    prevLexed.put(key(span.getSyntaxRule(), damage.map(span.getStart()),
+                            damage.map(span.getEnd())), span);
+                } else {
+                    removed.add(span);
+                }
+            }
+        }
+
+        List<SpanExtents> added = new ArrayList<>();
+        List<Move> moves = new ArrayList<>();
+        List<SpanExtents> moved = new ArrayList<>();
+        for (SpanExtents span : lexed) {
+            SpanExtents prevSpan = prevLexed.remove(key(span.getSyntaxRule(), span.getStart(), span.getEnd()));
+            if (prevSpan == null) {
+                added.add(span);
+                spans.add(span);
+            } else {
+                moves.add(new Move(prevSpan, span.getStart(), span.getEnd()));
+                moved.add(prevSpan);
+                spans.add(prevSpan);
+            }
+        }
+        removed.addAll(prevLexed.values());
+
+        // Past the point of resynchronization, the previous pass is reused.
+        if (prev != null && resync != null) {
+            for (; prevIndex < prev.spans.size(); prevIndex++) {
+                SpanExtents span = prev.spans.get(prevIndex);
+                moves.add(new Move(span, damage.map(span.getStart()), damage.map(span.getEnd())));
+                if (span.getStart() < resync.pos) {
+                    // The span encloses the edit.
+                    moved.add(span);
+                }
+                spans.add(span);
+            }
+            for (Checkpoint checkpoint : prev.checkpoints) {
+                if (checkpoint.pos > resync.pos) {
+                    checkpoints.add(checkpoint.map(damage));
+                }
+            }
+        }
+
+        return new Lexed(spans, checkpoints, added, removed, moved, moves);
+    }
+
+    // Reads the delimiters at i. Opened spans are pushed on the stack and closed spans are appended
+    // to the list of spans. Returns the position after the delimiters read, or of the next possible
+    // delimiter if there are none.
+    private int step(@NonNull CharSequence text, int i, @NonNull List<SpanExtents> stack,
+                     @NonNull List<SpanExtents> spans) {
+        long matched = matcher.match(text, i);
+        if (matched == 0) {
+            return matcher.next(text, i + 1);
+        }
+
+        boolean incrementDone = false;
+
+        for (int rule = 0; rule < rules.size(); rule++) {
+            SyntaxRule syntaxItem = rules.get(rule);
+            if (i + syntaxItem.getStartSymbol().length() > text.length()) {
+                continue;
+            }
+
+            if (syntaxItem.isStartEndSame()) {
+                if (matcher.isStart(matched, rule)) {
+                    if (!stack.isEmpty() && peek(stack).getSyntaxRule().equals(syntaxItem)) {
+                        SpanExtents newSpanInfo = pop(stack);
+                        newSpanInfo.setEnd(i + syntaxItem.getStartSymbol().length());
+                        spans.add(newSpanInfo);
+                    } else {
+                        stack.add(syntaxItem.getSpanStyle().createSpan(context, i, syntaxItem));
+                    }
+                    i += syntaxItem.getStartSymbol().length();
+                    matched = matcher.match(text, i);
+                    incrementDone = true;
+                }
+            } else {
+                if (matcher.isStart(matched, rule)) {
+                    stack.add(syntaxItem.getSpanStyle().createSpan(context, i, syntaxItem));
+                    i += syntaxItem.getStartSymbol().length();
+                    matched = matcher.match(text, i);
+                    incrementDone = true;
+                }
+                //skip the check of end symbol when start symbol is found at end of the text
+                if (i + syntaxItem.getStartSymbol().length() > text.length()) {
+                    continue;
+                }
+
+                if (matcher.isEnd(matched, rule)) {
+                    if (!stack.isEmpty() && peek(stack).getSyntaxRule().equals(syntaxItem)) {
+                        SpanExtents newSpanInfo = pop(stack);
+                        newSpanInfo.setEnd(i + syntaxItem.getEndSymbol().length());
+                        spans.add(newSpanInfo);
+                    }
+                    i += syntaxItem.getEndSymbol().length();
+                    matched = matcher.match(text, i);
+                    incrementDone = true;
+                }
+            }
+        }
+
+        return incrementDone ? i : i + 1;
+    }
+
+    @NonNull private SpanExtents peek(@NonNull List<SpanExtents> stack) {
+        return stack.get(stack.size() - 1);
+    }
+
+    @NonNull private SpanExtents pop(@NonNull List<SpanExtents> stack) {
+        return stack.remove(stack.size() - 1);
+    }
+
+    @NonNull private String key(@NonNull SyntaxRule rule, int start, int end) {
+        return rules.indexOf(rule) + ":" + start + ":" + end;
+    }
+
+    static final class Lexed {
+        /** All spans in the order closed, which is also the order of their ends. */
+        @NonNull private final List<SpanExtents> spans;
+        @NonNull private final List<Checkpoint> checkpoints;
+        @NonNull private final List<SpanExtents> added;
+        @NonNull private final List<SpanExtents> removed;
+        @NonNull private final List<SpanExtents> moved;
+        @NonNull private final List<Move> moves;
+
+        Lexed(@NonNull List<SpanExtents> spans, @NonNull List<Checkpoint> checkpoints,
+              @NonNull List<SpanExtents> added, @NonNull List<SpanExtents> removed,
+              @NonNull List<SpanExtents> moved, @NonNull List<Move> moves) {
+            this.spans = spans;
+            this.checkpoints = checkpoints;
+            this.added = added;
+            this.removed = removed;
+            this.moved = moved;
+            this.moves = moves;
+        }
+
+        /**
+         * Updates the extents of spans kept from the previous result. The previous result is
+         * unchanged until committed so that a result discarded for a stale text can be ignored.
+         */
+        void commit() {
+            for (Move move : moves) {
+                move.span.setStart(move.start);
+                move.span.setEnd(move.end);
+            }
+            moves.clear();
+        }
+
+        @NonNull List<SpanExtents> spans() {
+            return spans;
+        }
+
+        /** @return Spans not present in the previous result. */
+        @NonNull List<SpanExtents> added() {
+            return added;
+        }
+
+        /** @return Spans of the previous result no longer present. */
+        @NonNull List<SpanExtents> removed() {
+            return removed;
+        }
+
+        /**
+         * @return Spans of the previous result kept at or around the edit. Text inserted at the
+         *         boundary of a span may have been included in it and its extents need resetting.
+         */
+        @NonNull List<SpanExtents> moved() {
+            return moved;
+        }
+
+        @Nullable private Checkpoint find(int pos) {
+            int low = 0;
+            int high = checkpoints.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midPos = checkpoints.get(mid).pos;
+                if (midPos < pos) {
+                    low = mid + 1;
+                } else if (midPos > pos) {
+                    high = mid - 1;
+                } else {
+                    return checkpoints.get(mid);
+                }
+            }
+            return null;
+        }
+    }
+
+    // The lexer's open spans at a position.
+    private static final class Checkpoint {
+        static final Checkpoint START = new Checkpoint(0, new ArrayList<SpanExtents>());
+
+        private final int pos;
+        @NonNull private final SyntaxRule[] rules;
+        @NonNull private final int[] starts;
+
+        Checkpoint(int pos, @NonNull List<SpanExtents> stack) {
+            this.pos = pos;
+            rules = new SyntaxRule[stack.size()];
+            starts = new int[stack.size()];
+            for (int i = 0; i < stack.size(); i++) {
+                rules[i] = stack.get(i).getSyntaxRule();
+                starts[i] = stack.get(i).getStart();
+            }
+        }
+
+        private Checkpoint(int pos, @NonNull SyntaxRule[] rules, @NonNull int[] starts) {
+            this.pos = pos;
+            this.rules = rules;
+            this.starts = starts;
+        }
+
+        @NonNull List<SpanExtents> restore(@NonNull Context context) {
+            List<SpanExtents> stack = new ArrayList<>(rules.length);
+            for (int i = 0; i < rules.length; i++) {
+                stack.add(rules[i].getSpanStyle().createSpan(context, starts[i], rules[i]));
+            }
+            return stack;
+        }
+
+        /** @return True if the stack is the state of this checkpoint after the edit. */
+        boolean matches(@NonNull List<SpanExtents> stack, @NonNull Damage damage) {
+            if (stack.size() != rules.length) {
+                return false;
+            }
+            for (int i = 0; i < rules.length; i++) {
+                if (stack.get(i).getSyntaxRule() != rules[i] || !damage.mappable(starts[i])
+                        || stack.get(i).getStart() != damage.map(starts[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @NonNull Checkpoint map(@NonNull Damage damage) {
+            int[] mapped = new int[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                mapped[i] = damage.map(starts[i]);
+            }
+            return new Checkpoint(damage.map(pos), rules, mapped);
+        }
+    }
+
+    private static final class Move {
+        @NonNull private final SpanExtents span;
+        private final int start;
+        private final int end;
+
+        Move(@NonNull SpanExtents span, int start, int end) {
+            this.span = span;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Maps positions in the text before an edit to positions after it.
+    private static final class Damage {
+        private final int start;
+        private final int prevEnd;
+        private final int delta;
+
+        Damage(int start, int end, int delta) {
+            this.start = start;
+            this.prevEnd = end - delta;
+            this.delta = delta;
+        }
+
+        boolean mappable(int prevPos) {
+            return prevPos < start || prevPos >= prevEnd;
+        }
+
+        int map(int prevPos) {
+            return prevPos < start ? prevPos : prevPos + delta;
+        }
+    }
+}
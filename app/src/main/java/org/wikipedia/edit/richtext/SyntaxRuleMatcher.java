@@ -0,0 +1,118 @@
+package org.wikipedia.edit.richtext;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the start and end symbols of syntax rules at a position of text in a single walk of a trie
+ * of all symbols, instead of comparing every symbol of every rule. Positions that cannot begin a
+ * symbol are skipped by a table of first characters.
+ */
+class SyntaxRuleMatcher {
+    private static final int MAX_RULES = Long.SIZE / 2;
+
+    @NonNull private final Node root = new Node();
+    @NonNull private final boolean[] asciiFirstChars = new boolean[Byte.MAX_VALUE + 1];
+
+    SyntaxRuleMatcher(@NonNull List<SyntaxRule> rules) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("Too many rules: " + rules.size());
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            add(rules.get(i).getStartSymbol(), startBit(i));
+            add(rules.get(i).getEndSymbol(), endBit(i));
+        }
+    }
+
+    /**
+     * @return The rules whose symbols occur at position i of the text, to be tested with
+     *         {@link #isStart} and {@link #isEnd}. Zero if none.
+     */
+    long match(@NonNull CharSequence text, int i) {
+        long matched = 0;
+        Node node = root;
+        for (int j = i; j < text.length(); j++) {
+            node = node.child(text.charAt(j));
+            if (node == null) {
+                break;
+            }
+            matched |= node.symbols;
+        }
+        return matched;
+    }
+
+    /** @return The first position at or after i where a symbol may occur, or the text length. */
+    int next(@NonNull CharSequence text, int i) {
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < asciiFirstChars.length ? asciiFirstChars[c] : root.child(c) != null) {
+                break;
+            }
+        }
+        return i;
+    }
+
+    boolean isStart(long matched, int rule) {
+        return (matched & startBit(rule)) != 0;
+    }
+
+    boolean isEnd(long matched, int rule) {
+        return (matched & endBit(rule)) != 0;
+    }
+
+    private void add(@NonNull String symbol, long bit) {
+        if (symbol.isEmpty()) {
+            throw new IllegalArgumentException("Empty symbol");
+        }
+        char first = symbol.charAt(0);
+        if (first < asciiFirstChars.length) {
+            asciiFirstChars[first] = true;
+        }
+
+        Node node = root;
+        for (int i = 0; i < symbol.length(); i++) {
+            node = node.addChild(symbol.charAt(i));
+        }
+        node.symbols |= bit;
+    }
+
+    private long startBit(int rule) {
+        return 1L << (rule * 2);
+    }
+
+    private long endBit(int rule) {
+        return 1L << (rule * 2 + 1);
+    }
+
+    private static final class Node {
+        // Symbols are short and share few prefixes so children are scanned linearly.
+        @NonNull private char[] chars = new char[0];
+        @NonNull private Node[] children = new Node[0];
+        // The rules whose symbols end at this node.
+        private long symbols;
+
+        @Nullable Node child(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        @NonNull Node addChild(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                chars = Arrays.copyOf(chars, chars.length + 1);
+                chars[chars.length - 1] = c;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.analytics.SessionFunnel;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.feed.dataclient.FeedClient;
 import org.wikipedia.feed.model.Card;
@@ -26,12 +28,14 @@ public abstract class FeedCoordinatorBase {
     }
 
     @NonNull private Context context;
-    @Nullable private WikiSite wiki;
     @Nullable private FeedUpdateListener updateListener;
     @NonNull private final List<Card> cards = new ArrayList<>();
     private int currentAge;
     private List<FeedClient> pendingClients = new ArrayList<>();
-    private FeedClient.Callback callback = new ClientRequestCallback();
+    // The requests of the current age in the order of the script. All are in flight at once and the
+    // cards of each are inserted once those of all the requests before it have been.
+    private List<ClientRequest> requests = new ArrayList<>();
+    private long requestStartMillis;
     private Card progressCard = new ProgressCard();
 
     private Set<String> hiddenCards = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
@@ -56,28 +60,27 @@ public abstract class FeedCoordinatorBase {
     }
 
     public void reset() {
-        wiki = null;
         currentAge = 0;
-        for (FeedClient client : pendingClients) {
-            client.cancel();
+        for (ClientRequest request : requests) {
+            request.client.cancel();
         }
+        requests.clear();
         pendingClients.clear();
         cards.clear();
         insertCard(progressCard, 0);
     }
 
     public void more(@NonNull WikiSite wiki) {
-        this.wiki = wiki;
         if (cards.size() > 1) {
             currentAge++;
         }
 
         buildScript(currentAge);
-        requestNextCard(wiki);
+        requestCards(wiki);
     }
 
     public boolean finished() {
-        return pendingClients.isEmpty();
+        return requests.isEmpty();
     }
 
     public int getAge() {
@@ -102,12 +105,37 @@ public abstract class FeedCoordinatorBase {
         pendingClients.add(client);
     }
 
-    private void requestNextCard(@NonNull WikiSite wiki) {
-        if (pendingClients.isEmpty()) {
+    private void requestCards(@NonNull WikiSite wiki) {
+        List<ClientRequest> newRequests = new ArrayList<>();
+        for (FeedClient client : pendingClients) {
+            newRequests.add(new ClientRequest(client));
+        }
+        pendingClients.clear();
+        requests.addAll(newRequests);
+        requestStartMillis = System.currentTimeMillis();
+
+        // Clients may respond synchronously so all requests are queued before any is made.
+        for (ClientRequest request : newRequests) {
+            request.request(wiki);
+        }
+        if (newRequests.isEmpty()) {
+            insertCompletedCards();
+        }
+    }
+
+    private void insertCompletedCards() {
+        while (!requests.isEmpty() && requests.get(0).completed) {
+            for (Card card : requests.remove(0).cards) {
+                if (!isCardHidden(card)) {
+                    int progressPos = cards.indexOf(progressCard);
+                    insertCard(card, progressPos >= 0 ? progressPos : cards.size());
+                }
+            }
+        }
+
+        if (requests.isEmpty()) {
             removeProgressCard();
-            return;
         }
-        pendingClients.remove(0).request(context, wiki, currentAge, callback);
     }
 
     private void removeProgressCard() {
@@ -121,23 +149,45 @@ public abstract class FeedCoordinatorBase {
         }
     }
 
-    private class ClientRequestCallback implements FeedClient.Callback {
+    private class ClientRequest implements FeedClient.Callback {
+        @NonNull private final FeedClient client;
+        @NonNull private List<? extends Card> cards = Collections.emptyList();
+        private boolean completed;
+        private long startMillis;
+
+        ClientRequest(@NonNull FeedClient client) {
+            this.client = client;
+        }
+
+        void request(@NonNull WikiSite wiki) {
+            startMillis = System.currentTimeMillis();
+            client.request(context, wiki, currentAge, this);
+        }
+
         @Override
         public void success(@NonNull List<? extends Card> cardList) {
-            for (Card card : cardList) {
-                if (!isCardHidden(card)) {
-                    int progressPos = cards.indexOf(progressCard);
-                    insertCard(card, progressPos >= 0 ? progressPos : cards.size());
-                }
-            }
-            //noinspection ConstantConditions
-            requestNextCard(wiki);
+            cards = cardList;
+            complete();
         }
 
         @Override
         public void error(@NonNull Throwable caught) {
-            //noinspection ConstantConditions
-            requestNextCard(wiki);
+            complete();
+        }
+
+        private void complete() {
+            // ignore responses to requests cancelled by a reset.
+            if (completed || !requests.contains(this)) {
+                return;
+            }
+            completed = true;
+            long now = System.currentTimeMillis();
+            SessionFunnel funnel = WikipediaApp.getInstance().getSessionFunnel();
+            funnel.feedClientLatency(client.getClass().getSimpleName(), now - startMillis);
+            insertCompletedCards();
+            if (requests.isEmpty()) {
+                funnel.feedAgeLatency(currentAge, now - requestStartMillis);
+            }
         }
     }
 
@@ -38,7 +38,7 @@ public class AggregatedFeedContentClient implements FeedClient {
         UtcDate date = DateUtil.getUtcRequestDateFor(age);
         String endpoint = String.format(Locale.ROOT, Prefs.getRestbaseUriFormat(), wiki.scheme(),
                 wiki.authority());
-        Retrofit retrofit = RetrofitFactory.newInstance(endpoint, wiki);
+        Retrofit retrofit = RetrofitFactory.instance(endpoint, wiki);
         AggregatedFeedContentClient.Service service = retrofit.create(Service.class);
         call = service.get(date.year(), date.month(), date.date());
         call.enqueue(new CallbackAdapter(cb, wiki, age));
@@ -35,7 +35,7 @@ public class AnnouncementClient implements FeedClient {
         cancel();
         String endpoint = String.format(Locale.ROOT, Prefs.getRestbaseUriFormat(), wiki.scheme(),
                 wiki.authority());
-        Retrofit retrofit = RetrofitFactory.newInstance(endpoint, wiki);
+        Retrofit retrofit = RetrofitFactory.instance(endpoint, wiki);
         Service service = retrofit.create(Service.class);
         call = request(service);
         call.enqueue(new CallbackAdapter(cb));
@@ -466,8 +466,7 @@ public class GalleryActivity extends ThemedActionBarActivity implements LinkPrev
             return;
         }
         updateProgressBar(true, true, 0);
-        new GalleryCollectionFetchTask(app.getAPIForSite(pageTitle.getWikiSite()),
-                pageTitle.getWikiSite(), pageTitle) {
+        new GalleryCollectionFetchTask(pageTitle.getWikiSite(), pageTitle) {
             @Override public void onGalleryResult(GalleryCollection result) {
                 updateProgressBar(false, true, 0);
                 applyGalleryCollection(result);
@@ -1,8 +1,6 @@
 package org.wikipedia.gallery;
 
 import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.RequestBuilder;
 import org.wikipedia.Constants;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.page.PageQueryTask;
@@ -14,29 +12,29 @@ public abstract class GalleryCollectionFetchTask extends PageQueryTask<GalleryIt
     private static final String MAX_ITEM_COUNT = "256";
     private final boolean getThumbs;
 
-    public GalleryCollectionFetchTask(Api api, WikiSite wiki, PageTitle title) {
-        this(api, wiki, title, false);
+    public GalleryCollectionFetchTask(WikiSite wiki, PageTitle title) {
+        this(wiki, title, false);
     }
 
-    public GalleryCollectionFetchTask(Api api, WikiSite wiki, PageTitle title, boolean getThumbs) {
-        super(api, wiki, title);
+    public GalleryCollectionFetchTask(WikiSite wiki, PageTitle title, boolean getThumbs) {
+        super(wiki, title);
         this.getThumbs = getThumbs;
     }
 
     @Override
-    public void buildQueryParams(RequestBuilder builder) {
-        builder.param("prop", "imageinfo")
-               .param("iiprop", getThumbs ? "dimensions|mime|url" : "dimensions|mime")
-               .param("generator", "images")
-               .param("redirects", "")
-               .param("gimlimit", MAX_ITEM_COUNT);
+    public void buildQueryParams(Map<String, String> params) {
+        params.put("prop", "imageinfo");
+        params.put("iiprop", getThumbs ? "dimensions|mime|url" : "dimensions|mime");
+        params.put("generator", "images");
+        params.put("redirects", "");
+        params.put("gimlimit", MAX_ITEM_COUNT);
         // If we've been asked to retrieve the thumbnail url for each of the images, then
         // we need to specify the width and height of the thumbnails. Otherwise, we would
         // just get the name of each image, and we would need to send a separate request
         // to get the url (and other info) for the image.
         if (getThumbs) {
-            builder.param("iiurlwidth", Integer.toString(Constants.PREFERRED_THUMB_SIZE))
-                    .param("iiurlheight", Integer.toString(Constants.PREFERRED_THUMB_SIZE));
+            params.put("iiurlwidth", Integer.toString(Constants.PREFERRED_THUMB_SIZE));
+            params.put("iiurlheight", Integer.toString(Constants.PREFERRED_THUMB_SIZE));
         }
     }
 
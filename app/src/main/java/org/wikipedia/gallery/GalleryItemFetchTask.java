@@ -1,31 +1,31 @@
 package org.wikipedia.gallery;
 
 import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.RequestBuilder;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.page.PageQueryTask;
 import org.wikipedia.page.PageTitle;
 
+import java.util.Map;
+
 public class GalleryItemFetchTask extends PageQueryTask<GalleryItem> {
     private static final String MAX_IMAGE_WIDTH = "1280";
     private final boolean isVideo;
 
-    public GalleryItemFetchTask(Api api, WikiSite wiki, PageTitle title, boolean isVideo) {
-        super(api, wiki, title);
+    public GalleryItemFetchTask(WikiSite wiki, PageTitle title, boolean isVideo) {
+        super(wiki, title);
         this.isVideo = isVideo;
     }
 
     @Override
-    public void buildQueryParams(RequestBuilder builder) {
+    public void buildQueryParams(Map<String, String> params) {
         if (isVideo) {
-            builder.param("prop", "videoinfo")
-                   .param("viprop", "url|dimensions|mime|extmetadata|derivatives")
-                   .param("viurlwidth", MAX_IMAGE_WIDTH);
+            params.put("prop", "videoinfo");
+            params.put("viprop", "url|dimensions|mime|extmetadata|derivatives");
+            params.put("viurlwidth", MAX_IMAGE_WIDTH);
         } else {
-            builder.param("prop", "imageinfo")
-                   .param("iiprop", "url|dimensions|mime|extmetadata")
-                   .param("iiurlwidth", MAX_IMAGE_WIDTH);
+            params.put("prop", "imageinfo");
+            params.put("iiprop", "url|dimensions|mime|extmetadata");
+            params.put("iiurlwidth", MAX_IMAGE_WIDTH);
         }
     }
 
@@ -249,8 +249,7 @@ public class GalleryItemFragment extends Fragment {
      */
     private void loadGalleryItem() {
         updateProgressBar(true, true, 0);
-        new GalleryItemFetchTask(app.getAPIForSite(imageTitle.getWikiSite()),
-                imageTitle.getWikiSite(), imageTitle, FileUtil.isVideo(mimeType)) {
+        new GalleryItemFetchTask(imageTitle.getWikiSite(), imageTitle, FileUtil.isVideo(mimeType)) {
             @Override public void onFinish(Map<PageTitle, GalleryItem> result) {
                 if (!isAdded()) {
                     return;
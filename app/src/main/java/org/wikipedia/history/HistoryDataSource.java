@@ -0,0 +1,233 @@
+package org.wikipedia.history;
+
+import android.database.Cursor;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.concurrency.SaneAsyncTask;
+import org.wikipedia.database.contract.AppContentProviderContract;
+import org.wikipedia.database.contract.PageHistoryContract.PageWithImage;
+import org.wikipedia.database.contract.SearchIndexContract;
+import org.wikipedia.util.log.L;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The history list, loaded a page at a time in the background. Each page is selected by the
+ * timestamp and ID of the last entry before it rather than by offset, so that loading it is an index
+ * range scan however deep it is. Date headers are inserted as each page is loaded rather than as
+ * its rows are bound. The next page is requested when the list is read to within PREFETCH_DISTANCE
+ * of its end. Reloads only load as far as the list has been read, and reloads requested while one
+ * is in flight are coalesced into one after it.
+ */
+class HistoryDataSource {
+    public interface Callback {
+        /** Called on the main thread whenever items have been loaded. */
+        void onChanged();
+    }
+
+    @VisibleForTesting static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
+
+    // Uses the timestamp index for the first term; the second only filters ties.
+    private static final String KEYSET_SELECTION = ":timestampCol <= ? and (:timestampCol < ? or :idCol < ?)"
+            .replaceAll(":timestampCol", PageWithImage.TIMESTAMP.qualifiedName())
+            .replaceAll(":idCol", PageWithImage.ID.qualifiedName());
+
+    @NonNull private final Callback callback;
+    @NonNull private final List<HistoryListItem> items = new ArrayList<>();
+    @Nullable private String query;
+    private int entryCount;
+    private boolean loading;
+    private boolean complete;
+    // The furthest position requested since the list was loaded from the top for the query.
+    private int maxPosition;
+    private boolean reloading;
+    private boolean reloadPending;
+
+    // Incremented by each load that replaces the list so that the results of older loads are dropped.
+    private int generation;
+
+    HistoryDataSource(@NonNull Callback callback) {
+        this.callback = callback;
+    }
+
+    /** Filters the list by a search query, or clears the filter, and loads it from the top. */
+    void setQuery(@Nullable String query) {
+        this.query = query;
+        maxPosition = 0;
+        load(null, PAGE_SIZE, true);
+    }
+
+    /** Loads the pages read so far again, e.g., after history has changed. */
+    void reload() {
+        if (reloading) {
+            reloadPending = true;
+            return;
+        }
+        // Positions count headers too, so this covers at least every entry read.
+        load(null, (maxPosition / PAGE_SIZE + 1) * PAGE_SIZE, true);
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /** @return The item at position, requesting the next page if the position is near the end. */
+    @NonNull HistoryListItem get(int position) {
+        maxPosition = Math.max(maxPosition, position);
+        if (position >= items.size() - PREFETCH_DISTANCE) {
+            loadNext();
+        }
+        return items.get(position);
+    }
+
+    /** @return The loaded entries, without headers. */
+    @NonNull List<HistoryListItem> entries() {
+        List<HistoryListItem> entries = new ArrayList<>(entryCount);
+        for (HistoryListItem item : items) {
+            if (!item.isHeader()) {
+                entries.add(item);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @param entries       A page of entries, most recent first.
+     * @param previousDate  The date of the entry before the page, if any.
+     * @return The entries preceded by a header wherever their date differs from the last.
+     */
+    @VisibleForTesting @NonNull static List<HistoryListItem> sectioned(@NonNull List<HistoryListItem> entries,
+                                                                       @Nullable String previousDate) {
+        List<HistoryListItem> sectioned = new ArrayList<>(entries.size() + 1);
+        String date = previousDate;
+        for (HistoryListItem entry : entries) {
+            if (!entry.date().equals(date)) {
+                date = entry.date();
+                sectioned.add(HistoryListItem.header(date));
+            }
+            sectioned.add(entry);
+        }
+        return sectioned;
+    }
+
+    private void loadNext() {
+        if (loading || complete || items.isEmpty()) {
+            return;
+        }
+        // Headers precede their entries so the last item is always an entry.
+        load(items.get(items.size() - 1), PAGE_SIZE, false);
+    }
+
+    private void load(@Nullable final HistoryListItem after, final int limit, final boolean replace) {
+        if (replace) {
+            generation++;
+            reloading = true;
+            reloadPending = false;
+        }
+        final int loadGeneration = generation;
+        final String loadQuery = query;
+        loading = true;
+
+        new SaneAsyncTask<Page>() {
+            @Override public Page performTask() throws Throwable {
+                return query(loadQuery, after, limit);
+            }
+
+            @Override public void onFinish(Page page) {
+                if (loadGeneration != generation) {
+                    return;
+                }
+                if (replace) {
+                    items.clear();
+                    entryCount = 0;
+                }
+                items.addAll(page.items);
+                entryCount += page.entryCount;
+                complete = page.entryCount < limit;
+                onLoadEnd();
+                callback.onChanged();
+            }
+
+            @Override public void onCatch(Throwable caught) {
+                L.w("Failed to load history", caught);
+                if (loadGeneration == generation) {
+                    onLoadEnd();
+                }
+            }
+        }.execute();
+    }
+
+    private void onLoadEnd() {
+        loading = false;
+        reloading = false;
+        if (reloadPending) {
+            reload();
+        }
+    }
+
+    @VisibleForTesting @NonNull static Page query(@Nullable String query, @Nullable HistoryListItem after,
+                                                  int limit) {
+        List<String> selection = new ArrayList<>();
+        List<String> selectionArgs = new ArrayList<>();
+        if (!TextUtils.isEmpty(query)) {
+            selection.add(SearchIndexContract.selection(PageWithImage.ID.qualifiedName(),
+                    SearchIndexContract.SOURCE_HISTORY));
+            selectionArgs.add(SearchIndexContract.matchExpression(query));
+        }
+        if (after != null && after.entry() != null) {
+            String timestamp = String.valueOf(after.entry().getTimestamp().getTime());
+            selection.add(KEYSET_SELECTION);
+            selectionArgs.add(timestamp);
+            selectionArgs.add(timestamp);
+            selectionArgs.add(String.valueOf(after.id()));
+        }
+
+        Uri uri = PageWithImage.URI.buildUpon()
+                .appendQueryParameter(AppContentProviderContract.LIMIT, String.valueOf(limit))
+                .build();
+        Cursor cursor = WikipediaApp.getInstance().getDatabaseClient(HistoryEntry.class).select(uri,
+                selection.isEmpty() ? null : "(" + TextUtils.join(") and (", selection) + ")",
+                selectionArgs.toArray(new String[selectionArgs.size()]), PageWithImage.ORDER_MRU_ID);
+
+        DateFormat dateFormat = DateFormat.getDateInstance();
+        List<HistoryListItem> entries = new ArrayList<>(limit);
+        try {
+            while (cursor.moveToNext()) {
+                HistoryEntry entry = HistoryEntry.DATABASE_TABLE.fromCursor(cursor);
+                entries.add(HistoryListItem.entry(PageWithImage.ID.val(cursor), entry,
+                        PageWithImage.IMAGE_NAME.val(cursor), dateFormat.format(entry.getTimestamp())));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return new Page(sectioned(entries, after == null ? null : after.date()), entries.size());
+    }
+
+    @VisibleForTesting static final class Page {
+        @NonNull private final List<HistoryListItem> items;
+        private final int entryCount;
+
+        Page(@NonNull List<HistoryListItem> items, int entryCount) {
+            this.items = items;
+            this.entryCount = entryCount;
+        }
+
+        /** @return The entries of the page preceded by date headers. */
+        @NonNull List<HistoryListItem> items() {
+            return items;
+        }
+    }
+}
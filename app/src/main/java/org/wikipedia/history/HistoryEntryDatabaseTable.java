@@ -20,6 +20,7 @@ public class HistoryEntryDatabaseTable extends DatabaseTable<HistoryEntry> {
     private static final int DB_VER_NORMALIZED_TITLES = 8;
     private static final int DB_VER_LANG_ADDED = 10;
     private static final int DB_VER_TIME_SPENT_ADDED = 15;
+    private static final int DB_VER_TIMESTAMP_INDEXED = 21;
 
     public HistoryEntryDatabaseTable() {
         super(PageHistoryContract.TABLE, PageHistoryContract.Page.URI);
@@ -94,6 +95,13 @@ public class HistoryEntryDatabaseTable extends DatabaseTable<HistoryEntry> {
             case DB_VER_LANG_ADDED:
                 addLangToAllSites(db);
                 break;
+            case DB_VER_TIMESTAMP_INDEXED:
+                // Pages of the history list are selected by timestamp, then by ID, which SQLite
+                // appends to every index.
+                db.execSQL(("CREATE INDEX IF NOT EXISTS :tbl_timestamp ON :tbl (:timestampCol)")
+                        .replaceAll(":tbl", getTableName())
+                        .replaceAll(":timestampCol", Col.TIMESTAMP.getName()));
+                break;
             default:
                 super.upgradeSchema(db, toVersion);
         }
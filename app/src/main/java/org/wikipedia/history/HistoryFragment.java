@@ -1,77 +1,73 @@
 package org.wikipedia.history;
 
-import android.content.Context;
 import android.content.DialogInterface;
-import android.database.Cursor;
-import android.net.Uri;
+import android.database.ContentObserver;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
-import android.support.v4.content.CursorLoader;
-import android.support.v4.content.Loader;
 import android.support.v4.view.ViewCompat;
-import android.support.v4.widget.CursorAdapter;
 import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.view.ActionMode;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.text.TextUtils;
-import android.util.SparseBooleanArray;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.AbsListView;
-import android.widget.AdapterView;
-import android.widget.ListView;
 import android.widget.TextView;
 
-import com.facebook.drawee.view.SimpleDraweeView;
-
 import org.wikipedia.BackPressedHandler;
 import org.wikipedia.R;
 import org.wikipedia.WikipediaApp;
 import org.wikipedia.activity.FragmentUtil;
-import org.wikipedia.database.CursorAdapterLoaderCallback;
 import org.wikipedia.database.contract.PageHistoryContract;
 import org.wikipedia.page.PageTitle;
-import org.wikipedia.views.GoneIfEmptyTextView;
+import org.wikipedia.views.DefaultViewHolder;
+import org.wikipedia.views.PageItemView;
 import org.wikipedia.views.SearchEmptyView;
-import org.wikipedia.views.ViewUtil;
 
-import java.text.DateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.Unbinder;
 
-import static org.wikipedia.Constants.HISTORY_FRAGMENT_LOADER_ID;
-
 public class HistoryFragment extends Fragment implements BackPressedHandler {
     public interface Callback {
         void onLoadPage(PageTitle title, HistoryEntry entry);
         void onClearHistory();
     }
 
+    private static final String MULTI_SELECT_ACTION_MODE_TAG = "actionModeHistory";
+
     private Unbinder unbinder;
-    @BindView(R.id.history_entry_list) ListView historyEntryList;
+    @BindView(R.id.history_entry_list) RecyclerView historyEntryList;
     @BindView(R.id.history_empty_container) View historyEmptyView;
     @BindView(R.id.search_empty_view) SearchEmptyView searchEmptyView;
 
-    private HistoryEntryAdapter adapter;
+    private HistoryDataSource dataSource;
+    private HistoryEntryAdapter adapter = new HistoryEntryAdapter();
+    private HistoryObserver historyObserver = new HistoryObserver();
+    @NonNull private final Set<Long> selectedIds = new HashSet<>();
 
     private WikipediaApp app;
 
     private String currentSearchQuery;
-    private LoaderCallback loaderCallback;
 
     private ActionMode actionMode;
     private SearchActionModeCallback searchActionModeCallback = new HistorySearchCallback();
-    private HistoryItemClickListener itemClickListener = new HistoryItemClickListener();
-    private HistoryItemLongClickListener itemLongClickListener = new HistoryItemLongClickListener();
+    private ActionMode.Callback multiSelectActionModeCallback = new HistoryMultiSelectCallback();
+    private ItemCallback itemCallback = new ItemCallback();
 
     @NonNull public static HistoryFragment newInstance() {
         return new HistoryFragment();
@@ -82,7 +78,14 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
         super.onCreate(savedInstanceState);
         setRetainInstance(true);
         app = WikipediaApp.getInstance();
-        adapter = new HistoryEntryAdapter(getContext(), null, true);
+        dataSource = new HistoryDataSource(new HistoryDataSource.Callback() {
+            @Override public void onChanged() {
+                onHistoryChanged();
+            }
+        });
+        dataSource.setQuery(currentSearchQuery);
+        app.getContentResolver().registerContentObserver(PageHistoryContract.Page.URI, true,
+                historyObserver);
     }
 
     @Override
@@ -92,12 +95,11 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
 
         searchEmptyView.setEmptyText(R.string.search_history_no_results);
         ViewCompat.setNestedScrollingEnabled(historyEntryList, true); // NavTabLayout coordination
+        historyEntryList.setLayoutManager(new LinearLayoutManager(getContext()));
         historyEntryList.setAdapter(adapter);
-        historyEntryList.setOnItemClickListener(itemClickListener);
-        historyEntryList.setOnItemLongClickListener(itemLongClickListener);
-
-        loaderCallback = new LoaderCallback(getContext(), adapter);
-        getActivity().getSupportLoaderManager().initLoader(HISTORY_FRAGMENT_LOADER_ID, null, loaderCallback);
+        if (!dataSource.isEmpty()) {
+            updateEmptyState(currentSearchQuery);
+        }
 
         return view;
     }
@@ -110,10 +112,6 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
 
     @Override
     public void onDestroyView() {
-        historyEntryList.setEmptyView(null);
-        getActivity().getSupportLoaderManager().destroyLoader(HISTORY_FRAGMENT_LOADER_ID);
-        historyEntryList.setOnItemClickListener(null);
-        historyEntryList.setOnItemLongClickListener(null);
         historyEntryList.setAdapter(null);
         unbinder.unbind();
         unbinder = null;
@@ -139,66 +137,101 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
         return false;
     }
 
+    private void onHistoryChanged() {
+        if (!isAdded() || unbinder == null) {
+            return;
+        }
+        adapter.notifyDataSetChanged();
+        updateEmptyState(currentSearchQuery);
+        getActivity().supportInvalidateOptionsMenu();
+    }
+
     private void updateEmptyState(@Nullable String searchQuery) {
         if (TextUtils.isEmpty(searchQuery)) {
             searchEmptyView.setVisibility(View.GONE);
-            historyEmptyView.setVisibility(adapter.isEmpty() ? View.VISIBLE : View.GONE);
+            historyEmptyView.setVisibility(dataSource.isEmpty() ? View.VISIBLE : View.GONE);
         } else {
-            searchEmptyView.setVisibility(adapter.isEmpty() ? View.VISIBLE : View.GONE);
+            searchEmptyView.setVisibility(dataSource.isEmpty() ? View.VISIBLE : View.GONE);
             historyEmptyView.setVisibility(View.GONE);
         }
-        historyEntryList.setVisibility(adapter.isEmpty() ? View.GONE : View.VISIBLE);
+        historyEntryList.setVisibility(dataSource.isEmpty() ? View.GONE : View.VISIBLE);
     }
 
-    private class HistoryEntryAdapter extends CursorAdapter {
-        HistoryEntryAdapter(Context context, Cursor c, boolean autoRequery) {
-            super(context, c, autoRequery);
+    private class HistoryHeaderHolder extends RecyclerView.ViewHolder {
+        HistoryHeaderHolder(@NonNull View itemView) {
+            super(itemView);
         }
 
-        @Override
-        public View newView(Context context, Cursor cursor, ViewGroup viewGroup) {
-            View view = getActivity().getLayoutInflater().inflate(R.layout.item_page_list_entry, viewGroup, false);
-            view.setBackgroundResource(R.drawable.selectable_item_background);
-            return view;
+        void bindItem(@NonNull HistoryListItem item) {
+            ((TextView) itemView).setText(item.date());
+        }
+    }
+
+    private class HistoryEntryHolder extends DefaultViewHolder<PageItemView<HistoryListItem>> {
+        HistoryEntryHolder(@NonNull PageItemView<HistoryListItem> itemView) {
+            super(itemView);
+        }
+
+        void bindItem(@NonNull HistoryListItem item) {
+            getView().setItem(item);
+            getView().setTitle(item.entry() == null ? null : item.entry().getTitle().getDisplayText());
+            getView().setDescription(null);
+            getView().setImageUrl(item.imageUrl());
+            getView().setSelected(selectedIds.contains(item.id()));
         }
+    }
+
+    private final class HistoryEntryAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private static final int TYPE_HEADER = 0;
+        private static final int TYPE_ITEM = 1;
 
-        private String getDateString(Date date) {
-            return DateFormat.getDateInstance().format(date);
+        @Override
+        public int getItemCount() {
+            return dataSource.size();
         }
 
         @Override
-        public void bindView(View view, Context context, Cursor cursor) {
-            TextView title = (TextView) view.findViewById(R.id.page_list_item_title);
-            GoneIfEmptyTextView description = (GoneIfEmptyTextView) view.findViewById(R.id.page_list_item_description);
-            HistoryEntry entry = HistoryEntry.DATABASE_TABLE.fromCursor(cursor);
-            title.setText(entry.getTitle().getDisplayText());
-            description.setText(null);
-            view.setTag(entry);
-            ViewUtil.loadImageUrlInto((SimpleDraweeView) view.findViewById(R.id.page_list_item_image),
-                    PageHistoryContract.PageWithImage.IMAGE_NAME.val(cursor));
-
-            // Check the previous item, see if the times differ enough
-            // If they do, display the section header.
-            // Always do it this is the first item.
-            String curTime, prevTime = "";
-            if (cursor.getPosition() != 0) {
-                Cursor prevCursor = (Cursor) getItem(cursor.getPosition() - 1);
-                HistoryEntry prevEntry = HistoryEntry.DATABASE_TABLE.fromCursor(prevCursor);
-                prevTime = getDateString(prevEntry.getTimestamp());
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int type) {
+            if (type == TYPE_HEADER) {
+                return new HistoryHeaderHolder(LayoutInflater.from(getContext())
+                        .inflate(R.layout.view_history_header, parent, false));
             }
-            curTime = getDateString(entry.getTimestamp());
-            TextView sectionHeader = (TextView) view.findViewById(R.id.page_list_header_text);
-            if (!curTime.equals(prevTime)) {
-                sectionHeader.setText(curTime);
-                sectionHeader.setVisibility(View.VISIBLE);
+            return new HistoryEntryHolder(new PageItemView<HistoryListItem>(getContext()));
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int pos) {
+            HistoryListItem item = dataSource.get(pos);
+            if (holder instanceof HistoryHeaderHolder) {
+                ((HistoryHeaderHolder) holder).bindItem(item);
             } else {
-                sectionHeader.setVisibility(View.GONE);
+                ((HistoryEntryHolder) holder).bindItem(item);
+            }
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return dataSource.get(position).isHeader() ? TYPE_HEADER : TYPE_ITEM;
+        }
+
+        @Override public void onViewAttachedToWindow(RecyclerView.ViewHolder holder) {
+            super.onViewAttachedToWindow(holder);
+            if (holder instanceof HistoryEntryHolder) {
+                ((HistoryEntryHolder) holder).getView().setCallback(itemCallback);
+            }
+        }
+
+        @Override public void onViewDetachedFromWindow(RecyclerView.ViewHolder holder) {
+            if (holder instanceof HistoryEntryHolder) {
+                ((HistoryEntryHolder) holder).getView().setCallback(null);
             }
+            super.onViewDetachedFromWindow(holder);
         }
     }
 
     @Override
     public void onDestroy() {
+        app.getContentResolver().unregisterContentObserver(historyObserver);
         super.onDestroy();
         app.getRefWatcher().watch(this);
     }
@@ -211,7 +244,7 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
     @Override
     public void onPrepareOptionsMenu(Menu menu) {
         super.onPrepareOptionsMenu(menu);
-        boolean isHistoryAvailable = historyEntryList.getCount() > 0;
+        boolean isHistoryAvailable = !dataSource.isEmpty();
         menu.findItem(R.id.menu_clear_all_history)
                 .setVisible(isHistoryAvailable)
                 .setEnabled(isHistoryAvailable);
@@ -245,113 +278,114 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
         }
     }
 
-    private class HistoryItemClickListener implements AdapterView.OnItemClickListener {
+    private class ItemCallback implements PageItemView.Callback<HistoryListItem> {
         @Override
-        public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-            if (actionMode == null
-                    || SearchActionModeCallback.ACTION_MODE_TAG.equals(actionMode.getTag())) {
-                HistoryEntry oldEntry = (HistoryEntry) view.getTag();
+        public void onClick(@Nullable HistoryListItem item) {
+            if (item == null || item.entry() == null) {
+                return;
+            }
+            if (isMultiSelecting()) {
+                toggleSelectEntry(item);
+            } else {
+                HistoryEntry oldEntry = item.entry();
                 HistoryEntry newEntry = new HistoryEntry(oldEntry.getTitle(), HistoryEntry.SOURCE_HISTORY);
                 onPageClick(oldEntry.getTitle(), newEntry);
-            } else {
-                actionMode.invalidate();
             }
         }
-    }
 
-    private class HistoryItemLongClickListener implements AdapterView.OnItemLongClickListener {
         @Override
-        public boolean onItemLongClick(AdapterView<?> parent, View view, int position, long id) {
-            if (actionMode != null) {
+        public boolean onLongClick(@Nullable HistoryListItem item) {
+            if (actionMode != null || item == null) {
                 return false;
             }
-            historyEntryList.setChoiceMode(AbsListView.CHOICE_MODE_MULTIPLE);
-            actionMode = ((AppCompatActivity)getActivity()).startSupportActionMode(new ActionMode.Callback() {
-                private final String actionModeTag = "actionModeHistory";
-                @Override
-                public boolean onCreateActionMode(ActionMode mode, Menu menu) {
-                    mode.getMenuInflater().inflate(R.menu.menu_history_context, menu);
-                    setActionModeIntTitle(historyEntryList.getCheckedItemCount() + 1, mode);
-                    return true;
-                }
+            selectedIds.add(item.id());
+            actionMode = ((AppCompatActivity) getActivity())
+                    .startSupportActionMode(multiSelectActionModeCallback);
+            adapter.notifyDataSetChanged();
+            return true;
+        }
 
-                @Override
-                public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
-                    mode.setTag(actionModeTag);
-                    int count = historyEntryList.getCheckedItemCount();
-                    if (actionMode != null) {
-                        if (count == 0) {
-                            mode.finish();
-                        } else {
-                            setActionModeIntTitle(count, mode);
-                        }
-                    }
-                    return false;
-                }
+        @Override
+        public void onThumbClick(@Nullable HistoryListItem item) {
+            onClick(item);
+        }
 
-                @Override
-                public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
-                    if (item.getItemId() == R.id.menu_delete_selected_history) {
-                        SparseBooleanArray checkedItems = historyEntryList.getCheckedItemPositions();
-                        for (int i = 0; i < checkedItems.size(); i++) {
-                            if (checkedItems.valueAt(i)) {
-                                app.getDatabaseClient(HistoryEntry.class).delete(
-                                        HistoryEntry.DATABASE_TABLE.fromCursor((Cursor) adapter.getItem(checkedItems.keyAt(i))),
-                                        PageHistoryContract.PageWithImage.SELECTION);
-                            }
-                        }
-                        mode.finish();
-                        return true;
-                    } else {
-                        throw new RuntimeException("Unknown context menu item clicked");
-                    }
-                }
+        @Override
+        public void onActionClick(@Nullable HistoryListItem item, @NonNull PageItemView view) {
+        }
+    }
 
-                @Override
-                public void onDestroyActionMode(ActionMode mode) {
-                    historyEntryList.setChoiceMode(AbsListView.CHOICE_MODE_SINGLE);
-                    actionMode = null;
-                    // Clear all selections
-                    historyEntryList.clearChoices();
-                    historyEntryList.requestLayout(); // Required to immediately redraw unchecked states
-                }
-            });
-            historyEntryList.setItemChecked(position, true);
-            return true;
+    private boolean isMultiSelecting() {
+        return actionMode != null && MULTI_SELECT_ACTION_MODE_TAG.equals(actionMode.getTag());
+    }
+
+    private void toggleSelectEntry(@NonNull HistoryListItem item) {
+        if (!selectedIds.remove(item.id())) {
+            selectedIds.add(item.id());
         }
+        if (actionMode != null) {
+            actionMode.invalidate();
+        }
+        adapter.notifyDataSetChanged();
     }
 
-    private class LoaderCallback extends CursorAdapterLoaderCallback {
-        LoaderCallback(@NonNull Context context, @NonNull CursorAdapter adapter) {
-            super(context, adapter);
+    private void deleteSelectedEntries() {
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (HistoryListItem item : dataSource.entries()) {
+            if (selectedIds.contains(item.id()) && item.entry() != null) {
+                entries.add(item.entry());
+            }
         }
+        app.getDatabaseClient(HistoryEntry.class).delete(entries,
+                PageHistoryContract.PageWithImage.SELECTION);
+    }
 
+    private class HistoryMultiSelectCallback implements ActionMode.Callback {
         @Override
-        public Loader<Cursor> onCreateLoader(int id, Bundle args) {
-            String titleCol = PageHistoryContract.PageWithImage.TITLE.qualifiedName();
-            String selection = null;
-            String[] selectionArgs = null;
-            String searchStr = currentSearchQuery;
-            if (!TextUtils.isEmpty(searchStr)) {
-                searchStr = searchStr.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
-                selection = "UPPER(" + titleCol + ") LIKE UPPER(?) ESCAPE '\\'";
-                selectionArgs = new String[]{"%" + searchStr + "%"};
-            }
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.setTag(MULTI_SELECT_ACTION_MODE_TAG);
+            mode.getMenuInflater().inflate(R.menu.menu_history_context, menu);
+            return true;
+        }
 
-            Uri uri = PageHistoryContract.PageWithImage.URI;
-            final String[] projection = null;
-            String order = PageHistoryContract.PageWithImage.ORDER_MRU;
-            return new CursorLoader(context(), uri, projection, selection, selectionArgs, order);
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            if (selectedIds.isEmpty()) {
+                mode.finish();
+            } else {
+                setActionModeIntTitle(selectedIds.size(), mode);
+            }
+            return false;
         }
 
         @Override
-        public void onLoadFinished(Loader<Cursor> cursorLoader, Cursor cursor) {
-            super.onLoadFinished(cursorLoader, cursor);
-            if (!isAdded()) {
-                return;
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            if (item.getItemId() == R.id.menu_delete_selected_history) {
+                deleteSelectedEntries();
+                mode.finish();
+                return true;
+            } else {
+                throw new RuntimeException("Unknown context menu item clicked");
             }
-            updateEmptyState(currentSearchQuery);
-            getActivity().supportInvalidateOptionsMenu();
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            actionMode = null;
+            selectedIds.clear();
+            adapter.notifyDataSetChanged();
+        }
+    }
+
+    private class HistoryObserver extends ContentObserver {
+        HistoryObserver() {
+            super(new Handler(Looper.getMainLooper()));
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            super.onChange(selfChange);
+            dataSource.reload();
         }
     }
 
@@ -373,10 +407,6 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
         }
     }
 
-    private void restartLoader() {
-        getActivity().getSupportLoaderManager().restartLoader(HISTORY_FRAGMENT_LOADER_ID, null, loaderCallback);
-    }
-
     private class HistorySearchCallback extends SearchActionModeCallback {
         @Override
         public boolean onCreateActionMode(ActionMode mode, Menu menu) {
@@ -387,7 +417,7 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
         @Override
         protected void onQueryChange(String s) {
             currentSearchQuery = s;
-            restartLoader();
+            dataSource.setQuery(currentSearchQuery);
         }
 
         @Override
@@ -395,7 +425,7 @@ public class HistoryFragment extends Fragment implements BackPressedHandler {
             super.onDestroyActionMode(mode);
             if (!TextUtils.isEmpty(currentSearchQuery)) {
                 currentSearchQuery = "";
-                restartLoader();
+                dataSource.setQuery(currentSearchQuery);
             }
             actionMode = null;
         }
@@ -0,0 +1,51 @@
+package org.wikipedia.history;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/** A row of the history list: either a history entry or the date header of the entries below it. */
+final class HistoryListItem {
+    private final long id;
+    @Nullable private final HistoryEntry entry;
+    @Nullable private final String imageUrl;
+    @NonNull private final String date;
+
+    @NonNull static HistoryListItem header(@NonNull String date) {
+        return new HistoryListItem(0, null, null, date);
+    }
+
+    @NonNull static HistoryListItem entry(long id, @NonNull HistoryEntry entry,
+                                          @Nullable String imageUrl, @NonNull String date) {
+        return new HistoryListItem(id, entry, imageUrl, date);
+    }
+
+    boolean isHeader() {
+        return entry == null;
+    }
+
+    /** @return The database ID of the entry, or 0 for a header. */
+    long id() {
+        return id;
+    }
+
+    @Nullable HistoryEntry entry() {
+        return entry;
+    }
+
+    @Nullable String imageUrl() {
+        return imageUrl;
+    }
+
+    /** @return The formatted date of the entry or section. */
+    @NonNull String date() {
+        return date;
+    }
+
+    private HistoryListItem(long id, @Nullable HistoryEntry entry, @Nullable String imageUrl,
+                            @NonNull String date) {
+        this.id = id;
+        this.entry = entry;
+        this.imageUrl = imageUrl;
+        this.date = date;
+    }
+}
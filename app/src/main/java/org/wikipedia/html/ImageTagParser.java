@@ -22,10 +22,23 @@ public class ImageTagParser {
         return TAG_NAME;
     }
 
+    @NonNull public String srcAttrName() {
+        return ATTR_SRC;
+    }
+
+    @NonNull public String srcSetAttrName() {
+        return ATTR_SRC_SET;
+    }
+
     @NonNull public ImageElement parse(@NonNull PixelDensityDescriptorParser descriptorParser,
                                        @NonNull Element el) {
         String src = el.attr(ATTR_SRC);
         String srcSet = el.attr(ATTR_SRC_SET);
+        return parse(descriptorParser, src, srcSet);
+    }
+
+    @NonNull public ImageElement parse(@NonNull PixelDensityDescriptorParser descriptorParser,
+                                       @Nullable String src, @Nullable String srcSet) {
         return new ImageElement(src, parseSrcSet(descriptorParser, srcSet));
     }
 
@@ -0,0 +1,212 @@
+package org.wikipedia.html;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.jsoup.parser.Parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds image elements in HTML without building a document. Tags are scanned in a single pass and
+ * only the src and srcset attribute values of image tags are copied out of the input. Comments and
+ * the contents of script and style elements are skipped. This is not a general purpose HTML parser.
+ */
+public class ImageTagTokenizer {
+    public interface Callback {
+        void onImage(@NonNull ImageElement img);
+    }
+
+    @NonNull private static final String COMMENT_START = "!--";
+    @NonNull private static final String COMMENT_END = "-->";
+    @NonNull private static final String END_TAG_START = "</";
+    @NonNull private static final String[] RAW_TEXT_TAG_NAMES = {"script", "style"};
+
+    @NonNull private final ImageTagParser imageParser;
+    @NonNull private final PixelDensityDescriptorParser descriptorParser;
+
+    public ImageTagTokenizer(@NonNull ImageTagParser imageParser,
+                             @NonNull PixelDensityDescriptorParser descriptorParser) {
+        this.imageParser = imageParser;
+        this.descriptorParser = descriptorParser;
+    }
+
+    @NonNull public List<ImageElement> tokenize(@NonNull String html) {
+        final List<ImageElement> imgs = new ArrayList<>();
+        tokenize(html, new Callback() {
+            @Override public void onImage(@NonNull ImageElement img) {
+                imgs.add(img);
+            }
+        });
+        return imgs;
+    }
+
+    public void tokenize(@NonNull String html, @NonNull Callback callback) {
+        new Scanner(html, callback).scan();
+    }
+
+    private class Scanner {
+        @NonNull private final String html;
+        @NonNull private final Callback callback;
+        private final int len;
+        private int pos;
+        @Nullable private String src;
+        @Nullable private String srcSet;
+
+        Scanner(@NonNull String html, @NonNull Callback callback) {
+            this.html = html;
+            this.callback = callback;
+            len = html.length();
+        }
+
+        void scan() {
+            while (pos < len) {
+                int start = html.indexOf('<', pos);
+                if (start < 0) {
+                    return;
+                }
+                pos = start + 1;
+
+                if (html.startsWith(COMMENT_START, pos)) {
+                    skipPast(COMMENT_END);
+                } else if (pos < len && isAsciiLetter(html.charAt(pos))) {
+                    scanTag();
+                }
+            }
+        }
+
+        private void scanTag() {
+            int nameStart = pos;
+            while (pos < len && !isTagNameEnd(html.charAt(pos))) {
+                pos++;
+            }
+            int nameEnd = pos;
+
+            boolean img = matches(nameStart, nameEnd, imageParser.tagName());
+            scanAttributes(img);
+
+            if (img) {
+                callback.onImage(imageParser.parse(descriptorParser, src, srcSet));
+                return;
+            }
+
+            for (String rawTextTagName : RAW_TEXT_TAG_NAMES) {
+                if (matches(nameStart, nameEnd, rawTextTagName)) {
+                    skipRawText(rawTextTagName);
+                    return;
+                }
+            }
+        }
+
+        // Consumes attributes through the end of the tag.
+        private void scanAttributes(boolean capture) {
+            src = null;
+            srcSet = null;
+
+            while (pos < len) {
+                char c = html.charAt(pos);
+                if (c == '>') {
+                    pos++;
+                    return;
+                }
+                if (c == '/' || Character.isWhitespace(c)) {
+                    pos++;
+                    continue;
+                }
+
+                int nameStart = pos;
+                while (pos < len && !isAttrNameEnd(html.charAt(pos))) {
+                    pos++;
+                }
+                int nameEnd = pos;
+                skipWhitespace();
+
+                if (pos < len && html.charAt(pos) == '=') {
+                    pos++;
+                    skipWhitespace();
+                    // As with the DOM, the first occurrence of a duplicate attribute wins.
+                    if (capture && src == null && matches(nameStart, nameEnd, imageParser.srcAttrName())) {
+                        src = scanAttrValue(true);
+                    } else if (capture && srcSet == null
+                            && matches(nameStart, nameEnd, imageParser.srcSetAttrName())) {
+                        srcSet = scanAttrValue(true);
+                    } else {
+                        scanAttrValue(false);
+                    }
+                }
+            }
+        }
+
+        @Nullable private String scanAttrValue(boolean copy) {
+            if (pos >= len) {
+                return null;
+            }
+
+            int start;
+            int end;
+            char quote = html.charAt(pos);
+            if (quote == '"' || quote == '\'') {
+                start = pos + 1;
+                end = html.indexOf(quote, start);
+                if (end < 0) {
+                    end = len;
+                }
+                pos = Math.min(end + 1, len);
+            } else {
+                start = pos;
+                while (pos < len && html.charAt(pos) != '>' && !Character.isWhitespace(html.charAt(pos))) {
+                    pos++;
+                }
+                end = pos;
+            }
+
+            if (!copy) {
+                return null;
+            }
+            String value = html.substring(start, end);
+            return value.indexOf('&') < 0 ? value : Parser.unescapeEntities(value, true);
+        }
+
+        private void skipRawText(@NonNull String tagName) {
+            while (pos < len) {
+                int end = html.indexOf(END_TAG_START, pos);
+                if (end < 0) {
+                    pos = len;
+                    return;
+                }
+                pos = end + END_TAG_START.length();
+                if (html.regionMatches(true, pos, tagName, 0, tagName.length())) {
+                    return;
+                }
+            }
+        }
+
+        private void skipPast(@NonNull String str) {
+            int end = html.indexOf(str, pos);
+            pos = end < 0 ? len : end + str.length();
+        }
+
+        private void skipWhitespace() {
+            while (pos < len && Character.isWhitespace(html.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean matches(int start, int end, @NonNull String name) {
+            return end - start == name.length() && html.regionMatches(true, start, name, 0, name.length());
+        }
+
+        private boolean isTagNameEnd(char c) {
+            return c == '>' || c == '/' || Character.isWhitespace(c);
+        }
+
+        private boolean isAttrNameEnd(char c) {
+            return c == '=' || isTagNameEnd(c);
+        }
+
+        private boolean isAsciiLetter(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+        }
+    }
+}
@@ -11,7 +11,6 @@ import org.wikipedia.dataclient.retrofit.MwCachedService;
 import org.wikipedia.dataclient.retrofit.WikiCachedService;
 
 import java.util.ArrayList;
-import java.util.Locale;
 
 import retrofit2.Call;
 import retrofit2.Response;
@@ -24,25 +23,22 @@ class NearbyClient {
         void failure(@NonNull Call<MwQueryResponse<Nearby>> call, @NonNull Throwable caught);
     }
 
-    private static final int MAX_RADIUS = 10_000;
+    /** The most pages returned for a tile. A tile with fewer has no others. */
+    static final int MAX_RESULTS = 50;
 
     @NonNull private final WikiCachedService<Service> cachedService = new MwCachedService<>(Service.class);
 
-    public Call<MwQueryResponse<Nearby>> request(@NonNull WikiSite wiki, double latitude,
-                                                 double longitude, double radius,
+    public Call<MwQueryResponse<Nearby>> request(@NonNull WikiSite wiki, @NonNull NearbyTile tile,
                                                  @NonNull Callback cb) {
-        return request(wiki, cachedService.service(wiki), latitude, longitude, radius, cb);
+        return request(wiki, cachedService.service(wiki), tile, cb);
     }
 
     @VisibleForTesting Call<MwQueryResponse<Nearby>> request(@NonNull final WikiSite wiki,
                                                              @NonNull Service service,
-                                                             double latitude, double longitude,
-                                                             double radius,
+                                                             @NonNull NearbyTile tile,
                                                              @NonNull final Callback cb) {
-        String latLng = String.format(Locale.ROOT, "%f|%f", latitude, longitude);
-        radius = Math.min(MAX_RADIUS, radius);
         Call<MwQueryResponse<Nearby>> call
-                = service.request(latLng, radius, Constants.PREFERRED_THUMB_SIZE);
+                = service.request(tile.bbox(), Constants.PREFERRED_THUMB_SIZE);
         call.enqueue(new retrofit2.Callback<MwQueryResponse<Nearby>>() {
             @Override
             public void onResponse(Call<MwQueryResponse<Nearby>> call,
@@ -70,10 +66,9 @@ class NearbyClient {
 
     @VisibleForTesting interface Service {
         @GET("w/api.php?action=query&format=json&prop=coordinates|pageimages|pageterms"
-                + "&colimit=50&piprop=thumbnail&pilicense=any&pilimit=50&wbptterms=description"
-                + "&generator=geosearch&ggslimit=50&continue=")
-        Call<MwQueryResponse<Nearby>> request(@NonNull @Query("ggscoord") String coord,
-                                              @Query("ggsradius") double radius,
+                + "&colimit=" + MAX_RESULTS + "&piprop=thumbnail&pilicense=any&pilimit=" + MAX_RESULTS
+                + "&wbptterms=description&generator=geosearch&ggslimit=" + MAX_RESULTS + "&continue=")
+        Call<MwQueryResponse<Nearby>> request(@NonNull @Query("ggsbbox") String bbox,
                                               @Query("pithumbsize") int thumbsize);
     }
 }
@@ -3,7 +3,10 @@ package org.wikipedia.nearby;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.graphics.PointF;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
 import android.location.Location;
 import android.os.Bundle;
 import android.provider.Settings;
@@ -26,11 +29,11 @@ import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
 import com.mapbox.mapboxsdk.constants.MyLocationTracking;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.mapboxsdk.location.LocationSource;
 import com.mapbox.mapboxsdk.maps.MapView;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.maps.OnMapReadyCallback;
-import com.mapbox.mapboxsdk.maps.Projection;
 import com.mapbox.services.android.telemetry.MapboxTelemetry;
 import com.mapbox.services.android.telemetry.location.LocationEngineListener;
 
@@ -50,8 +53,15 @@ import org.wikipedia.util.ResourceUtil;
 import org.wikipedia.util.ThrowableUtil;
 import org.wikipedia.util.log.L;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
@@ -60,7 +70,9 @@ import butterknife.Unbinder;
 import retrofit2.Call;
 
 /**
- * Displays a list of nearby pages.
+ * Displays a map of nearby pages. Pages are fetched by map tile and cached, so that only the tiles
+ * that come into view are fetched as the map moves. Markers are updated by difference, and at low
+ * zoom the pages that would crowd each other are shown as a single marker.
  */
 public class NearbyFragment extends Fragment {
     public interface Callback {
@@ -74,14 +86,33 @@ public class NearbyFragment extends Fragment {
     private static final String NEARBY_FIRST_LOCATION_LOCK = "firstLocationLock";
     private static final int GO_TO_LOCATION_PERMISSION_REQUEST = 50;
 
+    // Tiles are fetched at about the camera zoom, but never at a zoom so low that a tile exceeds
+    // the largest area geosearch allows.
+    private static final int MIN_TILE_ZOOM = 12;
+    private static final int MAX_TILE_ZOOM = 16;
+    // When zoomed out, only the tiles nearest the center are fetched.
+    private static final int MAX_TILE_REQUESTS = 16;
+    // Below this camera zoom, markers are clustered by the tile of the camera zoom plus the offset,
+    // about 64 dp square.
+    private static final int MAX_CLUSTER_ZOOM = 15;
+    private static final int CLUSTER_ZOOM_OFFSET = 3;
+
     @BindView(R.id.mapview) MapView mapView;
     private Unbinder unbinder;
 
     @Nullable private MapboxMap mapboxMap;
     private Icon markerIconPassive;
+    @NonNull private final Map<String, Icon> clusterIcons = new HashMap<>();
 
     private NearbyClient client;
     private NearbyResult lastResult;
+    @NonNull private final NearbyTileCache tileCache = new NearbyTileCache();
+    @NonNull private final Set<NearbyTile> pendingTiles = new HashSet<>();
+    @Nullable private Throwable pendingTilesError;
+
+    // The markers shown, by key, and the pages each represents.
+    @NonNull private final Map<String, Marker> markers = new HashMap<>();
+    @NonNull private final Map<Marker, List<NearbyPage>> markerPages = new HashMap<>();
 
     private LocationChangeListener locationChangeListener = new LocationChangeListener();
     @Nullable private CameraPosition lastCameraPos;
@@ -161,6 +192,8 @@ public class NearbyFragment extends Fragment {
         LocationSource.getLocationEngine(getContext()).removeLocationEngineListener(locationChangeListener);
         mapView.onDestroy();
         mapboxMap = null;
+        markers.clear();
+        markerPages.clear();
         unbinder.unbind();
         unbinder = null;
         super.onDestroyView();
@@ -233,14 +266,17 @@ public class NearbyFragment extends Fragment {
                 mapboxMap.setOnMarkerClickListener(new MapboxMap.OnMarkerClickListener() {
                     @Override
                     public boolean onMarkerClick(@NonNull Marker marker) {
-                        NearbyPage page = findNearbyPageFromMarker(marker);
-                        if (page != null) {
+                        List<NearbyPage> pages = markerPages.get(marker);
+                        if (pages == null || lastResult == null) {
+                            return false;
+                        } else if (pages.size() == 1) {
+                            NearbyPage page = pages.get(0);
                             PageTitle title = new PageTitle(page.getTitle(), lastResult.getWiki(), page.getThumbUrl());
                             onLoadPage(title, HistoryEntry.SOURCE_NEARBY, page.getLocation());
-                            return true;
                         } else {
-                            return false;
+                            zoomToCluster(marker);
                         }
+                        return true;
                     }
                 });
 
@@ -250,22 +286,12 @@ public class NearbyFragment extends Fragment {
                     goToUserLocationOrPromptPermissions();
                 }
                 if (lastResult != null) {
-                    showNearbyPages(lastResult);
+                    showNearbyPages(lastResult.getList());
                 }
             }
         });
     }
 
-    @Nullable
-    private NearbyPage findNearbyPageFromMarker(Marker marker) {
-        for (NearbyPage page : lastResult.getList()) {
-            if (page.getTitle().equals(marker.getTitle())) {
-                return page;
-            }
-        }
-        return null;
-    }
-
     private boolean locationPermitted() {
         return ContextCompat.checkSelfPermission(getActivity(),
                 Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED;
@@ -376,75 +402,209 @@ public class NearbyFragment extends Fragment {
                 return;
             }
 
-            onLoading();
+            final WikiSite wiki = WikipediaApp.getInstance().getWikiSite();
+            tileCache.setWiki(wiki);
+            showCachedPages(wiki);
+
+            LatLngBounds bounds = mapboxMap.getProjection().getVisibleRegion().latLngBounds;
+            List<NearbyTile> tiles = NearbyTile.covering(bounds.getLatNorth(), bounds.getLonWest(),
+                    bounds.getLatSouth(), bounds.getLonEast(), tileZoom());
+            tiles.removeAll(pendingTiles);
+            sortByDistance(tiles, mapboxMap.getCameraPosition().target);
+            List<NearbyTile> uncovered = tileCache.uncovered(
+                    tiles.subList(0, Math.min(MAX_TILE_REQUESTS, tiles.size())));
+            if (uncovered.isEmpty()) {
+                if (pendingTiles.isEmpty()) {
+                    onLoaded();
+                }
+                return;
+            }
 
-            WikiSite wiki = WikipediaApp.getInstance().getWikiSite();
-            client.request(wiki, mapboxMap.getCameraPosition().target.getLatitude(),
-                    mapboxMap.getCameraPosition().target.getLongitude(), getMapRadius(),
-                    new NearbyClient.Callback() {
-                        @Override public void success(@NonNull Call<MwQueryResponse<Nearby>> call,
-                                                      @NonNull NearbyResult result) {
-                            if (!isResumed()) {
-                                return;
-                            }
-                            lastResult = result;
-                            showNearbyPages(result);
-                            onLoaded();
+            onLoading();
+            for (final NearbyTile tile : uncovered) {
+                pendingTiles.add(tile);
+                client.request(wiki, tile, new NearbyClient.Callback() {
+                    @Override public void success(@NonNull Call<MwQueryResponse<Nearby>> call,
+                                                  @NonNull NearbyResult result) {
+                        pendingTiles.remove(tile);
+                        boolean current = wiki.equals(tileCache.getWiki());
+                        if (current) {
+                            tileCache.put(tile, result.getList(),
+                                    result.getList().size() < NearbyClient.MAX_RESULTS);
+                        }
+                        if (!isResumed()) {
+                            return;
                         }
+                        if (current) {
+                            showCachedPages(wiki);
+                        }
+                        onTileLoaded();
+                    }
 
-                        @Override public void failure(@NonNull Call<MwQueryResponse<Nearby>> call,
-                                                      @NonNull Throwable caught) {
-                            if (!isResumed()) {
-                                return;
-                            }
-                            ThrowableUtil.AppError error = ThrowableUtil.getAppError(getActivity(), caught);
-                            Toast.makeText(getActivity(), error.getError(), Toast.LENGTH_SHORT).show();
-                            L.e(caught);
-                            onLoaded();
+                    @Override public void failure(@NonNull Call<MwQueryResponse<Nearby>> call,
+                                                  @NonNull Throwable caught) {
+                        pendingTiles.remove(tile);
+                        L.e(caught);
+                        if (pendingTilesError == null) {
+                            pendingTilesError = caught;
                         }
-                    });
+                        if (!isResumed()) {
+                            return;
+                        }
+                        onTileLoaded();
+                    }
+                });
+            }
         }
     };
 
-    private double getMapRadius() {
+    // Reports the first error of the tiles requested together once all have finished.
+    private void onTileLoaded() {
+        if (!pendingTiles.isEmpty()) {
+            return;
+        }
+        if (pendingTilesError != null) {
+            ThrowableUtil.AppError error = ThrowableUtil.getAppError(getActivity(), pendingTilesError);
+            Toast.makeText(getActivity(), error.getError(), Toast.LENGTH_SHORT).show();
+            pendingTilesError = null;
+        }
+        onLoaded();
+    }
+
+    private int tileZoom() {
         if (mapboxMap == null) {
-            return 0;
+            return MIN_TILE_ZOOM;
         }
+        int zoom = (int) Math.floor(mapboxMap.getCameraPosition().zoom) - 1;
+        return Math.max(MIN_TILE_ZOOM, Math.min(MAX_TILE_ZOOM, zoom));
+    }
 
-        Projection proj = mapboxMap.getProjection();
-        LatLng leftTop = proj.fromScreenLocation(new PointF(0.0f, 0.0f));
-        LatLng rightTop = proj.fromScreenLocation(new PointF(mapView.getWidth(), 0.0f));
-        LatLng leftBottom = proj.fromScreenLocation(new PointF(0.0f, mapView.getHeight()));
-        double width = leftTop.distanceTo(rightTop);
-        double height = leftTop.distanceTo(leftBottom);
-        return Math.max(width, height) / 2;
+    private static void sortByDistance(@NonNull List<NearbyTile> tiles, @NonNull final LatLng target) {
+        Collections.sort(tiles, new Comparator<NearbyTile>() {
+            @Override public int compare(NearbyTile lhs, NearbyTile rhs) {
+                return Double.compare(distance(lhs, target), distance(rhs, target));
+            }
+        });
     }
 
-    private void showNearbyPages(NearbyResult result) {
+    private static double distance(@NonNull NearbyTile tile, @NonNull LatLng target) {
+        LatLng center = new LatLng((tile.north() + tile.south()) / 2, (tile.west() + tile.east()) / 2);
+        return center.distanceTo(target);
+    }
+
+    private void showCachedPages(@NonNull WikiSite wiki) {
+        if (mapboxMap == null) {
+            return;
+        }
+        LatLngBounds bounds = mapboxMap.getProjection().getVisibleRegion().latLngBounds;
+        List<NearbyPage> pages = tileCache.pages(bounds.getLatNorth(), bounds.getLonWest(),
+                bounds.getLatSouth(), bounds.getLonEast());
+        lastResult = new NearbyResult(wiki, pages);
+        showNearbyPages(pages);
+    }
+
+    private void showNearbyPages(@NonNull List<NearbyPage> pages) {
         if (mapboxMap == null) {
             return;
         }
 
         getActivity().invalidateOptionsMenu();
-        // Since Marker is a descendant of Annotation, this will remove all Markers.
-        mapboxMap.removeAnnotations();
 
-        List<MarkerOptions> optionsList = new ArrayList<>();
-        for (NearbyPage item : result.getList()) {
-            if (item.getLocation() != null) {
-                optionsList.add(createMarkerOptions(item));
+        double zoom = mapboxMap.getCameraPosition().zoom;
+        Map<String, List<NearbyPage>> groups = new LinkedHashMap<>();
+        if (zoom < MAX_CLUSTER_ZOOM) {
+            for (Map.Entry<NearbyTile, List<NearbyPage>> entry
+                    : NearbyTile.group(pages, (int) Math.floor(zoom) + CLUSTER_ZOOM_OFFSET).entrySet()) {
+                List<NearbyPage> group = entry.getValue();
+                groups.put(group.size() == 1 ? pageKey(group.get(0))
+                        : "cluster:" + entry.getKey() + ":" + group.size(), group);
+            }
+        } else {
+            for (NearbyPage page : pages) {
+                if (page.getLocation() != null) {
+                    groups.put(pageKey(page), Collections.singletonList(page));
+                }
             }
         }
-        mapboxMap.addMarkers(optionsList);
+
+        // Remove the markers no longer wanted and add only those missing, rather than replacing
+        // every marker.
+        for (Iterator<Map.Entry<String, Marker>> i = markers.entrySet().iterator(); i.hasNext();) {
+            Map.Entry<String, Marker> entry = i.next();
+            if (!groups.containsKey(entry.getKey())) {
+                mapboxMap.removeMarker(entry.getValue());
+                markerPages.remove(entry.getValue());
+                i.remove();
+            }
+        }
+        for (Map.Entry<String, List<NearbyPage>> entry : groups.entrySet()) {
+            if (!markers.containsKey(entry.getKey())) {
+                Marker marker = mapboxMap.addMarker(createMarkerOptions(entry.getValue()));
+                markers.put(entry.getKey(), marker);
+                markerPages.put(marker, entry.getValue());
+            }
+        }
+    }
+
+    @NonNull private static String pageKey(@NonNull NearbyPage page) {
+        return "page:" + page.getTitle();
     }
 
     @NonNull
-    private MarkerOptions createMarkerOptions(NearbyPage page) {
-        Location location = page.getLocation();
+    private MarkerOptions createMarkerOptions(@NonNull List<NearbyPage> pages) {
+        if (pages.size() == 1) {
+            Location location = pages.get(0).getLocation();
+            return new MarkerOptions()
+                    .position(new LatLng(location.getLatitude(), location.getLongitude()))
+                    .title(pages.get(0).getTitle())
+                    .icon(markerIconPassive);
+        }
+
+        double latitude = 0;
+        double longitude = 0;
+        for (NearbyPage page : pages) {
+            latitude += page.getLocation().getLatitude();
+            longitude += page.getLocation().getLongitude();
+        }
         return new MarkerOptions()
-                .position(new LatLng(location.getLatitude(), location.getLongitude()))
-                .title(page.getTitle())
-                .icon(markerIconPassive);
+                .position(new LatLng(latitude / pages.size(), longitude / pages.size()))
+                .icon(clusterIcon(pages.size()));
+    }
+
+    @NonNull private Icon clusterIcon(int count) {
+        final int maxCount = 99;
+        String text = count > maxCount ? maxCount + "+" : String.valueOf(count);
+        Icon icon = clusterIcons.get(text);
+        if (icon == null) {
+            Bitmap bitmap = ResourceUtil.bitmapFromVectorDrawable(getContext(), R.drawable.ic_map_marker);
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setColor(ContextCompat.getColor(getContext(), android.R.color.white));
+            paint.setTypeface(Typeface.DEFAULT_BOLD);
+            paint.setTextAlign(Paint.Align.CENTER);
+            paint.setTextSize(bitmap.getWidth() / (float) (text.length() + 1));
+            // The head of the marker is the top part of the bitmap.
+            new Canvas(bitmap).drawText(text, bitmap.getWidth() / 2f, bitmap.getHeight() / 2f, paint);
+            icon = IconFactory.getInstance(getContext()).fromBitmap(bitmap);
+            clusterIcons.put(text, icon);
+        }
+        return icon;
+    }
+
+    private void zoomToCluster(@NonNull Marker marker) {
+        if (mapboxMap == null) {
+            return;
+        }
+        double zoom = Math.min(MAX_CLUSTER_ZOOM, mapboxMap.getCameraPosition().zoom + 2);
+        mapboxMap.animateCamera(CameraUpdateFactory.newLatLngZoom(marker.getPosition(), zoom),
+                new MapboxMap.CancelableCallback() {
+                    @Override public void onCancel() {
+                        fetchNearbyPages();
+                    }
+
+                    @Override public void onFinish() {
+                        fetchNearbyPages();
+                    }
+                });
     }
 
     private void onLoading() {
@@ -0,0 +1,141 @@
+package org.wikipedia.nearby;
+
+import android.location.Location;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A square of the Web Mercator map at a zoom level, numbered as map tiles are. Each tile is split
+ * into the four tiles of the next zoom level, so the tiles form a quadtree.
+ */
+final class NearbyTile {
+    @VisibleForTesting static final double MAX_LATITUDE = 85.05112878;
+    private static final double MAX_LONGITUDE = 180;
+
+    private final int zoom;
+    private final int x;
+    private final int y;
+
+    /** @return The tile at zoom that contains the point. */
+    @NonNull static NearbyTile of(double latitude, double longitude, int zoom) {
+        int count = 1 << zoom;
+        double latRad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double mercatorY = Math.log(Math.tan(latRad) + 1 / Math.cos(latRad));
+        int x = (int) Math.floor((longitude + MAX_LONGITUDE) / (2 * MAX_LONGITUDE) * count);
+        int y = (int) Math.floor((1 - mercatorY / Math.PI) / 2 * count);
+        return new NearbyTile(zoom, Math.max(0, Math.min(count - 1, x)), Math.max(0, Math.min(count - 1, y)));
+    }
+
+    /** @return The tiles at zoom that intersect the bounds, row by row from the north west. */
+    @NonNull static List<NearbyTile> covering(double north, double west, double south, double east,
+                                              int zoom) {
+        NearbyTile northWest = of(north, west, zoom);
+        NearbyTile southEast = of(south, east, zoom);
+        List<NearbyTile> tiles = new ArrayList<>();
+        for (int y = northWest.y; y <= southEast.y; y++) {
+            for (int x = northWest.x; x <= southEast.x; x++) {
+                tiles.add(new NearbyTile(zoom, x, y));
+            }
+        }
+        return tiles;
+    }
+
+    /** @return The pages grouped by the tile at zoom that contains them, in the order first seen. */
+    @NonNull static Map<NearbyTile, List<NearbyPage>> group(@NonNull Collection<NearbyPage> pages,
+                                                           int zoom) {
+        Map<NearbyTile, List<NearbyPage>> groups = new LinkedHashMap<>();
+        for (NearbyPage page : pages) {
+            Location location = page.getLocation();
+            if (location == null) {
+                continue;
+            }
+            NearbyTile tile = of(location.getLatitude(), location.getLongitude(), zoom);
+            List<NearbyPage> group = groups.get(tile);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(tile, group);
+            }
+            group.add(page);
+        }
+        return groups;
+    }
+
+    @VisibleForTesting NearbyTile(int zoom, int x, int y) {
+        this.zoom = zoom;
+        this.x = x;
+        this.y = y;
+    }
+
+    int getZoom() {
+        return zoom;
+    }
+
+    /** @return The tile of the previous zoom level that contains this one, or null at zoom 0. */
+    @Nullable NearbyTile parent() {
+        return zoom == 0 ? null : new NearbyTile(zoom - 1, x / 2, y / 2);
+    }
+
+    boolean contains(@NonNull Location location) {
+        return equals(of(location.getLatitude(), location.getLongitude(), zoom));
+    }
+
+    double north() {
+        return latitude(y);
+    }
+
+    double south() {
+        return latitude(y + 1);
+    }
+
+    double west() {
+        return longitude(x);
+    }
+
+    double east() {
+        return longitude(x + 1);
+    }
+
+    /** @return The bounds in the format of the geosearch bbox parameter. */
+    @NonNull String bbox() {
+        return String.format(Locale.ROOT, "%f|%f|%f|%f", north(), west(), south(), east());
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NearbyTile)) {
+            return false;
+        }
+        NearbyTile other = (NearbyTile) o;
+        return zoom == other.zoom && x == other.x && y == other.y;
+    }
+
+    @Override public int hashCode() {
+        int result = zoom;
+        result = 31 * result + x;
+        result = 31 * result + y;
+        return result;
+    }
+
+    @Override public String toString() {
+        return zoom + "/" + x + "/" + y;
+    }
+
+    private double longitude(int tileX) {
+        return (double) tileX / (1 << zoom) * 2 * MAX_LONGITUDE - MAX_LONGITUDE;
+    }
+
+    private double latitude(int tileY) {
+        double mercatorY = Math.PI * (1 - 2.0 * tileY / (1 << zoom));
+        return Math.toDegrees(Math.atan(Math.sinh(mercatorY)));
+    }
+}
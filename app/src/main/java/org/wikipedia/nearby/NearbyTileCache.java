@@ -0,0 +1,111 @@
+package org.wikipedia.nearby;
+
+import android.location.Location;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import org.wikipedia.dataclient.WikiSite;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nearby pages of one wiki by map tile, least recently used tiles evicted first. A tile is covered
+ * if it was fetched itself, or if a tile containing it was fetched and returned fewer pages than
+ * the request limit, since the smaller tile can't have any pages the larger one didn't.
+ */
+class NearbyTileCache {
+    @VisibleForTesting static final int MAX_TILES = 256;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    @Nullable private WikiSite wiki;
+    @NonNull private final Map<NearbyTile, Tile> tiles
+            = new LinkedHashMap<NearbyTile, Tile>(MAX_TILES, LOAD_FACTOR, true) {
+                @Override protected boolean removeEldestEntry(Map.Entry<NearbyTile, Tile> eldest) {
+                    return size() > MAX_TILES;
+                }
+            };
+
+    @Nullable WikiSite getWiki() {
+        return wiki;
+    }
+
+    /** Sets the wiki of the pages cached, emptying the cache if it differs from the last. */
+    void setWiki(@NonNull WikiSite wiki) {
+        if (!wiki.equals(this.wiki)) {
+            tiles.clear();
+            this.wiki = wiki;
+        }
+    }
+
+    /**
+     * @param pages    The pages returned for the tile, which may include pages on its edges that
+     *                 belong to its neighbors.
+     * @param complete True if fewer pages than the request limit were returned.
+     */
+    void put(@NonNull NearbyTile tile, @NonNull Collection<NearbyPage> pages, boolean complete) {
+        List<NearbyPage> contained = new ArrayList<>(pages.size());
+        for (NearbyPage page : pages) {
+            if (page.getLocation() != null && tile.contains(page.getLocation())) {
+                contained.add(page);
+            }
+        }
+        tiles.put(tile, new Tile(contained, complete));
+    }
+
+    boolean isCovered(@NonNull NearbyTile tile) {
+        for (NearbyTile ancestor = tile; ancestor != null; ancestor = ancestor.parent()) {
+            Tile cached = tiles.get(ancestor);
+            if (cached != null && (ancestor.equals(tile) || cached.complete)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return The tiles that aren't covered, in order. */
+    @NonNull List<NearbyTile> uncovered(@NonNull List<NearbyTile> candidates) {
+        List<NearbyTile> uncovered = new ArrayList<>();
+        for (NearbyTile tile : candidates) {
+            if (!isCovered(tile)) {
+                uncovered.add(tile);
+            }
+        }
+        return uncovered;
+    }
+
+    /** @return The cached pages within the bounds, each once. */
+    @NonNull List<NearbyPage> pages(double north, double west, double south, double east) {
+        Map<String, NearbyPage> pages = new LinkedHashMap<>();
+        for (Map.Entry<NearbyTile, Tile> entry : tiles.entrySet()) {
+            NearbyTile tile = entry.getKey();
+            if (tile.south() > north || tile.north() < south || tile.west() > east || tile.east() < west) {
+                continue;
+            }
+            for (NearbyPage page : entry.getValue().pages) {
+                Location location = page.getLocation();
+                if (location != null && location.getLatitude() <= north
+                        && location.getLatitude() >= south && location.getLongitude() >= west
+                        && location.getLongitude() <= east) {
+                    pages.put(page.getTitle(), page);
+                }
+            }
+        }
+        return new ArrayList<>(pages.values());
+    }
+
+    private static final class Tile {
+        @NonNull private final List<NearbyPage> pages;
+        private final boolean complete;
+
+        Tile(@NonNull List<NearbyPage> pages, boolean complete) {
+            this.pages = Collections.unmodifiableList(pages);
+            this.complete = complete;
+        }
+    }
+}
@@ -40,7 +40,7 @@ public final class NotificationClient {
     }
 
     private NotificationClient(@NonNull WikiSite wiki) {
-        service = RetrofitFactory.newInstance(wiki).create(Service.class);
+        service = RetrofitFactory.instance(wiki).create(Service.class);
         editTokenClient = new CsrfTokenClient(wiki, WikipediaApp.getInstance().getWikiSite());
     }
 
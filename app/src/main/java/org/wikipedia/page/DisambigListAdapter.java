@@ -15,9 +15,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.wikipedia.R;
 import org.wikipedia.WikipediaApp;
 import org.wikipedia.dataclient.WikiSite;
-import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.pageimages.PageImage;
 import org.wikipedia.pageimages.PageImagesClient;
+import org.wikipedia.util.BatchUtil;
 import org.wikipedia.views.GoneIfEmptyTextView;
 import org.wikipedia.views.ViewUtil;
 import org.wikipedia.wikidata.GetDescriptionsTask;
@@ -26,8 +26,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import retrofit2.Call;
-
 /**
  * ListAdapter for disambiguation items.
  */
@@ -59,23 +57,18 @@ class DisambigListAdapter extends ArrayAdapter<DisambigResult> {
             return;
         }
 
-        new PageImagesClient().request(wiki, titleList,
-                new PageImagesClient.Callback() {
-                    @Override public void success(@NonNull Call<MwQueryResponse<PageImagesClient.QueryResult>> call,
-                                                  @NonNull Map<PageTitle, PageImage> results) {
-                        for (Map.Entry<PageTitle, PageImage> entry : results.entrySet()) {
-                            if (entry.getValue() == null || entry.getValue().getImageName() == null) {
-                                continue;
-                            }
-                            pageImagesCache.put(entry.getKey().getPrefixedText(), entry.getValue().getImageName());
-                        }
-                        notifyDataSetInvalidated();
-                    }
-                    @Override public void failure(@NonNull Call<MwQueryResponse<PageImagesClient.QueryResult>> call, @NonNull Throwable caught) {
-                        // Don't actually do anything.
-                        // Thumbnails are expendable
-                    }
-                });
+        new PageImagesClient().requestAll(wiki, titleList, new BatchUtil.Callback<PageImage>() {
+            @Override public void success(@NonNull List<PageImage> results) {
+                for (PageImage pageImage : results) {
+                    pageImagesCache.put(pageImage.getTitle().getPrefixedText(), pageImage.getImageName());
+                }
+                notifyDataSetInvalidated();
+            }
+            @Override public void failure(@NonNull Throwable caught) {
+                // Don't actually do anything.
+                // Thumbnails are expendable
+            }
+        });
     }
 
     /**
@@ -90,7 +83,7 @@ class DisambigListAdapter extends ArrayAdapter<DisambigResult> {
             return;
         }
 
-        new GetDescriptionsTask(app.getSiteApi(), wiki, titleList) {
+        new GetDescriptionsTask(wiki, titleList) {
             @Override
             public void onFinish(Map<PageTitle, Void> result) {
                 notifyDataSetChanged();
@@ -5,23 +5,24 @@ import android.util.Log;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.RequestBuilder;
 import org.wikipedia.dataclient.WikiSite;
 
+import java.util.Map;
+
 /**
  * Fetch license info for a single image.
  */
 public class ImageLicenseFetchTask extends PageQueryTask<ImageLicense> {
     private static final String TAG = "ImageLicenseFetchTask";
 
-    public ImageLicenseFetchTask(Api api, WikiSite wiki, PageTitle title) {
-        super(api, wiki, title);
+    public ImageLicenseFetchTask(WikiSite wiki, PageTitle title) {
+        super(wiki, title);
     }
 
     @Override
-    public void buildQueryParams(RequestBuilder builder) {
-        builder.param("prop", "imageinfo").param("iiprop", "extmetadata");
+    public void buildQueryParams(Map<String, String> params) {
+        params.put("prop", "imageinfo");
+        params.put("iiprop", "extmetadata");
     }
 
     @Override
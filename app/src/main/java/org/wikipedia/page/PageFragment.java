@@ -19,6 +19,7 @@ import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.view.ActionMode;
 import android.text.TextUtils;
+import android.text.format.DateUtils;
 import android.util.Log;
 import android.util.TypedValue;
 import android.view.Gravity;
@@ -33,6 +34,7 @@ import android.widget.TextView;
 
 import com.appenguin.onboarding.ToolTip;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wikipedia.BackPressedHandler;
@@ -50,6 +52,7 @@ import org.wikipedia.bridge.DarkModeMarshaller;
 import org.wikipedia.concurrency.CallbackTask;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.dataclient.okhttp.OkHttpWebViewClient;
+import org.wikipedia.dataclient.page.PageSummaryCache;
 import org.wikipedia.descriptions.DescriptionEditActivity;
 import org.wikipedia.edit.EditHandler;
 import org.wikipedia.gallery.GalleryActivity;
@@ -74,6 +77,7 @@ import org.wikipedia.readinglist.page.database.ReadingListPageDao;
 import org.wikipedia.settings.Prefs;
 import org.wikipedia.tooltip.ToolTipUtil;
 import org.wikipedia.util.ActiveTimer;
+import org.wikipedia.util.DeviceUtil;
 import org.wikipedia.util.DimenUtil;
 import org.wikipedia.util.FeedbackUtil;
 import org.wikipedia.util.ReleaseUtil;
@@ -147,6 +151,9 @@ public class PageFragment extends Fragment implements BackPressedHandler {
 
     private static final int REFRESH_SPINNER_ADDITIONAL_OFFSET = (int) (16 * DimenUtil.getDensityScalar());
 
+    // How long scrolling must stop for before the links on screen are requested for prefetching.
+    private static final long VISIBLE_LINKS_DELAY_MILLIS = DateUtils.SECOND_IN_MILLIS;
+
     private PageFragmentLoadState pageFragmentLoadState;
     private PageViewModel model;
     @Nullable private PageInfo pageInfo;
@@ -212,6 +219,12 @@ public class PageFragment extends Fragment implements BackPressedHandler {
         }
     };
 
+    private final Runnable requestVisibleLinksRunnable = new Runnable() {
+        @Override public void run() {
+            requestVisibleLinks();
+        }
+    };
+
     private PageActionTab.Callback pageActionTabsCallback = new PageActionTab.Callback() {
         @Override
         public void onAddToReadingListTabSelected() {
@@ -334,6 +347,7 @@ public class PageFragment extends Fragment implements BackPressedHandler {
         bridge.cleanup();
         tabsProvider.setTabsProviderListener(null);
         toolbarHideHandler.setScrollView(null);
+        webView.removeCallbacks(requestVisibleLinksRunnable);
         webView.clearAllListeners();
         super.onDestroyView();
     }
@@ -438,11 +452,47 @@ public class PageFragment extends Fragment implements BackPressedHandler {
                 if (pageScrollFunnel != null) {
                     pageScrollFunnel.onPageScrolled(oldScrollY, scrollY, isHumanScroll);
                 }
+                webView.removeCallbacks(requestVisibleLinksRunnable);
+                webView.postDelayed(requestVisibleLinksRunnable, VISIBLE_LINKS_DELAY_MILLIS);
             }
         });
         webView.setWebViewClient(new OkHttpWebViewClient());
     }
 
+    /** Asks the page for the links on screen so that their previews can be prefetched. */
+    private void requestVisibleLinks() {
+        if (!isAdded() || !Prefs.isLinkPreviewPrefetchEnabled()
+                || DeviceUtil.isNetworkMetered(getContext())) {
+            return;
+        }
+        bridge.sendMessage("requestVisibleLinks", new JSONObject());
+    }
+
+    private void prefetchLinkPreviews(@NonNull JSONArray links) {
+        WikiSite wiki = model.getTitle().getWikiSite();
+        List<PageTitle> titles = new ArrayList<>();
+        for (int i = 0; i < links.length(); i++) {
+            JSONObject link = links.optJSONObject(i);
+            if (link == null) {
+                continue;
+            }
+            try {
+                // Titles are made as LinkHandler makes them so that previews find what was prefetched.
+                String href = decodeURL(link.getString("href"));
+                String titleString = link.optString("title");
+                PageTitle title = TextUtils.isEmpty(titleString)
+                        ? wiki.titleForInternalLink(href)
+                        : PageTitle.withSeparateFragment(titleString, UriUtil.getFragment(href), wiki);
+                if (title.namespace() == Namespace.MAIN) {
+                    titles.add(title);
+                }
+            } catch (IllegalArgumentException | JSONException e) {
+                L.d("Skipped malformed link for prefetching", e);
+            }
+        }
+        PageSummaryCache.instance().prefetchSummaries(titles);
+    }
+
     private void handleInternalLink(PageTitle title) {
         if (!isResumed()) {
             return;
@@ -905,6 +955,7 @@ public class PageFragment extends Fragment implements BackPressedHandler {
         // TODO: update this title in the db to be queued for saving by the service.
 
         checkAndShowSelectTextOnboarding();
+        requestVisibleLinks();
 
         if (getPageLoadCallbacks() != null) {
             getPageLoadCallbacks().onLoadComplete();
@@ -1098,6 +1149,15 @@ public class PageFragment extends Fragment implements BackPressedHandler {
         };
         bridge.addListener("linkClicked", linkHandler);
 
+        bridge.addListener("visibleLinks", new CommunicationBridge.JSEventListener() {
+            @Override public void onMessage(String messageType, JSONObject messagePayload) {
+                JSONArray links = messagePayload.optJSONArray("links");
+                if (isAdded() && links != null) {
+                    prefetchLinkPreviews(links);
+                }
+            }
+        });
+
         bridge.addListener("referenceClicked", new ReferenceHandler() {
             @Override protected void onReferenceClicked(String refHtml) {
                 if (!isAdded()) {
@@ -8,6 +8,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,9 +20,11 @@ import org.wikipedia.Constants;
 import org.wikipedia.R;
 import org.wikipedia.WikipediaApp;
 import org.wikipedia.bridge.CommunicationBridge;
+import org.wikipedia.concurrency.CallbackTask;
 import org.wikipedia.database.contract.PageImageHistoryContract;
 import org.wikipedia.dataclient.ServiceError;
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
+import org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory;
 import org.wikipedia.dataclient.page.PageClient;
 import org.wikipedia.dataclient.page.PageClientFactory;
 import org.wikipedia.dataclient.page.PageLead;
@@ -35,6 +38,9 @@ import org.wikipedia.page.bottomcontent.BottomContentInterface;
 import org.wikipedia.page.leadimages.LeadImagesHandler;
 import org.wikipedia.pageimages.PageImage;
 import org.wikipedia.pageimages.PageImagesClient;
+import org.wikipedia.readinglist.page.ReadingListPage;
+import org.wikipedia.readinglist.page.database.ReadingListDaoProxy;
+import org.wikipedia.readinglist.page.database.ReadingListPageDao;
 import org.wikipedia.util.DeviceUtil;
 import org.wikipedia.util.DimenUtil;
 import org.wikipedia.util.L10nUtil;
@@ -44,12 +50,18 @@ import org.wikipedia.util.log.L;
 import org.wikipedia.views.ObservableWebView;
 import org.wikipedia.views.SwipeRefreshLayoutWithScroll;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.CacheControl;
+import okhttp3.Request;
 import retrofit2.Call;
 import retrofit2.Response;
 
@@ -59,7 +71,7 @@ import static org.wikipedia.util.L10nUtil.getStringsForArticleLanguage;
 /**
  * Our old page load strategy, which uses the JSON MW API directly and loads a page in multiple steps:
  * First it loads the lead section (sections=0).
- * Then it loads the remaining sections (sections=1-).
+ * The remaining sections (sections=1-) are requested at the same time and held until the lead is displayed.
  * <p/>
  * This class tracks:
  * - the states the page loading goes through,
@@ -75,6 +87,8 @@ public class PageFragmentLoadState {
     private static final int STATE_INITIAL_FETCH = 2;
     private static final int STATE_COMPLETE_FETCH = 3;
 
+    private static final long SAVED_PAGE_REVALIDATE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
     private int state = STATE_NO_FETCH;
 
     /**
@@ -96,6 +110,28 @@ public class PageFragmentLoadState {
 
     private ErrorCallback networkErrorCallback;
 
+    // The remaining sections of the page being loaded are requested along with the lead and held
+    // until the lead is displayed.
+    @Nullable private PageRemaining pendingRemaining;
+    @Nullable private Throwable pendingRemainingError;
+    private boolean remainingInFlight;
+    private boolean awaitingRemaining;
+    @Nullable private Call<PageRemaining> remainingCall;
+    // The title the remaining sections were requested for before the lead resolved any redirect
+    // or normalization, or null if they weren't requested speculatively.
+    @Nullable private String speculativeRemainingTitle;
+    // True if the page being loaded was served from the save cache.
+    private boolean loadedFromSaveCache;
+    // The reading list entry of the page being loaded if it's saved, and the save cache copy of
+    // its lead.
+    @Nullable private ReadingListPage savedPage;
+    @Nullable private okhttp3.Response savedLead;
+
+    // Bridge traffic at the start of the current page load.
+    private int loadStartMessageCount;
+    private int loadStartFrameCount;
+    private long loadStartPayloadBytes;
+
     // copied fields
     private PageViewModel model;
     private PageFragment fragment;
@@ -147,6 +183,19 @@ public class PageFragmentLoadState {
         // increment our sequence number, so that any async tasks that depend on the sequence
         // will invalidate themselves upon completion.
         sequenceNumber.increase();
+        pendingRemaining = null;
+        pendingRemainingError = null;
+        remainingInFlight = false;
+        awaitingRemaining = false;
+        remainingCall = null;
+        speculativeRemainingTitle = null;
+        loadedFromSaveCache = false;
+        savedPage = null;
+        savedLead = null;
+        loadStartMessageCount = bridge.getMessageCount();
+        loadStartFrameCount = bridge.getFrameCount();
+        loadStartPayloadBytes = bridge.getPayloadBytes();
+        app.getSessionFunnel().pageLoadStart();
 
         fragment.updatePageInfo(null);
 
@@ -239,11 +288,112 @@ public class PageFragmentLoadState {
         }, sequenceNumber.get());
     }
 
+    // Only pages saved to a reading list are looked up in the save cache, since any other page
+    // would miss it.
+    private void loadSavedPageOrLeadSection(final int startSequenceNum) {
+        final String key = ReadingListDaoProxy.key(model.getTitle());
+        CallbackTask.execute(new CallbackTask.Task<ReadingListPage>() {
+            @Override public ReadingListPage execute() {
+                try {
+                    return ReadingListPageDao.instance().findPage(key);
+                } catch (RuntimeException e) {
+                    L.w("Failed to look up saved page", e);
+                    return null;
+                }
+            }
+        }, new CallbackTask.Callback<ReadingListPage>() {
+            @Override public void success(@Nullable ReadingListPage page) {
+                if (!fragment.isAdded() || !sequenceNumber.inSync(startSequenceNum)) {
+                    return;
+                }
+                if (page != null && page.isOffline()) {
+                    savedPage = page;
+                    loadSavedPage(startSequenceNum);
+                } else {
+                    loadLeadSection(startSequenceNum);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the lead and remaining sections of a saved page from the save cache, in parallel and
+     * without a network round trip. Falls back to the network if either is not saved.
+     */
+    private void loadSavedPage(final int startSequenceNum) {
+        final SavedPageCallback callback = new SavedPageCallback(startSequenceNum);
+        PageClient client = newPageClient();
+        client.lead(CacheControl.FORCE_CACHE, PageClient.CacheOption.SAVE,
+                model.getTitle().getPrefixedText(), calculateLeadImageWidth(), !app.isImageDownloadEnabled())
+                .enqueue(new retrofit2.Callback<PageLead>() {
+                    @Override public void onResponse(Call<PageLead> call, Response<PageLead> rsp) {
+                        callback.onLead(rsp.body(), rsp.raw());
+                    }
+
+                    @Override public void onFailure(Call<PageLead> call, Throwable t) {
+                        callback.onFailure();
+                    }
+                });
+        client.sections(CacheControl.FORCE_CACHE, PageClient.CacheOption.SAVE,
+                model.getTitle().getPrefixedText(), !app.isImageDownloadEnabled())
+                .enqueue(new retrofit2.Callback<PageRemaining>() {
+                    @Override public void onResponse(Call<PageRemaining> call, Response<PageRemaining> rsp) {
+                        callback.onRemaining(rsp.body());
+                    }
+
+                    @Override public void onFailure(Call<PageRemaining> call, Throwable t) {
+                        callback.onFailure();
+                    }
+                });
+    }
+
+    // Revalidates the lead of a saved page that was displayed from an old save cache copy with a
+    // conditional request, and if it changed marks the page outdated so that SavedPageSyncService
+    // downloads it again along with its images and updates its image index. A copy without a
+    // Date header is treated as fresh.
+    private void revalidateSavedPage() {
+        final ReadingListPage page = savedPage;
+        final okhttp3.Response lead = savedLead;
+        Date date = lead == null ? null : lead.headers().getDate("Date");
+        if (page == null || date == null || !DeviceUtil.isOnline(app)
+                || System.currentTimeMillis() - date.getTime() < SAVED_PAGE_REVALIDATE_MILLIS) {
+            return;
+        }
+        CallbackTask.execute(new CallbackTask.Task<Void>() {
+            @Override public Void execute() {
+                try {
+                    if (isModified(lead)) {
+                        ReadingListPageDao.instance().markOutdated(page);
+                    }
+                } catch (IOException e) {
+                    L.w(e);
+                }
+                return null;
+            }
+        });
+    }
+
+    // Requests the resource of a cached response with its validators, preferring the ETag.
+    private static boolean isModified(@NonNull okhttp3.Response cached) throws IOException {
+        Request.Builder req = new Request.Builder()
+                .url(cached.request().url())
+                .cacheControl(CacheControl.FORCE_NETWORK);
+        String etag = cached.header("ETag");
+        String lastModified = cached.header("Last-Modified");
+        if (etag != null) {
+            req.header("If-None-Match", etag);
+        } else {
+            req.header("If-Modified-Since", lastModified != null ? lastModified : cached.header("Date"));
+        }
+        okhttp3.Response rsp = OkHttpConnectionFactory.getUncachedClient().newCall(req.build()).execute();
+        rsp.body().close();
+        return rsp.code() != HttpURLConnection.HTTP_NOT_MODIFIED && rsp.isSuccessful();
+    }
+
     @VisibleForTesting
     protected void loadLeadSection(final int startSequenceNum) {
         app.getSessionFunnel().leadSectionFetchStart();
-        PageClientFactory
-                .create(model.getTitle().getWikiSite(), model.getTitle().namespace())
+        newPageClient()
                 .lead(null, PageClient.CacheOption.CACHE, model.getTitle().getPrefixedText(),
                         calculateLeadImageWidth(), !app.isImageDownloadEnabled())
                 .enqueue(new retrofit2.Callback<PageLead>() {
@@ -258,6 +408,12 @@ public class PageFragmentLoadState {
                         commonSectionFetchOnCatch(t, startSequenceNum);
                     }
                 });
+
+        // the remaining sections are speculatively requested for the same title concurrently
+        // rather than after the lead is displayed. If the lead resolves to a different title, the
+        // request is discarded and made again for the resolved title.
+        speculativeRemainingTitle = model.getTitle().getPrefixedText();
+        loadRemainingSections(startSequenceNum);
     }
 
     @VisibleForTesting
@@ -288,19 +444,13 @@ public class PageFragmentLoadState {
                 }
             }
         });
-        bridge.addListener("requestSection", new SynchronousBridgeListener() {
-            @Override
-            public void onMessage(JSONObject payload) {
-                try {
-                    displayNonLeadSection(payload.getInt("index"));
-                } catch (JSONException e) {
-                    L.logRemoteErrorIfProd(e);
-                }
-            }
-        });
         bridge.addListener("pageLoadComplete", new SynchronousBridgeListener() {
             @Override
             public void onMessage(JSONObject payload) {
+                app.getSessionFunnel().pageLoadEnd(bridge.getMessageCount() - loadStartMessageCount,
+                        bridge.getFrameCount() - loadStartFrameCount,
+                        bridge.getPayloadBytes() - loadStartPayloadBytes);
+
                 // Do any other stuff that should happen upon page load completion...
                 if (fragment.callback() != null) {
                     fragment.callback().onPageUpdateProgressBar(false, true, 0);
@@ -335,17 +485,17 @@ public class PageFragmentLoadState {
                 if (fragment.callback() != null) {
                     fragment.callback().onPageUpdateProgressBar(true, true, 0);
                 }
-                loadLeadSection(sequenceNumber.get());
+                loadSavedPageOrLeadSection(sequenceNumber.get());
                 break;
             case STATE_INITIAL_FETCH:
-                loadRemainingSections(sequenceNumber.get());
+                displayRemainingSectionsWhenLoaded(sequenceNumber.get());
                 break;
             case STATE_COMPLETE_FETCH:
                 editHandler.setPage(model.getPage());
                 layoutLeadImage(new Runnable() {
                     @Override
                     public void run() {
-                        displayNonLeadSection(1);
+                        displayNonLeadSections();
                     }
                 });
                 break;
@@ -450,33 +600,36 @@ public class PageFragmentLoadState {
     }
 
     private void sendLeadSectionPayload(Page page) {
-        JSONObject leadSectionPayload = leadSectionPayload(page);
-        bridge.sendMessage("displayLeadSection", leadSectionPayload);
+        bridge.sendMessage("displayLeadSection", leadSectionPayload(page));
         L.d("Sent message 'displayLeadSection' for page: " + page.getDisplayTitle());
     }
 
-    private JSONObject leadSectionPayload(Page page) {
-        SparseArray<String> localizedStrings = localizedStrings(page);
-
-        try {
-            return new JSONObject()
-                    .put("sequence", sequenceNumber.get())
-                    .put("title", page.getDisplayTitle())
-                    .put("section", page.getSections().get(0).toJSON())
-                    .put("string_table_infobox", localizedStrings.get(R.string.table_infobox))
-                    .put("string_table_other", localizedStrings.get(R.string.table_other))
-                    .put("string_table_close", localizedStrings.get(R.string.table_close))
-                    .put("string_expand_refs", localizedStrings.get(R.string.expand_refs))
-                    .put("isBeta", ReleaseUtil.isPreProdRelease()) // True for any non-production release type
-                    .put("siteLanguage", model.getTitle().getWikiSite().languageCode())
-                    .put("siteBaseUrl", model.getTitle().getWikiSite().scheme() + "://" + model.getTitle().getWikiSite().host())
-                    .put("isMainPage", page.isMainPage())
-                    .put("fromRestBase", page.isFromRestBase())
-                    .put("isNetworkMetered", DeviceUtil.isNetworkMetered(app))
-                    .put("apiLevel", Build.VERSION.SDK_INT);
-        } catch (JSONException e) {
-            throw new RuntimeException(e);
-        }
+    // The section content is streamed into the bridge frame instead of copied through a JSONObject.
+    private CommunicationBridge.PayloadWriter leadSectionPayload(final Page page) {
+        final SparseArray<String> localizedStrings = localizedStrings(page);
+        final int sequence = sequenceNumber.get();
+
+        return new CommunicationBridge.PayloadWriter() {
+            @Override public void write(@NonNull JsonWriter writer) throws IOException {
+                writer.beginObject();
+                writer.name("sequence").value(sequence);
+                writer.name("title").value(page.getDisplayTitle());
+                writer.name("section");
+                page.getSections().get(0).writeTo(writer);
+                writer.name("string_table_infobox").value(localizedStrings.get(R.string.table_infobox));
+                writer.name("string_table_other").value(localizedStrings.get(R.string.table_other));
+                writer.name("string_table_close").value(localizedStrings.get(R.string.table_close));
+                writer.name("string_expand_refs").value(localizedStrings.get(R.string.expand_refs));
+                writer.name("isBeta").value(ReleaseUtil.isPreProdRelease()); // True for any non-production release type
+                writer.name("siteLanguage").value(model.getTitle().getWikiSite().languageCode());
+                writer.name("siteBaseUrl").value(model.getTitle().getWikiSite().scheme() + "://" + model.getTitle().getWikiSite().host());
+                writer.name("isMainPage").value(page.isMainPage());
+                writer.name("fromRestBase").value(page.isFromRestBase());
+                writer.name("isNetworkMetered").value(DeviceUtil.isNetworkMetered(app));
+                writer.name("apiLevel").value(Build.VERSION.SDK_INT);
+                writer.endObject();
+            }
+        };
     }
 
     private SparseArray<String> localizedStrings(Page page) {
@@ -514,43 +667,47 @@ public class PageFragmentLoadState {
         return app.getRemoteConfig().getConfig();
     }
 
-    private void displayNonLeadSection(int index) {
+    private void displayNonLeadSections() {
         if (fragment.callback() != null) {
             fragment.callback().onPageUpdateProgressBar(true, false,
-                    Constants.PROGRESS_BAR_MAX_VALUE / model.getPage()
-                            .getSections().size() * index);
+                    Constants.PROGRESS_BAR_MAX_VALUE);
         }
-        try {
-            final Page page = model.getPage();
-            JSONObject wrapper = new JSONObject();
-            wrapper.put("sequence", sequenceNumber.get());
-            boolean lastSection = index == page.getSections().size();
-            if (!lastSection) {
-                JSONObject section = page.getSections().get(index).toJSON();
-                wrapper.put("section", section);
-                wrapper.put("index", index);
-                if (sectionTargetFromIntent > 0 && sectionTargetFromIntent < page.getSections().size()) {
-                    //if we have a section to scroll to (from our Intent):
-                    wrapper.put("fragment",
-                            page.getSections().get(sectionTargetFromIntent).getAnchor());
-                } else if (sectionTargetFromTitle != null) {
-                    //if we have a section to scroll to (from our PageTitle):
-                    wrapper.put("fragment", sectionTargetFromTitle);
-                } else if (!TextUtils.isEmpty(model.getTitle().getFragment())) {
-                    // It's possible, that the link was a redirect and the new title has a fragment
-                    // scroll to it, if there was no fragment so far
-                    wrapper.put("fragment", model.getTitle().getFragment());
+        final Page page = model.getPage();
+        final int sequence = sequenceNumber.get();
+        final String targetFragment;
+        if (sectionTargetFromIntent > 0 && sectionTargetFromIntent < page.getSections().size()) {
+            //if we have a section to scroll to (from our Intent):
+            targetFragment = page.getSections().get(sectionTargetFromIntent).getAnchor();
+        } else if (sectionTargetFromTitle != null) {
+            //if we have a section to scroll to (from our PageTitle):
+            targetFragment = sectionTargetFromTitle;
+        } else if (!TextUtils.isEmpty(model.getTitle().getFragment())) {
+            // It's possible, that the link was a redirect and the new title has a fragment
+            // scroll to it, if there was no fragment so far
+            targetFragment = model.getTitle().getFragment();
+        } else {
+            targetFragment = null;
+        }
+        //give it our expected scroll position, in case we need the page to be pre-scrolled upon loading.
+        final int scrollY = (int) (stagedScrollY / DimenUtil.getDensityScalar());
+
+        // The sections are streamed into the bridge frame instead of copied through JSONObjects.
+        bridge.sendMessage("displaySections", new CommunicationBridge.PayloadWriter() {
+            @Override public void write(@NonNull JsonWriter writer) throws IOException {
+                writer.beginObject();
+                writer.name("sequence").value(sequence);
+                writer.name("sections").beginArray();
+                for (int i = 1; i < page.getSections().size(); i++) {
+                    page.getSections().get(i).writeTo(writer);
                 }
-            } else {
-                wrapper.put("noMore", true);
+                writer.endArray();
+                if (targetFragment != null) {
+                    writer.name("fragment").value(targetFragment);
+                }
+                writer.name("scrollY").value(scrollY);
+                writer.endObject();
             }
-            //give it our expected scroll position, in case we need the page to be pre-scrolled upon loading.
-            wrapper.put("scrollY",
-                    (int) (stagedScrollY / DimenUtil.getDensityScalar()));
-            bridge.sendMessage("displaySection", wrapper);
-        } catch (JSONException e) {
-            L.logRemoteErrorIfProd(e);
-        }
+        });
     }
 
     private void onLeadSectionLoaded(PageLead pageLead, int startSequenceNum) {
@@ -574,11 +731,18 @@ public class PageFragmentLoadState {
         model.setPage(page);
         model.setTitle(page.getTitle());
 
+        if (speculativeRemainingTitle != null
+                && !speculativeRemainingTitle.equals(model.getTitle().getPrefixedText())) {
+            discardRemainingSections();
+        }
+        speculativeRemainingTitle = null;
+
         editHandler.setPage(model.getPage());
 
         layoutLeadImage(new Runnable() {
             @Override
             public void run() {
+                app.getSessionFunnel().pageLoadFirstSection(loadedFromSaveCache);
                 setState(STATE_INITIAL_FETCH);
                 performActionForState(state);
             }
@@ -589,7 +753,8 @@ public class PageFragmentLoadState {
         model.setCurEntry(
                 new HistoryEntry(model.getTitle(), curEntry.getTimestamp(), curEntry.getSource()));
 
-        // Fetch larger thumbnail URL from the network, and save it to our DB.
+        // Fetch larger thumbnail URL from the network, and save it to our DB. A page without a
+        // thumbnail comes back with a null image, which clears one that was removed.
         new PageImagesClient().request(model.getTitle().getWikiSite(), Collections.singletonList(model.getTitle()),
                 new PageImagesClient.Callback() {
                     @Override public void success(@NonNull Call<MwQueryResponse<PageImagesClient.QueryResult>> call,
@@ -609,23 +774,83 @@ public class PageFragmentLoadState {
     }
 
     private void loadRemainingSections(final int startSequenceNum) {
+        remainingInFlight = true;
         app.getSessionFunnel().restSectionsFetchStart();
-        PageClientFactory
-                .create(model.getTitle().getWikiSite(), model.getTitle().namespace())
+        remainingCall = newPageClient()
                 .sections(null, PageClient.CacheOption.CACHE, model.getTitle().getPrefixedText(),
-                        !app.isImageDownloadEnabled())
-                .enqueue(new retrofit2.Callback<PageRemaining>() {
-                    @Override public void onResponse(Call<PageRemaining> call, Response<PageRemaining> rsp) {
-                        app.getSessionFunnel().restSectionsFetchEnd();
-                        PageRemaining sections = rsp.body();
-                        onRemainingSectionsLoaded(sections, startSequenceNum);
-                    }
+                        !app.isImageDownloadEnabled());
+        remainingCall.enqueue(new retrofit2.Callback<PageRemaining>() {
+            @Override public void onResponse(Call<PageRemaining> call, Response<PageRemaining> rsp) {
+                if (call.isCanceled() || !sequenceNumber.inSync(startSequenceNum)) {
+                    return;
+                }
+                app.getSessionFunnel().restSectionsFetchEnd();
+                onRemainingSectionsFetched(rsp.body(), null, startSequenceNum);
+            }
 
-                    @Override public void onFailure(Call<PageRemaining> call, Throwable t) {
-                        L.e("PageRemaining error: ", t);
-                        commonSectionFetchOnCatch(t, startSequenceNum);
-                    }
-                });
+            @Override public void onFailure(Call<PageRemaining> call, Throwable t) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                L.e("PageRemaining error: ", t);
+                if (!sequenceNumber.inSync(startSequenceNum)) {
+                    return;
+                }
+                onRemainingSectionsFetched(null, t, startSequenceNum);
+            }
+        });
+    }
+
+    // Drops remaining sections fetched or in flight for a title other than the loaded page's.
+    private void discardRemainingSections() {
+        if (remainingCall != null) {
+            remainingCall.cancel();
+            remainingCall = null;
+        }
+        remainingInFlight = false;
+        pendingRemaining = null;
+        pendingRemainingError = null;
+    }
+
+    private void onRemainingSectionsFetched(@Nullable PageRemaining pageRemaining,
+                                            @Nullable Throwable caught, int startSequenceNum) {
+        remainingCall = null;
+        remainingInFlight = false;
+        if (awaitingRemaining) {
+            awaitingRemaining = false;
+            displayRemainingSections(pageRemaining, caught, startSequenceNum);
+        } else {
+            pendingRemaining = pageRemaining;
+            pendingRemainingError = caught;
+        }
+    }
+
+    // Called once the lead section is displayed.
+    private void displayRemainingSectionsWhenLoaded(int startSequenceNum) {
+        if (remainingInFlight) {
+            awaitingRemaining = true;
+            return;
+        }
+        if (pendingRemaining == null && pendingRemainingError == null) {
+            awaitingRemaining = true;
+            loadRemainingSections(startSequenceNum);
+            return;
+        }
+
+        PageRemaining pageRemaining = pendingRemaining;
+        Throwable caught = pendingRemainingError;
+        pendingRemaining = null;
+        pendingRemainingError = null;
+        displayRemainingSections(pageRemaining, caught, startSequenceNum);
+    }
+
+    private void displayRemainingSections(@Nullable PageRemaining pageRemaining,
+                                          @Nullable Throwable caught, int startSequenceNum) {
+        if (caught != null) {
+            commonSectionFetchOnCatch(caught, startSequenceNum);
+        } else {
+            onRemainingSectionsLoaded(pageRemaining, startSequenceNum);
+        }
     }
 
     private void onRemainingSectionsLoaded(PageRemaining pageRemaining, int startSequenceNum) {
@@ -636,10 +861,18 @@ public class PageFragmentLoadState {
 
         pageRemaining.mergeInto(model.getPage());
 
-        displayNonLeadSection(1);
+        displayNonLeadSections();
         setState(STATE_COMPLETE_FETCH);
 
         fragment.onPageLoadComplete();
+
+        if (loadedFromSaveCache) {
+            revalidateSavedPage();
+        }
+    }
+
+    @NonNull private PageClient newPageClient() {
+        return PageClientFactory.create(model.getTitle().getWikiSite(), model.getTitle().namespace());
     }
 
     private float getDimension(@DimenRes int id) {
@@ -673,6 +906,58 @@ public class PageFragmentLoadState {
         }
     }
 
+    // Displays a saved page once both its lead and remaining sections are read from the save cache,
+    // or loads it from the network if either is missing.
+    private class SavedPageCallback {
+        private final int sequence;
+        @Nullable private PageLead lead;
+        @Nullable private PageRemaining remaining;
+        private boolean failed;
+
+        SavedPageCallback(int sequence) {
+            this.sequence = sequence;
+        }
+
+        void onLead(@Nullable PageLead lead, @NonNull okhttp3.Response raw) {
+            if (lead == null) {
+                onFailure();
+                return;
+            }
+            this.lead = lead;
+            savedLead = raw;
+            complete();
+        }
+
+        void onRemaining(@Nullable PageRemaining remaining) {
+            if (remaining == null) {
+                onFailure();
+                return;
+            }
+            this.remaining = remaining;
+            complete();
+        }
+
+        void onFailure() {
+            if (failed) {
+                return;
+            }
+            failed = true;
+            if (fragment.isAdded() && sequenceNumber.inSync(sequence)) {
+                loadLeadSection(sequence);
+            }
+        }
+
+        private void complete() {
+            if (failed || lead == null || remaining == null || !fragment.isAdded()
+                    || !sequenceNumber.inSync(sequence)) {
+                return;
+            }
+            loadedFromSaveCache = true;
+            pendingRemaining = remaining;
+            onLeadSectionLoaded(lead, sequence);
+        }
+    }
+
     private abstract class SynchronousBridgeListener implements CommunicationBridge.JSEventListener {
         private static final String BRIDGE_PAYLOAD_SEQUENCE = "sequence";
 
@@ -1,13 +1,15 @@
 package org.wikipedia.page;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
 
 import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.ApiResult;
-import org.mediawiki.api.json.RequestBuilder;
-import org.wikipedia.dataclient.ApiTask;
+import org.mediawiki.api.json.ApiException;
+import org.wikipedia.concurrency.SaneAsyncTask;
 import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.dataclient.retrofit.MwCachedService;
+import org.wikipedia.dataclient.retrofit.RetrofitException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -15,36 +17,76 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-public abstract class PageQueryTask<T> extends ApiTask<Map<PageTitle, T>> {
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
+
+/**
+ * Queries properties of pages by title. Requests are made through the shared Retrofit and OkHttp
+ * stack, so they get the same headers, cache policy and connection pool as all other requests.
+ */
+public abstract class PageQueryTask<T> extends SaneAsyncTask<Map<PageTitle, T>> {
+    @NonNull private static final MwCachedService<Service> CACHED_SERVICE = new MwCachedService<>(Service.class);
+
+    @NonNull private final Service service;
     private final List<PageTitle> titles;
     private final WikiSite wiki;
 
-    public PageQueryTask(Api api, WikiSite wiki, List<PageTitle> titles) {
-        super(api);
-        this.titles = titles;
-        this.wiki = wiki;
+    public PageQueryTask(WikiSite wiki, List<PageTitle> titles) {
+        this(CACHED_SERVICE.service(wiki), wiki, titles);
     }
 
-    public PageQueryTask(Api api, WikiSite wiki, PageTitle title) {
-        super(api);
-        this.titles = new ArrayList<>();
+    public PageQueryTask(WikiSite wiki, PageTitle title) {
+        this(wiki, new ArrayList<PageTitle>());
         titles.add(title);
+    }
+
+    @VisibleForTesting PageQueryTask(@NonNull Service service, WikiSite wiki, List<PageTitle> titles) {
+        this.service = service;
+        this.titles = titles;
         this.wiki = wiki;
     }
 
     @Override
-    public RequestBuilder buildRequest(Api api) {
-        RequestBuilder builder = api.action("query")
-                .param("titles", TextUtils.join("|", titles))
-                .param("continue", ""); // to avoid warning about new continuation syntax
-        buildQueryParams(builder);
-        return builder;
+    public Map<PageTitle, T> performTask() throws Throwable {
+        Map<String, String> params = new HashMap<>();
+        buildQueryParams(params);
+        Response<ResponseBody> rsp = service.query(TextUtils.join("|", titles), params).execute();
+        if (!rsp.isSuccessful()) {
+            throw RetrofitException.httpError(rsp);
+        }
+        return processResult(new JSONObject(rsp.body().string()));
     }
 
+    /**
+     * Called when an exception is thrown in the background process.
+     * <p/>
+     * Called on the UI Thread.
+     *
+     * Default implementation just throws it as a RuntimeException, so exceptions are never swallowed.
+     * Unless specific exceptions are handled.
+     *
+     * @param caught The exception that was thrown.
+     */
     @Override
-    public Map<PageTitle, T> processResult(ApiResult result) throws Throwable {
+    public void onCatch(Throwable caught) {
+        throw new RuntimeException(caught);
+    }
+
+    public abstract void buildQueryParams(Map<String, String> params);
+
+    public abstract T processPage(int pageId, PageTitle pageTitle, JSONObject page) throws Throwable;
+
+    private Map<PageTitle, T> processResult(JSONObject data) throws Throwable {
+        JSONObject error = data.optJSONObject("error");
+        if (error != null) {
+            throw new ApiException(error.optString("code"), error.optString("info"));
+        }
+
         Map<PageTitle, T> map = new HashMap<>();
-        JSONObject data = result.asObject();
         JSONObject query = data.getJSONObject("query");
         JSONObject pages = query.getJSONObject("pages");
 
@@ -63,7 +105,9 @@ public abstract class PageQueryTask<T> extends ApiTask<Map<PageTitle, T>> {
         return map;
     }
 
-    public abstract void buildQueryParams(RequestBuilder buildQueryParams);
-
-    public abstract T processPage(int pageId, PageTitle pageTitle, JSONObject page) throws Throwable;
+    @VisibleForTesting interface Service {
+        @GET("w/api.php?action=query&format=json&continue=") // continue to avoid warning about new continuation syntax
+        Call<ResponseBody> query(@NonNull @Query("titles") String titles,
+                                 @NonNull @QueryMap Map<String, String> params);
+    }
 }
@@ -1,12 +1,15 @@
 package org.wikipedia.page;
 
 import android.support.annotation.NonNull;
+import android.util.JsonWriter;
 
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wikipedia.json.GsonUtil;
 
+import java.io.IOException;
+
 import static org.apache.commons.lang3.StringUtils.defaultString;
 
 /**
@@ -41,6 +44,27 @@ public class Section {
         }
     }
 
+    /**
+     * Writes the section for the JS bridge with the same fields as {@link #toJSON()}, without
+     * building an intermediate JSONObject of the content.
+     */
+    public void writeTo(@NonNull JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(id);
+        writer.name("toclevel").value(toclevel);
+        // Like JSONObject, omit null values rather than writing them.
+        if (line != null) {
+            writer.name("line").value(line);
+        }
+        if (anchor != null) {
+            writer.name("anchor").value(anchor);
+        }
+        if (text != null) {
+            writer.name("text").value(text);
+        }
+        writer.endObject();
+    }
+
     /** Default constructor used by Gson deserialization. Good for setting default values. */
     public Section() {
         toclevel = 1;
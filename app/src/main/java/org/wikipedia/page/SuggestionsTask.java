@@ -1,7 +1,5 @@
 package org.wikipedia.page;
 
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.ApiResult;
 import org.wikipedia.Constants;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.search.FullSearchArticlesTask;
@@ -15,8 +13,8 @@ public class SuggestionsTask extends FullSearchArticlesTask {
     private final String title;
     private final boolean requireThumbnail;
 
-    public SuggestionsTask(Api api, WikiSite wiki, String title, boolean requireThumbnail) {
-        super(api, wiki, title, Constants.MAX_SUGGESTION_RESULTS * 2, null, true);
+    public SuggestionsTask(WikiSite wiki, String title, boolean requireThumbnail) {
+        super(wiki, title, Constants.MAX_SUGGESTION_RESULTS * 2, null, true);
         // request double the results wanted since we may filter some out. todo: change the api
         // request to do some filtering
         this.title = title;
@@ -24,7 +22,7 @@ public class SuggestionsTask extends FullSearchArticlesTask {
     }
 
     @Override
-    public SearchResults processResult(final ApiResult result) throws Throwable {
-        return SearchResults.filter(super.processResult(result), title, requireThumbnail);
+    public SearchResults performTask() throws Throwable {
+        return SearchResults.filter(super.performTask(), title, requireThumbnail);
     }
 }
@@ -24,9 +24,8 @@ import org.wikipedia.WikipediaApp;
 import org.wikipedia.activity.FragmentUtil;
 import org.wikipedia.analytics.GalleryFunnel;
 import org.wikipedia.analytics.LinkPreviewFunnel;
-import org.wikipedia.dataclient.ServiceError;
-import org.wikipedia.dataclient.page.PageClientFactory;
 import org.wikipedia.dataclient.page.PageSummary;
+import org.wikipedia.dataclient.page.PageSummaryCache;
 import org.wikipedia.gallery.GalleryActivity;
 import org.wikipedia.gallery.GalleryCollection;
 import org.wikipedia.gallery.GalleryCollectionFetchTask;
@@ -38,9 +37,6 @@ import org.wikipedia.util.GeoUtil;
 import org.wikipedia.util.log.L;
 import org.wikipedia.views.ViewUtil;
 
-import retrofit2.Call;
-import retrofit2.Response;
-
 import static org.wikipedia.util.L10nUtil.getStringForArticleLanguage;
 import static org.wikipedia.util.L10nUtil.setConditionalLayoutDirection;
 
@@ -207,10 +203,7 @@ public class LinkPreviewDialog extends ExtendedBottomSheetDialogFragment
     }
 
     private void loadContent() {
-        PageClientFactory
-                .create(pageTitle.getWikiSite(), pageTitle.namespace())
-                .summary(pageTitle.getPrefixedText())
-                .enqueue(linkPreviewNetworkOnLoadCallback);
+        PageSummaryCache.instance().summary(pageTitle, linkPreviewOnLoadCallback);
     }
 
     private void showPreview(@NonNull LinkPreviewContents contents) {
@@ -243,25 +236,22 @@ public class LinkPreviewDialog extends ExtendedBottomSheetDialogFragment
         ViewUtil.loadImageUrlInto(thumbnailView, contents.getTitle().getThumbUrl());
     }
 
-    private retrofit2.Callback<PageSummary> linkPreviewNetworkOnLoadCallback
-            = new retrofit2.Callback<PageSummary>() {
-        @Override public void onResponse(Call<PageSummary> call, Response<PageSummary> rsp) {
+    private PageSummaryCache.Callback<PageSummary> linkPreviewOnLoadCallback
+            = new PageSummaryCache.Callback<PageSummary>() {
+        @Override public void success(@NonNull PageSummary summary) {
             if (!isAdded()) {
                 return;
             }
-
-            PageSummary summary = rsp.body();
-            if (summary != null && !summary.hasError()) {
-                showPreview(new LinkPreviewContents(summary, pageTitle.getWikiSite()));
-            } else {
-                showError(null);
-                logError(summary.hasError() ? summary.getError() : null,
-                        "Page summary network request failed");
-            }
+            showPreview(new LinkPreviewContents(summary, pageTitle.getWikiSite()));
         }
 
-        @Override public void onFailure(Call<PageSummary> call, Throwable caught) {
-            L.e(caught);
+        @Override public void failure(@Nullable Throwable caught) {
+            if (!isAdded()) {
+                return;
+            }
+            if (caught != null) {
+                L.e(caught);
+            }
             showError(caught);
         }
     };
@@ -300,8 +290,7 @@ public class LinkPreviewDialog extends ExtendedBottomSheetDialogFragment
 
     private class GalleryThumbnailFetchTask extends GalleryCollectionFetchTask {
         GalleryThumbnailFetchTask(PageTitle title) {
-            super(WikipediaApp.getInstance().getAPIForSite(title.getWikiSite()), title.getWikiSite(), title,
-                    true);
+            super(title.getWikiSite(), title, true);
         }
 
         @Override
@@ -349,13 +338,6 @@ public class LinkPreviewDialog extends ExtendedBottomSheetDialogFragment
         }
     }
 
-    private void logError(@Nullable ServiceError error, @NonNull String message) {
-        if (error != null) {
-            message += ": " + error.toString();
-        }
-        L.e(message);
-    }
-
     private class OverlayViewCallback implements LinkPreviewOverlayView.Callback {
         @Override
         public void onPrimaryClick() {
@@ -126,8 +126,7 @@ public class ShareHandler {
         final String selectedText = StringUtil.sanitizeText(input.toString());
         final PageTitle title = fragment.getTitle();
 
-        (new ImageLicenseFetchTask(WikipediaApp.getInstance().getAPIForSite(title.getWikiSite()),
-                    title.getWikiSite(),
+        (new ImageLicenseFetchTask(title.getWikiSite(),
                     new PageTitle("File:" + fragment.getPage().getPageProperties().getLeadImageName(), title.getWikiSite())) {
 
             @Override
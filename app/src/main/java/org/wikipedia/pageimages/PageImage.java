@@ -2,16 +2,18 @@ package org.wikipedia.pageimages;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.Nullable;
 
+import org.apache.commons.lang3.StringUtils;
 import org.wikipedia.page.PageTitle;
 
 public class PageImage implements Parcelable {
     public static final PageImageDatabaseTable DATABASE_TABLE = new PageImageDatabaseTable();
 
     private final PageTitle title;
-    private final String imageName;
+    @Nullable private final String imageName;
 
-    public PageImage(PageTitle title, String imageName) {
+    public PageImage(PageTitle title, @Nullable String imageName) {
         this.title = title;
         this.imageName = imageName;
     }
@@ -20,7 +22,7 @@ public class PageImage implements Parcelable {
         return title;
     }
 
-    public String getImageName() {
+    @Nullable public String getImageName() {
         return imageName;
     }
 
@@ -31,13 +33,13 @@ public class PageImage implements Parcelable {
         }
         PageImage other = (PageImage) o;
         return title.equals(other.title)
-                && imageName.equals(other.imageName);
+                && StringUtils.equals(imageName, other.imageName);
     }
 
     @Override
     public int hashCode() {
         int result = title.hashCode();
-        result = 31 * result + imageName.hashCode();
+        result = 31 * result + (imageName == null ? 0 : imageName.hashCode());
         return result;
     }
 
@@ -19,6 +19,7 @@ public class PageImageDatabaseTable extends DatabaseTable<PageImage> {
     private static final int DB_VER_NAMESPACE_ADDED = 7;
     private static final int DB_VER_NORMALIZED_TITLES = 8;
     private static final int DB_VER_LANG_ADDED = 10;
+    private static final int DB_VER_TITLE_INDEXED = 21;
 
     public PageImageDatabaseTable() {
         super(PageImageHistoryContract.TABLE, PageImageHistoryContract.Image.URI);
@@ -87,6 +88,13 @@ public class PageImageDatabaseTable extends DatabaseTable<PageImage> {
             case DB_VER_LANG_ADDED:
                 addLangToAllSites(db);
                 break;
+            case DB_VER_TITLE_INDEXED:
+                // History rows are joined to their images by site and title.
+                db.execSQL(("CREATE INDEX IF NOT EXISTS :tbl_title ON :tbl (:titleCol, :siteCol)")
+                        .replaceAll(":tbl", getTableName())
+                        .replaceAll(":titleCol", Col.TITLE.getName())
+                        .replaceAll(":siteCol", Col.SITE.getName()));
+                break;
             default:
                 super.upgradeSchema(db, toVersion);
         }
@@ -14,8 +14,10 @@ import org.wikipedia.dataclient.mwapi.MwQueryPage;
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.dataclient.retrofit.MwCachedService;
 import org.wikipedia.page.PageTitle;
+import org.wikipedia.util.BatchUtil;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +25,7 @@ import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.http.GET;
 import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
 
 public class PageImagesClient {
     @NonNull private MwCachedService<Service> cachedService = new MwCachedService<>(Service.class);
@@ -38,40 +41,31 @@ public class PageImagesClient {
         return request(wiki, cachedService.service(wiki), titles, cb);
     }
 
+    /**
+     * Requests the page images of any number of titles in batches, and passes them all to the
+     * callback at once.
+     */
+    public void requestAll(@NonNull WikiSite wiki, @NonNull List<PageTitle> titles,
+                           @NonNull BatchUtil.Callback<PageImage> cb) {
+        requestAll(wiki, cachedService.service(wiki), titles, cb);
+    }
+
     @VisibleForTesting Call<MwQueryResponse<QueryResult>> request(final WikiSite wiki, @NonNull Service service,
                                                                   @NonNull final List<PageTitle> titles,
                                                                   @NonNull final Callback cb) {
-        Call<MwQueryResponse<QueryResult>> call = service.request(TextUtils.join("|", titles), titles.size());
+        Call<MwQueryResponse<QueryResult>> call = service.request(TextUtils.join("|", titles), titles.size(),
+                BatchUtil.continuationParams(null));
         call.enqueue(new retrofit2.Callback<MwQueryResponse<QueryResult>>() {
             @Override public void onResponse(Call<MwQueryResponse<QueryResult>> call,
                                              Response<MwQueryResponse<QueryResult>> response) {
-                Map<PageTitle, PageImage> pageImagesMap = new ArrayMap<>();
-                // error cases
-                if (response.body().success()) {
-                    // nominal case
-                    Map<String, PageTitle> titlesMap = new ArrayMap<>();
-                    for (PageTitle title : titles) {
-                        titlesMap.put(title.getPrefixedText(), title);
-                    }
-                    Map<String, String> thumbnailSourcesMap = new ArrayMap<>();
-
-                    for (MwQueryPage page : response.body().query().pages()) {
-                        thumbnailSourcesMap.put(new PageTitle(null, page.title(), wiki).getPrefixedText(), page.thumbUrl());
-                    }
-
-                    for (String key : titlesMap.keySet()) {
-                        if (thumbnailSourcesMap.containsKey(key)) {
-                            PageTitle title = titlesMap.get(key);
-                            pageImagesMap.put(title, new PageImage(title, thumbnailSourcesMap.get(key)));
-                        }
-                    }
-
-                    cb.success(call, pageImagesMap);
-                } else if (response.body().hasError()) {
-                    cb.failure(call, new MwException(response.body().getError()));
-                } else {
-                    cb.failure(call, new IOException("An unknown error occurred."));
+                Map<PageTitle, PageImage> pageImagesMap;
+                try {
+                    pageImagesMap = pageImages(wiki, titles, response.body());
+                } catch (Throwable t) {
+                    cb.failure(call, t);
+                    return;
                 }
+                cb.success(call, pageImagesMap);
             }
 
             @Override public void onFailure(Call<MwQueryResponse<QueryResult>> call, Throwable t) {
@@ -81,6 +75,74 @@ public class PageImagesClient {
         return call;
     }
 
+    @VisibleForTesting void requestAll(@NonNull final WikiSite wiki, @NonNull final Service service,
+                                       @NonNull List<PageTitle> titles,
+                                       @NonNull BatchUtil.Callback<PageImage> cb) {
+        BatchUtil.makeBatches(titles, new BatchUtil.Handler<PageImage>() {
+            @Override public void handleBatch(@NonNull final List<PageTitle> batchTitles,
+                                              @Nullable Map<String, String> continuation,
+                                              @NonNull final BatchUtil.BatchCallback<PageImage> batchCb) {
+                service.request(TextUtils.join("|", batchTitles), batchTitles.size(),
+                        BatchUtil.continuationParams(continuation))
+                        .enqueue(new retrofit2.Callback<MwQueryResponse<QueryResult>>() {
+                            @Override public void onResponse(Call<MwQueryResponse<QueryResult>> call,
+                                                             Response<MwQueryResponse<QueryResult>> response) {
+                                List<PageImage> pageImages = new ArrayList<>();
+                                try {
+                                    for (PageImage pageImage : pageImages(wiki, batchTitles, response.body()).values()) {
+                                        // Pages covered by another part of a continued result have no thumbnail here.
+                                        if (pageImage.getImageName() != null) {
+                                            pageImages.add(pageImage);
+                                        }
+                                    }
+                                } catch (Throwable t) {
+                                    batchCb.failure(t);
+                                    return;
+                                }
+                                batchCb.success(pageImages, response.body().continuation());
+                            }
+
+                            @Override public void onFailure(Call<MwQueryResponse<QueryResult>> call, Throwable t) {
+                                batchCb.failure(t);
+                            }
+                        });
+            }
+        }, cb);
+    }
+
+    @NonNull private static Map<PageTitle, PageImage> pageImages(@NonNull WikiSite wiki,
+                                                                @NonNull List<PageTitle> titles,
+                                                                @NonNull MwQueryResponse<QueryResult> body)
+            throws IOException {
+        if (body.hasError()) {
+            throw new MwException(body.getError());
+        } else if (!body.success()) {
+            throw new IOException("An unknown error occurred.");
+        }
+
+        Map<String, PageTitle> titlesMap = new ArrayMap<>();
+        for (PageTitle title : titles) {
+            titlesMap.put(title.getPrefixedText(), title);
+        }
+        Map<String, String> thumbnailSourcesMap = new ArrayMap<>();
+
+        //noinspection ConstantConditions
+        for (MwQueryPage page : body.query().pages()) {
+            // A page only has a thumbnail in the part of a continued result that covers it.
+            if (page.thumbUrl() != null) {
+                thumbnailSourcesMap.put(new PageTitle(null, page.title(), wiki).getPrefixedText(), page.thumbUrl());
+            }
+        }
+
+        // Every requested title gets an entry so that a page whose thumbnail was removed is cleared.
+        Map<PageTitle, PageImage> pageImagesMap = new ArrayMap<>();
+        for (String key : titlesMap.keySet()) {
+            PageTitle title = titlesMap.get(key);
+            pageImagesMap.put(title, new PageImage(title, thumbnailSourcesMap.get(key)));
+        }
+        return pageImagesMap;
+    }
+
     public class QueryResult {
         @SuppressWarnings("unused") @Nullable private List<MwQueryPage> pages;
         @Nullable List<MwQueryPage> pages() {
@@ -91,6 +153,7 @@ public class PageImagesClient {
     @VisibleForTesting interface Service {
         @GET("w/api.php?action=query&format=json&formatversion=2&prop=pageimages&piprop=thumbnail&pilicense=any&pithumbsize=" + Constants.PREFERRED_THUMB_SIZE)
         Call<MwQueryResponse<QueryResult>> request(@NonNull @Query("titles") String titles,
-                                                   @Query("pilimit") int piLimit);
+                                                   @Query("pilimit") int piLimit,
+                                                   @NonNull @QueryMap Map<String, String> continuation);
     }
 }
@@ -10,6 +10,8 @@ import org.wikipedia.WikipediaApp;
 import org.wikipedia.concurrency.CallbackTask;
 import org.wikipedia.database.DatabaseClient;
 import org.wikipedia.database.contract.ReadingListContract;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.SearchIndexContract;
 import org.wikipedia.readinglist.database.ReadingListRow;
 import org.wikipedia.readinglist.page.ReadingListPage;
 import org.wikipedia.readinglist.page.database.ReadingListPageDao;
@@ -46,12 +48,10 @@ public final class ReadingListData {
         Uri uri = ReadingListContract.ListWithPagesAndDisk.URI;
         String selection = null;
         String[] selectionArgs = null;
-        String searchStr = searchQuery;
-        if (!TextUtils.isEmpty(searchStr)) {
-            String titleCol = ReadingListContract.List.TITLE.qualifiedName();
-            searchStr = searchStr.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
-            selection = "UPPER(" + titleCol + ") LIKE UPPER(?) ESCAPE '\\'";
-            selectionArgs = new String[]{"%" + searchStr + "%"};
+        if (!TextUtils.isEmpty(searchQuery)) {
+            String match = SearchIndexContract.matchExpression(searchQuery);
+            selection = Sql.SELECT_LISTS_MATCHING;
+            selectionArgs = new String[] {match, match};
         }
         String order = ReadingListContract.ListWithPagesAndDisk.ORDER_KEY + ','
                 + ReadingListContract.ListWithPagesAndDisk.ORDER_MRU;
@@ -71,9 +71,9 @@ public final class ReadingListData {
         listClient().persist(list);
         for (ReadingListPage page : list.getPages()) {
             page.addListKey(list.key());
-            ReadingListPageDao.instance().upsert(page);
-            ReadingListPageDao.instance().markOutdated(page);
         }
+        ReadingListPageDao.instance().upsertPages(list.getPages());
+        ReadingListPageDao.instance().markOutdated(list.getPages());
     }
 
     public void removeListAsync(@NonNull final ReadingList list) {
@@ -158,8 +158,8 @@ public final class ReadingListData {
         for (ReadingListPage page : pages) {
             page.removeListKey(oldKey);
             page.addListKey(list.key());
-            ReadingListPageDao.instance().upsert(page);
         }
+        ReadingListPageDao.instance().upsertPages(pages);
     }
 
     public synchronized void setPageOffline(@NonNull ReadingListPage page, boolean offline) {
@@ -171,8 +171,8 @@ public final class ReadingListData {
         listClient().delete(list, listClient().getPrimaryKeySelectionArgs(list));
         for (ReadingListPage page : list.getPages()) {
             page.removeListKey(list.key());
-            ReadingListPageDao.instance().upsert(page);
         }
+        ReadingListPageDao.instance().upsertPages(list.getPages());
     }
 
     @Nullable
@@ -216,4 +216,23 @@ public final class ReadingListData {
     private <T> DatabaseClient<T> client(Class<T> clazz) {
         return WikipediaApp.getInstance().getDatabaseClient(clazz);
     }
+
+    private static class Sql {
+        // Lists match by their own title and description, or by the title, description, or saved
+        // text of any of their pages.
+        private static final String SELECT_LISTS_MATCHING = ("(:listMatch) or (:listKeyCol in "
+                + "(select :memberTbl.listKeyCol from :memberTbl where :memberTbl.pageKeyCol in "
+                + "(select :pageTbl.keyCol from :pageTbl where :pageMatch)))")
+                .replaceAll(":listMatch", SearchIndexContract.selection(
+                        ReadingListContract.List.ID.qualifiedName(), SearchIndexContract.SOURCE_READING_LIST))
+                .replaceAll(":pageMatch", SearchIndexContract.selection(
+                        ReadingListPageContract.Page.ID.qualifiedName(),
+                        SearchIndexContract.SOURCE_READING_LIST_PAGE))
+                .replaceAll(":listKeyCol", ReadingListContract.List.KEY.qualifiedName())
+                .replaceAll(":memberTbl.listKeyCol", ReadingListPageContract.Member.LIST_KEY.qualifiedName())
+                .replaceAll(":memberTbl.pageKeyCol", ReadingListPageContract.Member.PAGE_KEY.qualifiedName())
+                .replaceAll(":memberTbl", ReadingListPageContract.TABLE_MEMBER)
+                .replaceAll(":pageTbl.keyCol", ReadingListPageContract.Page.KEY.qualifiedName())
+                .replaceAll(":pageTbl", ReadingListPageContract.TABLE_PAGE);
+    }
 }
@@ -5,7 +5,6 @@ import android.text.TextUtils;
 
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.dataclient.mwapi.MwQueryPage;
-import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.page.PageTitle;
 import org.wikipedia.readinglist.page.ReadingListPage;
 import org.wikipedia.readinglist.page.database.ReadingListDaoProxy;
@@ -18,8 +17,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import retrofit2.Call;
-
 final class ReadingListPageDetailFetcher {
     public interface Callback{
         void success();
@@ -56,31 +53,7 @@ final class ReadingListPageDetailFetcher {
     private static void getInfoForTitles(@NonNull final ReadingList readingList,
                                          @NonNull final List<PageTitle> titles,
                                          @NonNull WikiSite wiki, @NonNull final Callback cb) {
-        BatchUtil.makeBatches(titles, new RequestHandler(), new PagesForWikiCallback(readingList, wiki, cb));
-    }
-
-    private static class RequestHandler implements BatchUtil.Handler<MwQueryPage> {
-        private final List<MwQueryPage> results = new ArrayList<>();
-
-        @Override public void handleBatch(@NonNull final List<PageTitle> titles, final int total,
-                                          final BatchUtil.Callback<MwQueryPage> outerCallback) {
-            CLIENT.request(titles.get(0).getWikiSite(), titles, new ReadingListPageInfoClient.Callback() {
-                @Override public void success(@NonNull Call<MwQueryResponse<ReadingListPageInfoClient.QueryResult>> call,
-                                              @NonNull List<MwQueryPage> queryResults) {
-                    results.addAll(queryResults);
-
-                    if (results.size() == total) {
-                        outerCallback.success(results);
-                    }
-                }
-
-                @Override public void failure(@NonNull Call<MwQueryResponse<ReadingListPageInfoClient.QueryResult>> call,
-                                              @NonNull Throwable caught) {
-                    L.w(caught);
-                    outerCallback.failure(caught);
-                }
-            });
-        }
+        CLIENT.requestAll(wiki, titles, new PagesForWikiCallback(readingList, wiki, cb));
     }
 
     private static class PagesForWikiCallback implements BatchUtil.Callback<MwQueryPage> {
@@ -96,11 +69,23 @@ final class ReadingListPageDetailFetcher {
         }
 
         @Override public void success(@NonNull List<MwQueryPage> result) {
-            Map<String, MwQueryPage> resultMap = makeQueryPageMap(result);
+            // A page's info may be split across continued results, so merge it by title.
+            Map<String, String> thumbnails = new HashMap<>();
+            Map<String, String> descriptions = new HashMap<>();
+            for (MwQueryPage page : result) {
+                if (page.thumbUrl() != null) {
+                    thumbnails.put(page.title(), page.thumbUrl());
+                }
+                if (page.description() != null) {
+                    descriptions.put(page.title(), page.description());
+                }
+            }
+
             for (ReadingListPage page : readingList.getPages()) {
-                if ((isFromRequestWiki(page)) && resultMap.containsKey(page.title())) {
-                    page.setThumbnailUrl(resultMap.get(page.title()).thumbUrl());
-                    page.setDescription(resultMap.get(page.title()).description());
+                if (isFromRequestWiki(page)
+                        && (thumbnails.containsKey(page.title()) || descriptions.containsKey(page.title()))) {
+                    page.setThumbnailUrl(thumbnails.get(page.title()));
+                    page.setDescription(descriptions.get(page.title()));
                     ReadingListPageDao.instance().upsert(page);
                 }
             }
@@ -112,14 +97,6 @@ final class ReadingListPageDetailFetcher {
             L.w(caught);
         }
 
-        @NonNull private Map<String, MwQueryPage> makeQueryPageMap(@NonNull List<MwQueryPage> pages) {
-            Map<String, MwQueryPage> result = new HashMap<>();
-            for (MwQueryPage page : pages) {
-                result.put(page.title(), page);
-            }
-            return result;
-        }
-
         private boolean isFromRequestWiki(@NonNull ReadingListPage page) {
             return wiki.equals(page.wikiSite());
         }
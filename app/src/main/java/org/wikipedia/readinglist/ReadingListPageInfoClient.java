@@ -13,14 +13,18 @@ import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.dataclient.retrofit.MwCachedService;
 import org.wikipedia.dataclient.retrofit.RetrofitException;
 import org.wikipedia.page.PageTitle;
+import org.wikipedia.util.BatchUtil;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import retrofit2.Call;
 import retrofit2.Response;
 import retrofit2.http.GET;
 import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
 
 public class ReadingListPageInfoClient {
     @NonNull private MwCachedService<Service> cachedService = new MwCachedService<>(Service.class);
@@ -36,28 +40,32 @@ public class ReadingListPageInfoClient {
         return request(cachedService.service(wiki), titles, cb);
     }
 
+    /**
+     * Requests the info of any number of titles in batches, and passes all of it to the callback at
+     * once. A page may appear more than once when its info was split across continued results.
+     */
+    public void requestAll(@NonNull WikiSite wiki, @NonNull List<PageTitle> titles,
+                           @NonNull BatchUtil.Callback<MwQueryPage> cb) {
+        requestAll(cachedService.service(wiki), titles, cb);
+    }
+
     @VisibleForTesting
     public Call<MwQueryResponse<QueryResult>> request(@NonNull Service service,
                                                       @NonNull List<PageTitle> titles,
                                                       @NonNull final Callback cb) {
-        Call<MwQueryResponse<QueryResult>> call = service.request(TextUtils.join("|", titles), titles.size());
+        Call<MwQueryResponse<QueryResult>> call = service.request(TextUtils.join("|", titles), titles.size(),
+                BatchUtil.continuationParams(null));
         call.enqueue(new retrofit2.Callback<MwQueryResponse<QueryResult>>() {
             @Override public void onResponse(Call<MwQueryResponse<QueryResult>> call,
                                              Response<MwQueryResponse<QueryResult>> response) {
-                if (response.isSuccessful()) {
-                    if (response.body().success()) {
-                        // noinspection ConstantConditions
-                        cb.success(call, response.body().query().pages());
-                    } else if (response.body().hasError()) {
-                        // noinspection ConstantConditions
-                        cb.failure(call, new MwException(response.body().getError()));
-                    } else {
-                        cb.failure(call, new IOException("An unknown error occurred."));
-                    }
-
-                } else {
-                    cb.failure(call, RetrofitException.httpError(response));
+                List<MwQueryPage> pages;
+                try {
+                    pages = pages(response);
+                } catch (Throwable t) {
+                    cb.failure(call, t);
+                    return;
                 }
+                cb.success(call, pages);
             }
 
             @Override public void onFailure(Call<MwQueryResponse<QueryResult>> call, Throwable t) {
@@ -67,6 +75,50 @@ public class ReadingListPageInfoClient {
         return call;
     }
 
+    @VisibleForTesting void requestAll(@NonNull final Service service, @NonNull List<PageTitle> titles,
+                                       @NonNull BatchUtil.Callback<MwQueryPage> cb) {
+        BatchUtil.makeBatches(titles, new BatchUtil.Handler<MwQueryPage>() {
+            @Override public void handleBatch(@NonNull List<PageTitle> batchTitles,
+                                              @Nullable Map<String, String> continuation,
+                                              @NonNull final BatchUtil.BatchCallback<MwQueryPage> batchCb) {
+                service.request(TextUtils.join("|", batchTitles), batchTitles.size(),
+                        BatchUtil.continuationParams(continuation))
+                        .enqueue(new retrofit2.Callback<MwQueryResponse<QueryResult>>() {
+                            @Override public void onResponse(Call<MwQueryResponse<QueryResult>> call,
+                                                             Response<MwQueryResponse<QueryResult>> response) {
+                                List<MwQueryPage> pages;
+                                try {
+                                    pages = pages(response);
+                                } catch (Throwable t) {
+                                    batchCb.failure(t);
+                                    return;
+                                }
+                                batchCb.success(pages, response.body().continuation());
+                            }
+
+                            @Override public void onFailure(Call<MwQueryResponse<QueryResult>> call, Throwable t) {
+                                batchCb.failure(t);
+                            }
+                        });
+            }
+        }, cb);
+    }
+
+    @NonNull private static List<MwQueryPage> pages(@NonNull Response<MwQueryResponse<QueryResult>> response)
+            throws IOException {
+        if (!response.isSuccessful()) {
+            throw RetrofitException.httpError(response);
+        } else if (response.body().success()) {
+            // noinspection ConstantConditions
+            List<MwQueryPage> pages = response.body().query().pages();
+            return pages != null ? pages : Collections.<MwQueryPage>emptyList();
+        } else if (response.body().hasError()) {
+            // noinspection ConstantConditions
+            throw new MwException(response.body().getError());
+        }
+        throw new IOException("An unknown error occurred.");
+    }
+
     // TODO: Move this intermediate step from the various MwQueryResponse data clients into MwQueryResponse itself
     class QueryResult {
         @SuppressWarnings("unused") @Nullable private List<MwQueryPage> pages;
@@ -78,9 +130,10 @@ public class ReadingListPageInfoClient {
 
     @VisibleForTesting interface Service {
         @GET("w/api.php?action=query&format=json&formatversion=2&prop=pageimages|pageterms"
-            + "&piprop=thumbnail&pilicense=any&continue=&wbptterms=description&pithumbsize="
+            + "&piprop=thumbnail&pilicense=any&wbptterms=description&pithumbsize="
                 + Constants.PREFERRED_THUMB_SIZE)
         Call<MwQueryResponse<QueryResult>> request(@NonNull @Query("titles") String titles,
-                                                   @Query("pilimit") int piLimit);
+                                                   @Query("pilimit") int piLimit,
+                                                   @NonNull @QueryMap Map<String, String> continuation);
     }
 }
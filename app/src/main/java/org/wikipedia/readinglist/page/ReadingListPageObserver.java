@@ -1,16 +1,14 @@
 package org.wikipedia.readinglist.page;
 
 import android.content.Context;
-import android.content.Intent;
 import android.database.ContentObserver;
 import android.net.Uri;
 import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import org.wikipedia.WikipediaApp;
 import org.wikipedia.database.contract.ReadingListPageContract;
-import org.wikipedia.savedpages.SavedPageSyncService;
+import org.wikipedia.savedpages.SavedPageSyncScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,7 +40,8 @@ public class ReadingListPageObserver extends ContentObserver {
         if (uri.equals(ReadingListPageContract.Disk.URI)) {
             notifyListeners();
         }
-        WikipediaApp.getInstance().startService(new Intent(WikipediaApp.getInstance(), SavedPageSyncService.class));
+        // Bulk edits notify once per row; the scheduler coalesces them into a single sync pass.
+        SavedPageSyncScheduler.instance().request();
     }
 
     public void register(@NonNull Context context) {
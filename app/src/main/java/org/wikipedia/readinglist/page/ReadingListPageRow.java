@@ -11,6 +11,7 @@ import org.wikipedia.model.BaseModel;
 import org.wikipedia.page.Namespace;
 import org.wikipedia.readinglist.page.database.ReadingListPageDiskTable;
 import org.wikipedia.readinglist.page.database.ReadingListPageHttpTable;
+import org.wikipedia.readinglist.page.database.ReadingListPageMemberTable;
 import org.wikipedia.readinglist.page.database.ReadingListPageTable;
 import org.wikipedia.util.ValidateUtil;
 
@@ -21,6 +22,7 @@ public class ReadingListPageRow extends BaseModel {
     public static final ReadingListPageTable DATABASE_TABLE = new ReadingListPageTable();
     public static final ReadingListPageHttpTable HTTP_DATABASE_TABLE = new ReadingListPageHttpTable();
     public static final ReadingListPageDiskTable DISK_DATABASE_TABLE = new ReadingListPageDiskTable();
+    public static final ReadingListPageMemberTable MEMBER_DATABASE_TABLE = new ReadingListPageMemberTable();
 
     @NonNull private final String key;
     @NonNull private final Set<String> listKeys;
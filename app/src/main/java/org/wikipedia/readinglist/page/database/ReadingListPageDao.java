@@ -21,6 +21,7 @@ import org.wikipedia.readinglist.page.database.disk.ReadingListPageDiskRow;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Random;
 
 public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
@@ -29,6 +30,7 @@ public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
 
     @NonNull private final HttpRowDao<ReadingListPageRow, ReadingListPageHttpRow> httpDao;
     @NonNull private final DiskRowDao<ReadingListPageRow, ReadingListPageDiskRow> diskDao;
+    @NonNull private final ReadingListPageMemberDao memberDao;
 
     public static ReadingListPageDao instance() {
         return INSTANCE;
@@ -99,36 +101,92 @@ public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
     }
 
     public synchronized void upsert(@NonNull ReadingListPage row) {
-        if (row.listKeys().isEmpty()) {
-            httpDao.markDeleted(new ReadingListPageHttpRow(row));
-            diskDao.markDeleted(new ReadingListPageDiskRow(row));
-            delete(row);
-        } else {
-            httpDao.markUpserted(new ReadingListPageHttpRow(row));
-            if (row.diskStatus() == DiskStatus.OUTDATED) {
-                diskDao.markOutdated(new ReadingListPageDiskRow(row));
-            } else if (row.diskStatus() == DiskStatus.ONLINE || row.diskStatus() == DiskStatus.UNSAVED) {
-                diskDao.markOnline(new ReadingListPageDiskRow(row));
+        upsertPages(Collections.singletonList(row));
+    }
+
+    /** Upserts or, if they belong to no list, deletes the pages. Each table affected is written in
+     * a single transaction. */
+    public synchronized void upsertPages(@NonNull Collection<ReadingListPage> rows) {
+        Collection<ReadingListPageHttpRow> upsertedHttpRows = new ArrayList<>();
+        Collection<ReadingListPageHttpRow> deletedHttpRows = new ArrayList<>();
+        Collection<ReadingListPageDiskRow> outdatedDiskRows = new ArrayList<>();
+        Collection<ReadingListPageDiskRow> onlineDiskRows = new ArrayList<>();
+        Collection<ReadingListPageDiskRow> deletedDiskRows = new ArrayList<>();
+        Collection<ReadingListPageRow> upsertedRows = new ArrayList<>();
+        Collection<ReadingListPageRow> deletedRows = new ArrayList<>();
+
+        for (ReadingListPage row : rows) {
+            if (row.listKeys().isEmpty()) {
+                deletedHttpRows.add(new ReadingListPageHttpRow(row));
+                deletedDiskRows.add(new ReadingListPageDiskRow(row));
+                deletedRows.add(row);
+            } else {
+                upsertedHttpRows.add(new ReadingListPageHttpRow(row));
+                if (row.diskStatus() == DiskStatus.OUTDATED) {
+                    outdatedDiskRows.add(new ReadingListPageDiskRow(row));
+                } else if (row.diskStatus() == DiskStatus.ONLINE || row.diskStatus() == DiskStatus.UNSAVED) {
+                    onlineDiskRows.add(new ReadingListPageDiskRow(row));
+                }
+                upsertedRows.add(row);
             }
-            super.upsert(row);
         }
+
+        httpDao.markDeleted(deletedHttpRows);
+        diskDao.markDeleted(deletedDiskRows);
+        delete(deletedRows);
+        memberDao.replace(deletedRows);
+
+        httpDao.markUpserted(upsertedHttpRows);
+        diskDao.markOutdated(outdatedDiskRows);
+        diskDao.markOnline(onlineDiskRows);
+        super.upsert(upsertedRows);
+        memberDao.replace(upsertedRows);
     }
 
     public synchronized void markOutdated(@NonNull ReadingListPage row) {
-        diskDao.markOutdated(new ReadingListPageDiskRow(row));
+        markOutdated(Collections.singletonList(row));
+    }
+
+    public synchronized void markOutdated(@NonNull Collection<ReadingListPage> rows) {
+        Collection<ReadingListPageDiskRow> diskRows = new ArrayList<>();
+        for (ReadingListPage row : rows) {
+            diskRows.add(new ReadingListPageDiskRow(row));
+        }
+        diskDao.markOutdated(diskRows);
     }
 
+    /** Starts a transaction for every pending row except those backing off from a failure. */
     @NonNull public synchronized Collection<ReadingListPageDiskRow> startDiskTransaction() {
-        Collection<ReadingListPageDiskRow> rows = queryPendingDiskTransactions();
+        long now = System.currentTimeMillis();
+        Collection<ReadingListPageDiskRow> rows = new ArrayList<>();
+        for (ReadingListPageDiskRow row : queryPendingDiskTransactions()) {
+            if (row.retryable(now)) {
+                rows.add(row);
+            }
+        }
         diskDao.startTransaction(rows);
         return rows;
     }
 
+    /** @return The earliest time in milliseconds at which a pending row that previously failed
+     * should be retried or {@link AsyncConstant#NO_TIMESTAMP} if there are none. */
+    public synchronized long nextDiskRetryTimestamp() {
+        long next = AsyncConstant.NO_TIMESTAMP;
+        for (ReadingListPageDiskRow row : queryPendingDiskTransactions()) {
+            long retry = row.retryTimestamp();
+            if (retry != AsyncConstant.NO_TIMESTAMP && (next == AsyncConstant.NO_TIMESTAMP || retry < next)) {
+                next = retry;
+            }
+        }
+        return next;
+    }
+
     public synchronized void completeDiskTransaction(@NonNull ReadingListPageDiskRow row) {
         diskDao.completeTransaction(row);
 
         if (row.dat() != null) {
             super.upsert(row.dat());
+            memberDao.replace(Collections.singletonList(row.dat()));
         }
     }
 
@@ -136,6 +194,10 @@ public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
         diskDao.failTransaction(rows);
     }
 
+    public synchronized void failDiskTransaction(@NonNull ReadingListPageDiskRow row) {
+        failDiskTransaction(Collections.singleton(row));
+    }
+
     public void clearAsync() {
         CallbackTask.execute(new Task<Void>() {
             @Override public Void execute() {
@@ -148,6 +210,7 @@ public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
     @Override public synchronized void clear() {
         httpDao.clear();
         diskDao.clear();
+        memberDao.clear();
         super.clear();
     }
 
@@ -176,14 +239,20 @@ public final class ReadingListPageDao extends BaseDao<ReadingListPageRow> {
         super(WikipediaApp.getInstance().getDatabaseClient(ReadingListPageRow.class));
         httpDao = new HttpRowDao<>(WikipediaApp.getInstance().getDatabaseClient(ReadingListPageHttpRow.class));
         diskDao = new DiskRowDao<>(WikipediaApp.getInstance().getDatabaseClient(ReadingListPageDiskRow.class));
+        memberDao = new ReadingListPageMemberDao();
     }
 
     private static class Sql {
         private static final String SELECT_ROWS_WITH_KEY = ":keyCol == ?"
             .replaceAll(":keyCol", ReadingListPageContract.Page.KEY.qualifiedName());
 
-        private static final String SELECT_ROWS_WITH_LIST_KEY = "',' || :listKeyCol || ',' like '%,' || ? || ',%'"
-             .replaceAll(":listKeyCol", ReadingListPageContract.Page.LIST_KEYS.qualifiedName());
+        // The membership index is searched rather than the list keys of every page.
+        private static final String SELECT_ROWS_WITH_LIST_KEY = (":keyCol in "
+                + "(select :memberTbl.pageKeyCol from :memberTbl where :memberTbl.listKeyCol == ?)")
+            .replaceAll(":keyCol", ReadingListPageContract.Page.KEY.qualifiedName())
+            .replaceAll(":memberTbl.pageKeyCol", ReadingListPageContract.Member.PAGE_KEY.qualifiedName())
+            .replaceAll(":memberTbl.listKeyCol", ReadingListPageContract.Member.LIST_KEY.qualifiedName())
+            .replaceAll(":memberTbl", ReadingListPageContract.TABLE_MEMBER);
 
         private static String SELECT_ROWS_PENDING_DISK_TRANSACTION = ":transactionIdCol == :noTransactionId"
             .replaceAll(":transactionIdCol", ReadingListPageContract.DiskWithPage.DISK_TRANSACTION_ID.qualifiedName())
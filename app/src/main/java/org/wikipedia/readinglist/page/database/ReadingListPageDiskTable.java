@@ -15,6 +15,7 @@ import org.wikipedia.readinglist.page.database.disk.ReadingListPageDiskRow;
 public class ReadingListPageDiskTable
         extends AsyncTable<DiskStatus, ReadingListPageRow, DiskRow<ReadingListPageRow>> {
     private static final int DATABASE_VERSION = 12;
+    private static final int DB_VER_FAILURES_ADDED = 17;
 
     public ReadingListPageDiskTable() {
         super(ReadingListPageContract.TABLE_DISK, ReadingListPageContract.Disk.URI,
@@ -34,6 +35,9 @@ public class ReadingListPageDiskTable
                 System.arraycopy(diskCols, 0, cols, 0, diskCols.length);
                 cols[diskCols.length] = ReadingListPageContract.DiskCol.FILENAME;
                 return cols;
+            case DB_VER_FAILURES_ADDED:
+                return new Column<?>[] {ReadingListPageContract.DiskCol.FAILURES,
+                        ReadingListPageContract.DiskCol.FAILURE_TIMESTAMP};
             default:
                 return super.getColumnsAdded(version);
         }
@@ -0,0 +1,38 @@
+package org.wikipedia.readinglist.page.database;
+
+import android.support.annotation.NonNull;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.database.BaseDao;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.readinglist.page.ReadingListPageRow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/** Maintains the reading list membership index. No writes should be performed to the table outside
+ * of ReadingListPageDao. */
+class ReadingListPageMemberDao extends BaseDao<ReadingListPageMemberRow> {
+    ReadingListPageMemberDao() {
+        super(WikipediaApp.getInstance().getDatabaseClient(ReadingListPageMemberRow.class));
+    }
+
+    /** Replaces the memberships of each page with those of its list keys. */
+    synchronized void replace(@NonNull Collection<? extends ReadingListPageRow> pages) {
+        Collection<String[]> selectionArgs = new ArrayList<>();
+        Collection<ReadingListPageMemberRow> rows = new ArrayList<>();
+        for (ReadingListPageRow page : pages) {
+            selectionArgs.add(new String[] {page.key()});
+            for (String listKey : page.listKeys()) {
+                rows.add(new ReadingListPageMemberRow(page.key(), listKey));
+            }
+        }
+        client().deleteWhere(Sql.SELECT_ROWS_WITH_PAGE_KEY, selectionArgs);
+        upsert(rows);
+    }
+
+    private static class Sql {
+        private static final String SELECT_ROWS_WITH_PAGE_KEY = ":pageKeyCol == ?"
+                .replaceAll(":pageKeyCol", ReadingListPageContract.MemberCol.PAGE_KEY.qualifiedName());
+    }
+}
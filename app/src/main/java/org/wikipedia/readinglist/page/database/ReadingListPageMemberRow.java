@@ -0,0 +1,24 @@
+package org.wikipedia.readinglist.page.database;
+
+import android.support.annotation.NonNull;
+
+import org.wikipedia.model.BaseModel;
+
+/** The membership of a reading list page in a reading list. */
+public class ReadingListPageMemberRow extends BaseModel {
+    @NonNull private final String pageKey;
+    @NonNull private final String listKey;
+
+    public ReadingListPageMemberRow(@NonNull String pageKey, @NonNull String listKey) {
+        this.pageKey = pageKey;
+        this.listKey = listKey;
+    }
+
+    @NonNull public String pageKey() {
+        return pageKey;
+    }
+
+    @NonNull public String listKey() {
+        return listKey;
+    }
+}
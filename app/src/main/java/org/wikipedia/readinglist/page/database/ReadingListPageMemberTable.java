@@ -0,0 +1,101 @@
+package org.wikipedia.readinglist.page.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+
+import org.wikipedia.database.DatabaseTable;
+import org.wikipedia.database.column.Column;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.ReadingListPageContract.MemberCol;
+import org.wikipedia.database.contract.ReadingListPageContract.PageCol;
+
+/** A join table of reading list pages and the lists they belong to, indexed in both directions.
+ * Rows mirror the list keys column of the page table. */
+public class ReadingListPageMemberTable extends DatabaseTable<ReadingListPageMemberRow> {
+    private static final int DB_VER_INTRODUCED = 19;
+
+    public ReadingListPageMemberTable() {
+        super(ReadingListPageContract.TABLE_MEMBER, ReadingListPageContract.Member.URI);
+    }
+
+    @Override public ReadingListPageMemberRow fromCursor(@NonNull Cursor cursor) {
+        return new ReadingListPageMemberRow(MemberCol.PAGE_KEY.val(cursor), MemberCol.LIST_KEY.val(cursor));
+    }
+
+    @NonNull @Override public Column<?>[] getColumnsAdded(int version) {
+        switch (version) {
+            case DB_VER_INTRODUCED:
+                return new Column<?>[] {MemberCol.ID, MemberCol.PAGE_KEY, MemberCol.LIST_KEY};
+            default:
+                return super.getColumnsAdded(version);
+        }
+    }
+
+    @Override public void upgradeSchema(@NonNull SQLiteDatabase db, int fromVersion, int toVersion) {
+        super.upgradeSchema(db, fromVersion, toVersion);
+        if (fromVersion < DB_VER_INTRODUCED && toVersion >= DB_VER_INTRODUCED) {
+            createIndices(db);
+            if (fromVersion > 0) {
+                migrateListKeys(db);
+            }
+        }
+    }
+
+    @Override protected ContentValues toContentValues(@NonNull ReadingListPageMemberRow row) {
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(MemberCol.PAGE_KEY.getName(), row.pageKey());
+        contentValues.put(MemberCol.LIST_KEY.getName(), row.listKey());
+        return contentValues;
+    }
+
+    @Override protected String getPrimaryKeySelection(@NonNull ReadingListPageMemberRow row,
+                                                      @NonNull String[] selectionArgs) {
+        return super.getPrimaryKeySelection(row, MemberCol.SELECTION);
+    }
+
+    @Override protected String[] getUnfilteredPrimaryKeySelectionArgs(@NonNull ReadingListPageMemberRow row) {
+        return new String[] {row.pageKey(), row.listKey()};
+    }
+
+    @Override protected int getDBVersionIntroducedAt() {
+        return DB_VER_INTRODUCED;
+    }
+
+    // The unique index serves list lookups and makes inserts, which the content provider implements
+    // as replacements, idempotent. The page key index serves membership updates.
+    private void createIndices(@NonNull SQLiteDatabase db) {
+        db.execSQL(("CREATE UNIQUE INDEX IF NOT EXISTS :tbl_listKey_pageKey ON :tbl (:listKeyCol, :pageKeyCol)")
+                .replaceAll(":tbl", getTableName())
+                .replaceAll(":listKeyCol", MemberCol.LIST_KEY.getName())
+                .replaceAll(":pageKeyCol", MemberCol.PAGE_KEY.getName()));
+        db.execSQL(("CREATE INDEX IF NOT EXISTS :tbl_pageKey ON :tbl (:pageKeyCol)")
+                .replaceAll(":tbl", getTableName())
+                .replaceAll(":pageKeyCol", MemberCol.PAGE_KEY.getName()));
+    }
+
+    private void migrateListKeys(@NonNull SQLiteDatabase db) {
+        final String selection = null;
+        final String[] selectionArgs = null;
+        final String groupBy = null;
+        final String having = null;
+        final String orderBy = null;
+        Cursor cursor = db.query(ReadingListPageContract.TABLE_PAGE,
+                new String[] {PageCol.KEY.getName(), PageCol.LIST_KEYS.getName()},
+                selection, selectionArgs, groupBy, having, orderBy);
+        try {
+            while (cursor.moveToNext()) {
+                String pageKey = PageCol.KEY.val(cursor);
+                for (String listKey : PageCol.LIST_KEYS.val(cursor)) {
+                    final String nullColumnHack = null;
+                    db.insertWithOnConflict(getTableName(), nullColumnHack,
+                            toContentValues(new ReadingListPageMemberRow(pageKey, listKey)),
+                            SQLiteDatabase.CONFLICT_IGNORE);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -1,16 +1,45 @@
 package org.wikipedia.readinglist.page.database.disk;
 
+import android.content.ContentValues;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
 
 import org.wikipedia.database.async.AsyncColumns;
+import org.wikipedia.database.column.IntColumn;
+import org.wikipedia.database.column.LongColumn;
 
 public class DiskColumns<T> extends AsyncColumns<DiskStatus, T, DiskRow<T>> {
+    /** The number of consecutive failed transactions. */
+    @NonNull private final IntColumn failures;
+
+    /** The timestamp for the last failed transaction in milliseconds or
+     * {@link org.wikipedia.database.async.AsyncConstant#NO_TIMESTAMP} if the last transaction did
+     * not fail. */
+    @NonNull private final LongColumn failureTimestamp;
+
     public DiskColumns(@NonNull String tbl) {
         super(tbl, "disk", DiskStatus.CODE_ENUM);
+        failures = new IntColumn(tbl, "diskFailures", "integer not null default 0");
+        failureTimestamp = new LongColumn(tbl, "diskFailureTimestamp", "integer not null default 0");
+    }
+
+    @NonNull public IntColumn failures() {
+        return failures;
+    }
+
+    @NonNull public LongColumn failureTimestamp() {
+        return failureTimestamp;
+    }
+
+    @NonNull @Override public ContentValues toContentValues(@NonNull DiskRow<T> row) {
+        ContentValues values = super.toContentValues(row);
+        values.put(failures.getName(), row.failures());
+        values.put(failureTimestamp.getName(), row.failureTimestamp());
+        return values;
     }
 
     @NonNull @Override public DiskRow<T> val(@NonNull Cursor cursor) {
-        return new DiskRow<>(key(cursor), status(cursor), timestamp(cursor), transactionId(cursor));
+        return new DiskRow<>(key(cursor), status(cursor), timestamp(cursor), transactionId(cursor),
+                failures.val(cursor), failureTimestamp.val(cursor));
     }
 }
@@ -3,22 +3,60 @@ package org.wikipedia.readinglist.page.database.disk;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import org.wikipedia.database.async.AsyncConstant;
 import org.wikipedia.database.async.AsyncRow;
 
+import java.util.concurrent.TimeUnit;
+
 public class DiskRow<T> extends AsyncRow<DiskStatus, T> {
     private static final DiskStatus DEFAULT_STATUS = DiskStatus.ONLINE;
+    private static final long RETRY_BACKOFF_MIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int RETRY_BACKOFF_MAX_DOUBLINGS = 10;
+
+    private int failures;
+    private long failureTimestamp;
 
     public DiskRow(@NonNull String key, @Nullable T dat) {
         super(key, DEFAULT_STATUS, dat);
+        failureTimestamp = AsyncConstant.NO_TIMESTAMP;
     }
 
     public DiskRow(@NonNull DiskRow<T> diskRow, @Nullable T dat) {
         super(diskRow, dat);
+        failures = diskRow.failures;
+        failureTimestamp = diskRow.failureTimestamp;
     }
 
     public DiskRow(@NonNull String key, @NonNull DiskStatus status, long timestamp,
-                   long transactionId) {
+                   long transactionId, int failures, long failureTimestamp) {
         super(key, status, timestamp, transactionId);
+        this.failures = failures;
+        this.failureTimestamp = failureTimestamp;
+    }
+
+    /** @return The number of consecutive failed transactions. */
+    public int failures() {
+        return failures;
+    }
+
+    /** @return The timestamp of the last failed transaction in milliseconds or
+     * {@link AsyncConstant#NO_TIMESTAMP} if the last transaction did not fail. */
+    public long failureTimestamp() {
+        return failureTimestamp;
+    }
+
+    /** @return The earliest time in milliseconds at which a failed transaction should be retried.
+     * The delay doubles with each consecutive failure. */
+    public long retryTimestamp() {
+        if (failures == 0) {
+            return AsyncConstant.NO_TIMESTAMP;
+        }
+        return failureTimestamp
+                + (RETRY_BACKOFF_MIN_MILLIS << Math.min(failures - 1, RETRY_BACKOFF_MAX_DOUBLINGS));
+    }
+
+    public boolean retryable(long timestamp) {
+        return timestamp >= retryTimestamp();
     }
 
     @Override public boolean completable(@Nullable AsyncRow<DiskStatus, T> query) {
@@ -29,6 +67,14 @@ public class DiskRow<T> extends AsyncRow<DiskStatus, T> {
     @Override public void completeTransaction(long timestamp) {
         super.completeTransaction(timestamp);
         resetTransaction(next(status()));
+        failures = 0;
+        failureTimestamp = AsyncConstant.NO_TIMESTAMP;
+    }
+
+    @Override public void failTransaction() {
+        super.failTransaction();
+        failures++;
+        failureTimestamp = System.currentTimeMillis();
     }
 
     @NonNull private DiskStatus next(@NonNull DiskStatus current) {
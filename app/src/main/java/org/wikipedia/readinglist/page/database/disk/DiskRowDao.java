@@ -5,7 +5,9 @@ import android.support.annotation.NonNull;
 import org.wikipedia.database.DatabaseClient;
 import org.wikipedia.database.async.AsyncDao;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 public class DiskRowDao<Dat, Row extends DiskRow<Dat>> extends AsyncDao<DiskStatus, Dat, Row> {
     public DiskRowDao(@NonNull DatabaseClient<Row> client) {
@@ -13,51 +15,81 @@ public class DiskRowDao<Dat, Row extends DiskRow<Dat>> extends AsyncDao<DiskStat
     }
 
     public synchronized void markOnline(@NonNull Row row) {
-        Row query = queryPrimaryKey(row);
-        switch (query == null ? DiskStatus.SAVED : query.status()) {
-            case SAVED:
-            case OUTDATED:
-            case DELETED:
-                resetTransaction(row, DiskStatus.UNSAVED);
-                break;
-            case ONLINE:
-            case UNSAVED:
-                break;
-            default:
-                throw new RuntimeException("status=" + row.status());
+        markOnline(Collections.singletonList(row));
+    }
+
+    /** Marks all rows online. Changed rows are written in a single transaction. */
+    public synchronized void markOnline(@NonNull Collection<Row> rows) {
+        Collection<Row> reset = new ArrayList<>();
+        for (Row row : rows) {
+            Row query = queryPrimaryKey(row);
+            switch (query == null ? DiskStatus.SAVED : query.status()) {
+                case SAVED:
+                case OUTDATED:
+                case DELETED:
+                    row.resetTransaction(DiskStatus.UNSAVED);
+                    reset.add(row);
+                    break;
+                case ONLINE:
+                case UNSAVED:
+                    break;
+                default:
+                    throw new RuntimeException("status=" + row.status());
+            }
         }
+        upsert(reset);
     }
 
     public synchronized void markOutdated(@NonNull Row row) {
-        Row query = queryPrimaryKey(row);
-        switch (query == null ? DiskStatus.ONLINE : query.status()) {
-            case ONLINE:
-            case SAVED:
-            case UNSAVED:
-            case DELETED:
-                resetTransaction(row, DiskStatus.OUTDATED);
-                break;
-            case OUTDATED:
-                break;
-            default:
-                throw new RuntimeException("status=" + row.status());
+        markOutdated(Collections.singletonList(row));
+    }
+
+    /** Marks all rows outdated. Changed rows are written in a single transaction. */
+    public synchronized void markOutdated(@NonNull Collection<Row> rows) {
+        Collection<Row> reset = new ArrayList<>();
+        for (Row row : rows) {
+            Row query = queryPrimaryKey(row);
+            switch (query == null ? DiskStatus.ONLINE : query.status()) {
+                case ONLINE:
+                case SAVED:
+                case UNSAVED:
+                case DELETED:
+                    row.resetTransaction(DiskStatus.OUTDATED);
+                    reset.add(row);
+                    break;
+                case OUTDATED:
+                    break;
+                default:
+                    throw new RuntimeException("status=" + row.status());
+            }
         }
+        upsert(reset);
     }
 
     public synchronized void markDeleted(@NonNull Row row) {
-        Row query = queryPrimaryKey(row);
-        switch (query == null ? DiskStatus.DELETED : query.status()) {
-            case ONLINE:
-            case SAVED:
-            case OUTDATED:
-            case UNSAVED:
-                resetTransaction(row, DiskStatus.DELETED);
-                break;
-            case DELETED:
-                break;
-            default:
-                throw new RuntimeException("status=" + row.status());
+        markDeleted(Collections.singletonList(row));
+    }
+
+    /** Marks all rows deleted. Changed rows are written in a single transaction. */
+    public synchronized void markDeleted(@NonNull Collection<Row> rows) {
+        Collection<Row> reset = new ArrayList<>();
+        for (Row row : rows) {
+            Row query = queryPrimaryKey(row);
+            switch (query == null ? DiskStatus.DELETED : query.status()) {
+                case ONLINE:
+                case SAVED:
+                case OUTDATED:
+                case UNSAVED:
+                    row.resetTransaction(DiskStatus.DELETED);
+                    reset.add(row);
+                    break;
+                case DELETED:
+                    break;
+                default:
+                    throw new RuntimeException("status=" + row.status());
+            }
         }
+        upsert(reset);
     }
 
     @Override public synchronized boolean completeTransaction(@NonNull Row row, long timestamp) {
@@ -75,9 +107,6 @@ public class DiskRowDao<Dat, Row extends DiskRow<Dat>> extends AsyncDao<DiskStat
     @Override public synchronized void clear() {
         final String selection = null;
         final String[] selectionArgs = null;
-        Collection<Row> rows = query(selection, selectionArgs);
-        for (Row row : rows) {
-            delete(row);
-        }
+        delete(query(selection, selectionArgs));
     }
 }
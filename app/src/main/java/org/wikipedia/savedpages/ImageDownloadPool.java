@@ -0,0 +1,130 @@
+package org.wikipedia.savedpages;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wikipedia.dataclient.okhttp.HttpStatusException;
+import org.wikipedia.util.log.L;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Downloads saved page images concurrently. The number of requests in flight is bounded both
+ * overall and per host by a dedicated Dispatcher; the connection pool, cache, and interceptors are
+ * shared with the client supplied.
+ */
+class ImageDownloadPool {
+    @NonNull private final OkHttpClient client;
+
+    ImageDownloadPool(@NonNull OkHttpClient client, int maxRequests, int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        this.client = client.newBuilder().dispatcher(dispatcher).build();
+    }
+
+    /**
+     * Blocks until every request has completed. The first failure cancels all outstanding
+     * requests and is rethrown. Images missing from the server are skipped.
+     */
+    void download(@NonNull Collection<Request> requests) throws IOException {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        Batch batch = new Batch(requests.size());
+        for (Request request : requests) {
+            batch.enqueue(client.newCall(request));
+        }
+        batch.await();
+    }
+
+    void cancelAll() {
+        client.dispatcher().cancelAll();
+    }
+
+    private static class Batch implements Callback {
+        @NonNull private final List<Call> calls;
+        @NonNull private final CountDownLatch latch;
+        @Nullable private volatile IOException error;
+
+        Batch(int size) {
+            calls = new ArrayList<>(size);
+            latch = new CountDownLatch(size);
+        }
+
+        synchronized void enqueue(@NonNull Call call) {
+            if (error != null) {
+                latch.countDown();
+                return;
+            }
+            calls.add(call);
+            call.enqueue(this);
+        }
+
+        @Override public void onResponse(Call call, Response response) throws IOException {
+            try {
+                // Note: raw non-Retrofit usage of OkHttp Requests requires that the Response body
+                // is read for the cache to be written.
+                response.body().close();
+            } finally {
+                latch.countDown();
+            }
+        }
+
+        @Override public void onFailure(Call call, IOException e) {
+            if (isMissing(e)) {
+                // An image that no longer exists on the server should not fail the whole page.
+                L.w("Skipping missing image " + call.request().url(), e);
+                latch.countDown();
+                return;
+            }
+            synchronized (this) {
+                if (error == null) {
+                    error = e;
+                    cancel();
+                }
+            }
+            latch.countDown();
+        }
+
+        void await() throws IOException {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    cancel();
+                }
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private boolean isMissing(@NonNull IOException e) {
+            return e instanceof HttpStatusException
+                    && (((HttpStatusException) e).code() == HttpURLConnection.HTTP_NOT_FOUND
+                    || ((HttpStatusException) e).code() == HttpURLConnection.HTTP_GONE);
+        }
+
+        private void cancel() {
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+    }
+}
@@ -3,14 +3,11 @@ package org.wikipedia.savedpages;
 import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.wikipedia.dataclient.page.PageLead;
 import org.wikipedia.dataclient.page.PageRemaining;
 import org.wikipedia.html.ImageElement;
 import org.wikipedia.html.ImageTagParser;
+import org.wikipedia.html.ImageTagTokenizer;
 import org.wikipedia.html.ParseException;
 import org.wikipedia.html.PixelDensityDescriptorParser;
 import org.wikipedia.page.Section;
@@ -22,13 +19,11 @@ import java.util.Collections;
 import java.util.List;
 
 public class PageImageUrlParser {
-    @NonNull private final ImageTagParser imageParser;
-    @NonNull private final PixelDensityDescriptorParser descriptorParser;
+    @NonNull private final ImageTagTokenizer tokenizer;
 
     public PageImageUrlParser(@NonNull ImageTagParser imageParser,
                               @NonNull PixelDensityDescriptorParser descriptorParser) {
-        this.imageParser = imageParser;
-        this.descriptorParser = descriptorParser;
+        tokenizer = new ImageTagTokenizer(imageParser, descriptorParser);
     }
 
     @NonNull public List<String> parse(@NonNull PageLead lead) {
@@ -40,13 +35,24 @@ public class PageImageUrlParser {
     }
 
     @NonNull public List<String> parse(@NonNull List<Section> sections) {
-        return parse(toHtml(sections));
+        // Sections are tokenized individually to avoid concatenating the whole article.
+        final List<String> urls = new ArrayList<>();
+        ImageTagTokenizer.Callback callback = new ImageTagTokenizer.Callback() {
+            @Override public void onImage(@NonNull ImageElement img) {
+                urls.addAll(imageElementToUrls(img));
+            }
+        };
+        for (Section section : sections) {
+            try {
+                tokenizer.tokenize(section.getContent(), callback);
+            } catch (ParseException ignore) { }
+        }
+        return Collections.unmodifiableList(urls);
     }
 
     @NonNull public List<String> parse(@NonNull String html) {
-        Document doc = Jsoup.parseBodyFragment(html);
         try {
-            return imageElementsToUrls(querySelectorAllImage(doc));
+            return imageElementsToUrls(tokenizer.tokenize(html));
         } catch (ParseException ignore) { }
         return Collections.emptyList();
     }
@@ -75,27 +81,6 @@ public class PageImageUrlParser {
         return lead.getLeadSectionContent();
     }
 
-    @NonNull private String toHtml(@NonNull List<Section> sections) {
-        StringBuilder html = new StringBuilder();
-        for (Section section : sections) {
-            html.append(section.getContent());
-        }
-        return html.toString();
-    }
-
-    @NonNull private List<ImageElement> querySelectorAllImage(@NonNull Document doc) {
-        List<ImageElement> imgs = new ArrayList<>();
-
-        Elements elements = doc.getElementsByTag(imageParser.tagName());
-        for (Element el : elements) {
-            try {
-                imgs.add(imageParser.parse(descriptorParser, el));
-            } catch (ParseException ignore) { }
-        }
-
-        return Collections.unmodifiableList(imgs);
-    }
-
     @NonNull private List<String> imageElementsToUrls(@NonNull List<ImageElement> imgs) {
         List<String> urls = new ArrayList<>(imgs.size());
         for (ImageElement img : imgs) {
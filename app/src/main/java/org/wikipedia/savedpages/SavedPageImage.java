@@ -0,0 +1,26 @@
+package org.wikipedia.savedpages;
+
+import android.support.annotation.NonNull;
+
+import org.wikipedia.model.BaseModel;
+
+/** A reference from a saved reading list page to an image in the save cache. */
+public class SavedPageImage extends BaseModel {
+    public static final SavedPageImageDatabaseTable DATABASE_TABLE = new SavedPageImageDatabaseTable();
+
+    @NonNull private final String pageKey;
+    @NonNull private final String url;
+
+    public SavedPageImage(@NonNull String pageKey, @NonNull String url) {
+        this.pageKey = pageKey;
+        this.url = url;
+    }
+
+    @NonNull public String pageKey() {
+        return pageKey;
+    }
+
+    @NonNull public String url() {
+        return url;
+    }
+}
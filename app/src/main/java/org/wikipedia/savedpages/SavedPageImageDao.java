@@ -0,0 +1,111 @@
+package org.wikipedia.savedpages;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.database.BaseDao;
+import org.wikipedia.database.contract.SavedPageImageContract;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A reference counted index of the images in the save cache used by each saved page. Pages are
+ * saved concurrently, so images are evicted under the same lock under which pages reserve them.
+ */
+public final class SavedPageImageDao extends BaseDao<SavedPageImage> {
+    public interface Evictor {
+        /** Removes images from the save cache. Called with the DAO locked. */
+        void evict(@NonNull Collection<String> urls);
+    }
+
+    private static final SavedPageImageDao INSTANCE = new SavedPageImageDao();
+
+    public static SavedPageImageDao instance() {
+        return INSTANCE;
+    }
+
+    public synchronized boolean hasPage(@NonNull String pageKey) {
+        Cursor cursor = client().select(Sql.SELECT_ROWS_WITH_PAGE_KEY, new String[] {pageKey}, null);
+        try {
+            return cursor.getCount() > 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Adds images to those referenced by a page so that removing another page doesn't evict them.
+     * Must be called before checking whether the images of a page being saved are cached.
+     */
+    public synchronized void reservePage(@NonNull String pageKey, @NonNull Collection<String> urls) {
+        upsert(rows(pageKey, urls));
+    }
+
+    /**
+     * Replaces the images referenced by a page and evicts those it referenced that are no longer
+     * referenced by any page.
+     */
+    public synchronized void upsertPage(@NonNull String pageKey, @NonNull Collection<String> urls,
+                                        @NonNull Evictor evictor) {
+        Collection<String> orphans = queryOrphans(pageKey);
+        orphans.removeAll(urls);
+        deleteRowsWithPageKey(pageKey);
+        upsert(rows(pageKey, urls));
+        evictor.evict(orphans);
+    }
+
+    /** Removes all images referenced by a page and evicts those no longer referenced by any page. */
+    public synchronized void deletePage(@NonNull String pageKey, @NonNull Evictor evictor) {
+        Collection<String> orphans = queryOrphans(pageKey);
+        deleteRowsWithPageKey(pageKey);
+        evictor.evict(orphans);
+    }
+
+    @NonNull private static Collection<SavedPageImage> rows(@NonNull String pageKey,
+                                                            @NonNull Collection<String> urls) {
+        Collection<SavedPageImage> rows = new ArrayList<>();
+        for (String url : new HashSet<>(urls)) {
+            rows.add(new SavedPageImage(pageKey, url));
+        }
+        return rows;
+    }
+
+    @NonNull private Set<String> queryOrphans(@NonNull String pageKey) {
+        Cursor cursor = client().select(Sql.SELECT_ORPHANS, new String[] {pageKey, pageKey}, null);
+        Set<String> urls = new HashSet<>();
+        try {
+            while (cursor.moveToNext()) {
+                urls.add(SavedPageImageContract.Col.URL.val(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        return urls;
+    }
+
+    private void deleteRowsWithPageKey(@NonNull String pageKey) {
+        client().deleteWhere(Sql.SELECT_ROWS_WITH_PAGE_KEY, new String[] {pageKey});
+    }
+
+    private SavedPageImageDao() {
+        super(WikipediaApp.getInstance().getDatabaseClient(SavedPageImage.class));
+    }
+
+    private static class Sql {
+        private static final String SELECT_ROWS_WITH_PAGE_KEY = ":pageKeyCol == ?"
+                .replaceAll(":pageKeyCol", SavedPageImageContract.Col.PAGE_KEY.qualifiedName());
+
+        // Rows of the page whose URL is not referenced by any other page.
+        private static final String SELECT_ORPHANS = (":pageKeyCol == ? and not exists (select 1 from :tbl as other"
+                + " where other.:urlName == :urlCol and other.:pageKeyName != ?)")
+                .replaceAll(":pageKeyCol", SavedPageImageContract.Col.PAGE_KEY.qualifiedName())
+                .replaceAll(":urlCol", SavedPageImageContract.Col.URL.qualifiedName())
+                .replaceAll(":pageKeyName", SavedPageImageContract.Col.PAGE_KEY.getName())
+                .replaceAll(":urlName", SavedPageImageContract.Col.URL.getName())
+                .replaceAll(":tbl", SavedPageImageContract.TABLE);
+    }
+}
@@ -0,0 +1,73 @@
+package org.wikipedia.savedpages;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+
+import org.wikipedia.database.DatabaseTable;
+import org.wikipedia.database.column.Column;
+import org.wikipedia.database.contract.SavedPageImageContract;
+import org.wikipedia.database.contract.SavedPageImageContract.Col;
+
+/** Maps saved reading list pages to the images they reference in the save cache. An image's
+ * reference count is the number of rows with its URL. */
+public class SavedPageImageDatabaseTable extends DatabaseTable<SavedPageImage> {
+    private static final int DB_VER_INTRODUCED = 18;
+
+    SavedPageImageDatabaseTable() {
+        super(SavedPageImageContract.TABLE, SavedPageImageContract.Image.URI);
+    }
+
+    @Override public SavedPageImage fromCursor(@NonNull Cursor cursor) {
+        return new SavedPageImage(Col.PAGE_KEY.val(cursor), Col.URL.val(cursor));
+    }
+
+    @NonNull @Override public Column<?>[] getColumnsAdded(int version) {
+        switch (version) {
+            case DB_VER_INTRODUCED:
+                return new Column<?>[] {Col.ID, Col.PAGE_KEY, Col.URL};
+            default:
+                return super.getColumnsAdded(version);
+        }
+    }
+
+    @Override public void upgradeSchema(@NonNull SQLiteDatabase db, int fromVersion, int toVersion) {
+        super.upgradeSchema(db, fromVersion, toVersion);
+        if (fromVersion < DB_VER_INTRODUCED && toVersion >= DB_VER_INTRODUCED) {
+            createIndices(db);
+        }
+    }
+
+    @Override protected ContentValues toContentValues(@NonNull SavedPageImage row) {
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(Col.PAGE_KEY.getName(), row.pageKey());
+        contentValues.put(Col.URL.getName(), row.url());
+        return contentValues;
+    }
+
+    @Override protected String getPrimaryKeySelection(@NonNull SavedPageImage row,
+                                                      @NonNull String[] selectionArgs) {
+        return super.getPrimaryKeySelection(row, Col.SELECTION);
+    }
+
+    @Override protected String[] getUnfilteredPrimaryKeySelectionArgs(@NonNull SavedPageImage row) {
+        return new String[] {row.pageKey(), row.url()};
+    }
+
+    @Override protected int getDBVersionIntroducedAt() {
+        return DB_VER_INTRODUCED;
+    }
+
+    // The unique index makes inserts, which the content provider implements as replacements,
+    // idempotent. The URL index serves reference counting.
+    private void createIndices(@NonNull SQLiteDatabase db) {
+        db.execSQL(("CREATE UNIQUE INDEX IF NOT EXISTS :tbl_pageKey_url ON :tbl (:pageKeyCol, :urlCol)")
+                .replaceAll(":tbl", getTableName())
+                .replaceAll(":pageKeyCol", Col.PAGE_KEY.getName())
+                .replaceAll(":urlCol", Col.URL.getName()));
+        db.execSQL(("CREATE INDEX IF NOT EXISTS :tbl_url ON :tbl (:urlCol)")
+                .replaceAll(":tbl", getTableName())
+                .replaceAll(":urlCol", Col.URL.getName()));
+    }
+}
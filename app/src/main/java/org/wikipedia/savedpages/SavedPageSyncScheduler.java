@@ -0,0 +1,196 @@
+package org.wikipedia.savedpages;
+
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.format.DateUtils;
+
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.settings.Prefs;
+import org.wikipedia.util.DeviceUtil;
+import org.wikipedia.util.log.L;
+
+/**
+ * Coalesces requests to sync saved pages into as few passes of {@link SavedPageSyncService} as
+ * possible. Requests are debounced over a short window, bounded by a maximum delay, and passes are
+ * deferred until the device is online and, if the developer preferences ask for it, on an unmetered
+ * network and charging. At most one pass runs at a time; requests made during a pass are served by
+ * a single pass after it.
+ */
+public final class SavedPageSyncScheduler {
+    @VisibleForTesting interface ServiceStarter {
+        @Nullable ComponentName start(@NonNull Context context, @NonNull Intent intent);
+    }
+
+    @VisibleForTesting static final long DEBOUNCE_MILLIS = DateUtils.SECOND_IN_MILLIS;
+    @VisibleForTesting static final long MAX_DELAY_MILLIS = DateUtils.SECOND_IN_MILLIS * 10;
+    // A pass that hasn't finished by now is assumed to have been killed with its process.
+    @VisibleForTesting static final long PASS_TIMEOUT_MILLIS = DateUtils.MINUTE_IN_MILLIS * 30;
+    @VisibleForTesting static final long RETRY_MILLIS = DateUtils.SECOND_IN_MILLIS * 30;
+
+    private static final SavedPageSyncScheduler INSTANCE = new SavedPageSyncScheduler();
+
+    @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+    @NonNull private final Runnable syncRunnable = new Runnable() {
+        @Override public void run() {
+            sync();
+        }
+    };
+    @NonNull private final Runnable timeoutRunnable = new Runnable() {
+        @Override public void run() {
+            L.w("Saved page sync pass timed out");
+            onSyncFinished();
+        }
+    };
+    @NonNull private final ServiceStarter starter;
+    @Nullable private BroadcastReceiver constraintReceiver;
+
+    // The time of the first request of the current window, or zero if none is pending.
+    private long windowStartMillis;
+    private boolean running;
+    private boolean requestedWhileRunning;
+
+    private int requestCount;
+    private int passCount;
+
+    public static SavedPageSyncScheduler instance() {
+        return INSTANCE;
+    }
+
+    @VisibleForTesting SavedPageSyncScheduler() {
+        this(new ServiceStarter() {
+            @Nullable @Override public ComponentName start(@NonNull Context context, @NonNull Intent intent) {
+                return context.startService(intent);
+            }
+        });
+    }
+
+    @VisibleForTesting SavedPageSyncScheduler(@NonNull ServiceStarter starter) {
+        this.starter = starter;
+    }
+
+    /** Requests a sync pass. May be called from any thread. */
+    public synchronized void request() {
+        requestCount++;
+        if (running) {
+            requestedWhileRunning = true;
+            return;
+        }
+        schedule();
+    }
+
+    /** Called by the service when a pass finishes, whether requested here or not. */
+    public synchronized void onSyncFinished() {
+        handler.removeCallbacks(timeoutRunnable);
+        running = false;
+        if (requestedWhileRunning) {
+            requestedWhileRunning = false;
+            schedule();
+        }
+    }
+
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized int getPassCount() {
+        return passCount;
+    }
+
+    /** @return The number of requests served by a pass made for another request. */
+    public synchronized int getPassesAvoided() {
+        return Math.max(0, requestCount - passCount);
+    }
+
+    @VisibleForTesting synchronized boolean isRunning() {
+        return running;
+    }
+
+    private void schedule() {
+        long now = SystemClock.elapsedRealtime();
+        if (windowStartMillis == 0) {
+            windowStartMillis = now;
+        }
+        long delay = Math.min(DEBOUNCE_MILLIS, windowStartMillis + MAX_DELAY_MILLIS - now);
+        handler.removeCallbacks(syncRunnable);
+        handler.postDelayed(syncRunnable, Math.max(0, delay));
+    }
+
+    private synchronized void sync() {
+        Context context = WikipediaApp.getInstance();
+        if (running) {
+            requestedWhileRunning = true;
+            return;
+        }
+        if (!constraintsMet(context)) {
+            waitForConstraints(context);
+            return;
+        }
+
+        // A pass that fails to start is retried rather than dropped. Requests meanwhile are
+        // coalesced into the retry.
+        try {
+            if (starter.start(context, new Intent(context, SavedPageSyncService.class)) == null) {
+                L.w("Saved page sync service not found");
+                retry();
+                return;
+            }
+        } catch (RuntimeException e) {
+            L.w("Failed to start saved page sync", e);
+            retry();
+            return;
+        }
+        windowStartMillis = 0;
+        running = true;
+        passCount++;
+        handler.postDelayed(timeoutRunnable, PASS_TIMEOUT_MILLIS);
+    }
+
+    private void retry() {
+        handler.removeCallbacks(syncRunnable);
+        handler.postDelayed(syncRunnable, RETRY_MILLIS);
+    }
+
+    private boolean constraintsMet(@NonNull Context context) {
+        return DeviceUtil.isOnline(context)
+                && !(Prefs.isSavedPageSyncUnmeteredOnly() && DeviceUtil.isNetworkMetered(context))
+                && !(Prefs.isSavedPageSyncChargingOnly() && !isCharging(context));
+    }
+
+    private boolean isCharging(@NonNull Context context) {
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        return battery != null && battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+
+    // Retries the pending pass on connectivity and power changes. Requests meanwhile are coalesced
+    // into the pending pass.
+    private void waitForConstraints(@NonNull Context context) {
+        if (constraintReceiver != null) {
+            return;
+        }
+        constraintReceiver = new BroadcastReceiver() {
+            @Override public void onReceive(Context context, Intent intent) {
+                synchronized (SavedPageSyncScheduler.this) {
+                    if (constraintReceiver != null && constraintsMet(context)) {
+                        WikipediaApp.getInstance().unregisterReceiver(constraintReceiver);
+                        constraintReceiver = null;
+                        sync();
+                    }
+                }
+            }
+        };
+        IntentFilter filter = new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION);
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+        context.registerReceiver(constraintReceiver, filter);
+    }
+}
@@ -1,12 +1,17 @@
 package org.wikipedia.savedpages;
 
+import android.app.AlarmManager;
 import android.app.IntentService;
+import android.app.PendingIntent;
+import android.content.Context;
 import android.content.Intent;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.wikipedia.WikipediaApp;
+import org.wikipedia.database.SearchIndexDao;
+import org.wikipedia.database.async.AsyncConstant;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory;
 import org.wikipedia.dataclient.okhttp.cache.SaveHeader;
@@ -17,18 +22,30 @@ import org.wikipedia.dataclient.page.PageRemaining;
 import org.wikipedia.html.ImageTagParser;
 import org.wikipedia.html.PixelDensityDescriptorParser;
 import org.wikipedia.page.PageTitle;
+import org.wikipedia.page.Section;
 import org.wikipedia.readinglist.page.ReadingListPageRow;
 import org.wikipedia.readinglist.page.database.ReadingListPageDao;
 import org.wikipedia.readinglist.page.database.disk.ReadingListPageDiskRow;
 import org.wikipedia.util.DeviceUtil;
 import org.wikipedia.util.DimenUtil;
+import org.wikipedia.util.StringUtil;
 import org.wikipedia.util.UriUtil;
 import org.wikipedia.util.log.L;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import okhttp3.CacheControl;
 import okhttp3.CacheDelegate;
@@ -38,10 +55,24 @@ import retrofit2.Call;
 import static org.wikipedia.dataclient.okhttp.OkHttpConnectionFactory.SAVE_CACHE;
 
 public class SavedPageSyncService extends IntentService {
+    // Pages whose lead and sections are requested concurrently.
+    private static final int MAX_CONCURRENT_PAGES = 4;
+    // Image downloads in flight across all pages being saved.
+    private static final int MAX_CONCURRENT_IMAGES = 8;
+    private static final int MAX_CONCURRENT_IMAGES_PER_HOST = 4;
+
     @NonNull private ReadingListPageDao dao;
     @NonNull private final CacheDelegate cacheDelegate = new CacheDelegate(SAVE_CACHE);
+    @NonNull private final SavedPageImageDao imageDao = SavedPageImageDao.instance();
     @NonNull private final PageImageUrlParser pageImageUrlParser
             = new PageImageUrlParser(new ImageTagParser(), new PixelDensityDescriptorParser());
+    @NonNull private final ImageDownloadPool imagePool = new ImageDownloadPool(OkHttpConnectionFactory.getClient(),
+            MAX_CONCURRENT_IMAGES, MAX_CONCURRENT_IMAGES_PER_HOST);
+    @NonNull private final SavedPageImageDao.Evictor imageEvictor = new SavedPageImageDao.Evictor() {
+        @Override public void evict(@NonNull Collection<String> urls) {
+            removeImages(urls);
+        }
+    };
 
     public SavedPageSyncService() {
         super("SavedPageSyncService");
@@ -49,6 +80,14 @@ public class SavedPageSyncService extends IntentService {
     }
 
     @Override protected void onHandleIntent(@Nullable Intent intent) {
+        try {
+            sync();
+        } finally {
+            SavedPageSyncScheduler.instance().onSyncFinished();
+        }
+    }
+
+    private void sync() {
         // todo: allow deletes while offline
         if (!DeviceUtil.isOnline(this)) {
             L.i("Device is offline; aborting sync service");
@@ -78,51 +117,111 @@ public class SavedPageSyncService extends IntentService {
             }
         }
         saveNewEntries(queue);
+        scheduleRetry(dao.nextDiskRetryTimestamp());
     }
 
     private void deleteRow(@NonNull ReadingListPageDiskRow row) {
-        ReadingListPageRow dat = row.dat();
         PageTitle pageTitle = makeTitleFrom(row);
-        if (dat != null && pageTitle != null) {
-            PageLead lead = null;
-            Call<PageLead> leadCall = reqPageLead(CacheControl.FORCE_CACHE, pageTitle);
-            try {
-                lead = leadCall.execute().body();
-            } catch (IOException ignore) { }
-
-            if (lead != null) {
-                for (String url : pageImageUrlParser.parse(lead)) {
-                    cacheDelegate.remove(saveImageReq(pageTitle.getWikiSite(), url));
-                }
-                cacheDelegate.remove(leadCall.request());
+        if (imageDao.hasPage(row.key())) {
+            // Shared images are only evicted once no other saved page references them.
+            imageDao.deletePage(row.key(), imageEvictor);
+            if (pageTitle != null) {
+                cacheDelegate.remove(reqPageLead(CacheControl.FORCE_CACHE, pageTitle).request());
+                cacheDelegate.remove(reqPageSections(CacheControl.FORCE_CACHE, pageTitle).request());
             }
+        } else if (pageTitle != null) {
+            deleteUnindexedPage(pageTitle);
+        }
+        SearchIndexDao.instance().putPageBody(row.key(), null);
+        dao.completeDiskTransaction(row);
+    }
 
-            Call<PageRemaining> sectionsCall = reqPageSections(CacheControl.FORCE_CACHE, pageTitle);
-            PageRemaining sections = null;
-            try {
-                sections = sectionsCall.execute().body();
-            } catch (IOException ignore) { }
+    // Pages saved before the image index was introduced must be parsed to find their images.
+    private void deleteUnindexedPage(@NonNull PageTitle pageTitle) {
+        PageLead lead = null;
+        Call<PageLead> leadCall = reqPageLead(CacheControl.FORCE_CACHE, pageTitle);
+        try {
+            lead = leadCall.execute().body();
+        } catch (IOException ignore) { }
 
-            if (sections != null) {
-                for (String url : pageImageUrlParser.parse(sections)) {
-                    cacheDelegate.remove(saveImageReq(pageTitle.getWikiSite(), url));
-                }
-                cacheDelegate.remove(sectionsCall.request());
+        if (lead != null) {
+            for (String url : pageImageUrlParser.parse(lead)) {
+                cacheDelegate.remove(saveImageReq(pageTitle.getWikiSite(), url));
             }
+            cacheDelegate.remove(leadCall.request());
+        }
+
+        Call<PageRemaining> sectionsCall = reqPageSections(CacheControl.FORCE_CACHE, pageTitle);
+        PageRemaining sections = null;
+        try {
+            sections = sectionsCall.execute().body();
+        } catch (IOException ignore) { }
+
+        if (sections != null) {
+            for (String url : pageImageUrlParser.parse(sections)) {
+                cacheDelegate.remove(saveImageReq(pageTitle.getWikiSite(), url));
+            }
+            cacheDelegate.remove(sectionsCall.request());
         }
-        dao.completeDiskTransaction(row);
     }
 
     private void saveNewEntries(List<ReadingListPageDiskRow> queue) {
-        while (!queue.isEmpty()) {
-            ReadingListPageDiskRow row = queue.get(0);
-            boolean ok = savePageFor(row);
-            if (!ok) {
-                dao.failDiskTransaction(queue);
-                break;
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(queue.size(), MAX_CONCURRENT_PAGES));
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<Boolean>, ReadingListPageDiskRow> pending = new HashMap<>();
+        try {
+            for (final ReadingListPageDiskRow row : queue) {
+                pending.put(completionService.submit(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        return savePageFor(row);
+                    }
+                }), row);
             }
-            dao.completeDiskTransaction(row);
-            queue.remove(row);
+
+            while (!pending.isEmpty()) {
+                Future<Boolean> future = completionService.take();
+                ReadingListPageDiskRow row = pending.remove(future);
+                // Rows are committed as they finish so that progress survives an aborted sync. A
+                // failure only affects its own row which is retried later with backoff.
+                if (isSaved(future)) {
+                    dao.completeDiskTransaction(row);
+                } else {
+                    dao.failDiskTransaction(row);
+                }
+            }
+        } catch (InterruptedException e) {
+            L.w("Interrupted while saving pages", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            imagePool.cancelAll();
+            if (!pending.isEmpty()) {
+                dao.failDiskTransaction(pending.values());
+            }
+        }
+    }
+
+    private void scheduleRetry(long timestamp) {
+        if (timestamp == AsyncConstant.NO_TIMESTAMP) {
+            return;
+        }
+        Intent intent = new Intent(this, SavedPageSyncService.class);
+        PendingIntent pendingIntent = PendingIntent.getService(this, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT);
+        AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
+        alarmManager.set(AlarmManager.RTC, timestamp, pendingIntent);
+    }
+
+    private boolean isSaved(@NonNull Future<Boolean> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            L.e(e.getCause());
+            return false;
         }
     }
 
@@ -136,8 +235,11 @@ public class SavedPageSyncService extends IntentService {
         ImmutablePair<PageLead, PageRemaining> page;
         try {
             page = reqPage(null, pageTitle);
-            reqSaveImage(pageTitle.getWikiSite(), pageImageUrlParser.parse(page.getLeft()));
-            reqSaveImage(pageTitle.getWikiSite(), pageImageUrlParser.parse(page.getRight()));
+            List<String> urls = new ArrayList<>(pageImageUrlParser.parse(page.getLeft()));
+            urls.addAll(pageImageUrlParser.parse(page.getRight()));
+            Collection<String> savedUrls = reqSaveImage(pageTitle.getWikiSite(), row.key(), urls);
+            imageDao.upsertPage(row.key(), savedUrls, imageEvictor);
+            SearchIndexDao.instance().putPageBody(row.key(), pageText(page.getLeft(), page.getRight()));
         } catch (IOException e) {
             L.e("Failed to save page " + title, e);
             return false;
@@ -146,6 +248,17 @@ public class SavedPageSyncService extends IntentService {
         return true;
     }
 
+    /** @return The plain text of the page for the search index. */
+    @NonNull private String pageText(@NonNull PageLead lead, @NonNull PageRemaining sections) {
+        // Sections are converted individually to avoid concatenating the whole article's HTML.
+        StringBuilder text = new StringBuilder(StringUtil.fromHtml(lead.getLeadSectionContent()));
+        for (Section section : sections.sections()) {
+            text.append('\n').append(section.getHeading())
+                    .append('\n').append(StringUtil.fromHtml(section.getContent()));
+        }
+        return text.toString();
+    }
+
     @NonNull private ImmutablePair<PageLead, PageRemaining> reqPage(@Nullable CacheControl cacheControl,
                                                                     @NonNull PageTitle pageTitle) throws IOException {
         PageLead lead = reqPageLead(cacheControl, pageTitle).execute().body();
@@ -176,18 +289,37 @@ public class SavedPageSyncService extends IntentService {
         return client.sections(cacheControl, cacheOption, title, noImages);
     }
 
-    private void reqSaveImage(@NonNull WikiSite wiki, @NonNull List<String> urls) throws IOException {
+    /** @return The absolute URLs of all images referenced by the page. */
+    @NonNull private Collection<String> reqSaveImage(@NonNull WikiSite wiki, @NonNull String pageKey,
+                                                     @NonNull List<String> urls) throws IOException {
+        // Pages commonly reference the same image more than once (e.g., icons and flags).
+        Map<String, Request> requests = new LinkedHashMap<>();
         for (String url : urls) {
-            reqSaveImage(wiki, url);
+            Request request = saveImageReq(wiki, url);
+            String key = request.url().toString();
+            if (!requests.containsKey(key)) {
+                requests.put(key, request);
+            }
         }
-    }
 
-    private void reqSaveImage(@NonNull WikiSite wiki, @NonNull String url) throws IOException {
-        Request request = saveImageReq(wiki, url);
+        // Images already in the save cache were downloaded by an earlier, possibly interrupted,
+        // attempt or by another saved page. They're reserved first so that another page being
+        // deleted or saved concurrently can't evict them after they're found cached.
+        imageDao.reservePage(pageKey, requests.keySet());
+        List<Request> uncached = new ArrayList<>();
+        for (Map.Entry<String, Request> entry : requests.entrySet()) {
+            if (!cacheDelegate.isCached(entry.getKey())) {
+                uncached.add(entry.getValue());
+            }
+        }
+        imagePool.download(uncached);
+        return requests.keySet();
+    }
 
-        // Note: raw non-Retrofit usage of OkHttp Requests requires that the Response body is read
-        // for the cache to be written.
-        OkHttpConnectionFactory.getClient().newCall(request).execute().body().close();
+    private void removeImages(@NonNull Collection<String> urls) {
+        for (String url : urls) {
+            cacheDelegate.remove(new Request.Builder().url(url).build());
+        }
     }
 
     @NonNull private Request saveImageReq(@NonNull WikiSite wiki, @NonNull String url) {
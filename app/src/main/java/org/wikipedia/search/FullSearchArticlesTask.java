@@ -1,149 +1,91 @@
 package org.wikipedia.search;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.ApiException;
-import org.mediawiki.api.json.ApiResult;
-import org.mediawiki.api.json.RequestBuilder;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
 import org.wikipedia.Constants;
-import org.wikipedia.dataclient.ApiTask;
+import org.wikipedia.concurrency.SaneAsyncTask;
 import org.wikipedia.dataclient.WikiSite;
-import org.wikipedia.page.PageProperties;
-import org.wikipedia.page.PageTitle;
+import org.wikipedia.dataclient.mwapi.MwException;
+import org.wikipedia.dataclient.retrofit.MwCachedService;
+import org.wikipedia.dataclient.retrofit.RetrofitException;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
 
-public class FullSearchArticlesTask extends ApiTask<SearchResults> {
-    private final WikiSite wiki;
-    private final String searchTerm;
-    private final int maxResults;
-    private final FTContinueOffset continueOffset;
-    private final boolean getMoreLike;
+/**
+ * Searches the text of articles. The response is parsed by Gson as it is read, on the task's
+ * background thread.
+ */
+public class FullSearchArticlesTask extends SaneAsyncTask<SearchResults> {
+    @NonNull private static final MwCachedService<Service> CACHED_SERVICE = new MwCachedService<>(Service.class);
 
-    public FullSearchArticlesTask(Api api, WikiSite wiki, String searchTerm, int maxResults,
-                                  SearchResults.ContinueOffset continueOffset,
+    @NonNull private final WikiSite wiki;
+    @NonNull private final Call<SearchQuery.Response> call;
+
+    public FullSearchArticlesTask(@NonNull WikiSite wiki, @NonNull String searchTerm, int maxResults,
+                                  @Nullable SearchResults.ContinueOffset continueOffset,
                                   boolean getMoreLike) {
-        super(api);
+        this(CACHED_SERVICE.service(wiki), wiki, searchTerm, maxResults, continueOffset, getMoreLike);
+    }
+
+    @VisibleForTesting FullSearchArticlesTask(@NonNull Service service, @NonNull WikiSite wiki,
+                                              @NonNull String searchTerm, int maxResults,
+                                              @Nullable SearchResults.ContinueOffset continueOffset,
+                                              boolean getMoreLike) {
         this.wiki = wiki;
-        this.searchTerm = searchTerm;
-        this.maxResults = maxResults;
-        this.continueOffset = (FTContinueOffset) continueOffset;
-        this.getMoreLike = getMoreLike;
+        FTContinueOffset offset = (FTContinueOffset) continueOffset;
+        call = service.search(getMoreLike ? ("morelike:" + searchTerm) : searchTerm, maxResults,
+                maxResults,
+                // add empty continue to avoid the API warning
+                offset != null ? offset.cont : "",
+                offset != null && offset.gsroffset > 0 ? offset.gsroffset : null);
     }
 
     @Override
-    public RequestBuilder buildRequest(Api api) {
-        final String maxResultsString = Integer.toString(maxResults);
-        final RequestBuilder req = api.action("query")
-                .param("prop", "pageterms|pageimages|pageprops")
-                .param("ppprop", "mainpage|disambiguation")
-                .param("wbptterms", "description") // only interested in Wikidata description
-                .param("generator", "search")
-                .param("gsrsearch", getMoreLike ? ("morelike:" + searchTerm) : searchTerm)
-                .param("gsrnamespace", "0")
-                .param("gsrwhat", "text")
-                .param("gsrinfo", "")
-                .param("gsrprop", "redirecttitle")
-                .param("gsrlimit", maxResultsString)
-                .param("piprop", "thumbnail") // for thumbnail URLs
-                .param("pilicense", "any")
-                .param("pithumbsize", Integer.toString(Constants.PREFERRED_THUMB_SIZE))
-                .param("pilimit", maxResultsString);
-        if (continueOffset != null) {
-            req.param("continue", continueOffset.cont);
-            if (continueOffset.gsroffset > 0) {
-                req.param("gsroffset", Integer.toString(continueOffset.gsroffset));
-            }
-        } else {
-            req.param("continue", ""); // add empty continue to avoid the API warning
+    public SearchResults performTask() throws Throwable {
+        Response<SearchQuery.Response> rsp = call.execute();
+        if (!rsp.isSuccessful()) {
+            throw RetrofitException.httpError(rsp);
         }
-        return req;
+        return results(rsp.body(), wiki);
     }
 
     @Override
-    public SearchResults processResult(final ApiResult result) throws Throwable {
-        JSONObject data;
-        try {
-            data = result.asObject();
-        } catch (ApiException e) {
-            if (e.getCause() instanceof JSONException) {
-                // the only reason for a JSONException is if the response is an empty array.
-                return new SearchResults();
-            } else {
-                throw e;
-            }
-        }
+    public void cancel() {
+        call.cancel();
+        super.cancel();
+    }
 
-        FTContinueOffset nextContinueOffset = null;
-        final JSONObject continueData = data.optJSONObject("continue");
-        if (continueData != null) {
-            String continueString = continueData.optString("continue", null);
-            Integer gsroffset = continueData.optInt("gsroffset");
-            nextContinueOffset = new FTContinueOffset(continueString, gsroffset);
+    @VisibleForTesting @NonNull static SearchResults results(@NonNull SearchQuery.Response response,
+                                                             @NonNull WikiSite wiki) {
+        if (response.hasError()) {
+            //noinspection ConstantConditions
+            throw new MwException(response.getError());
         }
 
-        JSONObject queryResult = data.optJSONObject("query");
-        if (queryResult == null) {
-            return new SearchResults();
+        FTContinueOffset nextContinueOffset = null;
+        Map<String, String> continuation = response.continuation();
+        if (continuation != null) {
+            nextContinueOffset = new FTContinueOffset(continuation.get("continue"),
+                    continuation.containsKey("gsroffset") ? Integer.parseInt(continuation.get("gsroffset")) : 0);
         }
 
-        JSONObject pages = queryResult.optJSONObject("pages");
-        if (pages == null) {
+        SearchQuery query = response.query();
+        List<SearchResult> results = query != null ? query.results(wiki) : null;
+        if (results == null || results.isEmpty()) {
             return new SearchResults();
         }
-
-        // The search results arrive unordered, but they do have an "index" property, which we'll
-        // use to sort the results ourselves.
-        // First, put all the page objects into an array
-        JSONObject[] pageArray = new JSONObject[pages.length()];
-        int pageIndex = 0;
-        Iterator<String> pageIter = pages.keys();
-        while (pageIter.hasNext()) {
-            pageArray[pageIndex++] = (JSONObject)pages.get(pageIter.next());
-        }
-        // now sort the array based on the "index" property
-        Arrays.sort(pageArray, new Comparator<JSONObject>() {
-            @Override
-            public int compare(JSONObject lhs, JSONObject rhs) {
-                int ret = 0;
-                try {
-                    ret = ((Integer) lhs.getInt("index")).compareTo(rhs.getInt("index"));
-                } catch (JSONException e) {
-                    //doesn't matter
-                }
-                return ret;
-            }
-        });
-        // and create our list of results from the now-sorted array
-        List<SearchResult> resultList = new ArrayList<>();
-        for (JSONObject item : pageArray) {
-            String thumbUrl = null;
-            if (item.has("thumbnail")) {
-                thumbUrl = item.getJSONObject("thumbnail").optString("source", null);
-            }
-            String description = null;
-            if (item.has("terms")) {
-                JSONArray arr = item.getJSONObject("terms").optJSONArray("description");
-                if (arr != null && arr.length() > 0) {
-                    description = arr.getString(0);
-                }
-            }
-            PageProperties properties = null;
-            if (item.has("pageprops")) {
-                properties = new PageProperties(item.getJSONObject("pageprops"));
-            }
-            resultList.add(new SearchResult(new PageTitle(item.getString("title"), wiki, thumbUrl, description, properties)));
-        }
-        return new SearchResults(resultList, nextContinueOffset, null);
+        return new SearchResults(results, nextContinueOffset, null);
     }
 
-    public final class FTContinueOffset extends SearchResults.ContinueOffset {
+    public static final class FTContinueOffset extends SearchResults.ContinueOffset {
         private String cont;
         private int gsroffset;
 
@@ -152,4 +94,17 @@ public class FullSearchArticlesTask extends ApiTask<SearchResults> {
             this.gsroffset = gsroffset;
         }
     }
+
+    @VisibleForTesting interface Service {
+        @GET("w/api.php?action=query&format=json&formatversion=2"
+                + "&prop=pageterms|pageimages|pageprops&ppprop=mainpage|disambiguation"
+                + "&wbptterms=description" // only interested in Wikidata description
+                + "&generator=search&gsrnamespace=0&gsrwhat=text&gsrinfo=&gsrprop=redirecttitle"
+                + "&piprop=thumbnail&pilicense=any&pithumbsize=" + Constants.PREFERRED_THUMB_SIZE)
+        Call<SearchQuery.Response> search(@NonNull @Query("gsrsearch") String searchTerm,
+                                          @Query("gsrlimit") int gsrLimit,
+                                          @Query("pilimit") int piLimit,
+                                          @Nullable @Query("continue") String cont,
+                                          @Nullable @Query("gsroffset") Integer gsrOffset);
+    }
 }
@@ -0,0 +1,98 @@
+package org.wikipedia.search;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONObject;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.dataclient.mwapi.MwQueryPage;
+import org.wikipedia.dataclient.mwapi.MwQueryResponse;
+import org.wikipedia.page.PageProperties;
+import org.wikipedia.page.PageTitle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gson POJO for the query result of a title or full text search. Responses are requested with
+ * formatversion=2 so that pages arrive as a list and are parsed straight from the response stream.
+ */
+class SearchQuery {
+    @SuppressWarnings("unused") @Nullable private List<Page> pages;
+    @SuppressWarnings("unused") @Nullable private List<Redirect> redirects;
+    @SuppressWarnings("unused") @Nullable private SearchInfo searchinfo;
+
+    @NonNull String suggestion() {
+        return searchinfo != null && searchinfo.suggestion != null ? searchinfo.suggestion : "";
+    }
+
+    /**
+     * @return The results of a search, in the order of their index, with the title each result
+     *         was redirected from and the section the redirect targets.
+     */
+    @NonNull List<SearchResult> results(@NonNull WikiSite wiki) {
+        if (pages == null) {
+            return new ArrayList<>();
+        }
+
+        // Index the redirects by target title rather than comparing each redirect to each page.
+        Map<String, String> redirectFroms = new HashMap<>();
+        Map<String, String> toFragments = new HashMap<>();
+        if (redirects != null) {
+            for (Redirect redirect : redirects) {
+                redirectFroms.put(redirect.to, redirect.from);
+                if (redirect.tofragment != null && !toFragments.containsKey(redirect.to)) {
+                    toFragments.put(redirect.to, redirect.tofragment);
+                }
+            }
+        }
+
+        // The search results arrive unordered, but they do have an "index" property, which we'll
+        // use to sort the results ourselves.
+        List<Page> sorted = new ArrayList<>(pages);
+        Collections.sort(sorted, new Comparator<Page>() {
+            @Override
+            public int compare(Page lhs, Page rhs) {
+                return lhs.index < rhs.index ? -1 : (lhs.index == rhs.index ? 0 : 1);
+            }
+        });
+
+        List<SearchResult> results = new ArrayList<>(sorted.size());
+        for (Page page : sorted) {
+            String titleText = page.title();
+            String toFragment = toFragments.get(page.title());
+            if (toFragment != null) {
+                titleText += "#" + toFragment;
+            }
+            results.add(new SearchResult(new PageTitle(titleText, wiki, page.thumbUrl(),
+                    page.description(), page.properties()), redirectFroms.get(page.title())));
+        }
+        return results;
+    }
+
+    static class Response extends MwQueryResponse<SearchQuery> {
+    }
+
+    static class Page extends MwQueryPage {
+        @SuppressWarnings("unused") private int index;
+        @SuppressWarnings("unused") @Nullable private Map<String, String> pageprops;
+
+        @Nullable PageProperties properties() {
+            return pageprops != null ? new PageProperties(new JSONObject(pageprops)) : null;
+        }
+    }
+
+    private static class Redirect {
+        @SuppressWarnings("unused") private String from;
+        @SuppressWarnings("unused") private String to;
+        @SuppressWarnings("unused") @Nullable private String tofragment;
+    }
+
+    private static class SearchInfo {
+        @SuppressWarnings("unused") @Nullable private String suggestion;
+    }
+}
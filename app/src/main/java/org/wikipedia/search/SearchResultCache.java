@@ -0,0 +1,278 @@
+package org.wikipedia.search;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.format.DateUtils;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.commons.lang3.StringUtils;
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.json.GsonMarshaller;
+import org.wikipedia.json.GsonUnmarshaller;
+import org.wikipedia.util.FileUtil;
+import org.wikipedia.util.MathUtil;
+import org.wikipedia.util.log.L;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import okhttp3.internal.Util;
+
+/**
+ * A cache of title search results shared by all searches and persisted across sessions. Entries
+ * expire after a fixed time and the least recently used entries are evicted beyond a fixed count.
+ * While the results for a term are being fetched, the cached results of a shorter prefix of the
+ * term can be filtered to show something immediately.
+ */
+public final class SearchResultCache {
+    /** Where the results displayed for a search term came from. */
+    public enum Source { CACHE, PREFIX_CACHE, NETWORK }
+
+    @VisibleForTesting static final int MAX_ENTRIES = 100;
+    @VisibleForTesting static final long TTL_MILLIS = DateUtils.DAY_IN_MILLIS;
+    private static final String FILENAME = "search_results.json";
+    private static final TypeToken<List<Entry>> TYPE_TOKEN = new TypeToken<List<Entry>>() { };
+
+    private static final SearchResultCache INSTANCE = new SearchResultCache(
+            new File(WikipediaApp.getInstance().getCacheDir(), FILENAME), Executors.newSingleThreadExecutor());
+
+    @NonNull private final File file;
+    @NonNull private final Executor executor;
+    // In access order so that the eldest entry is the least recently used.
+    @NonNull private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(MAX_ENTRIES, 1, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private boolean dirty;
+
+    private int hitCount;
+    private int prefixHitCount;
+    private int missCount;
+    @NonNull private final Map<Source, MathUtil.Averaged<Long>> timeToResults = new EnumMap<>(Source.class);
+
+    public static SearchResultCache instance() {
+        return INSTANCE;
+    }
+
+    @VisibleForTesting SearchResultCache(@NonNull File file, @NonNull Executor executor) {
+        this.file = file;
+        this.executor = executor;
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                load();
+            }
+        });
+    }
+
+    /** @return A copy of the unexpired results cached for the term, or null if none. */
+    @Nullable public List<SearchResult> get(@NonNull String languageCode, @NonNull String term) {
+        return get(languageCode, term, System.currentTimeMillis());
+    }
+
+    /**
+     * @return A copy of the unexpired results cached for the term, or null if none, without
+     *         counting a hit or miss.
+     */
+    @Nullable public List<SearchResult> peek(@NonNull String languageCode, @NonNull String term) {
+        return peek(languageCode, term, System.currentTimeMillis());
+    }
+
+    /**
+     * @return The unexpired results cached for the longest shorter prefix of the term, filtered to
+     *         those that may also match the term, or null if no prefix is cached. The results may
+     *         be incomplete since a search for the term itself may find titles that didn't rank
+     *         among the results of the prefix.
+     */
+    @Nullable public List<SearchResult> getByPrefix(@NonNull String languageCode, @NonNull String term) {
+        return getByPrefix(languageCode, term, System.currentTimeMillis());
+    }
+
+    public void put(@NonNull String languageCode, @NonNull String term, @NonNull List<SearchResult> results) {
+        put(languageCode, term, results, System.currentTimeMillis());
+    }
+
+    /** Writes the cache to disk in the background if it changed. */
+    public void save() {
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+        }
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                write();
+            }
+        });
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getPrefixHitCount() {
+        return prefixHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /** Records the time from a keystroke to the display of results for the term from the source. */
+    public synchronized void addTimeToResults(@NonNull Source source, long millis) {
+        MathUtil.Averaged<Long> averaged = timeToResults.get(source);
+        if (averaged == null) {
+            averaged = new MathUtil.Averaged<>();
+            timeToResults.put(source, averaged);
+        }
+        averaged.addSample(millis);
+    }
+
+    /** @return The average time from a keystroke to results from the source, or 0 if none. */
+    public synchronized long getTimeToResults(@NonNull Source source) {
+        MathUtil.Averaged<Long> averaged = timeToResults.get(source);
+        return averaged == null ? 0 : (long) averaged.getAverage();
+    }
+
+    @VisibleForTesting @Nullable synchronized List<SearchResult> get(@NonNull String languageCode,
+                                                                    @NonNull String term, long now) {
+        Entry entry = getFresh(key(languageCode, term), now);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return new ArrayList<>(entry.results);
+    }
+
+    @VisibleForTesting @Nullable synchronized List<SearchResult> peek(@NonNull String languageCode,
+                                                                     @NonNull String term, long now) {
+        Entry entry = getFresh(key(languageCode, term), now);
+        return entry == null ? null : new ArrayList<SearchResult>(entry.results);
+    }
+
+    @VisibleForTesting @Nullable synchronized List<SearchResult> getByPrefix(@NonNull String languageCode,
+                                                                            @NonNull String term, long now) {
+        for (int length = term.length() - 1; length > 0; length--) {
+            Entry entry = getFresh(key(languageCode, term.substring(0, length)), now);
+            if (entry != null) {
+                prefixHitCount++;
+                return filter(entry.results, term);
+            }
+        }
+        return null;
+    }
+
+    @VisibleForTesting synchronized void put(@NonNull String languageCode, @NonNull String term,
+                                             @NonNull List<SearchResult> results, long now) {
+        String key = key(languageCode, term);
+        entries.put(key, new Entry(key, now, new ArrayList<>(results)));
+        dirty = true;
+    }
+
+    @Nullable private Entry getFresh(@NonNull String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.timestamp >= TTL_MILLIS) {
+            entries.remove(key);
+            dirty = true;
+            return null;
+        }
+        return entry;
+    }
+
+    // Prefix search matches titles and redirects by prefix, ignoring case.
+    @NonNull private static List<SearchResult> filter(@NonNull List<SearchResult> results,
+                                                      @NonNull String term) {
+        List<SearchResult> filtered = new ArrayList<>();
+        for (SearchResult result : results) {
+            if (StringUtils.startsWithIgnoreCase(result.getPageTitle().getDisplayText(), term)
+                    || StringUtils.startsWithIgnoreCase(result.getRedirectFrom(), term)) {
+                filtered.add(result);
+            }
+        }
+        return filtered;
+    }
+
+    @NonNull private static String key(@NonNull String languageCode, @NonNull String term) {
+        return languageCode + "-" + term;
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        List<Entry> loaded;
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            loaded = GsonUnmarshaller.unmarshal(TYPE_TOKEN, FileUtil.readFile(in));
+        } catch (IOException | RuntimeException e) {
+            L.w("Failed to load search results cache", e);
+            return;
+        } finally {
+            Util.closeQuietly(in);
+        }
+        if (loaded == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            // Entries put since startup are more recent than any that were loaded.
+            List<Entry> current = new ArrayList<>(entries.values());
+            entries.clear();
+            for (Entry entry : loaded) {
+                if (entry.results != null && now - entry.timestamp < TTL_MILLIS) {
+                    entries.put(entry.key, entry);
+                }
+            }
+            for (Entry entry : current) {
+                entries.put(entry.key, entry);
+            }
+        }
+    }
+
+    private void write() {
+        String json;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+                if (now - i.next().timestamp >= TTL_MILLIS) {
+                    i.remove();
+                }
+            }
+            json = GsonMarshaller.marshal(new ArrayList<>(entries.values()));
+            dirty = false;
+        }
+
+        try {
+            FileUtil.writeAtomically(file, json);
+        } catch (IOException e) {
+            L.w("Failed to save search results cache", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long timestamp;
+        private final List<SearchResult> results;
+
+        Entry(@NonNull String key, long timestamp, @NonNull List<SearchResult> results) {
+            this.key = key;
+            this.timestamp = timestamp;
+            this.results = results;
+        }
+    }
+}
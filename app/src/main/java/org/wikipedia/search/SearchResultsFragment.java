@@ -6,7 +6,6 @@ import android.os.Message;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
-import android.support.v4.util.LruCache;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -59,7 +58,6 @@ public class SearchResultsFragment extends Fragment {
     private static final int BATCH_SIZE = 20;
     private static final int DELAY_MILLIS = 300;
     private static final int MESSAGE_SEARCH = 1;
-    private static final int MAX_CACHE_SIZE_SEARCH_RESULTS = 4;
     /**
      * Constant to ease in the conversion of timestamps from nanoseconds to milliseconds.
      */
@@ -74,11 +72,12 @@ public class SearchResultsFragment extends Fragment {
     private Unbinder unbinder;
 
     private WikipediaApp app;
-    @NonNull private final LruCache<String, List<SearchResult>> searchResultsCache
-            = new LruCache<>(MAX_CACHE_SIZE_SEARCH_RESULTS);
+    @NonNull private final SearchResultCache searchResultsCache = SearchResultCache.instance();
     private Handler searchHandler;
     private TitleSearchTask curSearchTask;
     private String currentSearchTerm = "";
+    // The time the current search term was entered, to measure the time to display its results.
+    private long searchStartTime;
     @Nullable private SearchResults lastFullTextResults;
     @NonNull private final List<SearchResult> totalResults = new ArrayList<>();
 
@@ -116,6 +115,12 @@ public class SearchResultsFragment extends Fragment {
                 new SearchResultsFragmentLongPressHandler());
     }
 
+    @Override
+    public void onPause() {
+        super.onPause();
+        searchResultsCache.save();
+    }
+
     @Override
     public void onDestroyView() {
         searchErrorView.setRetryClickListener(null);
@@ -174,13 +179,23 @@ public class SearchResultsFragment extends Fragment {
             return;
         }
 
-        List<SearchResult> cacheResult = searchResultsCache.get(app.getAppOrSystemLanguageCode() + "-" + term);
+        searchStartTime = System.nanoTime();
+        List<SearchResult> cacheResult = searchResultsCache.get(app.getAppOrSystemLanguageCode(), term);
         if (cacheResult != null && !cacheResult.isEmpty()) {
             clearResults();
             displayResults(cacheResult);
+            addTimeToResults(SearchResultCache.Source.CACHE);
             return;
         }
 
+        // While the term is fetched, show the cached results of a prefix of it that still match.
+        List<SearchResult> prefixResult = searchResultsCache.getByPrefix(app.getAppOrSystemLanguageCode(), term);
+        if (prefixResult != null && !prefixResult.isEmpty()) {
+            clearResults();
+            displayResults(prefixResult);
+            addTimeToResults(SearchResultCache.Source.PREFIX_CACHE);
+        }
+
         Message searchMessage = Message.obtain();
         searchMessage.what = MESSAGE_SEARCH;
         searchMessage.obj = term;
@@ -207,7 +222,7 @@ public class SearchResultsFragment extends Fragment {
     private void doTitlePrefixSearch(final String searchTerm) {
         // Use nanoTime to measure the time the search was started.
         final long startTime = System.nanoTime();
-        TitleSearchTask searchTask = new TitleSearchTask(app.getAPIForSite(app.getWikiSite()), app.getWikiSite(), searchTerm) {
+        TitleSearchTask searchTask = new TitleSearchTask(app.getWikiSite(), searchTerm) {
             @Override
             public void onBeforeExecute() {
                 updateProgressBar(true);
@@ -229,14 +244,15 @@ public class SearchResultsFragment extends Fragment {
                 }
 
                 updateProgressBar(false);
-                searchErrorView.setVisibility(View.GONE);
+                // replace any results of a cached prefix, even if there are none for the term.
+                clearResults();
                 if (!resultList.isEmpty()) {
-                    clearResults();
                     displayResults(resultList);
+                    addTimeToResults(SearchResultCache.Source.NETWORK);
                 }
 
                 // add titles to cache...
-                searchResultsCache.put(app.getAppOrSystemLanguageCode() + "-" + searchTerm, resultList);
+                searchResultsCache.put(app.getAppOrSystemLanguageCode(), searchTerm, resultList);
                 curSearchTask = null;
 
                 final String suggestion = results.getSuggestion();
@@ -277,6 +293,7 @@ public class SearchResultsFragment extends Fragment {
                     callback.getFunnel().searchError(false, timeToDisplay);
                 }
                 updateProgressBar(false);
+                clearResults();
 
                 searchErrorView.setVisibility(View.VISIBLE);
                 searchErrorView.setError(caught);
@@ -308,8 +325,7 @@ public class SearchResultsFragment extends Fragment {
                                   final boolean clearOnSuccess) {
         // Use nanoTime to measure the time the search was started.
         final long startTime = System.nanoTime();
-        new FullSearchArticlesTask(app.getAPIForSite(app.getWikiSite()), app.getWikiSite(),
-                                   searchTerm, BATCH_SIZE, continueOffset, false) {
+        new FullSearchArticlesTask(app.getWikiSite(), searchTerm, BATCH_SIZE, continueOffset, false) {
             @Override
             public void onBeforeExecute() {
                 updateProgressBar(true);
@@ -336,9 +352,10 @@ public class SearchResultsFragment extends Fragment {
                 }
 
                 // append results to cache...
-                List<SearchResult> cachedTitles = searchResultsCache.get(app.getAppOrSystemLanguageCode() + "-" + searchTerm);
+                List<SearchResult> cachedTitles = searchResultsCache.peek(app.getAppOrSystemLanguageCode(), searchTerm);
                 if (cachedTitles != null) {
                     cachedTitles.addAll(resultList);
+                    searchResultsCache.put(app.getAppOrSystemLanguageCode(), searchTerm, cachedTitles);
                 }
 
                 updateProgressBar(false);
@@ -382,6 +399,10 @@ public class SearchResultsFragment extends Fragment {
         clearResults(true);
     }
 
+    private void addTimeToResults(@NonNull SearchResultCache.Source source) {
+        searchResultsCache.addTimeToResults(source, (System.nanoTime() - searchStartTime) / NANO_TO_MILLI);
+    }
+
     private void updateProgressBar(boolean enabled) {
         Callback callback = callback();
         if (callback != null) {
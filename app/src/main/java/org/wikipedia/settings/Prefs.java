@@ -308,6 +308,10 @@ public final class Prefs {
         return getBoolean(R.string.preference_key_eventlogging_opt_in, true);
     }
 
+    public static void setEventLoggingEnabled(boolean enabled) {
+        setBoolean(R.string.preference_key_eventlogging_opt_in, enabled);
+    }
+
     public static boolean useRestBaseSetManually() {
         return getBoolean(R.string.preference_key_use_restbase_manual, false);
     }
@@ -482,6 +486,10 @@ public final class Prefs {
         return getBoolean(R.string.preference_key_show_link_previews, true);
     }
 
+    public static boolean isLinkPreviewPrefetchEnabled() {
+        return isLinkPreviewEnabled() && getBoolean(R.string.preference_key_prefetch_link_previews, false);
+    }
+
     public static int getReadingListSortMode(int defaultValue) {
         return getInt(R.string.preference_key_reading_list_sort_mode, defaultValue);
     }
@@ -502,6 +510,22 @@ public final class Prefs {
         return getBoolean(R.string.preference_key_memory_leak_test, false);
     }
 
+    public static boolean isSavedPageSyncUnmeteredOnly() {
+        return getBoolean(R.string.preference_key_saved_page_sync_unmetered_only, false);
+    }
+
+    public static void setSavedPageSyncUnmeteredOnly(boolean enabled) {
+        setBoolean(R.string.preference_key_saved_page_sync_unmetered_only, enabled);
+    }
+
+    public static boolean isSavedPageSyncChargingOnly() {
+        return getBoolean(R.string.preference_key_saved_page_sync_charging_only, false);
+    }
+
+    public static void setSavedPageSyncChargingOnly(boolean enabled) {
+        setBoolean(R.string.preference_key_saved_page_sync_charging_only, enabled);
+    }
+
     public static boolean isDescriptionEditTutorialEnabled() {
         return getBoolean(R.string.preference_key_description_edit_tutorial_enabled, true);
     }
@@ -32,7 +32,7 @@ public class DefaultUserOptionDataClient implements UserOptionDataClient {
 
     public DefaultUserOptionDataClient(@NonNull WikiSite wiki) {
         this.wiki = wiki;
-        service = RetrofitFactory.newInstance(wiki).create(Service.class);
+        service = RetrofitFactory.instance(wiki).create(Service.class);
     }
 
     @NonNull
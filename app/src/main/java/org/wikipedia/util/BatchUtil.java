@@ -1,49 +1,56 @@
 package org.wikipedia.util;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 
 import org.wikipedia.page.PageTitle;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.wikipedia.Constants.API_QUERY_MAX_TITLES;
 
 public final class BatchUtil {
-    // Useful for API requests in which we want a number of results that exceeds the limit for at
-    // least one of the modules being used in the query (e.g., 50 for PageImages).
-    //
-    // TODO: This function does not yet handle batchcomplete.  For requests using a generator
-    // together with properties, the API result may signal to continue because there are more
-    // properties to retrieve for the pages so far, or because there are more pages from the
-    // generator, or both.
-    //
-    // https://www.mediawiki.org/wiki/API:Query#batchcomplete
-    //
-    // Implement continuation/batchcomplete handling if we want to batch requests for a query in
-    // which we are using a generator.
-    //
-    // Bug: T162497
-    public static <T> void makeBatches(@NonNull final List<PageTitle> titles,
+    @VisibleForTesting static final int MAX_CONCURRENT_BATCHES = 2;
+
+    /**
+     * Useful for API requests in which we want a number of results that exceeds the limit for at
+     * least one of the modules being used in the query (e.g., 50 for PageImages).
+     *
+     * The titles are split into batches of at most API_QUERY_MAX_TITLES, of which at most
+     * MAX_CONCURRENT_BATCHES are requested at a time. A batch whose result signals continuation is
+     * requested again with the continuation parameters until it is complete. The results of all
+     * batches are passed to the callback together, once; the first failure is passed instead and
+     * no further batches are started.
+     *
+     * https://www.mediawiki.org/wiki/API:Query#Continuing_queries
+     */
+    public static <T> void makeBatches(@NonNull List<PageTitle> titles,
                                        @NonNull Handler<T> handler,
-                                       @NonNull final Callback<T> callback) {
-        for (int i = 0; i < titles.size(); i += Math.min(API_QUERY_MAX_TITLES, titles.size() - i)) {
-            handler.handleBatch(titles.subList(i, i + Math.min(API_QUERY_MAX_TITLES, titles.size() - i)),
-                    titles.size(), new Callback<T>() {
-                @Override
-                public void success(@NonNull List<T> results) {
-                    callback.success(results);
-                }
+                                       @NonNull Callback<T> callback) {
+        new Batches<>(titles, handler, callback).start();
+    }
 
-                @Override
-                public void failure(@NonNull Throwable caught) {
-                    callback.failure(caught);
-                }
-            });
-        }
+    /**
+     * @return The query parameters to continue a query from the continuation of its last result,
+     *         or to start it with the current continuation syntax.
+     */
+    @NonNull public static Map<String, String> continuationParams(@Nullable Map<String, String> continuation) {
+        return continuation == null ? Collections.singletonMap("continue", "") : continuation;
     }
 
     public interface Handler<T> {
-        void handleBatch(@NonNull List<PageTitle> batchTitles, int total, Callback<T> cb);
+        void handleBatch(@NonNull List<PageTitle> batchTitles,
+                         @Nullable Map<String, String> continuation,
+                         @NonNull BatchCallback<T> cb);
+    }
+
+    public interface BatchCallback<T> {
+        void success(@NonNull List<T> results, @Nullable Map<String, String> continuation);
+        void failure(@NonNull Throwable caught);
     }
 
     public interface Callback<T> {
@@ -51,6 +58,95 @@ public final class BatchUtil {
         void failure(@NonNull Throwable caught);
     }
 
+    private static class Batches<T> {
+        @NonNull private final List<List<PageTitle>> pending = new ArrayList<>();
+        @NonNull private final List<T> results = new ArrayList<>();
+        @NonNull private final Handler<T> handler;
+        @NonNull private final Callback<T> callback;
+        private int running;
+        private boolean done;
+
+        Batches(@NonNull List<PageTitle> titles, @NonNull Handler<T> handler,
+                @NonNull Callback<T> callback) {
+            this.handler = handler;
+            this.callback = callback;
+            for (int i = 0; i < titles.size(); i += API_QUERY_MAX_TITLES) {
+                pending.add(titles.subList(i, Math.min(i + API_QUERY_MAX_TITLES, titles.size())));
+            }
+        }
+
+        void start() {
+            if (pending.isEmpty()) {
+                done = true;
+                callback.success(results);
+                return;
+            }
+
+            List<List<PageTitle>> batches = new ArrayList<>();
+            synchronized (this) {
+                while (!pending.isEmpty() && running < MAX_CONCURRENT_BATCHES) {
+                    batches.add(pending.remove(0));
+                    running++;
+                }
+            }
+            for (List<PageTitle> batch : batches) {
+                request(batch, null);
+            }
+        }
+
+        private void request(@NonNull final List<PageTitle> batch,
+                             @Nullable final Map<String, String> continuation) {
+            handler.handleBatch(batch, continuation, new BatchCallback<T>() {
+                @Override public void success(@NonNull List<T> batchResults,
+                                              @Nullable Map<String, String> nextContinuation) {
+                    // Guard against a query that keeps returning the same continuation.
+                    boolean complete = nextContinuation == null || nextContinuation.equals(continuation);
+                    onSuccess(batch, batchResults, complete ? null : nextContinuation);
+                }
+
+                @Override public void failure(@NonNull Throwable caught) {
+                    onFailure(caught);
+                }
+            });
+        }
+
+        private void onSuccess(@NonNull List<PageTitle> batch, @NonNull List<T> batchResults,
+                               @Nullable Map<String, String> continuation) {
+            List<PageTitle> next = null;
+            boolean finished = false;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                results.addAll(batchResults);
+                if (continuation != null) {
+                    next = batch;
+                } else if (!pending.isEmpty()) {
+                    next = pending.remove(0);
+                } else if (--running == 0) {
+                    finished = true;
+                    done = true;
+                }
+            }
+
+            if (next != null) {
+                request(next, continuation);
+            } else if (finished) {
+                callback.success(results);
+            }
+        }
+
+        private void onFailure(@NonNull Throwable caught) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            callback.failure(caught);
+        }
+    }
+
     private BatchUtil() {
     }
 }
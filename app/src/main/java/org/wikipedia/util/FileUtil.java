@@ -1,6 +1,7 @@
 package org.wikipedia.util;
 
 import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
@@ -9,6 +10,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 
 public final class FileUtil {
     public static final int JPEG_QUALITY = 85;
@@ -24,6 +26,27 @@ public final class FileUtil {
         return destinationFile;
     }
 
+    /** Writes text to a temporary file and renames it over the given file, so that a failed write
+     * leaves the file as it was. */
+    public static void writeAtomically(@NonNull File file, @NonNull String text) throws IOException {
+        writeAtomically(file, text, 0);
+    }
+
+    /** @param lastModified The modification time of the written file, or 0 for the time of writing. */
+    public static void writeAtomically(@NonNull File file, @NonNull String text, long lastModified)
+            throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        if ((lastModified != 0 && !tmp.setLastModified(lastModified)) || !tmp.renameTo(file)) {
+            throw new IOException("Failed to rename " + tmp + " to " + file);
+        }
+    }
+
     public static ByteArrayOutputStream compressBmpToJpg(Bitmap bitmap) {
         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
         bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, bytes);
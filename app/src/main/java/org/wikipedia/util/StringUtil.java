@@ -82,6 +82,26 @@ public final class StringUtil {
         return "";
     }
 
+    /** @return The length of the chars from start to end encoded as UTF-8, without encoding them. */
+    @SuppressWarnings("checkstyle:magicnumber")
+    public static long utf8Length(@NonNull CharSequence str, int start, int end) {
+        long length = 0;
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // A surrogate pair is four bytes.
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     @NonNull
     public static String intToHexStr(int i) {
         return String.format("x%08x", i);
@@ -29,7 +29,7 @@ public final class EntityClient {
     }
 
     private EntityClient() {
-        service = RetrofitFactory.newInstance(new WikiSite("www.wikidata.org", ""))
+        service = RetrofitFactory.instance(new WikiSite("www.wikidata.org", ""))
                 .create(Service.class);
     }
 
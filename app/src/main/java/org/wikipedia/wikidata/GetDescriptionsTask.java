@@ -2,13 +2,12 @@ package org.wikipedia.wikidata;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
-import org.mediawiki.api.json.Api;
-import org.mediawiki.api.json.RequestBuilder;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.page.PageQueryTask;
 import org.wikipedia.page.PageTitle;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Populates a list of PageTitles with Wikidata descriptions for each item.
@@ -17,15 +16,15 @@ import java.util.List;
 public class GetDescriptionsTask extends PageQueryTask<Void> {
     private List<PageTitle> titles;
 
-    public GetDescriptionsTask(Api api, WikiSite wiki, List<PageTitle> titles) {
-        super(api, wiki, titles);
+    public GetDescriptionsTask(WikiSite wiki, List<PageTitle> titles) {
+        super(wiki, titles);
         this.titles = titles;
     }
 
     @Override
-    public void buildQueryParams(RequestBuilder builder) {
-        builder.param("prop", "pageterms")
-                .param("wbptterm", "description");
+    public void buildQueryParams(Map<String, String> params) {
+        params.put("prop", "pageterms");
+        params.put("wbptterm", "description");
     }
 
     @Override
@@ -16,14 +16,10 @@ import org.wikipedia.WikipediaApp;
 import org.wikipedia.activity.FragmentUtil;
 import org.wikipedia.analytics.WiktionaryDialogFunnel;
 import org.wikipedia.dataclient.WikiSite;
-import org.wikipedia.dataclient.page.PageClient;
-import org.wikipedia.dataclient.page.PageClientFactory;
+import org.wikipedia.dataclient.page.PageSummaryCache;
 import org.wikipedia.dataclient.restbase.RbDefinition;
-import org.wikipedia.dataclient.restbase.page.RbPageClient;
-import org.wikipedia.dataclient.restbase.page.RbPageClient.DefinitionCallback;
 import org.wikipedia.page.ExtendedBottomSheetDialogFragment;
 import org.wikipedia.page.LinkMovementMethodExt;
-import org.wikipedia.page.Namespace;
 import org.wikipedia.page.PageTitle;
 import org.wikipedia.util.StringUtil;
 import org.wikipedia.util.log.L;
@@ -108,18 +104,13 @@ public class WiktionaryDialog extends ExtendedBottomSheetDialogFragment {
 
         // TODO: centralize the Wiktionary domain better. Maybe a SharedPreference that defaults to
         //       https://wiktionary.org.
-        PageClient pageClient = PageClientFactory.create(new WikiSite(pageTitle.getWikiSite().languageCode() + WIKTIONARY_DOMAIN), Namespace.MAIN);
-        if (pageClient instanceof RbPageClient) {
-            ((RbPageClient) pageClient).define(
-                    addUnderscores(selectedText),
-                    definitionOnLoadCallback);
-        } else {
-            L.e("Wiktionary definitions require mobile content service loading!");
-            displayNoDefinitionsFound();
-        }
+        PageSummaryCache.instance().definition(
+                new WikiSite(pageTitle.getWikiSite().languageCode() + WIKTIONARY_DOMAIN),
+                addUnderscores(selectedText), definitionOnLoadCallback);
     }
 
-    private DefinitionCallback definitionOnLoadCallback = new DefinitionCallback() {
+    private PageSummaryCache.Callback<RbDefinition> definitionOnLoadCallback
+            = new PageSummaryCache.Callback<RbDefinition>() {
         @Override
         public void success(@NonNull RbDefinition definition) {
             if (!isAdded()) {
@@ -135,7 +126,7 @@ public class WiktionaryDialog extends ExtendedBottomSheetDialogFragment {
         }
 
         @Override
-        public void failure(@NonNull Throwable throwable) {
+        public void failure(@Nullable Throwable throwable) {
             if (!isAdded()) {
                 return;
             }
@@ -0,0 +1,256 @@
+package org.wikipedia.analytics;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowConnectivityManager;
+import org.robolectric.shadows.ShadowNetworkInfo;
+import org.wikipedia.settings.Prefs;
+import org.wikipedia.test.ImmediateExecutor;
+import org.wikipedia.test.MockWebServerTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.robolectric.Shadows.shadowOf;
+
+public class EventLoggingUploaderTest extends MockWebServerTest {
+    private static final long NOW = 1_000_000;
+    private static final int HTTP_NO_CONTENT = 204;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_UNAVAILABLE = 503;
+    private static final long LOCK_TIMEOUT_MILLIS = 10_000;
+
+    private File file;
+
+    @Before public void setUp() throws Throwable {
+        super.setUp();
+        file = new File(RuntimeEnvironment.application.getFilesDir(), "eventlogging_queue_test.txt");
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test public void testQueuedUntilFlushSize() throws Throwable {
+        EventLoggingUploader subject = subject();
+        enqueue(EventLoggingUploader.FLUSH_EVENTS, HTTP_NO_CONTENT);
+
+        for (int i = 0; i < EventLoggingUploader.FLUSH_EVENTS - 1; i++) {
+            subject.add(url(i), NOW);
+        }
+        assertThat(server().getRequestCount(), is(0));
+        assertThat(subject.size(), is(EventLoggingUploader.FLUSH_EVENTS - 1));
+
+        subject.add(url(EventLoggingUploader.FLUSH_EVENTS - 1), NOW);
+        assertThat(server().getRequestCount(), is(EventLoggingUploader.FLUSH_EVENTS));
+        assertThat(server().takeRequest().getPath(), is("/beacon/event?0"));
+        assertThat(subject.size(), is(0));
+        assertThat(subject.getSentCount(), is(EventLoggingUploader.FLUSH_EVENTS));
+        assertThat(subject.getFlushCount(), is(1));
+    }
+
+    @Test public void testFlushAge() throws Throwable {
+        EventLoggingUploader subject = subject();
+        enqueue(2, HTTP_NO_CONTENT);
+
+        subject.add(url(0), NOW);
+        subject.add(url(1), NOW + EventLoggingUploader.FLUSH_AGE_MILLIS);
+
+        assertThat(server().getRequestCount(), is(2));
+        assertThat(subject.getSentCount(), is(2));
+    }
+
+    @Test public void testPersisted() throws Throwable {
+        subject().add(url(0), NOW);
+        subject().add(url(1), NOW);
+
+        EventLoggingUploader subject = subject();
+        assertThat(subject.size(), is(2));
+
+        enqueue(2, HTTP_NO_CONTENT);
+        subject.flush(NOW, false);
+        assertThat(server().takeRequest().getPath(), is("/beacon/event?0"));
+        assertThat(server().takeRequest().getPath(), is("/beacon/event?1"));
+        assertThat(subject().size(), is(0));
+    }
+
+    @Test public void testRetryBackoff() throws Throwable {
+        EventLoggingUploader subject = subject();
+        subject.add(url(0), NOW);
+        subject.add(url(1), NOW);
+
+        server().enqueue(new MockResponse().setResponseCode(HTTP_NO_CONTENT));
+        server().enqueue(new MockResponse().setResponseCode(HTTP_UNAVAILABLE));
+        subject.flush(NOW, false);
+        assertThat(subject.size(), is(1));
+        assertThat(subject.getSentCount(), is(1));
+        assertThat(subject.getRetryMillis(), is(NOW + EventLoggingUploader.MIN_RETRY_MILLIS));
+
+        // Not retried early.
+        subject.flush(NOW + 1, false);
+        assertThat(server().getRequestCount(), is(2));
+
+        server().enqueue(new MockResponse().setResponseCode(HTTP_UNAVAILABLE));
+        long now = NOW + EventLoggingUploader.MIN_RETRY_MILLIS;
+        subject.flush(now, false);
+        assertThat(subject.getRetryMillis(), is(now + 2 * EventLoggingUploader.MIN_RETRY_MILLIS));
+
+        server().enqueue(new MockResponse().setResponseCode(HTTP_NO_CONTENT));
+        subject.flush(subject.getRetryMillis(), false);
+        assertThat(subject.size(), is(0));
+        assertThat(subject.getRetryMillis(), is(0L));
+    }
+
+    @Test public void testOfflineNotBackedOff() throws Throwable {
+        EventLoggingUploader subject = subject();
+        subject.add(url(0), NOW);
+        setOnline(false);
+
+        subject.flush(NOW, false);
+        long now = NOW + EventLoggingUploader.MIN_RETRY_MILLIS;
+        subject.flush(now, false);
+        assertThat(subject.getRetryMillis(), is(now + EventLoggingUploader.MIN_RETRY_MILLIS));
+        assertThat(subject.getFlushCount(), is(0));
+
+        // A failure once back online backs off from the minimum.
+        setOnline(true);
+        server().enqueue(new MockResponse().setResponseCode(HTTP_UNAVAILABLE));
+        now = subject.getRetryMillis();
+        subject.flush(now, false);
+        assertThat(subject.getRetryMillis(), is(now + EventLoggingUploader.MIN_RETRY_MILLIS));
+        assertThat(subject.size(), is(1));
+    }
+
+    @Test public void testOptOutDropped() throws Throwable {
+        EventLoggingUploader subject = subject();
+        subject.add(url(0), NOW);
+        subject.add(url(1), NOW);
+        Prefs.setEventLoggingEnabled(false);
+
+        subject.flush(NOW, false);
+
+        assertThat(subject.size(), is(0));
+        assertThat(subject.getDroppedCount(), is(2));
+        assertThat(server().getRequestCount(), is(0));
+    }
+
+    @Test public void testRejectedDropped() throws Throwable {
+        EventLoggingUploader subject = subject();
+        subject.add(url(0), NOW);
+        subject.add(url(1), NOW);
+
+        server().enqueue(new MockResponse().setResponseCode(HTTP_BAD_REQUEST));
+        server().enqueue(new MockResponse().setResponseCode(HTTP_NO_CONTENT));
+        subject.flush(NOW, false);
+
+        assertThat(subject.size(), is(0));
+        assertThat(subject.getSentCount(), is(1));
+        assertThat(subject.getDroppedCount(), is(1));
+    }
+
+    @Test public void testMaxEvents() throws Throwable {
+        EventLoggingUploader subject = subject();
+        server().enqueue(new MockResponse().setResponseCode(HTTP_UNAVAILABLE));
+        subject.add(url(0), NOW);
+        subject.flush(NOW, false);
+
+        for (int i = 1; i <= EventLoggingUploader.MAX_EVENTS; i++) {
+            subject.add(url(i), NOW);
+        }
+
+        assertThat(subject.size(), is(EventLoggingUploader.MAX_EVENTS));
+        assertThat(subject.getDroppedCount(), is(1));
+        assertThat(server().getRequestCount(), is(1));
+    }
+
+    @Test public void testOpportunisticFlush() throws Throwable {
+        EventLoggingUploader subject = subject();
+        enqueue(1, HTTP_NO_CONTENT);
+        subject.add(url(0), NOW);
+        assertThat(server().getRequestCount(), is(0));
+
+        subject.flush(NOW, true);
+        assertThat(server().getRequestCount(), is(1));
+    }
+
+    @Test public void testNotLockedWhileSending() throws Throwable {
+        final List<EventLoggingUploader> subject = new ArrayList<>();
+        final boolean[] readWhileSending = new boolean[1];
+        subject.add(subject(okHttpClient().newBuilder().addInterceptor(new Interceptor() {
+            @Override public Response intercept(Chain chain) throws IOException {
+                if ("0".equals(chain.request().url().query())) {
+                    readWhileSending[0] = readOnOtherThread(subject.get(0));
+                    subject.get(0).add(url(1), NOW);
+                }
+                return chain.proceed(chain.request());
+            }
+        }).build()));
+        enqueue(1, HTTP_NO_CONTENT);
+        subject.get(0).add(url(0), NOW);
+
+        subject.get(0).flush(NOW, false);
+
+        assertThat(readWhileSending[0], is(true));
+        assertThat(server().getRequestCount(), is(1));
+        assertThat(subject.get(0).size(), is(1));
+        assertThat(subject().size(), is(1));
+    }
+
+    // @return True if the queue could be read on another thread, i.e., its lock wasn't held.
+    private static boolean readOnOtherThread(@NonNull final EventLoggingUploader subject) throws IOException {
+        Thread reader = new Thread(new Runnable() {
+            @Override public void run() {
+                subject.size();
+            }
+        });
+        reader.start();
+        try {
+            reader.join(LOCK_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        return !reader.isAlive();
+    }
+
+    private static void setOnline(boolean online) {
+        ShadowConnectivityManager connectivity = shadowOf((ConnectivityManager) RuntimeEnvironment.application
+                .getSystemService(Context.CONNECTIVITY_SERVICE));
+        connectivity.setNetworkInfo(ConnectivityManager.TYPE_WIFI, online
+                ? ShadowNetworkInfo.newInstance(NetworkInfo.DetailedState.CONNECTED,
+                        ConnectivityManager.TYPE_WIFI, 0, true, true)
+                : null);
+        connectivity.setNetworkInfo(ConnectivityManager.TYPE_MOBILE, null);
+    }
+
+    @NonNull private EventLoggingUploader subject() {
+        return subject(okHttpClient());
+    }
+
+    @NonNull private EventLoggingUploader subject(@NonNull OkHttpClient client) {
+        return new EventLoggingUploader(file, new ImmediateExecutor(), client);
+    }
+
+    private void enqueue(int count, int code) {
+        for (int i = 0; i < count; i++) {
+            server().enqueue(new MockResponse().setResponseCode(code));
+        }
+    }
+
+    @NonNull private String url(int i) {
+        return server().getUrl("/beacon/event?" + i);
+    }
+}
@@ -0,0 +1,281 @@
+package org.wikipedia.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.database.contract.PageHistoryContract;
+import org.wikipedia.database.contract.ReadingListContract;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.SearchIndexContract;
+import org.wikipedia.history.HistoryEntry;
+import org.wikipedia.readinglist.database.ReadingListRow;
+import org.wikipedia.readinglist.page.ReadingListPageRow;
+import org.wikipedia.test.TestRunner;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@RunWith(TestRunner.class) public class SearchIndexDatabaseTableTest {
+    private static final int DB_VER_BEFORE = 19;
+    private static final int DB_VER_INTRODUCED = 20;
+
+    private SQLiteDatabase db;
+
+    @Before public void setUp() {
+        db = SQLiteDatabase.create(null);
+        for (DatabaseTable<?> table : sourceTables()) {
+            table.upgradeSchema(db, 0, DB_VER_BEFORE);
+        }
+    }
+
+    @After public void tearDown() {
+        db.close();
+    }
+
+    @Test public void testUpgradeIndexesExistingRows() {
+        long historyId = insertHistory(db, "Barack_Obama");
+        long pageId = insertPage(db, "page", "Joe_Biden", "Vice president");
+        long listId = insertList(db, "list", "Presidents", "Heads of state");
+
+        upgrade();
+
+        assertThat(match("barack"), contains(docid(historyId, SearchIndexContract.SOURCE_HISTORY)));
+        assertThat(match("vice"), contains(docid(pageId, SearchIndexContract.SOURCE_READING_LIST_PAGE)));
+        assertThat(match("heads"), contains(docid(listId, SearchIndexContract.SOURCE_READING_LIST)));
+    }
+
+    @Test public void testInsertTriggers() {
+        upgrade();
+
+        long historyId = insertHistory(db, "Barack_Obama");
+        long pageId = insertPage(db, "page", "Joe_Biden", "Vice president");
+        long listId = insertList(db, "list", "Presidents", "Heads of state");
+
+        assertThat(match("obama"), contains(docid(historyId, SearchIndexContract.SOURCE_HISTORY)));
+        assertThat(match("biden"), contains(docid(pageId, SearchIndexContract.SOURCE_READING_LIST_PAGE)));
+        assertThat(match("presidents"), contains(docid(listId, SearchIndexContract.SOURCE_READING_LIST)));
+    }
+
+    @Test public void testUpdateTriggers() {
+        upgrade();
+        long pageId = insertPage(db, "page", "Joe_Biden", "Vice president");
+        long listId = insertList(db, "list", "Presidents", "Heads of state");
+
+        ContentValues page = new ContentValues();
+        page.put(ReadingListPageContract.PageCol.DESCRIPTION.getName(), "President");
+        db.update(ReadingListPageContract.TABLE_PAGE, page, idSelection(), idArgs(pageId));
+        ContentValues list = new ContentValues();
+        list.put(ReadingListContract.Col.TITLE.getName(), "Leaders");
+        db.update(ReadingListContract.TABLE, list, idSelection(), idArgs(listId));
+
+        assertThat(match("vice"), is(empty()));
+        assertThat(match("president"), contains(docid(pageId, SearchIndexContract.SOURCE_READING_LIST_PAGE)));
+        assertThat(match("presidents"), is(empty()));
+        assertThat(match("leaders"), contains(docid(listId, SearchIndexContract.SOURCE_READING_LIST)));
+    }
+
+    @Test public void testDeleteTriggers() {
+        upgrade();
+        long historyId = insertHistory(db, "Barack_Obama");
+        long pageId = insertPage(db, "page", "Joe_Biden", "Vice president");
+        long listId = insertList(db, "list", "Presidents", "Heads of state");
+
+        db.delete(PageHistoryContract.TABLE, idSelection(), idArgs(historyId));
+        db.delete(ReadingListPageContract.TABLE_PAGE, idSelection(), idArgs(pageId));
+        db.delete(ReadingListContract.TABLE, idSelection(), idArgs(listId));
+
+        assertThat(match("obama"), is(empty()));
+        assertThat(match("biden"), is(empty()));
+        assertThat(match("presidents"), is(empty()));
+    }
+
+    @Test public void testReplacePageCarriesOverBody() {
+        upgrade();
+        long oldId = insertPage(db, "page", "Joe_Biden", "Vice president");
+        setBody(db, docid(oldId, SearchIndexContract.SOURCE_READING_LIST_PAGE), "Scranton");
+
+        long newId = insertPage(db, "page", "Joe_Biden", "President");
+
+        long newDocid = docid(newId, SearchIndexContract.SOURCE_READING_LIST_PAGE);
+        assertThat(match("scranton"), contains(newDocid));
+        assertThat(match("president"), contains(newDocid));
+        assertThat(match("vice"), is(empty()));
+        assertThat(body(db, docid(oldId, SearchIndexContract.SOURCE_READING_LIST_PAGE)), nullValue());
+    }
+
+    @Test public void testReplaceList() {
+        upgrade();
+        long oldId = insertList(db, "list", "Presidents", null);
+
+        long newId = insertList(db, "list", "Leaders", null);
+
+        assertThat(match("presidents"), is(empty()));
+        assertThat(match("leaders"), contains(docid(newId, SearchIndexContract.SOURCE_READING_LIST)));
+        assertThat(oldId == newId, is(false));
+    }
+
+    @Test public void testPutPageBody() {
+        SQLiteDatabase appDb = WikipediaApp.getInstance().getDatabase().getWritableDatabase();
+        long docid = docid(insertPage(appDb, "page", "Joe_Biden", null),
+                SearchIndexContract.SOURCE_READING_LIST_PAGE);
+
+        SearchIndexDao.instance().putPageBody("page", "Born in Scranton");
+        assertThat(body(appDb, docid), is("Born in Scranton"));
+
+        SearchIndexDao.instance().putPageBody("other", "Born in Honolulu");
+        assertThat(body(appDb, docid), is("Born in Scranton"));
+
+        SearchIndexDao.instance().putPageBody("page", null);
+        assertThat(body(appDb, docid), nullValue());
+    }
+
+    @Test public void testSearchRanksTitleMatchesFirst() {
+        SQLiteDatabase appDb = WikipediaApp.getInstance().getDatabase().getWritableDatabase();
+        long bodyId = insertPage(appDb, "body", "Scranton", null);
+        long descriptionId = insertPage(appDb, "description", "Joe_Biden", "Born in Delaware");
+        long titleId = insertPage(appDb, "title", "Delaware", null);
+        SearchIndexDao.instance().putPageBody("body", "A city that Biden left for Delaware");
+
+        List<Long> docids = new ArrayList<>();
+        for (SearchIndexRow row : SearchIndexDao.instance().search("delaware")) {
+            docids.add(row.docId());
+        }
+        assertThat(docids, contains(docid(titleId, SearchIndexContract.SOURCE_READING_LIST_PAGE),
+                docid(descriptionId, SearchIndexContract.SOURCE_READING_LIST_PAGE),
+                docid(bodyId, SearchIndexContract.SOURCE_READING_LIST_PAGE)));
+        assertThat(SearchIndexDao.instance().search("").isEmpty(), is(true));
+    }
+
+    @Test @SuppressWarnings("checkstyle:magicnumber") public void testScore() {
+        // One phrase, three columns of ten documents that average four tokens, a two token title.
+        int[] header = {1, 3, 10, 4, 4, 4, 2, 4, 4};
+        double once = SearchIndexDao.score(matchinfo(header, 1, 1, 1, 0, 0, 1, 0, 0, 1));
+        double twice = SearchIndexDao.score(matchinfo(header, 2, 2, 1, 0, 0, 1, 0, 0, 1));
+        double common = SearchIndexDao.score(matchinfo(header, 1, 9, 9, 0, 0, 1, 0, 0, 1));
+        double body = SearchIndexDao.score(matchinfo(header, 0, 1, 1, 0, 0, 1, 1, 1, 1));
+
+        assertThat(twice, greaterThan(once));
+        assertThat(once, greaterThan(common));
+        assertThat(once, greaterThan(body));
+        assertThat(SearchIndexDao.score(matchinfo(header, 0, 0, 0, 0, 0, 0, 0, 0, 0)), is(0d));
+    }
+
+    private void upgrade() {
+        SearchIndexRow.DATABASE_TABLE.upgradeSchema(db, DB_VER_BEFORE, DB_VER_INTRODUCED);
+    }
+
+    @NonNull private List<Long> match(@NonNull String query) {
+        List<Long> docids = new ArrayList<>();
+        Cursor cursor = db.rawQuery("select docid from " + SearchIndexContract.TABLE + " where "
+                + SearchIndexContract.TABLE + " match ?", new String[] {SearchIndexContract.matchExpression(query)});
+        try {
+            while (cursor.moveToNext()) {
+                docids.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return docids;
+    }
+
+    @NonNull private static byte[] matchinfo(@NonNull int[] header, int... hits) {
+        ByteBuffer buffer = ByteBuffer.allocate((header.length + hits.length) * Integer.SIZE / Byte.SIZE)
+                .order(ByteOrder.nativeOrder());
+        for (int value : header) {
+            buffer.putInt(value);
+        }
+        for (int value : hits) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    @Nullable private static String body(@NonNull SQLiteDatabase db, long docid) {
+        Cursor cursor = db.rawQuery("select body from " + SearchIndexContract.TABLE + " where docid = ?",
+                idArgs(docid));
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void setBody(@NonNull SQLiteDatabase db, long docid, @NonNull String body) {
+        ContentValues values = new ContentValues();
+        values.put(SearchIndexContract.Col.BODY.getName(), body);
+        db.update(SearchIndexContract.TABLE, values, "docid = ?", idArgs(docid));
+    }
+
+    private static long insertHistory(@NonNull SQLiteDatabase db, @NonNull String title) {
+        ContentValues values = new ContentValues();
+        values.put(PageHistoryContract.Col.SITE.getName(), "en.wikipedia.org");
+        values.put(PageHistoryContract.Col.LANG.getName(), "en");
+        values.put(PageHistoryContract.Col.TITLE.getName(), title);
+        values.put(PageHistoryContract.Col.TIMESTAMP.getName(), 0);
+        values.put(PageHistoryContract.Col.SOURCE.getName(), 0);
+        return db.insertOrThrow(PageHistoryContract.TABLE, null, values);
+    }
+
+    // Inserts like the content provider, replacing any page with the same key.
+    private static long insertPage(@NonNull SQLiteDatabase db, @NonNull String key,
+                                   @NonNull String title, @Nullable String description) {
+        ContentValues values = new ContentValues();
+        values.put(ReadingListPageContract.PageCol.KEY.getName(), key);
+        values.put(ReadingListPageContract.PageCol.LIST_KEYS.getName(), "list");
+        values.put(ReadingListPageContract.PageCol.SITE.getName(), "en.wikipedia.org");
+        values.put(ReadingListPageContract.PageCol.LANG.getName(), "en");
+        values.put(ReadingListPageContract.PageCol.NAMESPACE.getName(), 0);
+        values.put(ReadingListPageContract.PageCol.TITLE.getName(), title);
+        values.put(ReadingListPageContract.PageCol.MTIME.getName(), 0);
+        values.put(ReadingListPageContract.PageCol.ATIME.getName(), 0);
+        values.put(ReadingListPageContract.PageCol.DESCRIPTION.getName(), description);
+        return db.insertWithOnConflict(ReadingListPageContract.TABLE_PAGE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static long insertList(@NonNull SQLiteDatabase db, @NonNull String key,
+                                   @NonNull String title, @Nullable String description) {
+        ContentValues values = new ContentValues();
+        values.put(ReadingListContract.Col.KEY.getName(), key);
+        values.put(ReadingListContract.Col.TITLE.getName(), title);
+        values.put(ReadingListContract.Col.MTIME.getName(), 0);
+        values.put(ReadingListContract.Col.ATIME.getName(), 0);
+        values.put(ReadingListContract.Col.DESCRIPTION.getName(), description);
+        return db.insertWithOnConflict(ReadingListContract.TABLE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static long docid(long rowId, int source) {
+        return rowId * SearchIndexContract.SOURCES + source;
+    }
+
+    @NonNull private static String idSelection() {
+        return "_id = ?";
+    }
+
+    @NonNull private static String[] idArgs(long id) {
+        return new String[] {String.valueOf(id)};
+    }
+
+    @NonNull private static DatabaseTable<?>[] sourceTables() {
+        return new DatabaseTable<?>[] {HistoryEntry.DATABASE_TABLE, ReadingListPageRow.DATABASE_TABLE,
+                ReadingListRow.DATABASE_TABLE};
+    }
+}
@@ -0,0 +1,34 @@
+package org.wikipedia.database.contract;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(TestRunner.class) public class SearchIndexContractTest {
+    @Test public void testMatchExpression() {
+        assertThat(SearchIndexContract.matchExpression("Barack Obama"), is("\"Barack*\" \"Obama*\""));
+    }
+
+    @Test public void testMatchExpressionPunctuation() {
+        assertThat(SearchIndexContract.matchExpression(" \"war\" OR -peace_1812* "),
+                is("\"war*\" \"OR*\" \"peace*\" \"1812*\""));
+    }
+
+    @Test public void testMatchExpressionNonAscii() {
+        assertThat(SearchIndexContract.matchExpression("Zürich"), is("\"Zürich*\""));
+    }
+
+    @Test public void testMatchExpressionEmpty() {
+        assertThat(SearchIndexContract.matchExpression(null), is(""));
+        assertThat(SearchIndexContract.matchExpression(" -*\" "), is(""));
+    }
+
+    @Test public void testSelection() {
+        assertThat(SearchIndexContract.selection("history._id", SearchIndexContract.SOURCE_HISTORY),
+                is("history._id in (select docid / 3 from searchindex where searchindex match ? "
+                        + "and docid % 3 = 0)"));
+    }
+}
@@ -0,0 +1,153 @@
+package org.wikipedia.dataclient.okhttp;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.wikipedia.test.MockWebServerTest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SingleFlightInterceptorTest extends MockWebServerTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @NonNull private final SingleFlightInterceptor subject = new SingleFlightInterceptor();
+
+    @Test public void testCoalesced() throws Throwable {
+        server().enqueue("{\"foo\":\"bar\"}");
+        OkHttpClient client = client(new AwaitWaiterInterceptor(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> first = executor.submit(get(client, "/path"));
+        Future<String> second = executor.submit(get(client, "/path"));
+
+        assertThat(first.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is("{\"foo\":\"bar\"}"));
+        assertThat(second.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is("{\"foo\":\"bar\"}"));
+        assertThat(server().getRequestCount(), is(1));
+        assertThat(subject.getRequestCount(), is(2));
+        assertThat(subject.getCoalescedCount(), is(1));
+        executor.shutdown();
+    }
+
+    @Test public void testCoalescedLeaderFailure() throws Throwable {
+        server().enqueue(new MockResponse().setBody("{}"));
+        OkHttpClient client = client(new AwaitWaiterInterceptor(1), new FailFirstInterceptor());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> first = executor.submit(get(client, "/path"));
+        Future<String> second = executor.submit(get(client, "/path"));
+
+        int failures = 0;
+        for (Future<String> future : Arrays.asList(first, second)) {
+            try {
+                assertThat(future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is("{}"));
+            } catch (ExecutionException e) {
+                failures++;
+            }
+        }
+
+        // The waiter makes its own request instead of sharing the failure.
+        assertThat(failures, is(1));
+        assertThat(server().getRequestCount(), is(1));
+        executor.shutdown();
+    }
+
+    @Test public void testSequentialNotCoalesced() throws Throwable {
+        server().enqueue("{}");
+        server().enqueue("{}");
+        OkHttpClient client = client();
+
+        get(client, "/path").call();
+        get(client, "/path").call();
+
+        assertThat(server().getRequestCount(), is(2));
+        assertThat(subject.getCoalescedCount(), is(0));
+    }
+
+    @Test public void testDifferentHeadersNotCoalesced() throws Throwable {
+        server().enqueue("{}");
+        server().enqueue("{}");
+        OkHttpClient client = client();
+
+        client.newCall(new Request.Builder().url(server().getUrl("/path"))
+                .header("Accept-Language", "en").build()).execute().body().close();
+        client.newCall(new Request.Builder().url(server().getUrl("/path"))
+                .header("Accept-Language", "de").build()).execute().body().close();
+
+        assertThat(server().getRequestCount(), is(2));
+        assertThat(subject.getRequestCount(), is(2));
+        assertThat(subject.getCoalescedCount(), is(0));
+    }
+
+    @Test public void testPostNotCounted() throws Throwable {
+        server().enqueue("{}");
+        client().newCall(new Request.Builder().url(server().getUrl("/path"))
+                .post(RequestBody.create(MediaType.parse("text/plain"), "body")).build())
+                .execute().body().close();
+
+        assertThat(subject.getRequestCount(), is(0));
+    }
+
+    @NonNull private OkHttpClient client(@NonNull Interceptor... inner) {
+        OkHttpClient.Builder builder = okHttpClient().newBuilder().addInterceptor(subject);
+        for (Interceptor interceptor : inner) {
+            builder.addInterceptor(interceptor);
+        }
+        return builder.build();
+    }
+
+    @NonNull private Callable<String> get(@NonNull final OkHttpClient client, @NonNull final String path) {
+        return new Callable<String>() {
+            @Override public String call() throws Exception {
+                Request request = new Request.Builder().url(server().getUrl(path)).build();
+                return client.newCall(request).execute().body().string();
+            }
+        };
+    }
+
+    /** Holds the request that made it past the subject until the expected waiters have joined it. */
+    private class AwaitWaiterInterceptor implements Interceptor {
+        private final int waiters;
+
+        AwaitWaiterInterceptor(int waiters) {
+            this.waiters = waiters;
+        }
+
+        @Override public Response intercept(Chain chain) throws IOException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (subject.getCoalescedCount() < waiters && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            return chain.proceed(chain.request());
+        }
+    }
+
+    private static class FailFirstInterceptor implements Interceptor {
+        private boolean failed;
+
+        @Override public synchronized Response intercept(Chain chain) throws IOException {
+            if (!failed) {
+                failed = true;
+                throw new IOException("Canceled");
+            }
+            return chain.proceed(chain.request());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.runner.RunWith;
 import org.wikipedia.Constants;
 import org.wikipedia.test.TestRunner;
 
+import okhttp3.CacheControl;
 import okhttp3.Request;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -23,4 +24,29 @@ import static org.hamcrest.Matchers.is;
         Request req = new Request.Builder().url(Constants.WIKIPEDIA_URL).build();
         assertThat(CacheDelegateStrategy.isCacheable(req), is(false));
     }
+
+    @Test public void testIsSavedOnlyTrue() {
+        Request req = new Request.Builder()
+                .url(Constants.WIKIPEDIA_URL)
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .addHeader(SaveHeader.FIELD, SaveHeader.VAL_ENABLED)
+                .build();
+        assertThat(CacheDelegateStrategy.isSavedOnly(req), is(true));
+    }
+
+    @Test public void testIsSavedOnlyNotOnlyIfCached() {
+        Request req = new Request.Builder()
+                .url(Constants.WIKIPEDIA_URL)
+                .addHeader(SaveHeader.FIELD, SaveHeader.VAL_ENABLED)
+                .build();
+        assertThat(CacheDelegateStrategy.isSavedOnly(req), is(false));
+    }
+
+    @Test public void testIsSavedOnlyNotSaved() {
+        Request req = new Request.Builder()
+                .url(Constants.WIKIPEDIA_URL)
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build();
+        assertThat(CacheDelegateStrategy.isSavedOnly(req), is(false));
+    }
 }
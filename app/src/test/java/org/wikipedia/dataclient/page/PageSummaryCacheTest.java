@@ -0,0 +1,209 @@
+package org.wikipedia.dataclient.page;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RuntimeEnvironment;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.json.GsonMarshaller;
+import org.wikipedia.json.GsonUnmarshaller;
+import org.wikipedia.test.ImmediateExecutor;
+import org.wikipedia.test.TestRunner;
+
+import java.io.File;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(TestRunner.class) @SuppressWarnings("checkstyle:magicnumber")
+public class PageSummaryCacheTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("en");
+    private static final String KEY = PageSummaryCache.key("summary", WIKI, "Einstein");
+    private static final String JSON = "{\"title\":\"Einstein\",\"extract\":\"Physicist\"}";
+    private static final long NOW = 1_000_000;
+    private static final long SECOND = 1000;
+
+    private File dir;
+
+    @Before public void setUp() {
+        dir = new File(RuntimeEnvironment.application.getCacheDir(), "page_summaries_test");
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    @Test public void testGetFromMemory() {
+        PageSummaryCache subject = subject();
+        subject.put(KEY, JSON, false, NOW);
+
+        assertThat(subject.getFromMemory(KEY, NOW), is(JSON));
+        assertThat(subject.getFromMemory("other", NOW), nullValue());
+    }
+
+    @Test public void testGetFromDisk() {
+        subject().put(KEY, JSON, false, NOW);
+        PageSummaryCache subject = subject();
+
+        assertThat(subject.getFromMemory(KEY, NOW), nullValue());
+        assertThat(subject.getFromDisk(KEY, NOW), is(JSON));
+        assertThat(subject.getFromMemory(KEY, NOW), is(JSON));
+    }
+
+    @Test public void testGetExpired() {
+        PageSummaryCache subject = subject();
+        subject.put(KEY, JSON, false, NOW);
+
+        assertThat(subject.getFromMemory(KEY, NOW + PageSummaryCache.TTL_MILLIS), nullValue());
+        assertThat(subject.getFromDisk(KEY, NOW + PageSummaryCache.TTL_MILLIS), nullValue());
+        assertThat(subject.getFromDisk(KEY, NOW), nullValue());
+    }
+
+    @Test public void testHitRate() {
+        subject().put(KEY, JSON, false, NOW);
+        PageSummaryCache subject = subject();
+
+        assertThat(subject.getHitRate(), is(0f));
+        assertThat(subject.getFromDisk(KEY, NOW), is(JSON));
+        assertThat(subject.getFromMemory(KEY, NOW), is(JSON));
+        assertThat(subject.getFromDisk(key(0), NOW), nullValue());
+
+        assertThat(subject.getHitCount(), is(2));
+        assertThat(subject.getMemoryHitCount(), is(1));
+        assertThat(subject.getMissCount(), is(1));
+        assertThat(subject.getHitRate(), is(2f / 3));
+    }
+
+    @Test public void testPrefetchReadFromMemory() {
+        PageSummaryCache subject = subject();
+        subject.put(KEY, JSON, true, NOW);
+
+        assertThat(subject.getFromMemory(KEY, NOW), is(JSON));
+        assertThat(subject.getFromMemory(KEY, NOW), is(JSON));
+        assertThat(subject.getPrefetchUsedCount(), is(1));
+
+        // The read entry is no longer counted as wasted when it expires.
+        assertThat(subject().getFromDisk(KEY, NOW + PageSummaryCache.TTL_MILLIS), nullValue());
+        assertThat(dir.list().length, is(0));
+        assertThat(subject.getPrefetchWastedBytes(), is(0L));
+    }
+
+    @Test public void testPrefetchReadFromDisk() {
+        subject().put(KEY, JSON, true, NOW);
+        PageSummaryCache subject = subject();
+
+        assertThat(subject.getFromDisk(KEY, NOW), is(JSON));
+        assertThat(subject.getPrefetchUsedCount(), is(1));
+
+        PageSummaryCache restarted = subject();
+        assertThat(restarted.getFromDisk(KEY, NOW), is(JSON));
+        assertThat(restarted.getPrefetchUsedCount(), is(0));
+    }
+
+    @Test public void testPrefetchExpiredUnreadIsWasted() {
+        subject().put(KEY, JSON, true, NOW);
+        PageSummaryCache subject = subject();
+
+        assertThat(subject.getFromDisk(KEY, NOW + PageSummaryCache.TTL_MILLIS), nullValue());
+        assertThat(subject.getPrefetchUsedCount(), is(0));
+        assertThat(subject.getPrefetchWastedBytes(), is((long) JSON.length()));
+    }
+
+    @Test public void testPutEvictsOldestFiles() {
+        PageSummaryCache subject = subject();
+        for (int i = 0; i < PageSummaryCache.MAX_FILES; i++) {
+            subject.put(key(i), JSON, false, NOW + i * SECOND);
+        }
+
+        // The first write of a process trims, and the next doesn't.
+        PageSummaryCache restarted = subject();
+        restarted.put(key(PageSummaryCache.MAX_FILES), JSON, false, NOW + PageSummaryCache.MAX_FILES * SECOND);
+        assertThat(dir.list().length, is(PageSummaryCache.MAX_FILES));
+        restarted.put(key(PageSummaryCache.MAX_FILES + 1), JSON, false, NOW + PageSummaryCache.MAX_FILES * SECOND);
+        assertThat(dir.list().length, is(PageSummaryCache.MAX_FILES + 1));
+
+        assertThat(subject().getFromDisk(key(0), NOW), nullValue());
+        assertThat(subject().getFromDisk(key(1), NOW), notNullValue());
+    }
+
+    @Test public void testGetWaitsForFetchInFlight() {
+        PageSummaryCache subject = subject();
+        PageSummaryCache.Fetcher<PageSummary> fetcher = fetcher();
+        PageSummaryCache.Callback<PageSummary> first = callback();
+        PageSummaryCache.Callback<PageSummary> second = callback();
+
+        subject.get(KEY, PageSummaryCache.Summary.class, fetcher, first);
+        subject.get(KEY, PageSummaryCache.Summary.class, fetcher, second);
+        PageSummary summary = new PageSummaryCache.Summary("Einstein", "Physicist", null);
+        fetched(fetcher).success(summary);
+
+        verify(first).success(summary);
+        verify(second).success(summary);
+        assertThat(subject.getMissCount(), is(2));
+        assertThat(subject.getFromMemory(KEY, System.currentTimeMillis()), notNullValue());
+    }
+
+    @Test public void testGetFetchFailure() {
+        PageSummaryCache subject = subject();
+        PageSummaryCache.Fetcher<PageSummary> fetcher = fetcher();
+        PageSummaryCache.Callback<PageSummary> first = callback();
+        PageSummaryCache.Callback<PageSummary> second = callback();
+
+        subject.get(KEY, PageSummaryCache.Summary.class, fetcher, first);
+        subject.get(KEY, PageSummaryCache.Summary.class, fetcher, second);
+        fetched(fetcher).failure(null);
+
+        verify(first).failure(null);
+        verify(second).failure(null);
+
+        // A failed fetch is no longer in flight.
+        PageSummaryCache.Fetcher<PageSummary> retry = fetcher();
+        subject.get(KEY, PageSummaryCache.Summary.class, retry, first);
+        verify(retry).fetch(any(PageSummaryCache.Callback.class));
+    }
+
+    @Test public void testSummaryRoundTrip() {
+        PageSummary summary = GsonUnmarshaller.unmarshal(PageSummaryCache.Summary.class,
+                GsonMarshaller.marshal(new PageSummaryCache.Summary("Einstein", "Physicist", "thumb.jpg")));
+
+        assertThat(summary.getTitle(), is("Einstein"));
+        assertThat(summary.getExtract(), is("Physicist"));
+        assertThat(summary.getThumbnailUrl(), is("thumb.jpg"));
+        assertThat(summary.hasError(), is(false));
+    }
+
+    @NonNull private PageSummaryCache subject() {
+        return new PageSummaryCache(dir, new ImmediateExecutor());
+    }
+
+    @SuppressWarnings("unchecked") @NonNull private static PageSummaryCache.Fetcher<PageSummary> fetcher() {
+        return mock(PageSummaryCache.Fetcher.class);
+    }
+
+    @SuppressWarnings("unchecked") @NonNull private static PageSummaryCache.Callback<PageSummary> callback() {
+        return mock(PageSummaryCache.Callback.class);
+    }
+
+    // Verifies that the fetcher was asked once and returns the callback it was given.
+    @SuppressWarnings("unchecked") @NonNull
+    private static PageSummaryCache.Callback<PageSummary> fetched(@NonNull PageSummaryCache.Fetcher<PageSummary> fetcher) {
+        ArgumentCaptor<PageSummaryCache.Callback> captor = ArgumentCaptor.forClass(PageSummaryCache.Callback.class);
+        verify(fetcher).fetch(captor.capture());
+        return captor.getValue();
+    }
+
+    @NonNull private static String key(int i) {
+        return PageSummaryCache.key("summary", WIKI, "Title" + i);
+    }
+}
@@ -0,0 +1,62 @@
+package org.wikipedia.dataclient.retrofit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.test.TestRunner;
+
+import retrofit2.Retrofit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+@RunWith(TestRunner.class) public class RetrofitFactoryTest {
+    private static final WikiSite EN = WikiSite.forLanguageCode("en");
+    private static final WikiSite DE = WikiSite.forLanguageCode("de");
+
+    @Before public void setUp() {
+        RetrofitFactory.clearPool();
+    }
+
+    @Test public void testInstanceReused() {
+        int hits = RetrofitFactory.poolHitCount();
+        int misses = RetrofitFactory.poolMissCount();
+
+        Retrofit first = RetrofitFactory.instance(EN);
+        Retrofit second = RetrofitFactory.instance(EN);
+
+        assertThat(second, sameInstance(first));
+        assertThat(RetrofitFactory.poolHitCount() - hits, is(1));
+        assertThat(RetrofitFactory.poolMissCount() - misses, is(1));
+    }
+
+    @Test public void testInstanceReusedAcrossWikis() {
+        Retrofit en = RetrofitFactory.instance(EN);
+        Retrofit de = RetrofitFactory.instance(DE);
+
+        assertThat(de, not(sameInstance(en)));
+        assertThat(RetrofitFactory.instance(EN), sameInstance(en));
+    }
+
+    @Test public void testInstanceEndpoint() {
+        Retrofit mw = RetrofitFactory.instance(EN);
+        Retrofit rb = RetrofitFactory.instance("https://en.wikipedia.org/api/rest_v1/", EN);
+
+        assertThat(rb, not(sameInstance(mw)));
+        assertThat(rb.baseUrl().toString(), is("https://en.wikipedia.org/api/rest_v1/"));
+    }
+
+    @Test public void testCachedServiceSwitchingWikis() {
+        MwCachedService<Service> subject = new MwCachedService<>(Service.class);
+        subject.retrofit(EN);
+        Retrofit en = subject.retrofit();
+        subject.retrofit(DE);
+
+        assertThat(subject.retrofit(EN), sameInstance(en));
+    }
+
+    private interface Service { }
+}
@@ -0,0 +1,169 @@
+package org.wikipedia.edit.richtext;
+
+import android.support.annotation.NonNull;
+import android.view.ContextThemeWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.wikipedia.R;
+import org.wikipedia.test.TestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+@RunWith(TestRunner.class) public class SyntaxLexerTest {
+    private static final long SEED = 42;
+    private static final int EDITS = 200;
+    private static final int MAX_EDIT_LENGTH = 8;
+
+    private static final int BENCHMARK_PARAGRAPHS = 500;
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    private static final String[] FRAGMENTS = {"{{", "}}", "[[", "]]", "[", "]", "<", ">", "'''''",
+            "'''", "''", "text", " ", "|"};
+
+    private static final SyntaxLexer.Cancellable NOT_CANCELLED = new SyntaxLexer.Cancellable() {
+        @Override public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    private static final SyntaxLexer.Cancellable CANCELLED = new SyntaxLexer.Cancellable() {
+        @Override public boolean isCancelled() {
+            return true;
+        }
+    };
+
+    @NonNull private final SyntaxLexer subject = new SyntaxLexer(
+            new ContextThemeWrapper(RuntimeEnvironment.application, R.style.Theme_Light),
+            Arrays.asList(new SyntaxRule("{{", "}}", SyntaxRuleStyle.TEMPLATE),
+                    new SyntaxRule("[[", "]]", SyntaxRuleStyle.INTERNAL_LINK),
+                    new SyntaxRule("[", "]", SyntaxRuleStyle.EXTERNAL_LINK),
+                    new SyntaxRule("<", ">", SyntaxRuleStyle.REF),
+                    new SyntaxRule("'''''", "'''''", SyntaxRuleStyle.BOLD_ITALIC),
+                    new SyntaxRule("'''", "'''", SyntaxRuleStyle.BOLD),
+                    new SyntaxRule("''", "''", SyntaxRuleStyle.ITALIC)));
+
+    @Test public void testLex() {
+        assertThat(extents(lex("{{a}} [[b]] [c] <d> '''''e''''' '''f''' ''g''")),
+                is(Arrays.asList("0:0:5", "1:6:11", "2:12:15", "3:16:19", "4:20:31", "5:32:39", "6:40:45")));
+    }
+
+    @Test public void testLexNested() {
+        assertThat(extents(lex("{{a|[[b]]}}")), is(Arrays.asList("1:4:9", "0:0:11")));
+    }
+
+    @Test public void testLexUnclosed() {
+        assertThat(lex("{{a [[b").spans(), empty());
+    }
+
+    @Test public void testLexCancelled() {
+        assertThat(subject.lex("{{a}}", CANCELLED), nullValue());
+    }
+
+    @Test public void testRelexInsert() {
+        String text = "[[a]] b [[c]]";
+        String edited = "[[a]] {{b}} [[c]]";
+        SyntaxLexer.Lexed lexed = relex(lex(text), edited, "[[a]] ".length(), "[[a]] {{b}}".length(),
+                edited.length() - text.length());
+
+        assertThat(extents(lexed), is(extents(lex(edited))));
+        assertThat(lexed.added().size(), is(1));
+        assertThat(lexed.removed(), empty());
+    }
+
+    @Test public void testRelexDelete() {
+        String text = "[[a]] {{b}} [[c]]";
+        String edited = "[[a]] {{b [[c]]";
+        SyntaxLexer.Lexed lexed = relex(lex(text), edited, "[[a]] {{b".length(), "[[a]] {{b".length(),
+                edited.length() - text.length());
+
+        assertThat(extents(lexed), is(extents(lex(edited))));
+        assertThat(lexed.removed().size(), is(1));
+    }
+
+    // Every sequence of random edits must produce the spans of lexing the edited text from scratch.
+    @Test public void testRelexMatchesLex() {
+        Random random = new Random(SEED);
+        StringBuilder text = new StringBuilder(wikitext(BENCHMARK_PARAGRAPHS / 10));
+        SyntaxLexer.Lexed lexed = lex(text.toString());
+
+        for (int i = 0; i < EDITS; i++) {
+            int start = random.nextInt(text.length() + 1);
+            int before = Math.min(random.nextInt(MAX_EDIT_LENGTH), text.length() - start);
+            String insert = random.nextBoolean() ? FRAGMENTS[random.nextInt(FRAGMENTS.length)] : "";
+            text.replace(start, start + before, insert);
+
+            lexed = relex(lexed, text.toString(), start, start + insert.length(), insert.length() - before);
+            assertThat(extents(lexed), is(extents(lex(text.toString()))));
+        }
+    }
+
+    // A benchmark of highlighting a long article after a single keystroke: relexing the damaged
+    // region should outperform lexing the whole text.
+    @Test public void testRelexBenchmark() {
+        String text = wikitext(BENCHMARK_PARAGRAPHS);
+        int pos = text.length() / 2;
+        String edited = text.substring(0, pos) + "x" + text.substring(pos);
+        SyntaxLexer.Lexed lexed = lex(text);
+
+        long lexNanos = 0;
+        long relexNanos = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            SyntaxLexer.Lexed expected = lex(edited);
+            lexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            SyntaxLexer.Lexed actual = subject.relex(edited, lexed, pos, pos + 1, 1, NOT_CANCELLED);
+            relexNanos += System.nanoTime() - start;
+
+            assertThat(actual.spans().size(), is(expected.spans().size()));
+        }
+
+        assertThat(relexNanos, lessThan(lexNanos));
+    }
+
+    @NonNull private SyntaxLexer.Lexed lex(@NonNull String text) {
+        return subject.lex(text, NOT_CANCELLED);
+    }
+
+    @NonNull private SyntaxLexer.Lexed relex(@NonNull SyntaxLexer.Lexed prev, @NonNull String text,
+                                             int damageStart, int damageEnd, int delta) {
+        SyntaxLexer.Lexed lexed = subject.relex(text, prev, damageStart, damageEnd, delta, NOT_CANCELLED);
+        lexed.commit();
+        return lexed;
+    }
+
+    @NonNull private List<String> extents(@NonNull SyntaxLexer.Lexed lexed) {
+        List<String> extents = new ArrayList<>();
+        for (SpanExtents span : lexed.spans()) {
+            extents.add(ruleIndex(span.getSyntaxRule()) + ":" + span.getStart() + ":" + span.getEnd());
+        }
+        return extents;
+    }
+
+    private int ruleIndex(@NonNull SyntaxRule rule) {
+        return Arrays.asList("{{", "[[", "[", "<", "'''''", "'''", "''").indexOf(rule.getStartSymbol());
+    }
+
+    @NonNull private String wikitext(int paragraphs) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            text.append("{{Infobox|name=").append(i).append("|image=[[File:Example.jpg|thumb]]}}\n")
+                .append("'''Lorem''' ipsum [[dolor]] sit amet, ''consectetur'' adipiscing elit")
+                .append("<ref>[https://example.org/").append(i).append(" Example]</ref>, sed do ")
+                .append("'''''eiusmod''''' tempor [[incididunt|ut]] labore et dolore magna aliqua.\n\n");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,198 @@
+package org.wikipedia.edit.richtext;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@RunWith(TestRunner.class) public class SyntaxRuleMatcherTest {
+    private static final int PARAGRAPHS = 10;
+    private static final int BENCHMARK_PARAGRAPHS = 500;
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    private static final int TEMPLATE = 0;
+    private static final int INTERNAL_LINK = 1;
+    private static final int EXTERNAL_LINK = 2;
+    private static final int BOLD_ITALIC = 4;
+    private static final int BOLD = 5;
+    private static final int ITALIC = 6;
+    private static final int COMMENT = 7;
+
+    @NonNull private final List<SyntaxRule> rules = Arrays.asList(
+            new SyntaxRule("{{", "}}", SyntaxRuleStyle.TEMPLATE),
+            new SyntaxRule("[[", "]]", SyntaxRuleStyle.INTERNAL_LINK),
+            new SyntaxRule("[", "]", SyntaxRuleStyle.EXTERNAL_LINK),
+            new SyntaxRule("<", ">", SyntaxRuleStyle.REF),
+            new SyntaxRule("'''''", "'''''", SyntaxRuleStyle.BOLD_ITALIC),
+            new SyntaxRule("'''", "'''", SyntaxRuleStyle.BOLD),
+            new SyntaxRule("''", "''", SyntaxRuleStyle.ITALIC),
+            new SyntaxRule("<!--", "-->", SyntaxRuleStyle.REF));
+    @NonNull private final SyntaxRuleMatcher subject = new SyntaxRuleMatcher(rules);
+
+    @Test public void testMatchNone() {
+        long matched = subject.match("text", 0);
+        for (int rule = 0; rule < rules.size(); rule++) {
+            assertThat(subject.isStart(matched, rule), is(false));
+            assertThat(subject.isEnd(matched, rule), is(false));
+        }
+    }
+
+    @Test public void testMatchPrefixes() {
+        long matched = subject.match("'''''", 0);
+        assertThat(subject.isStart(matched, BOLD_ITALIC), is(true));
+        assertThat(subject.isStart(matched, BOLD), is(true));
+        assertThat(subject.isStart(matched, ITALIC), is(true));
+    }
+
+    @Test public void testMatchStartAndEnd() {
+        long matched = subject.match("[[", 0);
+        assertThat(subject.isStart(matched, INTERNAL_LINK), is(true));
+        assertThat(subject.isStart(matched, EXTERNAL_LINK), is(true));
+        assertThat(subject.isEnd(matched, INTERNAL_LINK), is(false));
+        assertThat(subject.isStart(matched, TEMPLATE), is(false));
+    }
+
+    @Test public void testMatchEndOfText() {
+        long matched = subject.match("a<!-", 1);
+        assertThat(subject.isStart(matched, COMMENT), is(false));
+        assertThat(subject.isStart(subject.match("a<!--", 1), COMMENT), is(true));
+    }
+
+    @Test public void testNext() {
+        assertThat(subject.next("abc [[d", 0), is("abc ".length()));
+        assertThat(subject.next("abc -->", 0), is("abc ".length()));
+        assertThat(subject.next("abc", 0), is("abc".length()));
+    }
+
+    @Test @SuppressWarnings("checkstyle:magicnumber") public void testMatchPositions() {
+        String text = "a [[b]] ''c'' {{d}}";
+        assertThat(starts(text, INTERNAL_LINK), contains(2));
+        assertThat(ends(text, INTERNAL_LINK), contains(5));
+        assertThat(starts(text, EXTERNAL_LINK), contains(2, 3));
+        assertThat(starts(text, ITALIC), contains(8, 11));
+        assertThat(ends(text, ITALIC), contains(8, 11));
+        assertThat(starts(text, TEMPLATE), contains(14));
+        assertThat(ends(text, TEMPLATE), contains(17));
+    }
+
+    @Test public void testMatchEqualsStartsWith() {
+        String text = wikitext(PARAGRAPHS);
+        for (int rule = 0; rule < rules.size(); rule++) {
+            assertThat(starts(text, rule), is(positionsOf(text, rules.get(rule).getStartSymbol())));
+            assertThat(ends(text, rule), is(positionsOf(text, rules.get(rule).getEndSymbol())));
+        }
+    }
+
+    // A benchmark of finding every delimiter in a long article, walking the trie from the positions
+    // that next() yields versus comparing every symbol at every position. The timings are reported
+    // rather than asserted, since wall-clock time on a test machine isn't reliable; only the
+    // results are checked.
+    @Test public void testMatchBenchmark() {
+        String text = wikitext(BENCHMARK_PARAGRAPHS);
+
+        long naiveNanos = 0;
+        long matcherNanos = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<String> expected = naiveMatchAll(text);
+            naiveNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<String> actual = matchAll(text);
+            matcherNanos += System.nanoTime() - start;
+
+            assertThat(actual, is(expected));
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "SyntaxRuleMatcher: %d chars, %d ms for %d iterations, naive: %d ms",
+                text.length(), TimeUnit.NANOSECONDS.toMillis(matcherNanos), BENCHMARK_ITERATIONS,
+                TimeUnit.NANOSECONDS.toMillis(naiveNanos)));
+    }
+
+    // Every rule symbol matched in the text, as "position:rule:start|end".
+    @NonNull private List<String> matchAll(@NonNull String text) {
+        List<String> matches = new ArrayList<>();
+        for (int i = subject.next(text, 0); i < text.length(); i = subject.next(text, i + 1)) {
+            long matched = subject.match(text, i);
+            for (int rule = 0; rule < rules.size(); rule++) {
+                if (subject.isStart(matched, rule)) {
+                    matches.add(i + ":" + rule + ":start");
+                }
+                if (subject.isEnd(matched, rule)) {
+                    matches.add(i + ":" + rule + ":end");
+                }
+            }
+        }
+        return matches;
+    }
+
+    @NonNull private List<String> naiveMatchAll(@NonNull String text) {
+        List<String> matches = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            for (int rule = 0; rule < rules.size(); rule++) {
+                if (text.startsWith(rules.get(rule).getStartSymbol(), i)) {
+                    matches.add(i + ":" + rule + ":start");
+                }
+                if (text.startsWith(rules.get(rule).getEndSymbol(), i)) {
+                    matches.add(i + ":" + rule + ":end");
+                }
+            }
+        }
+        return matches;
+    }
+
+    // The positions of the start symbol of the rule found by matching from every candidate
+    // position that next() yields.
+    @NonNull private List<Integer> starts(@NonNull String text, int rule) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = subject.next(text, 0); i < text.length(); i = subject.next(text, i + 1)) {
+            if (subject.isStart(subject.match(text, i), rule)) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    @NonNull private List<Integer> ends(@NonNull String text, int rule) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = subject.next(text, 0); i < text.length(); i = subject.next(text, i + 1)) {
+            if (subject.isEnd(subject.match(text, i), rule)) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    @NonNull private List<Integer> positionsOf(@NonNull String text, @NonNull String symbol) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            if (text.startsWith(symbol, i)) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    @NonNull private String wikitext(int paragraphs) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            text.append("{{Infobox|name=").append(i).append("|image=[[File:Example.jpg|thumb]]}}\n")
+                .append("<!-- comment -->'''Lorem''' ipsum [[dolor]] sit amet, ''consectetur'' adipiscing elit")
+                .append("<ref>[https://example.org/").append(i).append(" Example]</ref>, sed do ")
+                .append("'''''eiusmod''''' tempor [[incididunt|ut]] labore et dolore magna aliqua.\n\n");
+        }
+        return text.toString();
+    }
+}
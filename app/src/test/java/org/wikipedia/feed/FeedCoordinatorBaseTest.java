@@ -0,0 +1,133 @@
+package org.wikipedia.feed;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.feed.dataclient.FeedClient;
+import org.wikipedia.feed.model.Card;
+import org.wikipedia.feed.model.CardType;
+import org.wikipedia.feed.progress.ProgressCard;
+import org.wikipedia.test.TestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+@RunWith(TestRunner.class) public class FeedCoordinatorBaseTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("test");
+
+    @NonNull private final List<TestClient> clients = new ArrayList<>();
+    private Subject subject;
+
+    @Before public void setUp() {
+        clients.add(new TestClient());
+        clients.add(new TestClient());
+        clients.add(new TestClient());
+        subject = new Subject(RuntimeEnvironment.application);
+        subject.reset();
+    }
+
+    @Test public void testMoreRequestsAllClients() {
+        subject.more(WIKI);
+
+        for (TestClient client : clients) {
+            assertThat(client.callback, notNullValue());
+        }
+        assertThat(subject.finished(), is(false));
+    }
+
+    @Test public void testMoreInsertsCardsInScriptOrder() {
+        subject.more(WIKI);
+
+        clients.get(2).success(2);
+        clients.get(1).success(1);
+        assertThat(subject.getCards().size(), is(1));
+
+        clients.get(0).success(0);
+        assertThat(subject.getCards(), contains(card(0), card(1), card(2)));
+        assertThat(subject.finished(), is(true));
+    }
+
+    @Test public void testMoreSkipsFailedClients() {
+        subject.more(WIKI);
+
+        clients.get(1).callback.error(new IOException());
+        clients.get(0).success(0);
+        assertThat(subject.getCards().get(0), is(card(0)));
+        assertThat(subject.getCards().get(1), instanceOf(ProgressCard.class));
+
+        clients.get(2).success(2);
+        assertThat(subject.getCards(), contains(card(0), card(2)));
+    }
+
+    @Test public void testResetIgnoresCancelledClients() {
+        subject.more(WIKI);
+        FeedClient.Callback callback = clients.get(0).callback;
+
+        subject.reset();
+        callback.success(Collections.singletonList(card(0)));
+
+        assertThat(subject.getCards().size(), is(1));
+        assertThat(clients.get(0).cancelled, is(true));
+    }
+
+    @NonNull private static Card card(int id) {
+        return new TestCard(id);
+    }
+
+    private class Subject extends FeedCoordinatorBase {
+        Subject(@NonNull Context context) {
+            super(context);
+        }
+
+        @Override protected void buildScript(int age) {
+            for (FeedClient client : clients) {
+                addPendingClient(client);
+            }
+        }
+    }
+
+    private static class TestClient implements FeedClient {
+        @Nullable private Callback callback;
+        private boolean cancelled;
+
+        @Override public void request(@NonNull Context context, @NonNull WikiSite wiki, int age,
+                                      @NonNull Callback cb) {
+            callback = cb;
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+        }
+
+        void success(int id) {
+            //noinspection ConstantConditions
+            callback.success(Collections.singletonList(card(id)));
+        }
+    }
+
+    private static class TestCard extends Card {
+        private final int id;
+
+        TestCard(int id) {
+            this.id = id;
+        }
+
+        @NonNull @Override public CardType type() {
+            return CardType.SEARCH_BAR;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.wikipedia.history;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.WikipediaApp;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.page.PageTitle;
+import org.wikipedia.test.TestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(TestRunner.class) public class HistoryDataSourceTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("test");
+    private static final int PAGE_SIZE = 2;
+    private static final long TIMESTAMP_1 = 1000;
+    private static final long TIMESTAMP_2 = 2000;
+    private static final long TIMESTAMP_3 = 3000;
+
+    @Test public void testSectioned() throws Throwable {
+        HistoryListItem first = entry(1, "Jan 2, 2017");
+        HistoryListItem second = entry(2, "Jan 2, 2017");
+        HistoryListItem third = entry(3, "Jan 1, 2017");
+
+        List<HistoryListItem> items = HistoryDataSource.sectioned(Arrays.asList(first, second, third), null);
+
+        assertThat(items.size(), is(5));
+        assertThat(items.get(0).isHeader(), is(true));
+        assertThat(items.get(0).date(), is("Jan 2, 2017"));
+        assertThat(items.subList(1, 3), contains(first, second));
+        assertThat(items.get(3).isHeader(), is(true));
+        assertThat(items.get(3).date(), is("Jan 1, 2017"));
+        assertThat(items.get(4), is(third));
+    }
+
+    @Test public void testSectionedContinuesPreviousDate() throws Throwable {
+        HistoryListItem first = entry(1, "Jan 1, 2017");
+        HistoryListItem second = entry(2, "Dec 31, 2016");
+
+        List<HistoryListItem> items = HistoryDataSource.sectioned(Arrays.asList(first, second), "Jan 1, 2017");
+
+        assertThat(items.size(), is(3));
+        assertThat(items.get(0), is(first));
+        assertThat(items.get(1).isHeader(), is(true));
+        assertThat(items.get(1).date(), is("Dec 31, 2016"));
+        assertThat(items.get(2), is(second));
+    }
+
+    @Test public void testSectionedEmpty() throws Throwable {
+        assertThat(HistoryDataSource.sectioned(Collections.<HistoryListItem>emptyList(), "Jan 1, 2017"),
+                empty());
+    }
+
+    @Test public void testQueryPagesByKeyset() throws Throwable {
+        // Most recent first with ties in timestamp broken by most recently inserted.
+        long[] timestamps = {TIMESTAMP_1, TIMESTAMP_2, TIMESTAMP_2, TIMESTAMP_2, TIMESTAMP_3, TIMESTAMP_3};
+        for (int i = 0; i < timestamps.length; i++) {
+            WikipediaApp.getInstance().getDatabaseClient(HistoryEntry.class).persist(
+                    new HistoryEntry(title(i), new Date(timestamps[i]), HistoryEntry.SOURCE_SEARCH));
+        }
+
+        List<String> titles = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        HistoryListItem last = null;
+        do {
+            List<HistoryListItem> entries = entries(HistoryDataSource.query(null, last, PAGE_SIZE).items());
+            pageSizes.add(entries.size());
+            for (HistoryListItem entry : entries) {
+                titles.add(entry.entry().getTitle().getText());
+            }
+            last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        } while (last != null);
+
+        assertThat(titles, contains(title(5).getText(), title(4).getText(), title(3).getText(),
+                title(2).getText(), title(1).getText(), title(0).getText()));
+        assertThat(pageSizes, contains(PAGE_SIZE, PAGE_SIZE, PAGE_SIZE, 0));
+    }
+
+    @Test public void testQueryFiltered() throws Throwable {
+        PageTitle obama = new PageTitle("Barack Obama", WIKI);
+        WikipediaApp.getInstance().getDatabaseClient(HistoryEntry.class).persist(
+                new HistoryEntry(obama, new Date(TIMESTAMP_1), HistoryEntry.SOURCE_SEARCH));
+        WikipediaApp.getInstance().getDatabaseClient(HistoryEntry.class).persist(
+                new HistoryEntry(new PageTitle("Joe Biden", WIKI), new Date(TIMESTAMP_2), HistoryEntry.SOURCE_SEARCH));
+
+        List<HistoryListItem> entries = entries(HistoryDataSource.query("obam", null, PAGE_SIZE).items());
+
+        assertThat(entries.size(), is(1));
+        assertThat(entries.get(0).entry().getTitle().getText(), is(obama.getText()));
+    }
+
+    @NonNull private List<HistoryListItem> entries(@NonNull List<HistoryListItem> items) {
+        List<HistoryListItem> entries = new ArrayList<>();
+        for (HistoryListItem item : items) {
+            if (!item.isHeader()) {
+                entries.add(item);
+            }
+        }
+        return entries;
+    }
+
+    @NonNull private PageTitle title(int i) {
+        return new PageTitle("Title " + i, WIKI);
+    }
+
+    @NonNull private HistoryListItem entry(long id, @NonNull String date) {
+        return HistoryListItem.entry(id, new HistoryEntry(title((int) id), HistoryEntry.SOURCE_SEARCH), null, date);
+    }
+}
@@ -0,0 +1,152 @@
+package org.wikipedia.html;
+
+import android.support.annotation.NonNull;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@RunWith(TestRunner.class) public class ImageTagTokenizerTest {
+    private static final PixelDensityDescriptor DESCRIPTOR_1X = new PixelDensityDescriptor(1);
+    private static final PixelDensityDescriptor DESCRIPTOR_2X = new PixelDensityDescriptor(2);
+
+    private static final int LONG_ARTICLE_SECTIONS = 60;
+    private static final int LONG_ARTICLE_PARAGRAPHS_PER_SECTION = 20;
+
+    @NonNull private final ImageTagParser imageParser = new ImageTagParser();
+    @NonNull private final PixelDensityDescriptorParser descriptorParser = new PixelDensityDescriptorParser();
+    @NonNull private final ImageTagTokenizer subject = new ImageTagTokenizer(imageParser, descriptorParser);
+
+    @Test public void testTokenizeEmpty() {
+        assertThat(subject.tokenize(""), empty());
+    }
+
+    @Test public void testTokenizeNoImages() {
+        assertThat(subject.tokenize("<p>text <a href='url'>link</a></p>"), empty());
+    }
+
+    @Test public void testTokenizeSrc() {
+        assertThat(srcs("<img src='url'>"), contains("url"));
+    }
+
+    @Test public void testTokenizeSrcSet() {
+        ImageElement img = subject.tokenize("<img src=\"src\" srcset=\"url1 1x, url2 2x\">").get(0);
+        assertThat(img.src(), is("src"));
+        assertThat(img.src(DESCRIPTOR_1X), is("url1"));
+        assertThat(img.src(DESCRIPTOR_2X), is("url2"));
+    }
+
+    @Test public void testTokenizeNoSrc() {
+        assertThat(subject.tokenize("<img alt='x'>").get(0).src(), nullValue());
+    }
+
+    @Test public void testTokenizeCaseInsensitive() {
+        assertThat(srcs("<IMG SRC='url'>"), contains("url"));
+    }
+
+    @Test public void testTokenizeUnquoted() {
+        assertThat(srcs("<img alt=x src=url>"), contains("url"));
+    }
+
+    @Test public void testTokenizeSelfClosing() {
+        assertThat(srcs("<img src='url1'/><img src='url2' />"), contains("url1", "url2"));
+    }
+
+    @Test public void testTokenizeWhitespace() {
+        assertThat(srcs("<img\n\tsrc = 'url' >"), contains("url"));
+    }
+
+    @Test public void testTokenizeEntities() {
+        assertThat(srcs("<img src='url?a=1&amp;b=2'>"), contains("url?a=1&b=2"));
+    }
+
+    @Test public void testTokenizeDuplicateAttribute() {
+        assertThat(srcs("<img src='url1' src='url2'>"), contains("url1"));
+    }
+
+    @Test public void testTokenizeTagPrefix() {
+        assertThat(subject.tokenize("<imgx src='url'>"), empty());
+    }
+
+    @Test public void testTokenizeComment() {
+        assertThat(srcs("<!-- <img src='url1'> --><img src='url2'>"), contains("url2"));
+    }
+
+    @Test public void testTokenizeScript() {
+        assertThat(srcs("<script>'<img src=\"url1\">'</script><img src='url2'>"), contains("url2"));
+    }
+
+    @Test public void testTokenizeAttributeMarkup() {
+        assertThat(srcs("<span data-mw='<img src=\"url1\">'></span><img src='url2'>"), contains("url2"));
+    }
+
+    @Test public void testTokenizeMatchesJsoup() {
+        String html = article(1, 1);
+        assertThat(srcs(subject.tokenize(html)), is(srcs(jsoup(html))));
+    }
+
+    @Test public void testTokenizeLongArticleMatchesJsoup() {
+        String html = article(LONG_ARTICLE_SECTIONS, LONG_ARTICLE_PARAGRAPHS_PER_SECTION);
+        assertThat(srcs(subject.tokenize(html)), is(srcs(jsoup(html))));
+    }
+
+    @NonNull private List<String> srcs(@NonNull String html) {
+        return srcs(subject.tokenize(html));
+    }
+
+    @NonNull private List<String> srcs(@NonNull List<ImageElement> imgs) {
+        List<String> srcs = new ArrayList<>();
+        for (ImageElement img : imgs) {
+            srcs.add(img.src());
+            srcs.add(img.src(DESCRIPTOR_1X));
+            srcs.add(img.src(DESCRIPTOR_2X));
+        }
+        return srcs;
+    }
+
+    @NonNull private List<ImageElement> jsoup(@NonNull String html) {
+        List<ImageElement> imgs = new ArrayList<>();
+        for (Element el : Jsoup.parseBodyFragment(html).getElementsByTag(imageParser.tagName())) {
+            imgs.add(imageParser.parse(descriptorParser, el));
+        }
+        return imgs;
+    }
+
+    // Markup modeled on mobile-sections article content: figures with srcsets, infobox tables,
+    // references, and inline icons.
+    @NonNull private String article(int sections, int paragraphsPerSection) {
+        StringBuilder html = new StringBuilder();
+        for (int section = 0; section < sections; section++) {
+            html.append("<h2 id=\"Section_").append(section).append("\">Section ").append(section).append("</h2>")
+                .append("<table class=\"infobox\"><tr><td><a href=\"/wiki/File:Flag.svg\" class=\"image\">")
+                .append("<img alt=\"\" src=\"//upload.wikimedia.org/wikipedia/commons/thumb/flag.svg/23px-flag.svg.png\"")
+                .append(" width=\"23\" height=\"15\" srcset=\"//upload.wikimedia.org/wikipedia/commons/thumb/flag.svg/")
+                .append("35px-flag.svg.png 1.5x, //upload.wikimedia.org/wikipedia/commons/thumb/flag.svg/")
+                .append("46px-flag.svg.png 2x\" data-file-width=\"900\" data-file-height=\"600\"></a></td></tr></table>")
+                .append("<!-- hidden comment with <img src=\"ignored\"> -->")
+                .append("<figure class=\"mw-default-size\"><a href=\"/wiki/File:Figure_").append(section)
+                .append(".jpg\"><img src=\"//upload.wikimedia.org/wikipedia/commons/thumb/figure").append(section)
+                .append(".jpg/220px-figure").append(section).append(".jpg\" srcset=\"//upload.wikimedia.org/wikipedia/")
+                .append("commons/thumb/figure").append(section).append(".jpg/440px-figure").append(section)
+                .append(".jpg 2x\"></a><figcaption>Caption &amp; <b>bold</b></figcaption></figure>");
+            for (int paragraph = 0; paragraph < paragraphsPerSection; paragraph++) {
+                html.append("<p>Lorem <a href=\"/wiki/Ipsum\" title=\"Ipsum\">ipsum</a> dolor sit amet, ")
+                    .append("<i>consectetur</i> adipiscing elit, sed do eiusmod tempor incididunt ut labore")
+                    .append("<sup class=\"reference\" id=\"cite_ref-").append(paragraph).append("\"><a href=\"#cite_note-")
+                    .append(paragraph).append("\">[").append(paragraph).append("]</a></sup> et dolore magna aliqua.</p>");
+            }
+        }
+        return html.toString();
+    }
+}
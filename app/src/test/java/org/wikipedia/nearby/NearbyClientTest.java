@@ -145,6 +145,6 @@ public class NearbyClientTest extends MockWebServerTest {
 
     private Call<MwQueryResponse<Nearby>> request(@NonNull NearbyClient.Callback cb) {
         return subject.request(WikiSite.forLanguageCode("test"),
-                service(NearbyClient.Service.class), 0, 0, 0, cb);
+                service(NearbyClient.Service.class), new NearbyTile(0, 0, 0), cb);
     }
 }
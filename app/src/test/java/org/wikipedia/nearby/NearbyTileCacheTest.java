@@ -0,0 +1,97 @@
+package org.wikipedia.nearby;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.test.TestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.wikipedia.nearby.NearbyTileTest.page;
+
+@SuppressWarnings("checkstyle:magicnumber") @RunWith(TestRunner.class)
+public class NearbyTileCacheTest {
+    private NearbyTileCache subject;
+
+    @Before public void setUp() throws Throwable {
+        subject = new NearbyTileCache();
+        subject.setWiki(WikiSite.forLanguageCode("test"));
+    }
+
+    @Test public void testCovered() throws Throwable {
+        NearbyTile tile = new NearbyTile(2, 1, 1);
+        assertThat(subject.isCovered(tile), is(false));
+
+        subject.put(tile, Collections.<NearbyPage>emptyList(), false);
+        assertThat(subject.isCovered(tile), is(true));
+    }
+
+    @Test public void testCompleteParentCoversChildren() throws Throwable {
+        NearbyTile parent = new NearbyTile(2, 1, 1);
+        subject.put(parent, Collections.<NearbyPage>emptyList(), true);
+
+        assertThat(subject.isCovered(new NearbyTile(3, 2, 3)), is(true));
+        assertThat(subject.isCovered(new NearbyTile(3, 4, 4)), is(false));
+    }
+
+    @Test public void testIncompleteParentDoesNotCoverChildren() throws Throwable {
+        NearbyTile parent = new NearbyTile(2, 1, 1);
+        subject.put(parent, Collections.<NearbyPage>emptyList(), false);
+
+        assertThat(subject.isCovered(new NearbyTile(3, 2, 3)), is(false));
+    }
+
+    @Test public void testUncovered() throws Throwable {
+        NearbyTile cached = new NearbyTile(1, 0, 0);
+        NearbyTile missing = new NearbyTile(1, 1, 0);
+        subject.put(cached, Collections.<NearbyPage>emptyList(), false);
+
+        assertThat(subject.uncovered(Arrays.asList(cached, missing)), contains(missing));
+    }
+
+    @Test public void testPages() throws Throwable {
+        NearbyPage inside = page("inside", 1, 1);
+        NearbyPage outsideBounds = page("outsideBounds", 30, 30);
+        NearbyPage outsideTile = page("outsideTile", -1, -1);
+        subject.put(new NearbyTile(1, 1, 0), Arrays.asList(inside, outsideBounds, outsideTile), true);
+
+        assertThat(subject.pages(10, -10, -10, 10), contains(inside));
+    }
+
+    @Test public void testPagesDeduplicated() throws Throwable {
+        NearbyPage page = page("a", 1, 1);
+        subject.put(new NearbyTile(1, 1, 0), Collections.singletonList(page), false);
+        subject.put(new NearbyTile(2, 2, 1), Collections.singletonList(page), false);
+
+        assertThat(subject.pages(10, -10, -10, 10).size(), is(1));
+    }
+
+    @Test public void testSetWikiClears() throws Throwable {
+        NearbyTile tile = new NearbyTile(1, 1, 0);
+        subject.put(tile, Collections.singletonList(page("a", 1, 1)), true);
+
+        subject.setWiki(WikiSite.forLanguageCode("test"));
+        assertThat(subject.isCovered(tile), is(true));
+
+        subject.setWiki(WikiSite.forLanguageCode("de"));
+        assertThat(subject.isCovered(tile), is(false));
+        assertThat(subject.pages(10, -10, -10, 10), empty());
+    }
+
+    @Test public void testEviction() throws Throwable {
+        NearbyTile first = new NearbyTile(10, 0, 0);
+        subject.put(first, Collections.<NearbyPage>emptyList(), false);
+        for (int i = 1; i <= NearbyTileCache.MAX_TILES; i++) {
+            subject.put(new NearbyTile(10, i, 0), Collections.<NearbyPage>emptyList(), false);
+        }
+
+        assertThat(subject.isCovered(first), is(false));
+        assertThat(subject.isCovered(new NearbyTile(10, 1, 0)), is(true));
+    }
+}
@@ -0,0 +1,69 @@
+package org.wikipedia.nearby;
+
+import android.location.Location;
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@SuppressWarnings("checkstyle:magicnumber") @RunWith(TestRunner.class)
+public class NearbyTileTest {
+    private static final double DELTA = 0.000001;
+
+    @Test public void testOf() throws Throwable {
+        assertThat(NearbyTile.of(0, 0, 0), is(new NearbyTile(0, 0, 0)));
+        assertThat(NearbyTile.of(0.1, 0.1, 1), is(new NearbyTile(1, 1, 0)));
+        assertThat(NearbyTile.of(-0.1, -0.1, 1), is(new NearbyTile(1, 0, 1)));
+        assertThat(NearbyTile.of(90, 180, 2), is(new NearbyTile(2, 3, 0)));
+    }
+
+    @Test public void testBounds() throws Throwable {
+        NearbyTile tile = new NearbyTile(1, 0, 0);
+        assertThat(tile.north(), closeTo(NearbyTile.MAX_LATITUDE, DELTA));
+        assertThat(tile.south(), closeTo(0, DELTA));
+        assertThat(tile.west(), closeTo(-180, DELTA));
+        assertThat(tile.east(), closeTo(0, DELTA));
+        assertThat(tile.bbox(), is("85.051129|-180.000000|0.000000|0.000000"));
+    }
+
+    @Test public void testParent() throws Throwable {
+        assertThat(new NearbyTile(3, 5, 6).parent(), is(new NearbyTile(2, 2, 3)));
+        assertThat(new NearbyTile(0, 0, 0).parent(), nullValue());
+    }
+
+    @Test public void testCovering() throws Throwable {
+        List<NearbyTile> tiles = NearbyTile.covering(10, -10, -10, 10, 1);
+        assertThat(tiles, contains(new NearbyTile(1, 0, 0), new NearbyTile(1, 1, 0),
+                new NearbyTile(1, 0, 1), new NearbyTile(1, 1, 1)));
+    }
+
+    @Test public void testGroup() throws Throwable {
+        NearbyPage a = page("a", 1, 1);
+        NearbyPage b = page("b", -1, -1);
+        NearbyPage c = page("c", 2, 2);
+
+        Map<NearbyTile, List<NearbyPage>> groups = NearbyTile.group(Arrays.asList(a, b, c), 1);
+
+        assertThat(groups.keySet(), contains(new NearbyTile(1, 1, 0), new NearbyTile(1, 0, 1)));
+        assertThat(groups.get(new NearbyTile(1, 1, 0)), contains(a, c));
+        assertThat(groups.get(new NearbyTile(1, 0, 1)), contains(b));
+    }
+
+    @NonNull static NearbyPage page(@NonNull String title, double latitude, double longitude) {
+        Location location = new Location(title);
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        return new NearbyPage(title, location);
+    }
+}
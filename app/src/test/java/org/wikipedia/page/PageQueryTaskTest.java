@@ -0,0 +1,56 @@
+package org.wikipedia.page;
+
+import org.json.JSONObject;
+import org.junit.Test;
+import org.mediawiki.api.json.ApiException;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.test.MockWebServerTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PageQueryTaskTest extends MockWebServerTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("en");
+
+    @Test public void testRequest() throws Throwable {
+        enqueueFromFile("page_query_descriptions.json");
+        subject(Arrays.asList(new PageTitle("SAT", WIKI), new PageTitle("Radiocarbon dating", WIKI)))
+                .performTask();
+
+        String path = server().takeRequest().getPath();
+        assertThat(path.contains("action=query"), is(true));
+        assertThat(path.contains("titles=SAT%7CRadiocarbon"), is(true));
+        assertThat(path.contains("prop=pageterms"), is(true));
+    }
+
+    @Test public void testProcessPages() throws Throwable {
+        enqueueFromFile("page_query_descriptions.json");
+        Map<PageTitle, Integer> result = subject(Arrays.asList(new PageTitle("SAT", WIKI),
+                new PageTitle("Radiocarbon dating", WIKI))).performTask();
+
+        assertThat(result.size(), is(2));
+        assertThat(result.get(new PageTitle("SAT", WIKI)), is(26787));
+        assertThat(result.get(new PageTitle("Radiocarbon dating", WIKI)), is(25942));
+    }
+
+    @Test(expected = ApiException.class) public void testApiError() throws Throwable {
+        enqueueFromFile("api_error.json");
+        subject(Arrays.asList(new PageTitle("SAT", WIKI))).performTask();
+    }
+
+    private PageQueryTask<Integer> subject(List<PageTitle> titles) {
+        return new PageQueryTask<Integer>(service(PageQueryTask.Service.class), WIKI, titles) {
+            @Override public void buildQueryParams(Map<String, String> params) {
+                params.put("prop", "pageterms");
+            }
+
+            @Override public Integer processPage(int pageId, PageTitle pageTitle, JSONObject page) {
+                return pageId;
+            }
+        };
+    }
+}
@@ -1,9 +1,14 @@
 package org.wikipedia.page;
 
+import android.util.JsonWriter;
+
+import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.wikipedia.test.TestRunner;
 
+import java.io.StringWriter;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
@@ -27,4 +32,15 @@ import static org.hamcrest.Matchers.is;
 
         assertThat(parentSection, is(Section.fromJson(parentSection.toJSON())));
     }
+
+    @Test public void testWriteToMatchesToJSON() throws Throwable {
+        Section section = new Section(1, 2, "Heading", null, "<p>\"Hi\" there!</p>\n");
+        StringWriter json = new StringWriter();
+        JsonWriter writer = new JsonWriter(json);
+        section.writeTo(writer);
+        writer.flush();
+
+        assertThat(new JSONObject(json.toString()).toString(), is(section.toJSON().toString()));
+        assertThat(Section.fromJson(new JSONObject(json.toString())), is(section));
+    }
 }
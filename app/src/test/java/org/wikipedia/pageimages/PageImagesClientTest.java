@@ -21,6 +21,7 @@ import retrofit2.Call;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -57,6 +58,22 @@ public class PageImagesClientTest extends MockWebServerTest {
         assertThat(obama.getImageName(), is("https://upload.wikimedia.org/wikipedia/commons/thumb/8/8d/President_Barack_Obama.jpg/256px-President_Barack_Obama.jpg"));
     }
 
+    @Test public void testRequestSuccessNoThumbnail() throws Throwable {
+        enqueueFromFile("reading_list_page_info_continue.json");
+
+        PageImagesClient.Callback cb = mock(PageImagesClient.Callback.class);
+        Call<MwQueryResponse<PageImagesClient.QueryResult>> call = request(cb);
+
+        server().takeRequest();
+
+        ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cb).success(eq(call), captor.capture());
+
+        Map<PageTitle, PageImage> result = captor.getValue();
+        assertThat(result.get(PAGE_TITLE_BIDEN).getImageName(), nullValue());
+        assertThat(result.get(PAGE_TITLE_OBAMA).getImageName(), nullValue());
+    }
+
     @Test public void testRequestResponseApiError() throws Throwable {
         enqueueFromFile("api_error.json");
 
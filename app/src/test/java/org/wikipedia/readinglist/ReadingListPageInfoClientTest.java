@@ -13,6 +13,7 @@ import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.dataclient.okhttp.HttpStatusException;
 import org.wikipedia.page.PageTitle;
 import org.wikipedia.test.MockWebServerTest;
+import org.wikipedia.util.BatchUtil;
 
 import java.util.Collections;
 import java.util.List;
@@ -85,6 +86,25 @@ public class ReadingListPageInfoClientTest extends MockWebServerTest {
         assertCallbackFailure(call, cb, MalformedJsonException.class);
     }
 
+    @Test public void testRequestAllContinuation() throws Throwable {
+        enqueueFromFile("reading_list_page_info_continue.json");
+        enqueueFromFile("reading_list_page_info.json");
+
+        //noinspection unchecked
+        BatchUtil.Callback<MwQueryPage> cb = mock(BatchUtil.Callback.class);
+        subject.requestAll(service(ReadingListPageInfoClient.Service.class),
+                Collections.singletonList(new PageTitle("test", WikiSite.forLanguageCode("test"))), cb);
+
+        assertThat(server().takeRequest().getPath().endsWith("&continue="), is(true));
+        assertThat(server().takeRequest().getPath().contains("picontinue=145422"), is(true));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        //noinspection unchecked
+        verify(cb).success(captor.capture());
+        verify(cb, never()).failure(any(Throwable.class));
+        assertThat(captor.getValue().size(), is(3));
+    }
+
     private void assertCallbackFailure(@NonNull Call<MwQueryResponse<ReadingListPageInfoClient.QueryResult>> call,
                                        @NonNull ReadingListPageInfoClient.Callback cb,
                                        @NonNull Class<? extends Throwable> throwable) {
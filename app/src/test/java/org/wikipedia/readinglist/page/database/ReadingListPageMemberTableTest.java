@@ -0,0 +1,165 @@
+package org.wikipedia.readinglist.page.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.support.annotation.NonNull;
+import android.support.v4.util.ArraySet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.database.contract.ReadingListPageContract;
+import org.wikipedia.database.contract.ReadingListPageContract.PageCol;
+import org.wikipedia.page.Namespace;
+import org.wikipedia.readinglist.page.ReadingListPageRow;
+import org.wikipedia.readinglist.page.database.disk.ReadingListPageDiskRow;
+import org.wikipedia.test.TestRunner;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+@RunWith(TestRunner.class) public class ReadingListPageMemberTableTest {
+    private static final int DB_VER_BEFORE_MEMBERS = 18;
+    private static final int DB_VER_MEMBERS = 19;
+
+    private static final int BENCHMARK_PAGES = 10000;
+    private static final int BENCHMARK_LISTS = 20;
+    private static final int BENCHMARK_ITERATIONS = 20;
+
+    private static final String SELECT_LIST_KEY_LIKE = "',' || :listKeyCol || ',' like '%,' || ? || ',%'"
+            .replaceAll(":listKeyCol", PageCol.LIST_KEYS.qualifiedName());
+    private static final String SELECT_LIST_KEY_MEMBER = (":keyCol in "
+            + "(select :memberTbl.pageKeyCol from :memberTbl where :memberTbl.listKeyCol == ?)")
+            .replaceAll(":keyCol", PageCol.KEY.qualifiedName())
+            .replaceAll(":memberTbl.pageKeyCol", ReadingListPageContract.MemberCol.PAGE_KEY.qualifiedName())
+            .replaceAll(":memberTbl.listKeyCol", ReadingListPageContract.MemberCol.LIST_KEY.qualifiedName())
+            .replaceAll(":memberTbl", ReadingListPageContract.TABLE_MEMBER);
+
+    private SQLiteDatabase db;
+
+    @Before public void setUp() {
+        db = SQLiteDatabase.create(null);
+        ReadingListPageRow.DISK_DATABASE_TABLE.upgradeSchema(db, 0, DB_VER_BEFORE_MEMBERS);
+        ReadingListPageRow.DATABASE_TABLE.upgradeSchema(db, 0, DB_VER_BEFORE_MEMBERS);
+    }
+
+    @After public void tearDown() {
+        db.close();
+    }
+
+    @Test public void testUpgradeSchemaMigratesListKeys() {
+        insertPage("page", "list1", "list2");
+        upgrade();
+
+        assertThat(count(SELECT_LIST_KEY_MEMBER, "list1"), is(1));
+        assertThat(count(SELECT_LIST_KEY_MEMBER, "list2"), is(1));
+        assertThat(count(SELECT_LIST_KEY_MEMBER, "list"), is(0));
+    }
+
+    @Test public void testUpgradeSchemaMatchesListKeys() {
+        insertPages(BENCHMARK_LISTS * 2, BENCHMARK_LISTS);
+        upgrade();
+
+        for (int i = 0; i < BENCHMARK_LISTS; i++) {
+            String listKey = listKey(i);
+            assertThat(count(SELECT_LIST_KEY_MEMBER, listKey), is(count(SELECT_LIST_KEY_LIKE, listKey)));
+        }
+    }
+
+    // A benchmark of opening a list of a large collection: the indexed join should outperform the
+    // scan of every page's list keys.
+    @Test public void testListOpenBenchmark() {
+        insertPages(BENCHMARK_PAGES, BENCHMARK_LISTS);
+        upgrade();
+
+        long likeNanos = 0;
+        long memberNanos = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            String listKey = listKey(i % BENCHMARK_LISTS);
+
+            long start = System.nanoTime();
+            int likeCount = count(SELECT_LIST_KEY_LIKE, listKey);
+            likeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int memberCount = count(SELECT_LIST_KEY_MEMBER, listKey);
+            memberNanos += System.nanoTime() - start;
+
+            assertThat(memberCount, is(likeCount));
+        }
+
+        assertThat(memberNanos, lessThan(likeNanos));
+    }
+
+    private void upgrade() {
+        ReadingListPageRow.MEMBER_DATABASE_TABLE.upgradeSchema(db, DB_VER_BEFORE_MEMBERS, DB_VER_MEMBERS);
+    }
+
+    private int count(@NonNull String selection, @NonNull String listKey) {
+        SQLiteQueryBuilder builder = new SQLiteQueryBuilder();
+        builder.setTables(ReadingListPageContract.PageWithDisk.TABLES);
+        final String groupBy = null;
+        final String having = null;
+        Cursor cursor = builder.query(db, ReadingListPageContract.PageWithDisk.PROJECTION, selection,
+                new String[] {listKey}, groupBy, having, ReadingListPageContract.PageWithDisk.ORDER_MRU);
+        try {
+            int count = 0;
+            while (cursor.moveToNext()) {
+                count++;
+            }
+            return count;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Each page belongs to one list and every tenth page to a second list also.
+    private void insertPages(int pages, int lists) {
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < pages; i++) {
+                String listKey = listKey(i % lists);
+                if (i % 10 == 0) {
+                    insertPage("page" + i, listKey, listKey((i + 1) % lists));
+                } else {
+                    insertPage("page" + i, listKey);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void insertPage(@NonNull String key, @NonNull String... listKeys) {
+        Set<String> keys = new ArraySet<>();
+        for (String listKey : listKeys) {
+            keys.add(listKey);
+        }
+
+        ContentValues values = new ContentValues();
+        values.put(PageCol.KEY.getName(), key);
+        PageCol.LIST_KEYS.put(values, keys);
+        values.put(PageCol.SITE.getName(), "en.wikipedia.org");
+        values.put(PageCol.LANG.getName(), "en");
+        values.put(PageCol.NAMESPACE.getName(), Namespace.MAIN.code());
+        values.put(PageCol.TITLE.getName(), key);
+        values.put(PageCol.MTIME.getName(), 0);
+        values.put(PageCol.ATIME.getName(), 0);
+        final String nullColumnHack = null;
+        db.insertOrThrow(ReadingListPageContract.TABLE_PAGE, nullColumnHack, values);
+
+        db.insertOrThrow(ReadingListPageContract.TABLE_DISK, nullColumnHack,
+                ReadingListPageContract.DISK_COLS.toContentValues(new ReadingListPageDiskRow(key, null)));
+    }
+
+    @NonNull private String listKey(int i) {
+        return "list" + i;
+    }
+}
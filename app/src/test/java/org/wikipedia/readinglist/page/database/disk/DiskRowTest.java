@@ -0,0 +1,56 @@
+package org.wikipedia.readinglist.page.database.disk;
+
+import org.junit.Test;
+import org.wikipedia.database.async.AsyncConstant;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SuppressWarnings("checkstyle:magicnumber") public class DiskRowTest {
+    private static final long FAILURE_TIMESTAMP = 1000;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test public void testRetryTimestampNoFailures() {
+        DiskRow<Void> subject = newRow(0);
+        assertThat(subject.retryTimestamp(), is((long) AsyncConstant.NO_TIMESTAMP));
+        assertThat(subject.retryable(0), is(true));
+    }
+
+    @Test public void testRetryTimestampBackoff() {
+        assertThat(newRow(1).retryTimestamp(), is(FAILURE_TIMESTAMP + MINUTE));
+        assertThat(newRow(2).retryTimestamp(), is(FAILURE_TIMESTAMP + 2 * MINUTE));
+        assertThat(newRow(3).retryTimestamp(), is(FAILURE_TIMESTAMP + 4 * MINUTE));
+    }
+
+    @Test public void testRetryTimestampBackoffBounded() {
+        assertThat(newRow(Integer.MAX_VALUE).retryTimestamp(), is(newRow(100).retryTimestamp()));
+    }
+
+    @Test public void testRetryable() {
+        DiskRow<Void> subject = newRow(1);
+        assertThat(subject.retryable(FAILURE_TIMESTAMP), is(false));
+        assertThat(subject.retryable(FAILURE_TIMESTAMP + MINUTE), is(true));
+    }
+
+    @Test public void testFailTransaction() {
+        DiskRow<Void> subject = newRow(0);
+        subject.startTransaction();
+        subject.failTransaction();
+        assertThat(subject.failures(), is(1));
+        assertThat(subject.transactionId(), is((long) AsyncConstant.NO_TRANSACTION_ID));
+    }
+
+    @Test public void testCompleteTransactionResetsFailures() {
+        DiskRow<Void> subject = newRow(2);
+        subject.completeTransaction(FAILURE_TIMESTAMP);
+        assertThat(subject.failures(), is(0));
+        assertThat(subject.retryTimestamp(), is((long) AsyncConstant.NO_TIMESTAMP));
+    }
+
+    private DiskRow<Void> newRow(int failures) {
+        return new DiskRow<>("key", DiskStatus.OUTDATED, AsyncConstant.NO_TIMESTAMP,
+                AsyncConstant.NO_TRANSACTION_ID, failures, FAILURE_TIMESTAMP);
+    }
+}
@@ -0,0 +1,122 @@
+package org.wikipedia.savedpages;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.wikipedia.dataclient.okhttp.HttpStatusException;
+import org.wikipedia.test.MockWebServerTest;
+import org.wikipedia.testlib.TestConstants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ImageDownloadPoolTest extends MockWebServerTest {
+    private static final int REQUESTS = 16;
+    private static final int MAX_REQUESTS = 8;
+
+    @Test public void testDownload() throws Throwable {
+        enqueueImages(REQUESTS);
+
+        newSubject(MAX_REQUESTS).download(requests(REQUESTS));
+
+        assertThat(server().getRequestCount(), is(REQUESTS));
+    }
+
+    @Test public void testDownloadEmpty() throws Throwable {
+        newSubject(MAX_REQUESTS).download(new ArrayList<Request>());
+        assertThat(server().getRequestCount(), is(0));
+    }
+
+    @Test public void testDownloadMissing() throws Throwable {
+        enqueue404();
+        enqueueImages(1);
+
+        newSubject(1).download(requests(2));
+
+        assertThat(server().getRequestCount(), is(2));
+    }
+
+    @Test(expected = HttpStatusException.class) public void testDownloadFailure() throws Throwable {
+        server().enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        newSubject(1).download(requests(1));
+    }
+
+    @Test public void testDownloadConcurrently() throws Throwable {
+        enqueueImages(REQUESTS);
+        ConcurrencyInterceptor interceptor = new ConcurrencyInterceptor(MAX_REQUESTS);
+
+        new ImageDownloadPool(okHttpClient().newBuilder().addInterceptor(interceptor).build(),
+                MAX_REQUESTS, MAX_REQUESTS).download(requests(REQUESTS));
+
+        assertThat(interceptor.maxInFlight(), is(MAX_REQUESTS));
+        assertThat(server().getRequestCount(), is(REQUESTS));
+    }
+
+    @NonNull private ImageDownloadPool newSubject(int maxRequests) {
+        return new ImageDownloadPool(okHttpClient(), maxRequests, maxRequests);
+    }
+
+    private void enqueueImages(int count) {
+        for (int i = 0; i < count; i++) {
+            server().enqueue(new MockResponse().setBody("image"));
+        }
+    }
+
+    @NonNull private List<Request> requests(int count) {
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new Request.Builder().url(server().getUrl("image" + i + ".png")).build());
+        }
+        return requests;
+    }
+
+    // Holds each request until the expected number are in flight together, or times out, and
+    // records the most seen in flight at once.
+    private static class ConcurrencyInterceptor implements Interceptor {
+        @NonNull private final CountDownLatch latch;
+        @NonNull private final AtomicInteger inFlight = new AtomicInteger();
+        @NonNull private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        ConcurrencyInterceptor(int expected) {
+            latch = new CountDownLatch(expected);
+        }
+
+        @Override public Response intercept(Chain chain) throws IOException {
+            int count = inFlight.incrementAndGet();
+            updateMax(count);
+            latch.countDown();
+            try {
+                latch.await(TestConstants.TIMEOUT_DURATION, TestConstants.TIMEOUT_UNIT);
+                return chain.proceed(chain.request());
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        int maxInFlight() {
+            return maxInFlight.get();
+        }
+
+        private void updateMax(int count) {
+            int max;
+            do {
+                max = maxInFlight.get();
+            } while (count > max && !maxInFlight.compareAndSet(max, count));
+        }
+    }
+}
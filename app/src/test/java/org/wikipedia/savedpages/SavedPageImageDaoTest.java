@@ -0,0 +1,110 @@
+package org.wikipedia.savedpages;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+@RunWith(TestRunner.class) public class SavedPageImageDaoTest {
+    private static final String SHARED = "https://upload.wikimedia.org/shared.png";
+    private static final String OWN = "https://upload.wikimedia.org/own.png";
+    private static final int ITERATIONS = 50;
+
+    @NonNull private final SavedPageImageDao subject = SavedPageImageDao.instance();
+    // The images in the save cache.
+    @NonNull private final Set<String> cache = Collections.synchronizedSet(new HashSet<String>());
+    @NonNull private final SavedPageImageDao.Evictor evictor = new SavedPageImageDao.Evictor() {
+        @Override public void evict(@NonNull Collection<String> urls) {
+            cache.removeAll(urls);
+        }
+    };
+
+    @Test public void testUpsertPageEvictsOrphans() {
+        save("a", SHARED, OWN);
+        save("b", SHARED);
+
+        save("a", SHARED);
+
+        assertThat(cache, containsInAnyOrder(SHARED));
+    }
+
+    @Test public void testDeletePageKeepsSharedImages() {
+        save("a", SHARED, OWN);
+        save("b", SHARED);
+
+        subject.deletePage("a", evictor);
+        assertThat(cache, containsInAnyOrder(SHARED));
+        assertThat(subject.hasPage("a"), is(false));
+
+        subject.deletePage("b", evictor);
+        assertThat(cache.isEmpty(), is(true));
+    }
+
+    @Test public void testConcurrentSaveAndDelete() throws Throwable {
+        for (int i = 0; i < ITERATIONS; i++) {
+            final String saved = "saved" + i;
+            final String deleted = "deleted" + i;
+            save(deleted, SHARED);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread saver = new Thread(new Runnable() {
+                @Override public void run() {
+                    await(start);
+                    save(saved, SHARED);
+                }
+            });
+            Thread deleter = new Thread(new Runnable() {
+                @Override public void run() {
+                    await(start);
+                    subject.deletePage(deleted, evictor);
+                }
+            });
+            saver.start();
+            deleter.start();
+            start.countDown();
+            saver.join();
+            deleter.join();
+
+            // Whichever finished first, the saved page's image is still cached.
+            assertThat(subject.hasPage(saved), is(true));
+            assertThat(cache.contains(SHARED), is(true));
+
+            subject.deletePage(saved, evictor);
+            assertThat(cache.contains(SHARED), is(false));
+        }
+    }
+
+    // Saves a page as SavedPageSyncService does: reserves its images, downloads those that aren't
+    // cached and records the result.
+    private void save(@NonNull String pageKey, @NonNull String... urls) {
+        List<String> pageUrls = Arrays.asList(urls);
+        subject.reservePage(pageKey, pageUrls);
+        for (String url : pageUrls) {
+            if (!cache.contains(url)) {
+                cache.add(url);
+            }
+        }
+        subject.upsertPage(pageKey, pageUrls, evictor);
+    }
+
+    private static void await(@NonNull CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
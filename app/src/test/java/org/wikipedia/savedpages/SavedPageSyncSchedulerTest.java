@@ -0,0 +1,158 @@
+package org.wikipedia.savedpages;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.os.BatteryManager;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowLooper;
+import org.wikipedia.settings.Prefs;
+import org.wikipedia.test.TestRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@RunWith(TestRunner.class) public class SavedPageSyncSchedulerTest {
+    private static final int BULK_REQUESTS = 200;
+
+    private SavedPageSyncScheduler subject;
+
+    @Before public void setUp() {
+        subject = new SavedPageSyncScheduler();
+        ShadowApplication.getInstance().clearStartedServices();
+    }
+
+    @Test public void testRequestDebounced() {
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS - 1);
+        assertThat(ShadowApplication.getInstance().getNextStartedService(), nullValue());
+
+        ShadowLooper.idleMainLooper(1);
+        assertStartedServices(1);
+        assertThat(subject.isRunning(), is(true));
+    }
+
+    @Test public void testRequestCoalesced() {
+        for (int i = 0; i < BULK_REQUESTS; i++) {
+            subject.request();
+        }
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+
+        assertStartedServices(1);
+        assertThat(subject.getPassCount(), is(1));
+        assertThat(subject.getPassesAvoided(), is(BULK_REQUESTS - 1));
+    }
+
+    @Test public void testRequestMaxDelay() {
+        long elapsed = 0;
+        while (elapsed < SavedPageSyncScheduler.MAX_DELAY_MILLIS) {
+            subject.request();
+            ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS / 2);
+            elapsed += SavedPageSyncScheduler.DEBOUNCE_MILLIS / 2;
+        }
+        assertThat(subject.getPassCount(), is(1));
+    }
+
+    @Test public void testRequestWhileRunning() {
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+
+        for (int i = 0; i < BULK_REQUESTS; i++) {
+            subject.request();
+        }
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.MAX_DELAY_MILLIS);
+        assertThat(subject.getPassCount(), is(1));
+
+        subject.onSyncFinished();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+        assertThat(subject.getPassCount(), is(2));
+        assertStartedServices(2);
+    }
+
+    @Test public void testOnSyncFinishedIdle() {
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+        subject.onSyncFinished();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.MAX_DELAY_MILLIS);
+
+        assertThat(subject.isRunning(), is(false));
+        assertThat(subject.getPassCount(), is(1));
+    }
+
+    @Test public void testPassTimeout() {
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+        subject.request();
+        assertStartedServices(1);
+
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.PASS_TIMEOUT_MILLIS);
+        assertThat(subject.isRunning(), is(false));
+
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+        assertThat(subject.getPassCount(), is(2));
+        assertStartedServices(1);
+    }
+
+    @Test public void testChargingConstraintOffByDefault() {
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+
+        assertStartedServices(1);
+    }
+
+    @Test public void testChargingConstraint() {
+        Prefs.setSavedPageSyncChargingOnly(true);
+        setPlugged(0);
+
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.MAX_DELAY_MILLIS);
+        assertStartedServices(0);
+        assertThat(subject.getPassCount(), is(0));
+
+        setPlugged(BatteryManager.BATTERY_PLUGGED_AC);
+        RuntimeEnvironment.application.sendBroadcast(new Intent(Intent.ACTION_POWER_CONNECTED));
+        ShadowLooper.idleMainLooper();
+        assertStartedServices(1);
+        assertThat(subject.getPassCount(), is(1));
+    }
+
+    @Test public void testStartFailureRetried() {
+        final int[] attempts = new int[1];
+        subject = new SavedPageSyncScheduler(new SavedPageSyncScheduler.ServiceStarter() {
+            @Nullable @Override public ComponentName start(@NonNull Context context, @NonNull Intent intent) {
+                return attempts[0]++ == 0 ? null : context.startService(intent);
+            }
+        });
+
+        subject.request();
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.DEBOUNCE_MILLIS);
+        assertStartedServices(0);
+        assertThat(subject.isRunning(), is(false));
+
+        ShadowLooper.idleMainLooper(SavedPageSyncScheduler.RETRY_MILLIS);
+        assertStartedServices(1);
+        assertThat(subject.isRunning(), is(true));
+        assertThat(subject.getPassCount(), is(1));
+    }
+
+    private static void setPlugged(int plugged) {
+        RuntimeEnvironment.application.sendStickyBroadcast(new Intent(Intent.ACTION_BATTERY_CHANGED)
+                .putExtra(BatteryManager.EXTRA_PLUGGED, plugged));
+    }
+
+    private void assertStartedServices(int expected) {
+        for (int i = 0; i < expected; i++) {
+            Intent intent = ShadowApplication.getInstance().getNextStartedService();
+            assertThat(intent.getComponent().getClassName(), is(SavedPageSyncService.class.getName()));
+        }
+        assertThat(ShadowApplication.getInstance().getNextStartedService(), nullValue());
+    }
+}
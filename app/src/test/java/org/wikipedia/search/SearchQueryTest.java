@@ -0,0 +1,86 @@
+package org.wikipedia.search;
+
+import org.junit.Test;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.dataclient.mwapi.MwException;
+import org.wikipedia.test.MockWebServerTest;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SearchQueryTest extends MockWebServerTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("en");
+    private static final int BATCH_SIZE = 20;
+
+    @Test public void testTitleSearch() throws Throwable {
+        enqueueFromFile("prefix_search_results.json");
+
+        SearchResults results = new TitleSearchTask(service(TitleSearchTask.Service.class), WIKI, "Einst")
+                .performTask();
+        List<SearchResult> list = results.getResults();
+
+        assertThat(results.getSuggestion(), is("einstein"));
+        assertThat(list.size(), is(3));
+
+        // sorted by index, with the redirects resolved
+        assertThat(list.get(0).getPageTitle().getDisplayText(), is("Einsteinium"));
+        assertThat(list.get(0).getPageTitle().getDescription(), is("chemical element with atomic number 99"));
+        assertThat(list.get(0).getRedirectFrom(), nullValue());
+
+        assertThat(list.get(1).getPageTitle().getDisplayText(), is("Einstein field equations"));
+        assertThat(list.get(1).getPageTitle().getFragment(), is("Mathematical_form"));
+        assertThat(list.get(1).getRedirectFrom(), is("Einstein field equation"));
+
+        assertThat(list.get(2).getPageTitle().getDisplayText(), is("Albert Einstein"));
+        assertThat(list.get(2).getPageTitle().getThumbUrl(), notNullValue());
+        assertThat(list.get(2).getRedirectFrom(), is("Einstein"));
+    }
+
+    @Test public void testTitleSearchEmpty() throws Throwable {
+        enqueueEmptyJson();
+
+        SearchResults results = new TitleSearchTask(service(TitleSearchTask.Service.class), WIKI, "Einst")
+                .performTask();
+
+        assertThat(results.getResults().isEmpty(), is(true));
+    }
+
+    @Test(expected = MwException.class) public void testTitleSearchApiError() throws Throwable {
+        enqueueFromFile("api_error.json");
+
+        new TitleSearchTask(service(TitleSearchTask.Service.class), WIKI, "Einst").performTask();
+    }
+
+    @Test public void testFullSearch() throws Throwable {
+        enqueueFromFile("full_search_results.json");
+
+        SearchResults results = new FullSearchArticlesTask(service(FullSearchArticlesTask.Service.class),
+                WIKI, "test", BATCH_SIZE, null, false).performTask();
+        List<SearchResult> list = results.getResults();
+
+        assertThat(results.getContinueOffset(), notNullValue());
+        assertThat(list.size(), is(2));
+        assertThat(list.get(0).getPageTitle().getDisplayText(), is("Test"));
+        assertThat(list.get(0).getPageTitle().isDisambiguationPage(), is(true));
+        assertThat(list.get(1).getPageTitle().isMainPage(), is(true));
+    }
+
+    @Test public void testFullSearchContinue() throws Throwable {
+        enqueueFromFile("full_search_results.json");
+        SearchResults results = new FullSearchArticlesTask(service(FullSearchArticlesTask.Service.class),
+                WIKI, "test", BATCH_SIZE, null, false).performTask();
+        server().takeRequest();
+
+        enqueueEmptyJson();
+        new FullSearchArticlesTask(service(FullSearchArticlesTask.Service.class), WIKI, "test",
+                BATCH_SIZE, results.getContinueOffset(), false).performTask();
+
+        String path = server().takeRequest().getPath();
+        assertThat(path.contains("gsroffset=2"), is(true));
+        assertThat(path.contains("continue=gsroffset%7C%7C"), is(true));
+    }
+}
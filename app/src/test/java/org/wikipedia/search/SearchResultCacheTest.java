@@ -0,0 +1,174 @@
+package org.wikipedia.search;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.robolectric.RuntimeEnvironment;
+import org.wikipedia.dataclient.WikiSite;
+import org.wikipedia.page.PageTitle;
+import org.wikipedia.test.ImmediateExecutor;
+import org.wikipedia.test.MockWebServerTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SearchResultCacheTest extends MockWebServerTest {
+    private static final WikiSite WIKI = WikiSite.forLanguageCode("en");
+    private static final String LANG = WIKI.languageCode();
+    private static final long NOW = 1_000_000;
+    private static final int MEASUREMENT_ITERATIONS = 20;
+
+    @Test public void testGet() {
+        SearchResultCache subject = subject();
+        subject.put(LANG, "Einst", results("Einstein"), NOW);
+
+        assertThat(titles(subject.get(LANG, "Einst", NOW)), contains("Einstein"));
+        assertThat(subject.get("de", "Einst", NOW), nullValue());
+        assertThat(subject.getHitCount(), is(1));
+        assertThat(subject.getMissCount(), is(1));
+    }
+
+    @Test public void testPeek() {
+        SearchResultCache subject = subject();
+        subject.put(LANG, "Einst", results("Einstein"), NOW);
+
+        assertThat(titles(subject.peek(LANG, "Einst", NOW)), contains("Einstein"));
+        assertThat(subject.peek("de", "Einst", NOW), nullValue());
+        assertThat(subject.getHitCount(), is(0));
+        assertThat(subject.getMissCount(), is(0));
+    }
+
+    @Test public void testGetExpired() {
+        SearchResultCache subject = subject();
+        subject.put(LANG, "Einst", results("Einstein"), NOW);
+
+        assertThat(subject.get(LANG, "Einst", NOW + SearchResultCache.TTL_MILLIS), nullValue());
+    }
+
+    @Test public void testPutEvictsLeastRecentlyUsed() {
+        SearchResultCache subject = subject();
+        for (int i = 0; i <= SearchResultCache.MAX_ENTRIES; i++) {
+            subject.put(LANG, "term" + i, results("Title" + i), NOW);
+            // Keep the first term in use.
+            subject.get(LANG, "term0", NOW);
+        }
+
+        assertThat(subject.get(LANG, "term0", NOW), notNullValue());
+        assertThat(subject.get(LANG, "term1", NOW), nullValue());
+    }
+
+    @Test public void testGetByPrefix() {
+        SearchResultCache subject = subject();
+        subject.put(LANG, "Ein", results("Einstein", "Eindhoven"), NOW);
+        subject.put(LANG, "Einst", results("Einstein", "Einsteinium", "Albert Einstein"), NOW);
+
+        assertThat(titles(subject.getByPrefix(LANG, "Einste", NOW)), contains("Einstein", "Einsteinium"));
+        assertThat(titles(subject.getByPrefix(LANG, "Eind", NOW)), contains("Eindhoven"));
+        assertThat(subject.getByPrefix(LANG, "Ein", NOW), nullValue());
+        assertThat(subject.getByPrefix(LANG, "Einste", NOW + SearchResultCache.TTL_MILLIS), nullValue());
+    }
+
+    @Test public void testGetByPrefixRedirect() {
+        SearchResultCache subject = subject();
+        List<SearchResult> results = new ArrayList<>();
+        results.add(new SearchResult(new PageTitle("Albert Einstein", WIKI), "Einstein"));
+        subject.put(LANG, "Ein", results, NOW);
+
+        assertThat(titles(subject.getByPrefix(LANG, "Einst", NOW)), contains("Albert Einstein"));
+    }
+
+    @Test public void testSaveAndLoad() {
+        File file = file();
+        SearchResultCache subject = new SearchResultCache(file, new ImmediateExecutor());
+        subject.put(LANG, "Einst", results("Einstein"));
+        subject.save();
+
+        SearchResultCache loaded = new SearchResultCache(file, new ImmediateExecutor());
+        assertThat(titles(loaded.get(LANG, "Einst")), contains("Einstein"));
+    }
+
+    @Test @SuppressWarnings("checkstyle:magicnumber") public void testTimeToResults() {
+        SearchResultCache subject = subject();
+        subject.addTimeToResults(SearchResultCache.Source.NETWORK, 100);
+        subject.addTimeToResults(SearchResultCache.Source.NETWORK, 300);
+        subject.addTimeToResults(SearchResultCache.Source.CACHE, 1);
+
+        assertThat(subject.getTimeToResults(SearchResultCache.Source.NETWORK), is(200L));
+        assertThat(subject.getTimeToResults(SearchResultCache.Source.CACHE), is(1L));
+        assertThat(subject.getTimeToResults(SearchResultCache.Source.PREFIX_CACHE), is(0L));
+    }
+
+    // A measurement of the time from a keystroke to results from the cache, from the cached
+    // results of a prefix and from a title search served by a local mock API, recorded the way
+    // SearchResultsFragment records them. The timings are reported rather than compared, since
+    // wall-clock time on a test machine isn't reliable; only the results are checked.
+    @Test public void testTimeToResultsMeasurement() throws Throwable {
+        SearchResultCache subject = subject();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            enqueueFromFile("prefix_search_results.json");
+            long start = System.nanoTime();
+            List<SearchResult> network = new TitleSearchTask(service(TitleSearchTask.Service.class),
+                    WIKI, "Einst").performTask().getResults();
+            subject.addTimeToResults(SearchResultCache.Source.NETWORK, millisSince(start));
+            subject.put(LANG, "Einst", network);
+
+            start = System.nanoTime();
+            List<SearchResult> cached = subject.get(LANG, "Einst");
+            subject.addTimeToResults(SearchResultCache.Source.CACHE, millisSince(start));
+
+            start = System.nanoTime();
+            List<SearchResult> prefix = subject.getByPrefix(LANG, "Einste");
+            subject.addTimeToResults(SearchResultCache.Source.PREFIX_CACHE, millisSince(start));
+
+            assertThat(titles(cached), is(titles(network)));
+            assertThat(titles(prefix), contains("Einsteinium", "Einstein field equations", "Albert Einstein"));
+        }
+
+        for (SearchResultCache.Source source : SearchResultCache.Source.values()) {
+            assertThat(subject.getTimeToResults(source), greaterThanOrEqualTo(0L));
+            System.out.println(String.format(Locale.ROOT, "Time to search results from %s: %d ms",
+                    source, subject.getTimeToResults(source)));
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @NonNull private SearchResultCache subject() {
+        return new SearchResultCache(file(), new ImmediateExecutor());
+    }
+
+    @NonNull private File file() {
+        File file = new File(RuntimeEnvironment.application.getCacheDir(), "search_results_test.json");
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        return file;
+    }
+
+    @NonNull private List<SearchResult> results(@NonNull String... titles) {
+        List<SearchResult> results = new ArrayList<>();
+        for (String title : titles) {
+            results.add(new SearchResult(new PageTitle(title, WIKI)));
+        }
+        return results;
+    }
+
+    @NonNull private List<String> titles(@NonNull List<SearchResult> results) {
+        List<String> titles = new ArrayList<>();
+        for (SearchResult result : results) {
+            titles.add(result.getPageTitle().getDisplayText());
+        }
+        return titles;
+    }
+}
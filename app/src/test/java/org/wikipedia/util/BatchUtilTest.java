@@ -1,6 +1,7 @@
 package org.wikipedia.util;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -8,12 +9,16 @@ import org.junit.runner.RunWith;
 import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.page.PageTitle;
 import org.wikipedia.test.TestRunner;
-import org.wikipedia.testlib.TestLatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 @RunWith(TestRunner.class) public class BatchUtilTest {
@@ -28,25 +33,126 @@ import static org.junit.Assert.assertThat;
     }
 
     @Test @SuppressWarnings("checkstyle:magicnumber") public void testMwApiBatches() throws Throwable {
-        final TestLatch latch = new TestLatch();
+        final List<Integer> sizes = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback();
 
         BatchUtil.makeBatches(titles, new BatchUtil.Handler<Integer>() {
-            private List<Integer> sizes = new ArrayList<>();
+            @Override public void handleBatch(@NonNull List<PageTitle> batchTitles,
+                                              @Nullable Map<String, String> continuation,
+                                              @NonNull BatchUtil.BatchCallback<Integer> cb) {
+                sizes.add(batchTitles.size());
+                cb.success(Collections.singletonList(batchTitles.size()), null);
+            }
+        }, callback);
+
+        assertThat(sizes, containsInAnyOrder(50, 50, 20));
+        assertThat(callback.successCount, is(1));
+        assertThat(callback.results, containsInAnyOrder(50, 50, 20));
+    }
+
+    @Test public void testEmpty() throws Throwable {
+        RecordingCallback callback = new RecordingCallback();
+        BatchUtil.makeBatches(Collections.<PageTitle>emptyList(), new PendingHandler(), callback);
+
+        assertThat(callback.successCount, is(1));
+        assertThat(callback.results.isEmpty(), is(true));
+    }
+
+    @Test public void testConcurrencyLimit() throws Throwable {
+        PendingHandler handler = new PendingHandler();
+        RecordingCallback callback = new RecordingCallback();
+        BatchUtil.makeBatches(titles, handler, callback);
+
+        assertThat(handler.pending.size(), is(BatchUtil.MAX_CONCURRENT_BATCHES));
+
+        handler.pending.remove(0).success(Collections.singletonList(1), null);
+        assertThat(handler.requestCount, is(BatchUtil.MAX_CONCURRENT_BATCHES + 1));
+        assertThat(callback.successCount, is(0));
+
+        while (!handler.pending.isEmpty()) {
+            handler.pending.remove(0).success(Collections.singletonList(1), null);
+        }
+        assertThat(callback.successCount, is(1));
+        assertThat(callback.results.size(), is(handler.requestCount));
+    }
+
+    @Test public void testContinuation() throws Throwable {
+        final Map<String, String> cont = Collections.singletonMap("picontinue", "1");
+        final List<Map<String, String>> continuations = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback();
+
+        BatchUtil.makeBatches(titles.subList(0, 1), new BatchUtil.Handler<Integer>() {
+            @Override public void handleBatch(@NonNull List<PageTitle> batchTitles,
+                                              @Nullable Map<String, String> continuation,
+                                              @NonNull BatchUtil.BatchCallback<Integer> cb) {
+                continuations.add(continuation);
+                cb.success(Collections.singletonList(continuations.size()),
+                        continuation == null ? cont : null);
+            }
+        }, callback);
+
+        assertThat(continuations.size(), is(2));
+        assertThat(continuations.get(0), nullValue());
+        assertThat(continuations.get(1), is(cont));
+        assertThat(callback.successCount, is(1));
+        assertThat(callback.results, contains(1, 2));
+    }
+
+    @Test public void testRepeatedContinuation() throws Throwable {
+        final Map<String, String> cont = Collections.singletonMap("picontinue", "1");
+        RecordingCallback callback = new RecordingCallback();
+
+        BatchUtil.makeBatches(titles.subList(0, 1), new BatchUtil.Handler<Integer>() {
             private int count;
 
-            @Override public void handleBatch(@NonNull List<PageTitle> batchTitles, int total,
-                                              BatchUtil.Callback<Integer> cb) {
-                sizes.add(batchTitles.size());
-                count += batchTitles.size();
-
-                if (count == TOTAL) {
-                    assertThat(sizes.get(0), is(50));
-                    assertThat(sizes.get(1), is(50));
-                    assertThat(sizes.get(2), is(20));
-                    latch.countDown();
-                }
+            @Override public void handleBatch(@NonNull List<PageTitle> batchTitles,
+                                              @Nullable Map<String, String> continuation,
+                                              @NonNull BatchUtil.BatchCallback<Integer> cb) {
+                cb.success(Collections.singletonList(++count), cont);
             }
-        }, null);
-        latch.await();
+        }, callback);
+
+        assertThat(callback.successCount, is(1));
+        assertThat(callback.results, contains(1, 2));
+    }
+
+    @Test public void testFailure() throws Throwable {
+        PendingHandler handler = new PendingHandler();
+        RecordingCallback callback = new RecordingCallback();
+        BatchUtil.makeBatches(titles, handler, callback);
+
+        handler.pending.remove(0).failure(new RuntimeException());
+        handler.pending.remove(0).success(Collections.singletonList(1), null);
+
+        assertThat(callback.failureCount, is(1));
+        assertThat(callback.successCount, is(0));
+        assertThat(handler.requestCount, is(BatchUtil.MAX_CONCURRENT_BATCHES));
+    }
+
+    private static class PendingHandler implements BatchUtil.Handler<Integer> {
+        private final List<BatchUtil.BatchCallback<Integer>> pending = new ArrayList<>();
+        private int requestCount;
+
+        @Override public void handleBatch(@NonNull List<PageTitle> batchTitles,
+                                          @Nullable Map<String, String> continuation,
+                                          @NonNull BatchUtil.BatchCallback<Integer> cb) {
+            requestCount++;
+            pending.add(cb);
+        }
+    }
+
+    private static class RecordingCallback implements BatchUtil.Callback<Integer> {
+        private final List<Integer> results = new ArrayList<>();
+        private int successCount;
+        private int failureCount;
+
+        @Override public void success(@NonNull List<Integer> batchResults) {
+            successCount++;
+            results.addAll(batchResults);
+        }
+
+        @Override public void failure(@NonNull Throwable caught) {
+            failureCount++;
+        }
     }
 }
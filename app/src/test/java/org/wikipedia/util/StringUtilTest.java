@@ -0,0 +1,25 @@
+package org.wikipedia.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wikipedia.test.TestRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(TestRunner.class)
+public class StringUtilTest {
+    // ASCII, Latin, CJK and an emoji outside the Basic Multilingual Plane.
+    private static final String TEXT = "aé中😀";
+
+    @Test
+    public void testUtf8Length() throws Throwable {
+        assertThat(StringUtil.utf8Length(TEXT, 0, TEXT.length()), is((long) TEXT.getBytes("UTF-8").length));
+    }
+
+    @Test
+    public void testUtf8LengthRange() throws Throwable {
+        assertThat(StringUtil.utf8Length(TEXT, 1, 3), is((long) TEXT.substring(1, 3).getBytes("UTF-8").length));
+        assertThat(StringUtil.utf8Length(TEXT, 2, 2), is(0L));
+    }
+}
@@ -197,33 +197,37 @@ function elementsForSection( section ) {
 
 var scrolledOnLoad = false;
 
-bridge.registerListener( "displaySection", function ( payload ) {
-    if ( payload.noMore ) {
-        // if we still haven't scrolled to our target offset (if we have one),
-        // then do it now.
-        if (payload.scrollY > 0 && !scrolledOnLoad) {
+function displaySection( section, payload ) {
+    var contentWrapper = document.getElementById( "content" );
+    elementsForSection(section).forEach(function (element) {
+        contentWrapper.appendChild(element);
+        // do we have a y-offset to scroll to?
+        if (payload.scrollY > 0 && payload.scrollY < element.offsetTop && !scrolledOnLoad) {
             window.scrollTo( 0, payload.scrollY );
             scrolledOnLoad = true;
         }
-        document.getElementById( "loading_sections").className = "";
-        bridge.sendMessage( "pageLoadComplete", {
-          "sequence": payload.sequence });
-    } else {
-        var contentWrapper = document.getElementById( "content" );
-        elementsForSection(payload.section).forEach(function (element) {
-            contentWrapper.appendChild(element);
-            // do we have a y-offset to scroll to?
-            if (payload.scrollY > 0 && payload.scrollY < element.offsetTop && !scrolledOnLoad) {
-                window.scrollTo( 0, payload.scrollY );
-                scrolledOnLoad = true;
-            }
-        });
-        // do we have a section to scroll to?
-        if ( typeof payload.fragment === "string" && payload.fragment.length > 0 && payload.section.anchor === payload.fragment) {
-            scrollToSection( payload.fragment );
-        }
-        bridge.sendMessage( "requestSection", { "sequence": payload.sequence, "index": payload.section.id + 1 });
+    });
+    // do we have a section to scroll to?
+    if ( typeof payload.fragment === "string" && payload.fragment.length > 0 && section.anchor === payload.fragment) {
+        scrollToSection( payload.fragment );
+    }
+}
+
+// All remaining sections are delivered in a single message rather than requested one at a time.
+bridge.registerListener( "displaySections", function ( payload ) {
+    payload.sections.forEach( function ( section ) {
+        displaySection( section, payload );
+    } );
+
+    // if we still haven't scrolled to our target offset (if we have one),
+    // then do it now.
+    if (payload.scrollY > 0 && !scrolledOnLoad) {
+        window.scrollTo( 0, payload.scrollY );
+        scrolledOnLoad = true;
     }
+    document.getElementById( "loading_sections").className = "";
+    bridge.sendMessage( "pageLoadComplete", {
+      "sequence": payload.sequence });
 });
 
 bridge.registerListener( "scrollToSection", function ( payload ) {